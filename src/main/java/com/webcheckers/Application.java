@@ -1,16 +1,34 @@
 package com.webcheckers;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.logging.Level;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import com.google.gson.Gson;
+import com.webcheckers.appl.CsvStorage;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.appl.MatchEventLog;
 import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.PushService;
+import com.webcheckers.appl.RatingService;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.SnapshotService;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.appl.SqlStorage;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.model.GameRecord;
 import com.webcheckers.model.Player;
+import com.webcheckers.ui.ProfiledTemplateEngine;
 import com.webcheckers.ui.WebServer;
+import com.webcheckers.util.MetricsRegistry;
+import com.webcheckers.util.Profiler;
+import com.webcheckers.util.SegmentedLog;
 
 import spark.TemplateEngine;
 import spark.template.freemarker.FreeMarkerEngine;
@@ -63,6 +81,85 @@ public final class Application {
           }
     }
 
+    private static final String STORAGE_PROPERTY = "storage";
+    private static final String STORAGE_URL_PROPERTY = "storageUrl";
+    private static final String SQL_STORAGE = "sql";
+    // where flight recordings started at /admin/profile are written
+    private static final String PROFILE_DIR_PROPERTY = "profileDir";
+    // seconds between snapshots of the live matches; 0 saves them only at shutdown
+    private static final String SNAPSHOT_SECONDS_PROPERTY = "snapshotSeconds";
+    // where the match event log is written
+    private static final String EVENT_LOG_DIR_PROPERTY = "eventLogDir";
+    // where finished games are kept to be replayed, and the turns between their whole positions
+    private static final String REPLAY_DIR_PROPERTY = "replayDir";
+    private static final String REPLAY_KEYFRAMES_PROPERTY = "replayKeyframes";
+
+    /**
+     * Open the archive of finished games in the directory named by the
+     * 'replayDir' property, or {@link WebServer#replayDir}, and read the
+     * games kept by earlier runs.
+     *
+     * @return the archive; if its log could not be opened, games are kept only until shutdown
+     */
+    static ReplayArchive openReplayArchive() {
+          final SegmentedLog log = new SegmentedLog(Paths.get(System.getProperty(REPLAY_DIR_PROPERTY,
+                  WebServer.replayDir)), SegmentedLog.DEFAULT_SEGMENT_BYTES);
+          final ReplayArchive archive = new ReplayArchive(log,
+                  Integer.getInteger(REPLAY_KEYFRAMES_PROPERTY, GameRecord.DEFAULT_KEYFRAME_INTERVAL));
+          try {
+                log.open();
+                archive.load();
+          } catch (IOException e) {
+                LOG.log(Level.SEVERE, "Could not open the replay archive; games will be kept only until "
+                        + "the server stops", e);
+          }
+          return archive;
+    }
+
+    /**
+     * Open the match event log in the directory named by the 'eventLogDir'
+     * property, or {@link WebServer#eventLogDir}.
+     *
+     * @return the event log, or null if it could not be opened
+     */
+    static MatchEventLog openEventLog() {
+          final SegmentedLog log = new SegmentedLog(Paths.get(System.getProperty(EVENT_LOG_DIR_PROPERTY,
+                  WebServer.eventLogDir)), SegmentedLog.DEFAULT_SEGMENT_BYTES);
+          try {
+                log.open();
+          } catch (IOException e) {
+                LOG.log(Level.SEVERE, "Could not open the match event log; turns since the last snapshot "
+                        + "will be lost on a restart", e);
+                return null;
+          }
+          return new MatchEventLog(log);
+    }
+
+    /**
+     * Open the storage backend named by the 'storage' property: 'csv', the
+     * default, keeps the CSV files and 'sql' uses the embedded database at
+     * the 'storageUrl' property, or {@link SqlStorage#DEFAULT_URL}.
+     *
+     * @return the opened storage
+     */
+    static Storage openStorage() {
+          final String backend = System.getProperty(STORAGE_PROPERTY, "csv");
+          final Storage storage;
+          if (SQL_STORAGE.equalsIgnoreCase(backend)) {
+                storage = new SqlStorage(System.getProperty(STORAGE_URL_PROPERTY, SqlStorage.DEFAULT_URL),
+                        SqlStorage.DEFAULT_POOL_SIZE);
+          } else {
+                if (!"csv".equalsIgnoreCase(backend))
+                      LOG.warning(String.format("Bad '%s' value, '%s'; using csv.", STORAGE_PROPERTY, backend));
+                // a crash may have left the statistics file damaged, opening checks it before anything reads it
+                storage = new CsvStorage(Paths.get(WebServer.csvFile), Paths.get(WebServer.resultsFile),
+                        Paths.get(WebServer.snapshotDir));
+          }
+          storage.open();
+          LOG.config("Using " + storage.getClass().getSimpleName() + ".");
+          return storage;
+    }
+
     //
     // Application Launch method
     //
@@ -91,8 +188,8 @@ public final class Application {
 
           // The application uses FreeMarker templates to generate the HTML
           // responses sent back to the client. This will be the engine processing
-          // the templates and associated data.
-          final TemplateEngine templateEngine = new FreeMarkerEngine();
+          // the templates and associated data. Every render is a flight recorder event.
+          final TemplateEngine templateEngine = new ProfiledTemplateEngine(new FreeMarkerEngine());
 
           // The application uses Gson to generate JSON representations of Java objects.
           // This should be used by your Ajax Routes to generate JSON for the HTTP
@@ -100,10 +197,62 @@ public final class Application {
           final Gson gson = new Gson();
 
           //final GameCenter gameCenter = new GameCenter(new ArrayList<Player>());
+          // the storage backend is picked with the 'storage' property
+          final Storage storage = openStorage();
           final PlayerServices playerServices = new PlayerServices();
-          final GameCenter gameCenter = new GameCenter(playerServices);
+          // the game archive is kept so that ratings can be worked out again with another algorithm
+          final RatingService ratingService = new RatingService();
+          ratingService.loadArchive(storage.readGameResults());
+          final GameCenter gameCenter = new GameCenter(playerServices, ratingService);
+          // every start, turn and end of a match is logged, so that no turn is lost on a restart;
+          // it listens first, so the log has each event before anyone is told of it
+          final MatchEventLog eventLog = openEventLog();
+          if (eventLog != null)
+                gameCenter.addMatchListener(eventLog);
+          // turns and the end of every match are pushed to players over their game page's socket
+          final PushService pushService = new PushService(gson);
+          gameCenter.addMatchListener(pushService);
+          // finished games are archived so players can watch them again
+          final ReplayArchive replayArchive = openReplayArchive();
+          gameCenter.addMatchListener(replayArchive);
+          // spectators all read one frame of each match, taken as its turns end
+          final SpectatorService spectatorService = new SpectatorService();
+          gameCenter.addMatchListener(spectatorService);
+          // the live matches of the last run are brought back, and saved again until shutdown
+          final SnapshotService snapshotService = new SnapshotService(gameCenter, storage, eventLog);
+          snapshotService.restore();
+          spectatorService.publish(gameCenter.liveMatches());
+          snapshotService.start(Long.getLong(SNAPSHOT_SECONDS_PROPERTY, SnapshotService.DEFAULT_INTERVAL_SECONDS));
+          // the leaderboard is read from storage once and then kept up to date in memory
+          final LeaderboardService leaderboardService = new LeaderboardService();
+          leaderboardService.loadStats(storage.readAllStats());
           // inject the game center and freemarker engine into web server
-          final WebServer webServer = new WebServer(playerServices, gameCenter, templateEngine, gson);
+          final MetricsRegistry metrics = new MetricsRegistry();
+          metrics.gauge("webcheckers_live_matches", "Matches being played.", gameCenter::numLiveMatches);
+          metrics.gauge("webcheckers_players_online", "Players signed in.", playerServices::numPlayers);
+          metrics.gauge("webcheckers_lobby_streams", "Home pages following the lobby.",
+                  playerServices.getLobbyEvents()::numSubscribers);
+          metrics.gauge("webcheckers_lobby_events_dropped", "Lobby streams closed for falling behind.",
+                  playerServices.getLobbyEvents()::numDropped);
+          metrics.gauge("webcheckers_push_channels", "Game pages with a push channel open.",
+                  pushService::numConnected);
+          metrics.gauge("webcheckers_spectator_frames", "Frames of matches kept for spectators.",
+                  spectatorService::numFrames);
+          final Profiler profiler = new Profiler(Paths.get(System.getProperty(PROFILE_DIR_PROPERTY, "profiles")));
+          final WebServer webServer = new WebServer(playerServices, gameCenter, leaderboardService, storage,
+                  pushService, replayArchive, spectatorService, metrics, profiler, templateEngine, gson);
+          // one hook stops everything in order: no request is answered once the last snapshot is taken,
+          // and the logs and storage are closed only after it; hooks of their own would run all at once
+          Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                webServer.stop(WebServer.STOP_TIMEOUT_MILLIS);
+                webServer.shutdown();
+                snapshotService.stop();
+                if (eventLog != null)
+                      eventLog.close();
+                replayArchive.close();
+                storage.close();
+                profiler.stop();
+          }));
 
           // inject web server into application
           final Application app = new Application(webServer);
@@ -0,0 +1,659 @@
+package com.webcheckers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.webcheckers.appl.CsvStorage;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.appl.MatchEventLog;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.PushService;
+import com.webcheckers.appl.RatingService;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.SnapshotService;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.model.BoardHistory;
+import com.webcheckers.model.GameRecord;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Position;
+import com.webcheckers.ui.PostValidateMoveRoute;
+import com.webcheckers.ui.WebServer;
+import com.webcheckers.util.LatencyHistogram;
+import com.webcheckers.util.Message;
+import com.webcheckers.util.MetricsRegistry;
+import com.webcheckers.util.Profiler;
+import com.webcheckers.util.SegmentedLog;
+import spark.Spark;
+import spark.template.freemarker.FreeMarkerEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Starts the server on this machine and plays games against it over HTTP
+ * with simulated players, then prints how fast each route answered.
+ *
+ * <p>
+ * Usage: {@code LoadHarness [players] [concurrency] [seed]}. The server is
+ * wired as {@link Application} wires it, on a free port, with its statistics
+ * in a temporary directory that is deleted afterwards. Players are paired up
+ * and each game is played by one of {@code concurrency} threads: both
+ * players open the Home page and sign in, the first challenges the second,
+ * and then each in turn polls {@code /checkTurn}, reads the board from
+ * {@code /game/state} and plays a legal turn through {@code /validateMove}
+ * and {@code /submitTurn}. After a number of turns picked for the game, or
+ * when a player has no move left, the player whose turn it is resigns. Every
+ * choice comes from the seed, so runs with the same arguments send the same
+ * requests and can be compared across builds.
+ * </p>
+ *
+ * <p>
+ * The times are taken by the players, so they include the connection, and
+ * the players run in the same process as the server, so a run shows how
+ * builds compare rather than what a dedicated server can carry.
+ * </p>
+ */
+public class LoadHarness {
+    private static final Logger LOG = Logger.getLogger(LoadHarness.class.getName());
+
+    public static final int DEFAULT_PLAYERS = 2000;
+    public static final int DEFAULT_CONCURRENCY = 100;
+    public static final long DEFAULT_SEED = 42;
+    // the fewest and most turns a game is played before someone resigns
+    public static final int MIN_TURNS = 10;
+    public static final int MAX_TURNS = 80;
+    // a game whose players stop making progress is given up
+    private static final int MAX_ROUNDS = 4 * MAX_TURNS;
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    // kept so that quieting the server's loggers lasts
+    private static final Logger SERVER_LOG = Logger.getLogger("com.webcheckers");
+
+    //Attributes
+    private final int numPlayers;
+    private final int concurrency;
+    private final long seed;
+    private final Gson gson = new Gson();
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final LongAdder capturedGames = new LongAdder();
+    private final LongAdder resignedGames = new LongAdder();
+    private final LongAdder abandonedGames = new LongAdder();
+    private String baseUrl;
+    // what the server has to close when the run is over
+    private Storage storage;
+    private MatchEventLog eventLog;
+    private ReplayArchive replayArchive;
+    private SnapshotService snapshotService;
+    private WebServer webServer;
+
+    /**
+     * LoadHarness constructor
+     * @param numPlayers the number of simulated players, two to a game
+     * @param concurrency the number of games played at once
+     * @param seed the seed every choice of the run comes from
+     */
+    public LoadHarness(int numPlayers, int concurrency, long seed) {
+        if (numPlayers < 2)
+            throw new IllegalArgumentException("numPlayers must be at least 2");
+        if (concurrency < 1)
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        this.numPlayers = numPlayers;
+        this.concurrency = concurrency;
+        this.seed = seed;
+    }
+
+    /**
+     * The times and failures of one route.
+     */
+    private static final class RouteStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * A status and body sent back by the server.
+     */
+    private static final class Answer {
+        private final int status;
+        private final String body;
+
+        private Answer(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Start the server, play every game and print the results
+     * @param dir the directory the server keeps its statistics in
+     * @throws InterruptedException if interrupted while the games are played
+     */
+    public void run(Path dir) throws InterruptedException {
+        startServer(dir);
+        try {
+            // one kept connection per game thread
+            System.setProperty("http.maxConnections", String.valueOf(concurrency));
+            int numGames = numPlayers / 2;
+            // the seeds are drawn up front, so each game plays the same whatever thread it lands on
+            Random random = new Random(seed);
+            ExecutorService games = Executors.newFixedThreadPool(concurrency);
+            long begin = System.nanoTime();
+            for (int game = 0; game < numGames; game++) {
+                final int number = game;
+                final long gameSeed = random.nextLong();
+                games.execute(() -> play(number, new Random(gameSeed)));
+            }
+            games.shutdown();
+            games.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            report(numGames, System.nanoTime() - begin);
+        } finally {
+            stopServer();
+        }
+    }
+
+    /**
+     * Wire the server as the application does, but keeping its files in a
+     * directory of its own, and wait for it to listen on a free port. Turns
+     * are logged and live matches snapshotted as they are in production, so
+     * their cost is part of what is measured.
+     */
+    private void startServer(Path dir) {
+        SERVER_LOG.setLevel(Level.WARNING);
+        storage = new CsvStorage(dir.resolve("Statistics.csv"), dir.resolve("GameResults.csv"),
+                dir.resolve("snapshots"));
+        storage.open();
+        final PlayerServices playerServices = new PlayerServices();
+        final RatingService ratingService = new RatingService();
+        ratingService.loadArchive(storage.readGameResults());
+        final GameCenter gameCenter = new GameCenter(playerServices, ratingService);
+        final SegmentedLog eventSegments = new SegmentedLog(dir.resolve("events"), SegmentedLog.DEFAULT_SEGMENT_BYTES);
+        final SegmentedLog replayLog = new SegmentedLog(dir.resolve("replays"), SegmentedLog.DEFAULT_SEGMENT_BYTES);
+        try {
+            eventSegments.open();
+            replayLog.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // the log listens first, as it does in the application
+        eventLog = new MatchEventLog(eventSegments);
+        gameCenter.addMatchListener(eventLog);
+        final PushService pushService = new PushService(gson);
+        gameCenter.addMatchListener(pushService);
+        replayArchive = new ReplayArchive(replayLog, GameRecord.DEFAULT_KEYFRAME_INTERVAL);
+        gameCenter.addMatchListener(replayArchive);
+        final SpectatorService spectatorService = new SpectatorService();
+        gameCenter.addMatchListener(spectatorService);
+        snapshotService = new SnapshotService(gameCenter, storage, eventLog);
+        snapshotService.restore();
+        spectatorService.publish(gameCenter.liveMatches());
+        snapshotService.start(SnapshotService.DEFAULT_INTERVAL_SECONDS);
+        final LeaderboardService leaderboardService = new LeaderboardService();
+        leaderboardService.loadStats(storage.readAllStats());
+        webServer = new WebServer(playerServices, gameCenter, leaderboardService, storage,
+                pushService, replayArchive, spectatorService, new MetricsRegistry(), new Profiler(dir.resolve("profiles")),
+                new FreeMarkerEngine(), gson);
+        Spark.port(0);
+        webServer.initialize();
+        Spark.awaitInitialization();
+        baseUrl = "http://localhost:" + Spark.port();
+        LOG.info("Server listening at " + baseUrl);
+    }
+
+    /**
+     * Stop the server and close what it wrote to, in the order the application does at shutdown
+     */
+    private void stopServer() {
+        webServer.stop(WebServer.STOP_TIMEOUT_MILLIS);
+        webServer.shutdown();
+        snapshotService.stop();
+        eventLog.close();
+        replayArchive.close();
+        storage.close();
+    }
+
+    /**
+     * Play one game between two new players
+     * @param game the number of the game, which names its players
+     * @param random where the game's choices come from
+     */
+    private void play(int game, Random random) {
+        SimulatedPlayer red = new SimulatedPlayer(playerName(2 * game), true, random);
+        SimulatedPlayer white = new SimulatedPlayer(playerName(2 * game + 1), false, random);
+        int limit = MIN_TURNS + random.nextInt(MAX_TURNS - MIN_TURNS + 1);
+        if (!red.signIn() || !white.signIn() || !red.challenge(white) || !white.openGame()) {
+            abandonedGames.increment();
+            return;
+        }
+        for (int round = 0; round < MAX_ROUNDS && !(red.done && white.done); round++) {
+            if (!red.done)
+                red.step(limit);
+            if (!white.done)
+                white.step(limit);
+        }
+        if (!red.done || !white.done || red.failed || white.failed)
+            abandonedGames.increment();
+        else if (red.captured || white.captured)
+            capturedGames.increment();
+        else
+            resignedGames.increment();
+    }
+
+    /**
+     * Name a player; names may only hold letters, digits and spaces
+     */
+    private static String playerName(int player) {
+        return String.format("Sim%05d", player);
+    }
+
+    /**
+     * One player, with their own session, playing one side of a game.
+     */
+    private final class SimulatedPlayer {
+        //Attributes
+        private final String name;
+        private final boolean red;
+        private final Random random;
+        private String cookie;
+        private int turns = 0;
+        private boolean done = false;
+        private boolean captured = false;
+        private boolean failed = false;
+
+        private SimulatedPlayer(String name, boolean red, Random random) {
+            this.name = name;
+            this.red = red;
+            this.random = random;
+        }
+
+        /**
+         * Open the Home page, which starts the session, and sign in
+         * @return true if signed in
+         */
+        private boolean signIn() {
+            return send("GET", WebServer.HOME_URL, null, null) != null
+                    && send("POST", WebServer.POST_SINGIN_URL, null, "username=" + encode(name)) != null;
+        }
+
+        /**
+         * Challenge another player, which opens the Game page for both
+         * @return true if the game started
+         */
+        private boolean challenge(SimulatedPlayer opponent) {
+            Answer answer = send("GET", WebServer.GAME_URL, "button=" + encode(opponent.name), null);
+            return answer != null && answer.status == 200;
+        }
+
+        /**
+         * Open the Game page of the game this player was challenged to
+         * @return true if it was shown
+         */
+        private boolean openGame() {
+            Answer answer = send("GET", WebServer.GAME_URL, null, null);
+            return answer != null && answer.status == 200;
+        }
+
+        /**
+         * Check the turn and, if it is this player's, play it, resign or see
+         * the end of the game
+         * @param limit the number of turns this player plays before resigning
+         */
+        private void step(int limit) {
+            JsonObject checked = json(WebServer.CHECK_TURN_URL, send("POST", WebServer.CHECK_TURN_URL, null, ""));
+            if (checked == null) {
+                fail();
+                return;
+            }
+            String text = checked.get("text").getAsString();
+            if ("false".equals(text))
+                return;
+            if (!"true".equals(text)) {
+                // a player's pieces are all gone
+                captured = true;
+                finish();
+                return;
+            }
+            JsonObject state = json(WebServer.GAME_STATE_URL, send("GET", WebServer.GAME_STATE_URL, null, null));
+            if (state == null) {
+                fail();
+                return;
+            }
+            if (state.getAsJsonObject("modeOptions").get("isGameOver").getAsBoolean()) {
+                finish();
+                return;
+            }
+            List<Move> turn = chooseTurn(state.get("board").getAsString(), red, random);
+            if (turns >= limit || turn.isEmpty()) {
+                resign();
+                return;
+            }
+            for (Move move : turn) {
+                if (!played(WebServer.VALIDATE_MOVE_URL, PostValidateMoveRoute.ACTION_DATA + "="
+                        + encode(gson.toJson(move)))) {
+                    fail();
+                    return;
+                }
+            }
+            if (!played(WebServer.SUBMIT_TURN_URL, "")) {
+                fail();
+                return;
+            }
+            turns++;
+        }
+
+        /**
+         * Post part of a turn and check that the server took it
+         * @return true if the answer was not an error
+         */
+        private boolean played(String path, String form) {
+            JsonObject message = json(path, send("POST", path, null, form));
+            if (message == null)
+                return false;
+            if (Message.Type.ERROR.name().equals(message.get("type").getAsString())) {
+                // the turn was worked out from the same rules, so the server refusing it is a failure
+                failed("POST " + path);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Give up the game, as a player leaving it does
+         */
+        private void resign() {
+            send("POST", WebServer.RESIGN_URL, null, "");
+            done = true;
+        }
+
+        /**
+         * Resign a game that could not go on, so the opponent is not left waiting
+         */
+        private void fail() {
+            failed = true;
+            resign();
+        }
+
+        /**
+         * Open the Game page once more to see how the game ended
+         */
+        private void finish() {
+            send("GET", WebServer.GAME_URL, null, null);
+            done = true;
+        }
+
+        /**
+         * Read a JSON answer
+         * @return the object, or null if there was none
+         */
+        private JsonObject json(String path, Answer answer) {
+            if (answer == null || answer.status != 200)
+                return null;
+            try {
+                return gson.fromJson(answer.body, JsonObject.class);
+            } catch (JsonParseException e) {
+                failed(path);
+                return null;
+            }
+        }
+
+        /**
+         * Send a request in this player's session and time it
+         * @param method GET or POST
+         * @param path the path of the route
+         * @param query the query string, or null
+         * @param form the form posted, or null
+         * @return the answer, or null if it was an error
+         */
+        private Answer send(String method, String path, String query, String form) {
+            RouteStats stats = routes.computeIfAbsent(method + " " + path, route -> new RouteStats());
+            long begin = System.nanoTime();
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path
+                        + (query == null ? "" : "?" + query)).openConnection();
+                // a redirect is the answer, as the browser sees it
+                connection.setInstanceFollowRedirects(false);
+                connection.setRequestMethod(method);
+                if (cookie != null)
+                    connection.setRequestProperty("Cookie", cookie);
+                if (form != null) {
+                    byte[] body = form.getBytes(StandardCharsets.UTF_8);
+                    connection.setDoOutput(true);
+                    connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+                    connection.setFixedLengthStreamingMode(body.length);
+                    try (OutputStream out = connection.getOutputStream()) {
+                        out.write(body);
+                    }
+                }
+                int status = connection.getResponseCode();
+                // read to the end, so the connection is kept for the next request
+                String body = read(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+                String setCookie = connection.getHeaderField("Set-Cookie");
+                if (setCookie != null)
+                    cookie = setCookie.split(";", 2)[0];
+                stats.latency.recordNanos(System.nanoTime() - begin);
+                if (status >= 400) {
+                    stats.errors.increment();
+                    return null;
+                }
+                return new Answer(status, body);
+            } catch (IOException e) {
+                stats.latency.recordNanos(System.nanoTime() - begin);
+                stats.errors.increment();
+                LOG.log(Level.FINE, name + " could not reach " + path, e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Count an answer the server sent that a player could not use
+     */
+    private void failed(String route) {
+        routes.computeIfAbsent(route, key -> new RouteStats()).errors.increment();
+    }
+
+    /**
+     * Work out a legal turn by the rules the server plays by: a piece that
+     * can jump must, a jump goes on while the piece can jump again, and only
+     * kings, or a piece crowned during the turn, go backwards. The board is
+     * as the player sees it, with their pieces moving towards row 0.
+     * @param board the 64 squares sent by {@code /game/state}
+     * @param red true if the player has the red pieces
+     * @param random where the choice of turn comes from
+     * @return the moves of the turn, or an empty list if there is none
+     */
+    public static List<Move> chooseTurn(String board, boolean red, Random random) {
+        char single = red ? BoardHistory.RED_SINGLE : BoardHistory.WHITE_SINGLE;
+        char king = red ? BoardHistory.RED_KING : BoardHistory.WHITE_KING;
+        List<Move> jumps = new ArrayList<>();
+        List<Move> steps = new ArrayList<>();
+        for (int square = 0; square < 64; square++) {
+            char piece = board.charAt(square);
+            if (piece != single && piece != king)
+                continue;
+            Position start = new Position(square / 8, square % 8);
+            addJumps(board, start, piece == king, red, Collections.emptyList(), jumps);
+            addSteps(board, start, piece == king, steps);
+        }
+        if (jumps.isEmpty())
+            return steps.isEmpty() ? Collections.emptyList()
+                    : Collections.singletonList(steps.get(random.nextInt(steps.size())));
+
+        List<Move> turn = new ArrayList<>();
+        Move move = jumps.get(random.nextInt(jumps.size()));
+        Position start = move.getStart();
+        boolean crowned = board.charAt(start.getRow() * 8 + start.getCell()) == king;
+        while (move != null) {
+            turn.add(move);
+            crowned |= move.getEnd().getRow() == 0;
+            // the board only changes when the turn is submitted
+            List<Move> next = new ArrayList<>();
+            addJumps(board, move.getEnd(), crowned, red, turn, next);
+            move = next.isEmpty() ? null : next.get(random.nextInt(next.size()));
+        }
+        return turn;
+    }
+
+    /**
+     * Add the jumps a piece can make that the turn has not made either way
+     */
+    private static void addJumps(String board, Position from, boolean king, boolean red, List<Move> turn,
+                                 List<Move> jumps) {
+        for (int rowStep = -1; rowStep <= 1; rowStep += 2) {
+            if (rowStep > 0 && !king)
+                continue;
+            for (int cellStep = -1; cellStep <= 1; cellStep += 2) {
+                int row = from.getRow();
+                int cell = from.getCell();
+                char over = at(board, row + rowStep, cell + cellStep);
+                // checked before the position is made, which would move a square off the board onto it
+                if (!isOpponent(over, red) || at(board, row + 2 * rowStep, cell + 2 * cellStep) != BoardHistory.EMPTY)
+                    continue;
+                Position end = new Position(row + 2 * rowStep, cell + 2 * cellStep);
+                if (!turn.contains(new Move(from, end)) && !turn.contains(new Move(end, from)))
+                    jumps.add(new Move(from, end));
+            }
+        }
+    }
+
+    /**
+     * Add the moves of one square a piece can make
+     */
+    private static void addSteps(String board, Position from, boolean king, List<Move> steps) {
+        for (int rowStep = -1; rowStep <= 1; rowStep += 2) {
+            if (rowStep > 0 && !king)
+                continue;
+            for (int cellStep = -1; cellStep <= 1; cellStep += 2) {
+                int row = from.getRow() + rowStep;
+                int cell = from.getCell() + cellStep;
+                if (at(board, row, cell) == BoardHistory.EMPTY)
+                    steps.add(new Move(from, new Position(row, cell)));
+            }
+        }
+    }
+
+    /**
+     * Gets the piece on a square, or a space for a square off the board
+     */
+    private static char at(String board, int row, int cell) {
+        if (row < 0 || row > 7 || cell < 0 || cell > 7)
+            return ' ';
+        return board.charAt(row * 8 + cell);
+    }
+
+    /**
+     * Checks whether a square holds one of the other player's pieces
+     */
+    private static boolean isOpponent(char piece, boolean red) {
+        return red ? piece == BoardHistory.WHITE_SINGLE || piece == BoardHistory.WHITE_KING
+                : piece == BoardHistory.RED_SINGLE || piece == BoardHistory.RED_KING;
+    }
+
+    /**
+     * Print the times and errors of every route, and how the games ended
+     */
+    private void report(int numGames, long nanos) {
+        long requests = 0;
+        long errors = 0;
+        System.out.println(String.format("%d players, %d games, %d at once, seed %d",
+                numPlayers, numGames, concurrency, seed));
+        System.out.println(String.format("%-18s %9s %7s %9s %9s %9s %9s",
+                "route", "requests", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Map.Entry<String, RouteStats> entry : new TreeMap<>(routes).entrySet()) {
+            RouteStats stats = entry.getValue();
+            long[] times = stats.latency.percentiles(PERCENTILES);
+            System.out.println(String.format("%-18s %9d %7d %9.3f %9.3f %9.3f %9.3f", entry.getKey(),
+                    stats.latency.getCount(), stats.errors.sum(), times[0] / 1e3, times[1] / 1e3, times[2] / 1e3,
+                    stats.latency.getMax() / 1e3));
+            requests += stats.latency.getCount();
+            errors += stats.errors.sum();
+        }
+        System.out.println(String.format("%d requests in %.3f s, %.0f requests/s, %d errors",
+                requests, nanos / 1e9, requests * 1e9 / Math.max(1, nanos), errors));
+        System.out.println(String.format("games: %d ended by capture, %d resigned, %d abandoned",
+                capturedGames.sum(), resignedGames.sum(), abandonedGames.sum()));
+    }
+
+    /**
+     * Read a whole answer
+     */
+    private static String read(InputStream in) throws IOException {
+        if (in == null)
+            return "";
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1)
+                out.write(buffer, 0, read);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Encode a form or query value
+     */
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Delete a directory and everything in it
+     */
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+
+    /**
+     * Load the server with simulated players.
+     * @param args the number of players, the number of games played at once and the seed, all optional
+     * @throws IOException if the temporary directory cannot be made or deleted
+     * @throws InterruptedException if interrupted while the games are played
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int numPlayers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CONCURRENCY;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        LoadHarness harness = new LoadHarness(numPlayers, concurrency, seed);
+        Path dir = Files.createTempDirectory("load-harness");
+        try {
+            harness.run(dir);
+        } finally {
+            deleteAll(dir);
+        }
+        // the server's own threads may take a while to wind down
+        System.exit(0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CSVutility;
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.util.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The original storage: players in the statistics CSV file, finished games in
+ * the game archive CSV file and each match snapshot in a file of its own.
+ */
+public class CsvStorage implements Storage {
+    private static final Logger LOG = Logger.getLogger(CsvStorage.class.getName());
+
+    public static final String SNAPSHOT_SUFFIX = ".snapshot";
+    // match ids become file names, so they are kept to safe characters
+    static final Pattern MATCH_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    //Attributes
+    private final CSVutility csvUtility;
+    private final Path snapshotDir;
+    private final StatisticsImporter importer = new StatisticsImporter();
+
+    /**
+     * CsvStorage constructor
+     * @param statsFile the statistics file
+     * @param resultsFile the game archive
+     * @param snapshotDir the directory of match snapshots, created when needed
+     */
+    public CsvStorage(Path statsFile, Path resultsFile, Path snapshotDir) {
+        this.csvUtility = new CSVutility(statsFile, resultsFile);
+        this.snapshotDir = snapshotDir.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void open() {
+        csvUtility.verifyAndRepair();
+    }
+
+    @Override
+    public Player findPlayer(String name) {
+        return csvUtility.lookupPlayer(name);
+    }
+
+    @Override
+    public Player findOrAddPlayer(String name) {
+        return csvUtility.findPlayer(name);
+    }
+
+    @Override
+    public boolean savePlayer(Player player) {
+        return csvUtility.editPlayerRecords(player);
+    }
+
+    @Override
+    public boolean savePlayers(Collection<Player> players) {
+        return csvUtility.editPlayerRecords(players);
+    }
+
+    @Override
+    public List<PlayerStats> readAllStats() {
+        if (!Files.exists(csvUtility.getFile()))
+            return new ArrayList<>();
+        try {
+            ImportReport report = importer.importFile(csvUtility.getFile());
+            LOG.config(report.toString());
+            for (ImportReport.Rejection rejection : report.getRejections())
+                LOG.warning("Skipped statistics " + rejection);
+            return new ArrayList<>(report.getPlayers());
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the statistics file", e);
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean appendGameResult(GameResult result) {
+        return csvUtility.appendGameResult(result);
+    }
+
+    @Override
+    public List<GameResult> readGameResults() {
+        return csvUtility.readGameResults();
+    }
+
+    @Override
+    public boolean saveMatchSnapshot(String id, byte[] snapshot) {
+        if (!MATCH_ID.matcher(id).matches()) {
+            LOG.warning("Refused to save a snapshot of match " + id);
+            return false;
+        }
+        try {
+            Files.createDirectories(snapshotDir);
+            AtomicFiles.write(snapshotDir.resolve(id + SNAPSHOT_SUFFIX), snapshot);
+            return true;
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not save a snapshot of match " + id, e);
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> readMatchSnapshots() {
+        Map<String, byte[]> snapshots = new HashMap<>();
+        if (!Files.isDirectory(snapshotDir))
+            return snapshots;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(snapshotDir, "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                snapshots.put(name.substring(0, name.length() - SNAPSHOT_SUFFIX.length()), Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the match snapshots", e);
+        }
+        return snapshots;
+    }
+
+    @Override
+    public boolean deleteMatchSnapshot(String id) {
+        if (!MATCH_ID.matcher(id).matches())
+            return false;
+        try {
+            return Files.deleteIfExists(snapshotDir.resolve(id + SNAPSHOT_SUFFIX));
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not delete the snapshot of match " + id, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        // every write is already durable when it returns
+    }
+}
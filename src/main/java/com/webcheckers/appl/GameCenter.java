@@ -1,11 +1,15 @@
 package com.webcheckers.appl;
 
+import com.webcheckers.model.GameResult;
 import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchListener;
 import com.webcheckers.model.Player;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 
 public class GameCenter {
@@ -13,15 +17,55 @@ public class GameCenter {
 
     //Attributes
     private PlayerServices playerServices;
+    private RatingService ratingService;
     private Map<Player, Match> inMatch;
     private ArrayList<Match> matchList = new ArrayList<>();
+    private final List<MatchListener> matchListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructor for GameCenter Object
      */
     public GameCenter(PlayerServices playerServices) {
+        this(playerServices, new RatingService());
+    }
+
+    /**
+     * Constructor for GameCenter Object
+     * @param playerServices    - the players signed in
+     * @param ratingService     - rates the players of finished matches
+     */
+    public GameCenter(PlayerServices playerServices, RatingService ratingService) {
         this.inMatch = new HashMap<>();
         this.playerServices = playerServices;
+        this.ratingService = ratingService;
+    }
+
+    /**
+     * Records the result of a finished match, re-rating both players. Safe to call
+     * from both players' requests; only the first call records anything.
+     * @param match             - the finished match
+     * @param winner            - the player who won
+     * @param loser             - the player who lost
+     * @return                  - the result to archive, or null if it was already recorded
+     */
+    public GameResult recordResult(Match match, Player winner, Player loser) {
+        return ratingService.recordResult(match, winner, loser);
+    }
+
+    /**
+     * Gets the service rating the players of finished matches
+     * @return                  - the rating service
+     */
+    public RatingService getRatingService() {
+        return ratingService;
+    }
+
+    /**
+     * Add a listener told about every match started from now on
+     * @param listener          - the listener
+     */
+    public void addMatchListener(MatchListener listener) {
+        matchListeners.add(listener);
     }
 
     /**
@@ -30,29 +74,108 @@ public class GameCenter {
      * @param whitePlayer       - the white player
      * @return                  - true if match has been added
      */
-    public synchronized boolean addMatch(Player redPlayer, Player whitePlayer) {
-        if(redPlayer.equals(whitePlayer) || redPlayer.isInGame() || whitePlayer.isInGame())
-            return false;
-        Match match = new Match(redPlayer, whitePlayer);
-        matchList.add(match);
-        inMatch.put(redPlayer, match);
-        inMatch.put(whitePlayer, match);
-        redPlayer.changeStatus(Player.Status.ingame);
-        whitePlayer.changeStatus(Player.Status.challenged);
+    public boolean addMatch(Player redPlayer, Player whitePlayer) {
+        Match match;
+        synchronized (this) {
+            // a player in a match brought back from a snapshot may have signed in as another Player object
+            if(redPlayer.equals(whitePlayer) || redPlayer.isInGame() || whitePlayer.isInGame()
+                    || inMatch.containsKey(redPlayer) || inMatch.containsKey(whitePlayer))
+                return false;
+            match = new Match(redPlayer, whitePlayer);
+            for (MatchListener listener : matchListeners)
+                match.addListener(listener);
+            matchList.add(match);
+            inMatch.put(redPlayer, match);
+            inMatch.put(whitePlayer, match);
+            playerServices.changeStatus(redPlayer, Player.Status.ingame);
+            playerServices.changeStatus(whitePlayer, Player.Status.challenged);
+            playerServices.challenge(whitePlayer, redPlayer);
+        }
+        // outside the lock, so listeners that wait on a disk do not hold up other matches starting
+        for (MatchListener listener : matchListeners)
+            listener.matchStarted(match);
         return true;
     }
 
     /**
-     * Removes the match from the matchList
+     * Gets the matches still being played
+     * @return                  - a copy of the list of live matches
+     */
+    public synchronized List<Match> liveMatches() {
+        List<Match> live = new ArrayList<>();
+        for (Match match : matchList) {
+            if (match.isGameResigned() == Match.STATE.running && match.getWinner() == null)
+                live.add(match);
+        }
+        return live;
+    }
+
+    /**
+     * Puts back matches read from a snapshot, skipping any with a player
+     * already in a match
+     * @param matches           - the matches, still running
+     * @return                  - the number put back
+     */
+    public synchronized int restoreMatches(List<Match> matches) {
+        int restored = 0;
+        for (Match match : matches) {
+            Player redPlayer = match.getRedPlayer();
+            Player whitePlayer = match.getWhitePlayer();
+            if (inMatch.containsKey(redPlayer) || inMatch.containsKey(whitePlayer))
+                continue;
+            for (MatchListener listener : matchListeners)
+                match.addListener(listener);
+            matchList.add(match);
+            inMatch.put(redPlayer, match);
+            inMatch.put(whitePlayer, match);
+            redPlayer.changeStatus(Player.Status.ingame);
+            whitePlayer.changeStatus(Player.Status.ingame);
+            restored++;
+        }
+        return restored;
+    }
+
+    /**
+     * Gets the Player object to sign a player in with: the one their match
+     * holds if they are in a match brought back from a snapshot, so that
+     * their records are kept in one place
+     * @param player            - the player signing in
+     * @return                  - the player of their match, or the player given
+     */
+    public synchronized Player rejoin(Player player) {
+        Match match = inMatch.get(player);
+        if (match == null)
+            return player;
+        return player.equals(match.getRedPlayer()) ? match.getRedPlayer() : match.getWhitePlayer();
+    }
+
+    /**
+     * Removes the match from the matchList and tells the listeners
      * @param match             - the match to remove
      * @return                  - returns true if the match has been removed
      */
-    public synchronized boolean removeMatch(Match match) {
-        if (matchList.contains(match)) {
-            matchList.remove(match);
-            return true;
+    public boolean removeMatch(Match match) {
+        synchronized (this) {
+            if (!matchList.remove(match))
+                return false;
+        }
+        // outside the lock, as when a match starts
+        for (MatchListener listener : matchListeners)
+            listener.matchRemoved(match);
+        return true;
+    }
+
+    /**
+     * Gets the number of matches still being played
+     * @return number of live matches
+     */
+    public synchronized int numLiveMatches() {
+        int live = 0;
+        for (Match match : matchList) {
+            if (match.isGameResigned() == Match.STATE.running && match.getWinner() == null)
+                live++;
         }
-        return false;
+        return live;
     }
 
     /**
@@ -79,10 +202,11 @@ public class GameCenter {
     /**
      * Checks if the provided player is the current player
      * @param player            - the player to check
-     * @return                  - true if the player is the current player
+     * @return                  - true if the player is the current player, false if they are in no match
      */
-    public boolean isCurrent(Player player) {
-        return inMatch.get(player).getCurrentPlayer().equals(player);
+    public synchronized boolean isCurrent(Player player) {
+        Match match = inMatch.get(player);
+        return match != null && match.getCurrentPlayer().equals(player);
     }
 
     /**
@@ -90,7 +214,7 @@ public class GameCenter {
      * @param player            - the player to check
      * @return                  - true if the player is in a match
      */
-    public boolean isInMatch(Player player) {
+    public synchronized boolean isInMatch(Player player) {
         return inMatch.containsKey(player);
     }
 
@@ -0,0 +1,109 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.PlayerStats;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a bulk import of the statistics file read, kept and threw away.
+ * Only the first {@link StatisticsImporter#MAX_REJECTIONS_KEPT} rejected rows
+ * are kept with their reasons; {@link #getRejectedRows()} counts all of them.
+ */
+public final class ImportReport {
+
+    /**
+     * A row that failed validation.
+     */
+    public static final class Rejection {
+        private final long line;
+        private final String reason;
+
+        /**
+         * Rejection constructor
+         * @param line the line number of the row, starting at 1
+         * @param reason why the row was rejected
+         */
+        public Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + reason;
+        }
+    }
+
+    //Attributes
+    private final List<PlayerStats> players;
+    private final long rowsRead;
+    private final long rejectedRows;
+    private final List<Rejection> rejections;
+    private final long elapsedNanos;
+
+    /**
+     * ImportReport constructor
+     * @param players the players that passed validation
+     * @param rowsRead the number of rows in the file
+     * @param rejectedRows the number of rows that failed validation
+     * @param rejections the first rejected rows, in file order
+     * @param elapsedNanos how long the import took
+     */
+    public ImportReport(List<PlayerStats> players, long rowsRead, long rejectedRows, List<Rejection> rejections,
+                        long elapsedNanos) {
+        this.players = Collections.unmodifiableList(players);
+        this.rowsRead = rowsRead;
+        this.rejectedRows = rejectedRows;
+        this.rejections = Collections.unmodifiableList(rejections);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<PlayerStats> getPlayers() {
+        return players;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getAcceptedRows() {
+        return players.size();
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the import speed
+     * @return rows read per second
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0)
+            return 0;
+        return rowsRead * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d of %d rows (%d rejected) in %.3f s, %.0f rows/s",
+                getAcceptedRows(), rowsRead, rejectedRows, elapsedNanos / 1e9, getRowsPerSecond());
+    }
+}
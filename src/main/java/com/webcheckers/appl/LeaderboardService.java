@@ -0,0 +1,217 @@
+package com.webcheckers.appl;
+
+import com.google.gson.Gson;
+import com.webcheckers.model.LeaderboardPage;
+import com.webcheckers.model.LeaderboardSnapshot;
+import com.webcheckers.model.LeaderboardTable;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.model.RankingMetric;
+import com.webcheckers.util.IndexedSkipList;
+import com.webcheckers.util.NameIndex;
+import com.webcheckers.util.ProfileEvents.LeaderboardEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Keeps every ranking of the leaderboard up to date as game results arrive.
+ *
+ * <p>
+ * One instance is shared by the whole application. Each ranking is an
+ * {@link IndexedSkipList} keyed by (metric, name), so recording a result is
+ * O(log n) per ranking and reading the top k players is O(log n + k); nothing
+ * is re-read from the statistics file once the service has been loaded.
+ * Because the skip lists also count their elements, a page anywhere in a
+ * ranking and the rank of any player are O(log n) lookups as well.
+ * </p>
+ *
+ * <p>
+ * Every change to the rankings bumps a version number. The first page of the
+ * default ranking, which is what most home page loads show, is kept as an
+ * immutable {@link LeaderboardSnapshot} and is only rebuilt the first time it
+ * is asked for after the version moved on, so readers share it without
+ * taking the lock.
+ * </p>
+ */
+public class LeaderboardService {
+    private static final Logger LOG = Logger.getLogger(LeaderboardService.class.getName());
+
+    // the largest page a client may ask for
+    public static final int MAX_PAGE_SIZE = 100;
+    // the ranking and page size shown when none is asked for
+    public static final RankingMetric DEFAULT_METRIC = RankingMetric.GAMES;
+    public static final int DEFAULT_PAGE_SIZE = 10;
+
+    //Attributes
+    // every registered player by name, which can also be searched by the start of a name
+    private final NameIndex<PlayerStats> records = new NameIndex<>();
+    private final Map<RankingMetric, IndexedSkipList<PlayerStats>> boards = new EnumMap<>(RankingMetric.class);
+    private final Gson gson = new Gson();
+    private volatile long version = 0;
+    private volatile LeaderboardSnapshot snapshot;
+
+    /**
+     * Constructor for an empty LeaderboardService
+     */
+    public LeaderboardService() {
+        for (RankingMetric metric : RankingMetric.values()) {
+            boards.put(metric, new IndexedSkipList<>(metric.comparator()));
+        }
+    }
+
+    /**
+     * Replace the contents of every ranking, used once at start up
+     * @param players the players read from the statistics file
+     */
+    public void loadAll(Collection<Player> players) {
+        List<PlayerStats> stats = new ArrayList<>(players.size());
+        for (Player player : players)
+            stats.add(PlayerStats.of(player));
+        loadStats(stats);
+    }
+
+    /**
+     * Replace the contents of every ranking in bulk. Each ranking is sorted on
+     * its own, in parallel, and then built in a single pass, which is much
+     * quicker than inserting millions of players one at a time.
+     * @param stats the stats of every player; if a name repeats the last one wins
+     */
+    public synchronized void loadStats(Collection<PlayerStats> stats) {
+        LeaderboardEvent event = LeaderboardEvent.begin(LeaderboardEvent.LOAD, null);
+        records.clear();
+        for (PlayerStats player : stats)
+            records.put(player.getName(), player);
+        PlayerStats[] unique = records.values().toArray(new PlayerStats[0]);
+        Arrays.stream(RankingMetric.values()).parallel().forEach(metric -> {
+            PlayerStats[] sorted = unique.clone();
+            Arrays.parallelSort(sorted, metric.comparator());
+            boards.get(metric).loadSorted(Arrays.asList(sorted));
+        });
+        version++;
+        event.players = records.size();
+        event.commit();
+        LOG.config("Leaderboard loaded with " + records.size() + " players.");
+    }
+
+    /**
+     * Record the latest stats of a player, moving them in every ranking
+     * @param player the player whose records changed
+     */
+    public synchronized void update(Player player) {
+        LeaderboardEvent event = LeaderboardEvent.begin(LeaderboardEvent.UPDATE, player.getName());
+        put(PlayerStats.of(player));
+        event.players = records.size();
+        event.commit();
+    }
+
+    /**
+     * Swap the old stats of a player for the new ones in every ranking.
+     * @param stats the new stats
+     */
+    private void put(PlayerStats stats) {
+        PlayerStats old = records.put(stats.getName(), stats);
+        if (stats.equals(old))
+            return;
+        for (IndexedSkipList<PlayerStats> board : boards.values()) {
+            if (old != null)
+                board.remove(old);
+            board.add(stats);
+        }
+        version++;
+    }
+
+    /**
+     * Gets the version of the rankings, which changes whenever any ranking does
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the first page of the default ranking, rebuilding it only if the
+     * rankings changed since it was last built
+     * @return the current snapshot
+     */
+    public LeaderboardSnapshot getSnapshot() {
+        LeaderboardSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version)
+            return current;
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.getVersion() != version) {
+                LeaderboardEvent event = LeaderboardEvent.begin(LeaderboardEvent.SNAPSHOT, null);
+                LeaderboardPage page = getPage(DEFAULT_METRIC, 1, DEFAULT_PAGE_SIZE);
+                current = new LeaderboardSnapshot(version, new LeaderboardTable(page), gson.toJson(page));
+                snapshot = current;
+                event.players = records.size();
+                event.commit();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Gets the best players of a ranking
+     * @param metric the ranking
+     * @param count how many players to return
+     * @return at most count players, best first
+     */
+    public synchronized List<PlayerStats> getTopPlayers(RankingMetric metric, int count) {
+        return boards.get(metric).subList(0, count);
+    }
+
+    /**
+     * Gets one page of a ranking
+     * @param metric the ranking
+     * @param page the page number, starting at 1; pages past the end give the last page
+     * @param pageSize the number of players on a page, capped at MAX_PAGE_SIZE
+     * @return the page
+     */
+    public synchronized LeaderboardPage getPage(RankingMetric metric, int page, int pageSize) {
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        IndexedSkipList<PlayerStats> board = boards.get(metric);
+        int lastPage = Math.max(1, (board.size() + size - 1) / size);
+        int number = Math.min(Math.max(page, 1), lastPage);
+        List<PlayerStats> players = board.subList((number - 1) * size, size);
+        return new LeaderboardPage(metric, number, size, board.size(), players);
+    }
+
+    /**
+     * Gets the rank of a player in a ranking
+     * @param name the name of the player
+     * @param metric the ranking
+     * @return the rank starting at 1, or -1 if the player has no records
+     */
+    public synchronized int rankOf(String name, RankingMetric metric) {
+        PlayerStats stats = records.get(name);
+        if (stats == null)
+            return -1;
+        return boards.get(metric).indexOf(stats) + 1;
+    }
+
+    /**
+     * Gets the first registered players whose names start with a prefix, ignoring
+     * case. The name index is concurrent, so this does not wait for the lock.
+     * @param prefix the start of the names, empty for everyone
+     * @param limit the most players to return
+     * @return at most limit players, in name order
+     */
+    public List<PlayerStats> search(String prefix, int limit) {
+        return records.startingWith(prefix, limit);
+    }
+
+    /**
+     * Gets the number of players on the leaderboard
+     * @return number of ranked players
+     */
+    public synchronized int numPlayers() {
+        return records.size();
+    }
+}
@@ -0,0 +1,190 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchEvent;
+import com.webcheckers.model.MatchListener;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.TurnResult;
+import com.webcheckers.util.SegmentedLog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes everything that changes a match to a {@link SegmentedLog} as it
+ * happens: its start, each turn and its end. A turn is on disk before the
+ * other player is woken, any other listener hears of it or the request that
+ * played it is answered, and the turns of many matches share one write. Only
+ * the players of the match wait on its write; it holds the match lock so that
+ * its turns reach the log in the order they were played.
+ *
+ * <p>
+ * On a restart the matches of the last snapshot are brought up to date by
+ * playing the turns logged after it, and matches started after it are
+ * played again from their start, so no turn is lost. Events the snapshot
+ * already holds are known by their turn numbers and skipped; once a snapshot
+ * is saved the segments before it are deleted.
+ * </p>
+ */
+public class MatchEventLog implements MatchListener {
+    private static final Logger LOG = Logger.getLogger(MatchEventLog.class.getName());
+
+    //Attributes
+    private final SegmentedLog log;
+    private final AtomicLong lost = new AtomicLong();
+
+    /**
+     * MatchEventLog constructor
+     * @param log the log the events are written to, opened
+     */
+    public MatchEventLog(SegmentedLog log) {
+        Objects.requireNonNull(log, "log must not be null");
+        this.log = log;
+    }
+
+    @Override
+    public void matchStarted(Match match) {
+        append(MatchEvent.started(match));
+    }
+
+    @Override
+    public void turnPlayed(Match match, Player mover, List<Move> moves) {
+        append(MatchEvent.turn(match, moves));
+    }
+
+    @Override
+    public void turnEnded(Match match, Player mover, List<Move> moves) {
+        // already written before the turn was handed over
+    }
+
+    @Override
+    public void gameEnded(Match match) {
+        append(MatchEvent.ended(match));
+    }
+
+    @Override
+    public void matchRemoved(Match match) {
+        // a match that ended is already logged as over; one its players left running is ended here
+        if (match.isGameResigned() == Match.STATE.running && match.getWinner() == null)
+            append(MatchEvent.removed(match));
+    }
+
+    /**
+     * Write an event and wait until it is on disk
+     */
+    private void append(MatchEvent event) {
+        if (log.append(event.encode()) < 0) {
+            lost.incrementAndGet();
+            LOG.severe("Could not log " + event);
+        }
+    }
+
+    /**
+     * Gets the position the next event will be written at. Every event
+     * before it has already changed its match.
+     * @return the position
+     */
+    public long position() {
+        return log.nextSequence();
+    }
+
+    /**
+     * Delete the events before a position, once a snapshot holds what they changed
+     * @param position the position of the first event to keep
+     * @return the number of segments deleted
+     */
+    public int compact(long position) {
+        return log.deleteBefore(position);
+    }
+
+    /**
+     * Close the log; events from now on are lost
+     */
+    public void close() {
+        log.close();
+    }
+
+    /**
+     * Gets the number of events that could not be written
+     * @return number of events lost
+     */
+    public long getLost() {
+        return lost.get();
+    }
+
+    /**
+     * Read every event kept, oldest first; events that cannot be read are skipped
+     * @param reader reads each event
+     * @throws IOException if the log could not be read
+     */
+    public void read(Consumer<MatchEvent> reader) throws IOException {
+        log.read((sequence, record) -> {
+            try {
+                reader.accept(MatchEvent.decode(record));
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Skipped event " + sequence + " of the match log", e);
+            }
+        });
+    }
+
+    /**
+     * Bring matches up to date with the events logged since their snapshot:
+     * play the turns they miss, start the matches started since and drop
+     * those that ended or were removed
+     * @param restored the matches of the snapshot, possibly none
+     * @param players gives the player of a name
+     * @return the matches still being played, in the order they started
+     */
+    public List<Match> replay(List<Match> restored, Function<String, Player> players) {
+        Map<Long, Match> live = new LinkedHashMap<>();
+        for (Match match : restored)
+            live.put(match.getId(), match);
+        Set<Long> ended = new HashSet<>();
+        int[] played = {0};
+        try {
+            read(event -> {
+                long id = event.getMatchId();
+                // a match started from now on must not take the id of one in the log
+                Match.reserveId(id);
+                Match match = live.get(id);
+                switch (event.getType()) {
+                    case STARTED:
+                        if (match == null && !ended.contains(id))
+                            live.put(id, Match.resume(id, players.apply(event.getRedPlayer()),
+                                    players.apply(event.getWhitePlayer())));
+                        break;
+                    case TURN:
+                        // the snapshot was taken after this turn
+                        if (match == null || event.getTurn() <= match.getTurns())
+                            break;
+                        TurnResult result = match.playTurn(match.getCurrentPlayer(), event.getMoves());
+                        if (result.isPlayed())
+                            played[0]++;
+                        else
+                            LOG.warning("Could not play again " + event + ": " + result.getMessage().getText());
+                        break;
+                    default:
+                        // ended, or left by its players; either way nobody is put back into it
+                        live.remove(id);
+                        ended.add(id);
+                }
+            });
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the match log", e);
+        }
+        LOG.info("Played " + played[0] + " logged turns again; " + live.size() + " matches are live.");
+        return new ArrayList<>(live.values());
+    }
+}
@@ -1,22 +1,41 @@
 package com.webcheckers.appl;
 
+import com.webcheckers.model.LobbyEvent;
 import com.webcheckers.model.Player;
+import com.webcheckers.util.EventBus;
+import com.webcheckers.util.NameIndex;
 
 import java.util.ArrayList;
+import java.util.List;
 
 
+/**
+ * The players who are signed in.
+ *
+ * <p>
+ * Players are kept in a {@link NameIndex}, so looking one up by name is
+ * O(log n) and the lobby can be searched by the start of a name without
+ * walking everyone online.
+ * </p>
+ *
+ * <p>
+ * Players signing in and out and changes to their status are published as
+ * {@link LobbyEvent}s, so the lobby can be kept up to date without reloading it.
+ * </p>
+ */
 public class PlayerServices {
 
     //Attributes
     //private Match match;
-    //playerList holding the names of players
-    private ArrayList<Player> playerList;
+    //playerList holding the players online by name
+    private final NameIndex<Player> playerList;
+    private final EventBus<LobbyEvent> lobbyEvents = new EventBus<>();
 
     /**
      * Constructor for PlayerServices Object
      */
     public PlayerServices(){
-        playerList = new ArrayList<>();
+        playerList = new NameIndex<>();
     }
 
     /**
@@ -31,7 +50,8 @@ public class PlayerServices {
      * @param player
      */
     public void addPlayer(Player player) {
-        playerList.add(player);
+        if (playerList.put(player.getName(), player) == null)
+            lobbyEvents.publish(LobbyEvent.joined(player));
     }
 
     /**
@@ -39,7 +59,37 @@ public class PlayerServices {
      * @param player
      */
     public void removePlayer(Player player){
-        playerList.remove(player);
+        if (playerList.remove(player.getName()) != null)
+            lobbyEvents.publish(LobbyEvent.left(player));
+    }
+
+    /**
+     * Change the status of a player, telling the lobby if it changed
+     * @param player    - the player
+     * @param status    - the new status
+     */
+    public void changeStatus(Player player, Player.Status status) {
+        if (player.getStatus() == status)
+            return;
+        player.changeStatus(status);
+        lobbyEvents.publish(LobbyEvent.status(player));
+    }
+
+    /**
+     * Tell a player they were challenged to a match
+     * @param challenged    - the player challenged
+     * @param challenger    - the player who challenged them
+     */
+    public void challenge(Player challenged, Player challenger) {
+        lobbyEvents.publish(LobbyEvent.challenged(challenged, challenger));
+    }
+
+    /**
+     * Gets the events of the lobby
+     * @return the bus the lobby's events are published on
+     */
+    public EventBus<LobbyEvent> getLobbyEvents() {
+        return lobbyEvents;
     }
 
     /**
@@ -48,7 +98,7 @@ public class PlayerServices {
      * @return          - true if not taken and false if taken
      */
     public boolean isAvailable(Player player) {
-        return playerList.contains(player);
+        return playerList.get(player.getName()) != null;
     }
 
     /**
@@ -57,12 +107,7 @@ public class PlayerServices {
      * @return          - the player
      */
     public Player getPlayer(String username) {
-        for (Player player : playerList) {
-            if (player.getName().equals(username)) {
-                return player;
-            }
-        }
-        return null;
+        return playerList.get(username);
     }
 
     /**
@@ -75,12 +120,20 @@ public class PlayerServices {
 
     /**
      * Gets a copy of players online
-     * @return a clean copy of player list online
+     * @return a clean copy of player list online, in name order
      */
     public ArrayList<Player> getPlayerList() {
-        ArrayList<Player> ret = new ArrayList<>();
-        ret.addAll(playerList);
-        return ret;
+        return new ArrayList<>(playerList.values());
+    }
+
+    /**
+     * Gets the first players online whose names start with a prefix, ignoring case
+     * @param prefix    - the start of the names, empty for everyone
+     * @param limit     - the most players to return
+     * @return          - at most limit players, in name order
+     */
+    public List<Player> search(String prefix, int limit) {
+        return playerList.startingWith(prefix, limit);
     }
 
 }
@@ -0,0 +1,177 @@
+package com.webcheckers.appl;
+
+import com.google.gson.Gson;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchListener;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Pushes what happens in a match to its players over one open channel each.
+ *
+ * <p>
+ * The game page is given a token for its player, and the page opens a push
+ * channel with that token, so a channel never needs the HTTP session. Each
+ * player has at most one channel; a page that reconnects replaces the old
+ * one. Players without a channel are skipped and keep polling.
+ * </p>
+ *
+ * <p>
+ * Events are JSON objects with a {@code type} of {@code turnChanged},
+ * {@code opponentMoved} (with the moves of the turn), {@code resigned} or
+ * {@code gameOver}.
+ * </p>
+ */
+public class PushService implements MatchListener {
+    private static final Logger LOG = Logger.getLogger(PushService.class.getName());
+
+    public static final String TURN_CHANGED = "turnChanged";
+    public static final String OPPONENT_MOVED = "opponentMoved";
+    public static final String RESIGNED = "resigned";
+    public static final String GAME_OVER = "gameOver";
+
+    /**
+     * An open channel to one player.
+     */
+    public interface EventSink {
+        /**
+         * Send an event without waiting for it to be delivered
+         * @param json the event
+         */
+        void send(String json);
+
+        /**
+         * Close the channel, used when a newer channel replaces it
+         */
+        void close();
+    }
+
+    //Attributes
+    private final Gson gson;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, String> playersByToken = new ConcurrentHashMap<>();
+    private final Map<String, String> tokensByPlayer = new ConcurrentHashMap<>();
+    private final Map<String, EventSink> sinks = new ConcurrentHashMap<>();
+
+    /**
+     * PushService constructor
+     * @param gson renders the events
+     */
+    public PushService(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Issue the token a player's page connects with, replacing any earlier one
+     * @param player the player
+     * @return the token
+     */
+    public String issueToken(Player player) {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String old = tokensByPlayer.put(player.getName(), token);
+        if (old != null)
+            playersByToken.remove(old);
+        playersByToken.put(token, player.getName());
+        return token;
+    }
+
+    /**
+     * Gets the token last issued to a player
+     * @param player the player
+     * @return the token, or null if none was issued
+     */
+    public String currentToken(Player player) {
+        return tokensByPlayer.get(player.getName());
+    }
+
+    /**
+     * Open the channel of the player holding a token
+     * @param token the token given to the player's page
+     * @param sink the channel
+     * @return the name of the player, or null if the token is unknown
+     */
+    public String connect(String token, EventSink sink) {
+        String name = token == null ? null : playersByToken.get(token);
+        if (name == null)
+            return null;
+        EventSink old = sinks.put(name, sink);
+        if (old != null && old != sink)
+            old.close();
+        LOG.fine(name + " opened a push channel.");
+        return name;
+    }
+
+    /**
+     * Forget a channel that closed
+     * @param name the player of the channel
+     * @param sink the channel
+     */
+    public void disconnect(String name, EventSink sink) {
+        if (name != null && sinks.remove(name, sink))
+            LOG.fine(name + " closed their push channel.");
+    }
+
+    /**
+     * Checks whether a player has an open channel
+     * @param name the player
+     * @return true if events reach the player
+     */
+    public boolean isConnected(String name) {
+        return sinks.containsKey(name);
+    }
+
+    /**
+     * Gets the number of channels open
+     * @return number of channels
+     */
+    public int numConnected() {
+        return sinks.size();
+    }
+
+    /**
+     * Send an event to a player, if they have a channel
+     */
+    private void send(Player player, Map<String, Object> event) {
+        EventSink sink = sinks.get(player.getName());
+        if (sink != null)
+            sink.send(gson.toJson(event));
+    }
+
+    /**
+     * Start an event
+     */
+    private static Map<String, Object> event(String type, Match match) {
+        Map<String, Object> event = new LinkedHashMap<>(4);
+        event.put("type", type);
+        event.put("activeColor", match.getActiveColor());
+        return event;
+    }
+
+    @Override
+    public void turnEnded(Match match, Player mover, List<Move> moves) {
+        Player opponent = mover.equals(match.getRedPlayer()) ? match.getWhitePlayer() : match.getRedPlayer();
+        send(mover, event(TURN_CHANGED, match));
+        Map<String, Object> moved = event(OPPONENT_MOVED, match);
+        moved.put("moves", moves);
+        send(opponent, moved);
+    }
+
+    @Override
+    public void gameEnded(Match match) {
+        Map<String, Object> ended = event(match.isGameResigned() == Match.STATE.resigned ? RESIGNED : GAME_OVER,
+                match);
+        ended.put("message", match.getGameOverMessage());
+        send(match.getRedPlayer(), ended);
+        send(match.getWhitePlayer(), ended);
+    }
+}
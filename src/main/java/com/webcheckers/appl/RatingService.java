@@ -0,0 +1,294 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.EloRating;
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.RatingAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Rates players from the results of their games.
+ *
+ * <p>
+ * When a match ends both players are re-rated at once and the result is added
+ * to the game archive. The archive can later be replayed with another
+ * {@link RatingAlgorithm}, or other parameters, by {@link #recompute}, to see
+ * what the ratings would be; that changes nothing. {@link #apply} replays it
+ * the same way and then makes the new ratings, and the algorithm, the ones
+ * in use.
+ * </p>
+ */
+public class RatingService {
+    private static final Logger LOG = Logger.getLogger(RatingService.class.getName());
+
+    // the number of games in a rating period when recomputing
+    public static final int DEFAULT_PERIOD_SIZE = 10000;
+
+    //Attributes
+    private RatingAlgorithm algorithm;
+    private final List<GameResult> archive = new ArrayList<>();
+
+    /**
+     * Constructor for a RatingService using Elo and an empty archive
+     */
+    public RatingService() {
+        this(new EloRating());
+    }
+
+    /**
+     * Constructor for a RatingService with an empty archive
+     * @param algorithm the algorithm used to rate new games
+     */
+    public RatingService(RatingAlgorithm algorithm) {
+        this.algorithm = Objects.requireNonNull(algorithm, "algorithm must not be null");
+    }
+
+    /**
+     * Replace the archive, used once at start up
+     * @param results the results read from the game archive, oldest first
+     */
+    public synchronized void loadArchive(Collection<GameResult> results) {
+        archive.clear();
+        archive.addAll(results);
+        LOG.config("Game archive loaded with " + archive.size() + " games.");
+    }
+
+    /**
+     * Gets the algorithm rating new games
+     * @return the algorithm
+     */
+    public synchronized RatingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the number of games in the archive
+     * @return number of games
+     */
+    public synchronized int numGames() {
+        return archive.size();
+    }
+
+    /**
+     * Gets a copy of the archive
+     * @return every result, oldest first
+     */
+    public synchronized List<GameResult> getArchive() {
+        return new ArrayList<>(archive);
+    }
+
+    /**
+     * Re-rate both players of a finished match and archive the result. Only the
+     * first call for a match does anything, so either player may make it.
+     * @param match the finished match
+     * @param winner the player who won
+     * @param loser the player who lost
+     * @return the archived result, or null if the match was already recorded
+     */
+    public synchronized GameResult recordResult(Match match, Player winner, Player loser) {
+        if (!match.markResultRecorded())
+            return null;
+        double winnerRating = winner.getRating();
+        double loserRating = loser.getRating();
+        winner.setRating(algorithm.rate(winnerRating, new double[]{loserRating}, new double[]{1.0}, 0, 1));
+        loser.setRating(algorithm.rate(loserRating, new double[]{winnerRating}, new double[]{0.0}, 0, 1));
+
+        GameResult result = new GameResult(winner.getName(), loser.getName(), System.currentTimeMillis());
+        archive.add(result);
+        return result;
+    }
+
+    /**
+     * Work out every rating again from the whole archive with the given
+     * algorithm, as a dry run: the ratings players have and the algorithm
+     * rating new games are left as they are, so a choice of algorithm can be
+     * tried on the games played without the two ever disagreeing.
+     *
+     * <p>
+     * The archive is cut into rating periods of {@code periodSize} games. The
+     * periods are replayed in order, but within a period each player is rated
+     * on their own, so the players of a period are spread over every core.
+     * Players are numbered and their games of a period are laid out side by
+     * side in flat arrays, which keeps millions of games cheap to hold.
+     * </p>
+     *
+     * @param newAlgorithm the algorithm to rate with
+     * @param periodSize the number of games in a rating period, 1 replays games one at a time
+     * @return the rating every player in the archive would have
+     */
+    public Map<String, Double> recompute(RatingAlgorithm newAlgorithm, int periodSize) {
+        Objects.requireNonNull(newAlgorithm, "newAlgorithm must not be null");
+        if (periodSize < 1)
+            throw new IllegalArgumentException("periodSize must be at least 1");
+        List<GameResult> games;
+        synchronized (this) {
+            games = new ArrayList<>(archive);
+        }
+        return rate(games, newAlgorithm, periodSize);
+    }
+
+    /**
+     * Work out every rating again from the whole archive, as {@link #recompute}
+     * does, and put them in use: every player's stored record and the
+     * leaderboard get their new rating, and new games are rated with the given
+     * algorithm from then on.
+     *
+     * <p>
+     * The replay runs without holding up games being recorded. If one was
+     * recorded meanwhile it was rated the old way, so the replay starts again;
+     * otherwise the ratings are saved and the algorithm swapped while no game
+     * can be recorded, so no game is ever rated with one algorithm from
+     * ratings worked out by the other.
+     * </p>
+     *
+     * @param newAlgorithm the algorithm to rate with
+     * @param periodSize the number of games in a rating period, 1 replays games one at a time
+     * @param playerServices the players signed in, whose ratings are changed where they are
+     * @param storage where every player's record is saved
+     * @param leaderboardService the leaderboard, loaded again from storage
+     * @return the rating of every player in the archive, or null if they could
+     *     not be saved, in which case nothing has changed
+     */
+    public Map<String, Double> apply(RatingAlgorithm newAlgorithm, int periodSize, PlayerServices playerServices,
+                                     Storage storage, LeaderboardService leaderboardService) {
+        Objects.requireNonNull(newAlgorithm, "newAlgorithm must not be null");
+        if (periodSize < 1)
+            throw new IllegalArgumentException("periodSize must be at least 1");
+        while (true) {
+            List<GameResult> games;
+            synchronized (this) {
+                games = new ArrayList<>(archive);
+            }
+            Map<String, Double> ratings = rate(games, newAlgorithm, periodSize);
+            synchronized (this) {
+                if (archive.size() != games.size()) {
+                    LOG.fine("Games were recorded while ratings were recomputed; starting again.");
+                    continue;
+                }
+                // save copies first, so that a failed save leaves the players signed in as they were
+                List<Player> records = new ArrayList<>(ratings.size());
+                for (Map.Entry<String, Double> entry : ratings.entrySet()) {
+                    Player record = storage.findPlayer(entry.getKey());
+                    if (record == null)
+                        record = new Player(entry.getKey());
+                    record.setRating(entry.getValue());
+                    records.add(record);
+                }
+                if (!storage.savePlayers(records)) {
+                    LOG.warning("Recomputed ratings could not be saved; the old ones are still in use.");
+                    return null;
+                }
+                for (Map.Entry<String, Double> entry : ratings.entrySet()) {
+                    Player player = playerServices.getPlayer(entry.getKey());
+                    if (player != null)
+                        player.setRating(entry.getValue());
+                }
+                algorithm = newAlgorithm;
+                leaderboardService.loadStats(storage.readAllStats());
+                LOG.info("Ratings of " + ratings.size() + " players are now the recomputed ones.");
+                return ratings;
+            }
+        }
+    }
+
+    /**
+     * Replay games oldest first, in rating periods, with an algorithm
+     * @param games the games to replay
+     * @return the rating of every player in the games
+     */
+    private static Map<String, Double> rate(List<GameResult> games, RatingAlgorithm newAlgorithm, int periodSize) {
+        // number the players and turn the games into two arrays of numbers
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] winners = new int[games.size()];
+        int[] losers = new int[games.size()];
+        for (int g = 0; g < games.size(); g++) {
+            winners[g] = idOf(games.get(g).getWinner(), ids, names);
+            losers[g] = idOf(games.get(g).getLoser(), ids, names);
+        }
+
+        // a period never needs to be longer than the archive
+        int period = Math.min(periodSize, Math.max(1, games.size()));
+        double[] ratings = new double[names.size()];
+        Arrays.fill(ratings, newAlgorithm.initialRating());
+        // slot[p] is the position of player p among the players of the current period, -1 if absent
+        int[] slot = new int[names.size()];
+        Arrays.fill(slot, -1);
+        int maxPlayers = Math.min(names.size(), 2 * period);
+        int[] active = new int[maxPlayers];
+        int[] offsets = new int[maxPlayers + 1];
+        int[] fill = new int[maxPlayers];
+        double[] opponentRatings = new double[2 * period];
+        double[] scores = new double[2 * period];
+        double[] updated = new double[maxPlayers];
+
+        for (int start = 0; start < games.size(); start += period) {
+            int end = Math.min(games.size(), start + period);
+
+            // find the players of the period and count their games
+            int numActive = 0;
+            Arrays.fill(offsets, 0);
+            for (int g = start; g < end; g++) {
+                for (int side = 0; side < 2; side++) {
+                    int p = side == 0 ? winners[g] : losers[g];
+                    if (slot[p] < 0) {
+                        slot[p] = numActive;
+                        active[numActive++] = p;
+                    }
+                    offsets[slot[p] + 1]++;
+                }
+            }
+            for (int i = 0; i < numActive; i++) {
+                offsets[i + 1] += offsets[i];
+                fill[i] = offsets[i];
+            }
+            // lay out each player's games next to each other
+            for (int g = start; g < end; g++) {
+                int w = slot[winners[g]];
+                int l = slot[losers[g]];
+                opponentRatings[fill[w]] = ratings[losers[g]];
+                scores[fill[w]++] = 1.0;
+                opponentRatings[fill[l]] = ratings[winners[g]];
+                scores[fill[l]++] = 0.0;
+            }
+
+            // every player of the period only reads ratings from before it, so they can be rated in parallel
+            IntStream.range(0, numActive).parallel().forEach(i ->
+                    updated[i] = newAlgorithm.rate(ratings[active[i]], opponentRatings, scores,
+                            offsets[i], offsets[i + 1]));
+            for (int i = 0; i < numActive; i++) {
+                ratings[active[i]] = updated[i];
+                slot[active[i]] = -1;
+            }
+        }
+
+        Map<String, Double> result = new HashMap<>(names.size() * 2);
+        for (int p = 0; p < names.size(); p++)
+            result.put(names.get(p), ratings[p]);
+        LOG.info("Recomputed " + names.size() + " ratings from " + games.size() + " games.");
+        return result;
+    }
+
+    /**
+     * Gets the number of a player, numbering them on first sight
+     */
+    private static int idOf(String name, Map<String, Integer> ids, List<String> names) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,193 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.BoardHistory;
+import com.webcheckers.model.GameRecord;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchListener;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.util.SegmentedLog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps every finished game so it can be watched again.
+ *
+ * <p>
+ * The turns of each match are noted as they are played and, when it ends,
+ * the match becomes a {@link GameRecord} appended to a {@link SegmentedLog}
+ * of its own. The records are read back into memory when the server starts;
+ * at a few hundred bytes a game, they stay there. A match brought back
+ * after a restart is recorded from the turn it was brought back at.
+ * </p>
+ */
+public class ReplayArchive implements MatchListener {
+    private static final Logger LOG = Logger.getLogger(ReplayArchive.class.getName());
+
+    // most games listed for a player
+    public static final int DEFAULT_LIST_SIZE = 10;
+
+    /**
+     * The turns of a match being played, from the position they were first noted at
+     */
+    private static final class Recording {
+        private final int[] start;
+        private final Piece.Color toMove;
+        private final List<byte[]> turns = new ArrayList<>();
+
+        private Recording(int[] start, Piece.Color toMove) {
+            this.start = start;
+            this.toMove = toMove;
+        }
+    }
+
+    //Attributes
+    private final SegmentedLog log;
+    private final int keyframeInterval;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final Map<Long, GameRecord> games = new ConcurrentHashMap<>();
+    // each player's games, newest first
+    private final Map<String, Deque<GameRecord>> byPlayer = new ConcurrentHashMap<>();
+
+    /**
+     * ReplayArchive constructor
+     * @param log the log the games are kept in, opened
+     * @param keyframeInterval the number of turns between the positions kept whole
+     */
+    public ReplayArchive(SegmentedLog log, int keyframeInterval) {
+        Objects.requireNonNull(log, "log must not be null");
+        if (keyframeInterval < 1 || keyframeInterval > GameRecord.MAX_KEYFRAME_INTERVAL)
+            throw new IllegalArgumentException("keyframeInterval must be from 1 to "
+                    + GameRecord.MAX_KEYFRAME_INTERVAL);
+        this.log = log;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Read the games kept by earlier runs of the server
+     * @return the number of games read
+     */
+    public int load() {
+        int[] loaded = {0};
+        try {
+            log.read((sequence, record) -> {
+                try {
+                    add(GameRecord.decode(record));
+                    loaded[0]++;
+                } catch (IOException | IllegalArgumentException e) {
+                    LOG.log(Level.WARNING, "Skipped game " + sequence + " of the replay archive", e);
+                }
+            });
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the replay archive", e);
+        }
+        LOG.info("Read " + loaded[0] + " games to replay.");
+        return loaded[0];
+    }
+
+    @Override
+    public void matchStarted(Match match) {
+        recordings.put(match.getId(), new Recording(match.getBoardHistory().latest().getPosition(),
+                match.getActiveColor()));
+    }
+
+    @Override
+    public void turnEnded(Match match, Player mover, List<Move> moves) {
+        Piece.Color color = mover.equals(match.getRedPlayer()) ? Piece.Color.RED : Piece.Color.WHITE;
+        Recording recording = recordings.get(match.getId());
+        if (recording == null) {
+            // a match brought back after a restart, noted from the board before this turn
+            BoardHistory.Entry latest = match.getBoardHistory().latest();
+            int[] before = match.getBoardHistory().at(latest.getVersion() - 1);
+            if (before == null) {
+                recordings.putIfAbsent(match.getId(), new Recording(latest.getPosition(), match.getActiveColor()));
+                return;
+            }
+            recordings.putIfAbsent(match.getId(), new Recording(before, color));
+            recording = recordings.get(match.getId());
+        }
+        synchronized (recording) {
+            recording.turns.add(GameRecord.squares(moves, color));
+        }
+    }
+
+    @Override
+    public void gameEnded(Match match) {
+        Recording recording = recordings.remove(match.getId());
+        if (recording == null)
+            recording = new Recording(match.getBoardHistory().latest().getPosition(), match.getActiveColor());
+        GameRecord game;
+        synchronized (recording) {
+            game = GameRecord.of(match.getId(), match.getRedPlayer().getName(), match.getWhitePlayer().getName(),
+                    match.getGameOverMessage(), System.currentTimeMillis(), recording.start, recording.toMove,
+                    recording.turns, keyframeInterval);
+        }
+        if (log.append(game.encode()) < 0)
+            LOG.severe("Could not archive game " + game.getId() + "; it can be replayed until the server stops.");
+        add(game);
+    }
+
+    /**
+     * Index a finished game
+     */
+    private void add(GameRecord game) {
+        // a match started from now on must not take the id of a game kept
+        Match.reserveId(game.getId());
+        games.put(game.getId(), game);
+        byPlayer.computeIfAbsent(game.getRedPlayer(), name -> new ConcurrentLinkedDeque<>()).addFirst(game);
+        byPlayer.computeIfAbsent(game.getWhitePlayer(), name -> new ConcurrentLinkedDeque<>()).addFirst(game);
+    }
+
+    /**
+     * Gets a finished game
+     * @param id the id of its match
+     * @return the game, or null if there is none with that id
+     */
+    public GameRecord get(long id) {
+        return games.get(id);
+    }
+
+    /**
+     * Gets the games a player played, newest first
+     * @param name the name of the player
+     * @param limit the most games to get
+     * @return the games
+     */
+    public List<GameRecord> gamesOf(String name, int limit) {
+        List<GameRecord> list = new ArrayList<>();
+        Deque<GameRecord> played = byPlayer.get(name);
+        if (played == null)
+            return list;
+        for (GameRecord game : played) {
+            if (list.size() == limit)
+                break;
+            list.add(game);
+        }
+        return list;
+    }
+
+    /**
+     * Close the archive; games ending from now on are kept only until the server stops
+     */
+    public void close() {
+        log.close();
+    }
+
+    /**
+     * Gets the number of finished games kept
+     * @return number of games
+     */
+    public int size() {
+        return games.size();
+    }
+}
@@ -0,0 +1,240 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Player;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Saves every live match now and then, and as the server stops, and brings
+ * them back as it starts, so a restart loses at most the turns played since
+ * the last snapshot.
+ *
+ * <p>
+ * The live matches are saved together as one snapshot under
+ * {@link #LIVE_ID}, which {@link CsvStorage} writes to a file of its own,
+ * whole or not at all. A snapshot is a header followed by each match as
+ * {@link Match#writeSnapshot} writes it, behind its length: about 40 bytes a
+ * match, so 50,000 matches take 2 MB. The lengths let the matches be read
+ * back on every core at once. A damaged match is skipped, and a snapshot
+ * cut short gives back the matches before the cut.
+ * </p>
+ *
+ * <p>
+ * With a {@link MatchEventLog}, the turns played since the last snapshot are
+ * played again from the log, so a restart loses none; each snapshot saved
+ * lets the log drop the events before it.
+ * </p>
+ */
+public class SnapshotService {
+    private static final Logger LOG = Logger.getLogger(SnapshotService.class.getName());
+
+    public static final String LIVE_ID = "live";
+    public static final long DEFAULT_INTERVAL_SECONDS = 30;
+    // "WCS" and the version of the format
+    private static final int MAGIC = 0x57435302;
+    private static final int HEADER_BYTES = 8;
+
+    //Attributes
+    private final GameCenter gameCenter;
+    private final Storage storage;
+    private final MatchEventLog eventLog;
+    private ScheduledExecutorService timer;
+
+    /**
+     * SnapshotService constructor
+     * @param gameCenter the matches
+     * @param storage where the snapshot is kept
+     */
+    public SnapshotService(GameCenter gameCenter, Storage storage) {
+        this(gameCenter, storage, null);
+    }
+
+    /**
+     * SnapshotService constructor
+     * @param gameCenter the matches
+     * @param storage where the snapshot is kept
+     * @param eventLog the log of the turns played since the last snapshot, or null if there is none
+     */
+    public SnapshotService(GameCenter gameCenter, Storage storage, MatchEventLog eventLog) {
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(storage, "storage must not be null");
+        this.gameCenter = gameCenter;
+        this.storage = storage;
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * Save every live match, replacing the last snapshot
+     * @return the number of matches saved, or -1 if the snapshot could not be saved
+     */
+    public int snapshot() {
+        // every event logged before this has already changed the matches about to be saved
+        long position = eventLog == null ? 0 : eventLog.position();
+        List<Match> live = gameCenter.liveMatches();
+        byte[] snapshot = write(live);
+        if (!storage.saveMatchSnapshot(LIVE_ID, snapshot))
+            return -1;
+        if (eventLog != null)
+            eventLog.compact(position);
+        LOG.fine("Saved " + live.size() + " live matches in " + snapshot.length + " bytes.");
+        return live.size();
+    }
+
+    /**
+     * Bring back the matches of the last snapshot, and of the event log since
+     * @return the number of matches brought back
+     */
+    public int restore() {
+        byte[] snapshot = storage.readMatchSnapshots().get(LIVE_ID);
+        if (snapshot == null && eventLog == null)
+            return 0;
+        long begin = System.nanoTime();
+        // players of a name are looked up once, and shared by the threads reading the matches
+        Map<String, Player> players = new ConcurrentHashMap<>();
+        Function<String, Player> lookup = name -> players.computeIfAbsent(name, this::loadPlayer);
+        List<Match> matches = snapshot == null ? Collections.emptyList() : read(snapshot, lookup);
+        if (eventLog != null)
+            matches = eventLog.replay(matches, lookup);
+        int restored = gameCenter.restoreMatches(matches);
+        LOG.info(String.format("Brought back %d live matches in %.3f s.", restored,
+                (System.nanoTime() - begin) / 1e9));
+        return restored;
+    }
+
+    /**
+     * Save the live matches every so often, until stopped
+     * @param intervalSeconds the time between snapshots; 0 or less saves only when stopped
+     */
+    public synchronized void start(long intervalSeconds) {
+        if (timer != null || intervalSeconds <= 0)
+            return;
+        timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "match-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            // a failed snapshot must not stop the next one
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                LOG.log(Level.SEVERE, "Could not snapshot the live matches", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop saving every so often and save the live matches one last time
+     * @return the number of matches saved, or -1 if the snapshot could not be saved
+     */
+    public synchronized int stop() {
+        if (timer != null) {
+            timer.shutdown();
+            try {
+                timer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            timer = null;
+        }
+        return snapshot();
+    }
+
+    /**
+     * Look up a player of a match brought back, as they were last saved
+     */
+    private Player loadPlayer(String name) {
+        Player player = storage.findPlayer(name);
+        return player != null ? player : new Player(name);
+    }
+
+    /**
+     * Write matches as a snapshot
+     * @param matches the matches
+     * @return the snapshot
+     */
+    static byte[] write(List<Match> matches) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_BYTES + 48 * matches.size());
+        ByteArrayOutputStream record = new ByteArrayOutputStream(64);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            DataOutputStream recordOut = new DataOutputStream(record);
+            out.writeInt(MAGIC);
+            out.writeInt(matches.size());
+            for (Match match : matches) {
+                record.reset();
+                match.writeSnapshot(recordOut);
+                out.writeInt(record.size());
+                record.writeTo(out);
+            }
+        } catch (IOException e) {
+            // written to memory, which does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read the matches of a snapshot, on every core at once
+     * @param snapshot the snapshot
+     * @param players gives the player of a name; called from several threads
+     * @return the matches that could be read
+     */
+    static List<Match> read(byte[] snapshot, Function<String, Player> players) {
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        if (snapshot.length < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            LOG.warning("Ignored a match snapshot in an unknown format.");
+            return Collections.emptyList();
+        }
+        int count = buffer.getInt();
+        List<int[]> records = new ArrayList<>(Math.max(0, Math.min(count, snapshot.length / 4)));
+        // the lengths are walked first, so that the matches themselves can be read in any order
+        for (int i = 0; i < count; i++) {
+            int length = buffer.remaining() < 4 ? -1 : buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                LOG.warning("Match snapshot cut short after " + i + " of " + count + " matches.");
+                break;
+            }
+            records.add(new int[]{buffer.position(), length});
+            buffer.position(buffer.position() + length);
+        }
+        return records.parallelStream()
+                .map(record -> readMatch(snapshot, record[0], record[1], players))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Read one match of a snapshot
+     * @return the match, or null if it could not be read
+     */
+    private static Match readMatch(byte[] snapshot, int offset, int length, Function<String, Player> players) {
+        try {
+            return Match.readSnapshot(new DataInputStream(new ByteArrayInputStream(snapshot, offset, length)),
+                    players);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.log(Level.WARNING, "Skipped a damaged match in the snapshot", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchListener;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.SpectatorFrame;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the latest {@link SpectatorFrame} of every match for its spectators.
+ *
+ * <p>
+ * A frame is taken once as each turn ends, whatever the number of
+ * spectators, and they all read that frame; no spectator ever reads or
+ * locks a match, so watching a match costs its players one small object a
+ * turn. The frames of the last {@link #DEFAULT_ENDED_KEPT} matches to end
+ * are kept, so spectators see how they ended; the frame of a match its
+ * players left without ending it goes when the match is removed.
+ * </p>
+ */
+public class SpectatorService implements MatchListener {
+    private static final Logger LOG = Logger.getLogger(SpectatorService.class.getName());
+
+    // most games listed to watch
+    public static final int DEFAULT_LIST_SIZE = 10;
+    // ended matches whose last frame is kept
+    public static final int DEFAULT_ENDED_KEPT = 64;
+
+    //Attributes
+    private final int endedKept;
+    private final Map<Long, SpectatorFrame> frames = new ConcurrentHashMap<>();
+    // ids of the ended matches still kept, oldest first
+    private final Deque<Long> ended = new ArrayDeque<>();
+
+    /**
+     * SpectatorService constructor
+     */
+    public SpectatorService() {
+        this(DEFAULT_ENDED_KEPT);
+    }
+
+    /**
+     * SpectatorService constructor
+     * @param endedKept the number of ended matches whose last frame is kept
+     */
+    public SpectatorService(int endedKept) {
+        if (endedKept < 0)
+            throw new IllegalArgumentException("endedKept must not be negative");
+        this.endedKept = endedKept;
+    }
+
+    /**
+     * Take a frame of matches that started before the service was listening,
+     * such as those brought back from a snapshot
+     * @param matches the matches
+     * @return the number of frames taken
+     */
+    public int publish(Collection<Match> matches) {
+        for (Match match : matches)
+            publish(SpectatorFrame.of(match));
+        LOG.fine("Took frames of " + matches.size() + " matches.");
+        return matches.size();
+    }
+
+    /**
+     * Keep a frame, unless a newer one of its match is already kept
+     */
+    private void publish(SpectatorFrame frame) {
+        frames.merge(frame.getMatchId(), frame,
+                (kept, taken) -> taken.getVersion() >= kept.getVersion() ? taken : kept);
+    }
+
+    @Override
+    public void matchStarted(Match match) {
+        publish(SpectatorFrame.of(match));
+    }
+
+    @Override
+    public void turnEnded(Match match, Player mover, List<Move> moves) {
+        publish(SpectatorFrame.of(match));
+    }
+
+    @Override
+    public void gameEnded(Match match) {
+        publish(SpectatorFrame.of(match));
+        synchronized (ended) {
+            ended.addLast(match.getId());
+            while (ended.size() > endedKept)
+                frames.remove(ended.removeFirst());
+        }
+    }
+
+    @Override
+    public void matchRemoved(Match match) {
+        // an ended match's frame is kept with the others that ended, but one left running would be listed forever
+        frames.computeIfPresent(match.getId(), (id, frame) -> frame.isGameOver() ? frame : null);
+    }
+
+    /**
+     * Gets the latest frame of a match
+     * @param matchId the id of the match
+     * @return the frame, or null if the match is not known or ended long ago
+     */
+    public SpectatorFrame frame(long matchId) {
+        return frames.get(matchId);
+    }
+
+    /**
+     * Gets the latest frames of matches being played, newest match first
+     * @param limit the most frames to get
+     * @return the frames
+     */
+    public List<SpectatorFrame> liveFrames(int limit) {
+        List<SpectatorFrame> live = new ArrayList<>();
+        for (SpectatorFrame frame : frames.values()) {
+            if (!frame.isGameOver())
+                live.add(frame);
+        }
+        live.sort((a, b) -> Long.compare(b.getMatchId(), a.getMatchId()));
+        return live.size() > limit ? new ArrayList<>(live.subList(0, limit)) : live;
+    }
+
+    /**
+     * Gets the number of frames kept
+     * @return number of frames
+     */
+    public int numFrames() {
+        return frames.size();
+    }
+}
@@ -0,0 +1,290 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.util.ConnectionPool;
+import com.webcheckers.util.ProfileEvents.StatsWriteEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Storage in an embedded H2 database.
+ *
+ * <p>
+ * Every query is a prepared statement run on a connection borrowed from a
+ * small {@link ConnectionPool}. Players are saved with a MERGE keyed on their
+ * name, and many players at once are saved as one batch in one transaction,
+ * so a batch costs a single commit however large it is.
+ * </p>
+ */
+public class SqlStorage implements Storage {
+    private static final Logger LOG = Logger.getLogger(SqlStorage.class.getName());
+
+    public static final String DEFAULT_URL = "jdbc:h2:./data/webcheckers";
+    public static final int DEFAULT_POOL_SIZE = 4;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS players (" +
+                    "name VARCHAR(255) PRIMARY KEY, games INT NOT NULL, won INT NOT NULL, lost INT NOT NULL, " +
+                    "pieces_taken INT NOT NULL, pieces_lost INT NOT NULL, rating DOUBLE NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS game_results (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, winner VARCHAR(255) NOT NULL, " +
+                    "loser VARCHAR(255) NOT NULL, played BIGINT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS match_snapshots (" +
+                    "id VARCHAR(64) PRIMARY KEY, snapshot BLOB NOT NULL)"
+    };
+    private static final String FIND_PLAYER =
+            "SELECT games, won, lost, pieces_taken, pieces_lost, rating FROM players WHERE name = ?";
+    private static final String MERGE_PLAYER =
+            "MERGE INTO players (name, games, won, lost, pieces_taken, pieces_lost, rating) KEY (name) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ALL_STATS =
+            "SELECT name, games, won, lost, pieces_taken, pieces_lost, rating FROM players";
+    private static final String INSERT_RESULT = "INSERT INTO game_results (winner, loser, played) VALUES (?, ?, ?)";
+    private static final String ALL_RESULTS = "SELECT winner, loser, played FROM game_results ORDER BY id";
+    private static final String MERGE_SNAPSHOT = "MERGE INTO match_snapshots (id, snapshot) KEY (id) VALUES (?, ?)";
+    private static final String ALL_SNAPSHOTS = "SELECT id, snapshot FROM match_snapshots";
+    private static final String DELETE_SNAPSHOT = "DELETE FROM match_snapshots WHERE id = ?";
+
+    //Attributes
+    private final String url;
+    private final int poolSize;
+    private ConnectionPool pool;
+
+    /**
+     * SqlStorage constructor, nothing is opened until {@link #open()}
+     * @param url the JDBC url of the database
+     * @param poolSize the number of pooled connections
+     */
+    public SqlStorage(String url, int poolSize) {
+        this.url = Objects.requireNonNull(url, "url must not be null");
+        if (poolSize < 1)
+            throw new IllegalArgumentException("poolSize must be at least 1");
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Open the pool and create any missing tables
+     * @throws IllegalStateException if the database cannot be opened
+     */
+    @Override
+    public synchronized void open() {
+        if (pool != null)
+            return;
+        try {
+            pool = new ConnectionPool(url, poolSize);
+            pool.execute(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String table : SCHEMA)
+                        statement.execute(table);
+                }
+                return null;
+            });
+            LOG.config("Opened " + url + " with " + poolSize + " connections.");
+        } catch (SQLException e) {
+            if (pool != null)
+                pool.close();
+            pool = null;
+            throw new IllegalStateException("Could not open " + url, e);
+        }
+    }
+
+    /**
+     * Gets the open pool
+     */
+    private synchronized ConnectionPool pool() throws SQLException {
+        if (pool == null)
+            throw new SQLException("The storage is not open");
+        return pool;
+    }
+
+    @Override
+    public Player findPlayer(String name) {
+        try {
+            return pool().execute(connection -> {
+                try (PreparedStatement find = connection.prepareStatement(FIND_PLAYER)) {
+                    find.setString(1, name);
+                    try (ResultSet row = find.executeQuery()) {
+                        if (!row.next())
+                            return null;
+                        return new Player(name, row.getInt(1), row.getInt(2), row.getInt(3),
+                                row.getInt(4), row.getInt(5), row.getDouble(6));
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not find " + name, e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean savePlayer(Player player) {
+        return savePlayers(Collections.singletonList(player));
+    }
+
+    @Override
+    public boolean savePlayers(Collection<Player> players) {
+        if (players.isEmpty())
+            return true;
+        StatsWriteEvent event = StatsWriteEvent.begin("sql", players.iterator().next().getName(), players.size());
+        try {
+            event.saved = pool().execute(connection -> {
+                connection.setAutoCommit(false);
+                try (PreparedStatement merge = connection.prepareStatement(MERGE_PLAYER)) {
+                    for (Player player : players) {
+                        merge.setString(1, player.getName());
+                        merge.setInt(2, player.getGames());
+                        merge.setInt(3, player.getWon());
+                        merge.setInt(4, player.getLost());
+                        merge.setInt(5, player.getPiecesTaken());
+                        merge.setInt(6, player.getPiecesLost());
+                        merge.setDouble(7, player.getRating());
+                        merge.addBatch();
+                    }
+                    merge.executeBatch();
+                }
+                connection.commit();
+                connection.setAutoCommit(true);
+                return true;
+            });
+            return event.saved;
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not save " + players.size() + " players", e);
+            return false;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public List<PlayerStats> readAllStats() {
+        try {
+            return pool().execute(connection -> {
+                List<PlayerStats> stats = new ArrayList<>();
+                try (PreparedStatement all = connection.prepareStatement(ALL_STATS);
+                     ResultSet row = all.executeQuery()) {
+                    while (row.next()) {
+                        stats.add(new PlayerStats(row.getString(1), row.getInt(2), row.getInt(3), row.getInt(4),
+                                row.getInt(5), row.getInt(6), (int) Math.round(row.getDouble(7))));
+                    }
+                }
+                return stats;
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not read the players", e);
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean appendGameResult(GameResult result) {
+        try {
+            return pool().execute(connection -> {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_RESULT)) {
+                    insert.setString(1, result.getWinner());
+                    insert.setString(2, result.getLoser());
+                    insert.setLong(3, result.getTime());
+                    return insert.executeUpdate() == 1;
+                }
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not archive " + result, e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<GameResult> readGameResults() {
+        try {
+            return pool().execute(connection -> {
+                List<GameResult> results = new ArrayList<>();
+                try (PreparedStatement all = connection.prepareStatement(ALL_RESULTS);
+                     ResultSet row = all.executeQuery()) {
+                    while (row.next())
+                        results.add(new GameResult(row.getString(1), row.getString(2), row.getLong(3)));
+                }
+                return results;
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not read the game archive", e);
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean saveMatchSnapshot(String id, byte[] snapshot) {
+        if (!CsvStorage.MATCH_ID.matcher(id).matches()) {
+            LOG.warning("Refused to save a snapshot of match " + id);
+            return false;
+        }
+        try {
+            return pool().execute(connection -> {
+                try (PreparedStatement merge = connection.prepareStatement(MERGE_SNAPSHOT)) {
+                    merge.setString(1, id);
+                    merge.setBytes(2, snapshot);
+                    merge.executeUpdate();
+                    return true;
+                }
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not save a snapshot of match " + id, e);
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> readMatchSnapshots() {
+        try {
+            return pool().execute(connection -> {
+                Map<String, byte[]> snapshots = new HashMap<>();
+                try (PreparedStatement all = connection.prepareStatement(ALL_SNAPSHOTS);
+                     ResultSet row = all.executeQuery()) {
+                    while (row.next())
+                        snapshots.put(row.getString(1), row.getBytes(2));
+                }
+                return snapshots;
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not read the match snapshots", e);
+            return new HashMap<>();
+        }
+    }
+
+    @Override
+    public boolean deleteMatchSnapshot(String id) {
+        try {
+            return pool().execute(connection -> {
+                try (PreparedStatement delete = connection.prepareStatement(DELETE_SNAPSHOT)) {
+                    delete.setString(1, id);
+                    return delete.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            LOG.log(Level.SEVERE, "Could not delete the snapshot of match " + id, e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CSVutility;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.ui.WebServer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a whole statistics file at once, for start up, migrations and restores.
+ *
+ * <p>
+ * The file is cut into chunks of about {@link #DEFAULT_CHUNK_SIZE} bytes, each
+ * ending at the end of a line. Player names may only hold letters, digits and
+ * spaces, so a line break always ends a record and the cuts can be found
+ * without reading the file from the start. The chunks are then parsed and
+ * validated straight from their bytes by a fork-join pool, one chunk per task.
+ * Only checking for repeated names is left for a single pass at the end.
+ * </p>
+ *
+ * <p>
+ * Run {@link #main} with the path of a statistics file to check it and see how
+ * fast it imports.
+ * </p>
+ */
+public class StatisticsImporter {
+    private static final Logger LOG = Logger.getLogger(StatisticsImporter.class.getName());
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+    public static final int MAX_REJECTIONS_KEPT = 1000;
+    // a name and five counters, then optionally a rating and a checksum
+    private static final int MIN_FIELDS = CSVutility.LEGACY_RECORD_LENGTH;
+    private static final int MAX_FIELDS = CSVutility.RECORD_LENGTH;
+    private static final String[] COUNTER_NAMES = {"games", "won", "lost", "piecesTaken", "piecesLost"};
+
+    //Attributes
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Constructor for an importer using the common fork-join pool
+     */
+    public StatisticsImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor for an importer
+     * @param pool the pool that parses the chunks
+     * @param chunkSize the number of bytes in a chunk, rounded up to the end of a line
+     */
+    public StatisticsImporter(ForkJoinPool pool, int chunkSize) {
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be positive");
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * The players and rejected rows of one chunk; line numbers count from the start of the chunk.
+     */
+    private static final class Chunk {
+        private final long start;
+        private final long end;
+        private final List<PlayerStats> players = new ArrayList<>();
+        // the line of each kept player, so that repeated names can be reported
+        private int[] playerLines = new int[16];
+        private final List<Integer> rejectedLines = new ArrayList<>();
+        private final List<String> rejectedReasons = new ArrayList<>();
+        private int lines = 0;
+        private long rejected = 0;
+
+        private Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void accept(PlayerStats player) {
+            if (players.size() == playerLines.length)
+                playerLines = Arrays.copyOf(playerLines, playerLines.length * 2);
+            playerLines[players.size()] = lines;
+            players.add(player);
+        }
+
+        private void reject(String reason) {
+            rejected++;
+            if (rejectedReasons.size() < MAX_REJECTIONS_KEPT) {
+                rejectedLines.add(lines);
+                rejectedReasons.add(reason);
+            }
+        }
+    }
+
+    /**
+     * Parses a run of chunks, splitting it in half until one chunk is left.
+     */
+    private static final class ParseTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        private ParseTask(FileChannel channel, Chunk[] chunks, int from, int to) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    parseChunk(channel, chunks[from]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseTask(channel, chunks, from, middle), new ParseTask(channel, chunks, middle, to));
+        }
+    }
+
+    /**
+     * Import a statistics file.
+     * @param file the file to read
+     * @return the valid players and what was rejected
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importFile(Path file) throws IOException {
+        long begin = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Chunk[] chunks = split(channel);
+            if (chunks.length > 0) {
+                try {
+                    pool.invoke(new ParseTask(channel, chunks, 0, chunks.length));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            return merge(chunks, System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Import a statistics file and replace the leaderboard with its players.
+     * @param file the file to read
+     * @param leaderboardService the leaderboard to load
+     * @return the valid players and what was rejected
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importInto(Path file, LeaderboardService leaderboardService) throws IOException {
+        ImportReport report = importFile(file);
+        leaderboardService.loadStats(report.getPlayers());
+        return report;
+    }
+
+    /**
+     * Cut the file into chunks that each end at the end of a line.
+     */
+    private Chunk[] split(FileChannel channel) throws IOException {
+        long length = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long start = 0;
+        while (start < length) {
+            long end = Math.min(length, start + chunkSize);
+            // move the cut forward to just after the next line break
+            boolean found = end == length;
+            while (!found) {
+                buffer.clear();
+                int read = channel.read(buffer, end);
+                if (read <= 0) {
+                    end = length;
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        end += i + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found)
+                    end += read;
+            }
+            if (end - start > Integer.MAX_VALUE - 8)
+                throw new IOException("a line near byte " + start + " is too long to be a player record");
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks.toArray(new Chunk[0]);
+    }
+
+    /**
+     * Read a chunk into memory and parse every line of it.
+     */
+    private static void parseChunk(FileChannel channel, Chunk chunk) throws IOException {
+        int length = (int) (chunk.end - chunk.start);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, chunk.start + buffer.position()) < 0)
+                throw new EOFException("file shrank while it was being imported");
+        }
+        byte[] bytes = buffer.array();
+        int[] fieldStart = new int[MAX_FIELDS + 1];
+        int[] fieldEnd = new int[MAX_FIELDS + 1];
+
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes[lineEnd] != '\n')
+                lineEnd++;
+            chunk.lines++;
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && bytes[contentEnd - 1] == '\r')
+                contentEnd--;
+            if (contentEnd > lineStart)
+                parseLine(bytes, lineStart, contentEnd, fieldStart, fieldEnd, chunk);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Split one line into fields, validate it and keep it or reject it.
+     */
+    private static void parseLine(byte[] bytes, int from, int to, int[] fieldStart, int[] fieldEnd, Chunk chunk) {
+        int fields = 0;
+        int i = from;
+        while (true) {
+            if (fields > MAX_FIELDS) {
+                chunk.reject("more than " + MAX_FIELDS + " fields");
+                return;
+            }
+            if (i < to && bytes[i] == '"') {
+                // a quoted field; player data never holds a quote, so a doubled quote is an error
+                int close = i + 1;
+                while (close < to && bytes[close] != '"')
+                    close++;
+                if (close >= to) {
+                    chunk.reject("unterminated quote");
+                    return;
+                }
+                fieldStart[fields] = i + 1;
+                fieldEnd[fields] = close;
+                i = close + 1;
+                if (i < to && bytes[i] != ',') {
+                    chunk.reject("unexpected character after a quoted field");
+                    return;
+                }
+            } else {
+                int comma = i;
+                while (comma < to && bytes[comma] != ',')
+                    comma++;
+                fieldStart[fields] = i;
+                fieldEnd[fields] = comma;
+                i = comma;
+            }
+            fields++;
+            if (i >= to)
+                break;
+            i++; // skip the comma
+        }
+        if (fields < MIN_FIELDS) {
+            chunk.reject("expected " + MIN_FIELDS + " to " + MAX_FIELDS + " fields but found " + fields);
+            return;
+        }
+        if (fields == CSVutility.RECORD_LENGTH && !checksumMatches(bytes, fieldStart, fieldEnd)) {
+            chunk.reject("checksum does not match");
+            return;
+        }
+
+        if (!isValidName(bytes, fieldStart[0], fieldEnd[0])) {
+            chunk.reject("invalid player name");
+            return;
+        }
+        int[] counters = new int[COUNTER_NAMES.length];
+        for (int c = 0; c < counters.length; c++) {
+            counters[c] = parseCount(bytes, fieldStart[c + 1], fieldEnd[c + 1]);
+            if (counters[c] < 0) {
+                chunk.reject(COUNTER_NAMES[c] + " is not a whole number");
+                return;
+            }
+        }
+        if (counters[1] > counters[0] || counters[2] > counters[0]) {
+            chunk.reject("more games won or lost than played");
+            return;
+        }
+        double rating = Player.DEFAULT_RATING;
+        if (fields > CSVutility.RATING) {
+            try {
+                rating = Double.parseDouble(new String(bytes, fieldStart[CSVutility.RATING],
+                        fieldEnd[CSVutility.RATING] - fieldStart[CSVutility.RATING],
+                        StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                rating = Double.NaN;
+            }
+            if (Double.isNaN(rating) || Double.isInfinite(rating)) {
+                chunk.reject("rating is not a number");
+                return;
+            }
+        }
+        String name = new String(bytes, fieldStart[0], fieldEnd[0] - fieldStart[0], StandardCharsets.US_ASCII);
+        chunk.accept(new PlayerStats(name, counters[0], counters[1], counters[2], counters[3], counters[4],
+                (int) Math.round(rating)));
+    }
+
+    /**
+     * Checks the bytes of a record against its checksum, worked out the same way as {@link CSVutility#checksum}
+     */
+    private static boolean checksumMatches(byte[] bytes, int[] fieldStart, int[] fieldEnd) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < CSVutility.CHECKSUM; i++) {
+            if (i > 0)
+                crc.update(',');
+            crc.update(bytes, fieldStart[i], fieldEnd[i] - fieldStart[i]);
+        }
+        int from = fieldStart[CSVutility.CHECKSUM];
+        int to = fieldEnd[CSVutility.CHECKSUM];
+        if (to - from != 8)
+            return false;
+        long expected = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(bytes[i], 16);
+            if (digit < 0)
+                return false;
+            expected = (expected << 4) | digit;
+        }
+        return expected == crc.getValue();
+    }
+
+    /**
+     * Checks a name against the same rule as {@link Player#containsInvalidCharacter()}
+     */
+    private static boolean isValidName(byte[] bytes, int from, int to) {
+        if (from >= to)
+            return false;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (!((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == ' '))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parse a non-negative int
+     * @return the number, or -1 if the field is not one
+     */
+    private static int parseCount(byte[] bytes, int from, int to) {
+        if (from >= to || to - from > 10)
+            return -1;
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    /**
+     * Join the chunks in file order, numbering their lines and rejecting repeated names.
+     */
+    private static ImportReport merge(Chunk[] chunks, long parseNanos) {
+        long begin = System.nanoTime();
+        int total = 0;
+        for (Chunk chunk : chunks)
+            total += chunk.players.size();
+        List<PlayerStats> players = new ArrayList<>(total);
+        List<ImportReport.Rejection> rejections = new ArrayList<>();
+        Set<String> names = new HashSet<>(total * 2);
+        long rows = 0;
+        long rejected = 0;
+        long lineOffset = 0;
+        for (Chunk chunk : chunks) {
+            for (int r = 0; r < chunk.rejectedReasons.size() && rejections.size() < MAX_REJECTIONS_KEPT; r++)
+                rejections.add(new ImportReport.Rejection(lineOffset + chunk.rejectedLines.get(r),
+                        chunk.rejectedReasons.get(r)));
+            rejected += chunk.rejected;
+            rows += chunk.players.size() + chunk.rejected;
+            for (int p = 0; p < chunk.players.size(); p++) {
+                PlayerStats player = chunk.players.get(p);
+                if (names.add(player.getName())) {
+                    players.add(player);
+                } else {
+                    rejected++;
+                    if (rejections.size() < MAX_REJECTIONS_KEPT)
+                        rejections.add(new ImportReport.Rejection(lineOffset + chunk.playerLines[p],
+                                "repeated player " + player.getName()));
+                }
+            }
+            lineOffset += chunk.lines;
+        }
+        return new ImportReport(players, rows, rejected, rejections, parseNanos + System.nanoTime() - begin);
+    }
+
+    /**
+     * Import a statistics file and print what happened.
+     * @param args the path of the file, the one the web server uses by default
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : WebServer.csvFile);
+        ImportReport report = new StatisticsImporter().importInto(file, new LeaderboardService());
+        System.out.println(report);
+        for (ImportReport.Rejection rejection : report.getRejections())
+            System.out.println("  " + rejection);
+        LOG.fine("Imported " + file);
+    }
+}
@@ -0,0 +1,110 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where players' records, finished games and snapshots of running matches are kept.
+ *
+ * <p>
+ * The rest of the application only talks to this interface, so the backend
+ * can be picked when the server starts: {@link CsvStorage} keeps the original
+ * CSV files and {@link SqlStorage} uses an embedded SQL database. A backend
+ * logs its own errors; writes report whether they worked and reads return
+ * nothing rather than fail, the same way the CSV files always have.
+ * </p>
+ */
+public interface Storage extends Closeable {
+
+    /**
+     * Get the storage ready, run once at start up before anything else
+     */
+    void open();
+
+    /**
+     * Find the stored records of a player
+     * @param name the name of the player
+     * @return the player, or null if they have never been stored
+     */
+    Player findPlayer(String name);
+
+    /**
+     * Find the stored records of a player, storing a new player if there are none
+     * @param name the name of the player
+     * @return the player
+     */
+    default Player findOrAddPlayer(String name) {
+        Player player = findPlayer(name);
+        if (player == null) {
+            player = new Player(name);
+            savePlayer(player);
+        }
+        return player;
+    }
+
+    /**
+     * Durably save the records of a player, adding or replacing them
+     * @param player the player
+     * @return true if the records were saved
+     */
+    boolean savePlayer(Player player);
+
+    /**
+     * Durably save the records of many players at once
+     * @param players the players
+     * @return true if every record was saved
+     */
+    boolean savePlayers(Collection<Player> players);
+
+    /**
+     * Read the records of every stored player, for loading the leaderboard
+     * @return the records
+     */
+    List<PlayerStats> readAllStats();
+
+    /**
+     * Add a finished game to the game archive
+     * @param result the result of the game
+     * @return true if the result was saved
+     */
+    boolean appendGameResult(GameResult result);
+
+    /**
+     * Read the game archive
+     * @return every result, oldest first
+     */
+    List<GameResult> readGameResults();
+
+    /**
+     * Save a snapshot of a running match, replacing any earlier one
+     * @param id the match, letters, digits, '-' and '_' only
+     * @param snapshot the encoded state of the match
+     * @return true if the snapshot was saved
+     */
+    boolean saveMatchSnapshot(String id, byte[] snapshot);
+
+    /**
+     * Read every saved match snapshot
+     * @return the snapshots by match
+     */
+    Map<String, byte[]> readMatchSnapshots();
+
+    /**
+     * Delete the snapshot of a match that is over
+     * @param id the match
+     * @return true if there was a snapshot to delete
+     */
+    boolean deleteMatchSnapshot(String id);
+
+    /**
+     * Release the storage; nothing may be stored afterwards
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,128 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Player;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same work against each storage backend and prints how fast each is.
+ *
+ * <p>
+ * Usage: {@code StorageBenchmark [players]}. Both backends are given fresh
+ * files in a temporary directory, which is deleted afterwards, and are timed
+ * on saving players one at a time, saving them all as one batch, finding
+ * them, reading every player back and archiving games.
+ * </p>
+ */
+public class StorageBenchmark {
+
+    public static final int DEFAULT_PLAYERS = 1000;
+
+    //Attributes
+    private final int numPlayers;
+    private final Random random = new Random(42);
+
+    /**
+     * StorageBenchmark constructor
+     * @param numPlayers the number of players each backend stores
+     */
+    public StorageBenchmark(int numPlayers) {
+        if (numPlayers < 1)
+            throw new IllegalArgumentException("numPlayers must be at least 1");
+        this.numPlayers = numPlayers;
+    }
+
+    /**
+     * Make a player with made up records
+     */
+    private Player player(int i) {
+        int won = random.nextInt(100);
+        int lost = random.nextInt(100);
+        return new Player("Player" + i, won + lost, won, lost, random.nextInt(500), random.nextInt(500),
+                1000 + random.nextInt(1000));
+    }
+
+    /**
+     * Time every operation against one backend and print the results
+     * @param name the name of the backend
+     * @param storage the backend, not yet opened
+     */
+    public void run(String name, Storage storage) {
+        storage.open();
+        try {
+            List<Player> players = new ArrayList<>(numPlayers);
+            for (int i = 0; i < numPlayers; i++)
+                players.add(player(i));
+
+            long begin = System.nanoTime();
+            for (Player player : players)
+                storage.savePlayer(player);
+            report(name, "single saves", numPlayers, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            storage.savePlayers(players);
+            report(name, "batch save", numPlayers, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            for (Player player : players)
+                storage.findPlayer(player.getName());
+            report(name, "finds", numPlayers, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            int read = storage.readAllStats().size();
+            report(name, "read all", read, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            for (int i = 0; i < numPlayers; i++)
+                storage.appendGameResult(new GameResult("Player" + i, "Player" + (i + 1) % numPlayers, i));
+            report(name, "game results", numPlayers, System.nanoTime() - begin);
+        } finally {
+            storage.close();
+        }
+    }
+
+    /**
+     * Print one timing
+     */
+    private static void report(String backend, String operation, int count, long nanos) {
+        System.out.println(String.format("%-4s %-13s %8d in %8.3f s, %10.0f ops/s",
+                backend, operation, count, nanos / 1e9, count * 1e9 / Math.max(1, nanos)));
+    }
+
+    /**
+     * Delete a directory and everything in it
+     */
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+
+    /**
+     * Benchmark the CSV backend against the SQL backend.
+     * @param args the number of players, optional
+     * @throws IOException if the temporary directory cannot be made or deleted
+     */
+    public static void main(String[] args) throws IOException {
+        int numPlayers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        StorageBenchmark benchmark = new StorageBenchmark(numPlayers);
+        Path dir = Files.createTempDirectory("storage-benchmark");
+        try {
+            benchmark.run("csv", new CsvStorage(dir.resolve("Statistics.csv"), dir.resolve("GameResults.csv"),
+                    dir.resolve("snapshots")));
+            benchmark.run("sql", new SqlStorage("jdbc:h2:" + dir.resolve("webcheckers").toAbsolutePath(),
+                    SqlStorage.DEFAULT_POOL_SIZE));
+        } finally {
+            deleteAll(dir);
+        }
+    }
+}
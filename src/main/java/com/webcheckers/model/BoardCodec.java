@@ -0,0 +1,410 @@
+package com.webcheckers.model;
+
+/**
+ * The compact form of a checkers position: three 32 bit masks over the 32
+ * dark squares, one for the red pieces, one for the white pieces and one for
+ * the kings of either color, plus the color to move.
+ *
+ * <p>
+ * Square {@code k} is counted in row order as the red player sees the board,
+ * so it is row {@code k / 4}; the white player's view of the same square is
+ * {@code 31 - k}, which makes turning a board around one
+ * {@link Integer#reverse(int)} per mask. The masks are held in an
+ * {@code int[3]} indexed by {@link #RED}, {@link #WHITE} and {@link #KINGS}.
+ * </p>
+ *
+ * <p>
+ * A position has three forms besides the masks: {@link #BYTES} bytes (the
+ * masks big-endian, then 0 or 1 for red or white to move), the same bytes as
+ * {@link #TEXT_LENGTH} characters of unpadded URL-safe base64 for URLs, keys
+ * and JSON, and FEN as used by checkers programs, where red plays the dark
+ * side that moves first and squares are numbered 1 to 32 from white's side.
+ * Encoding and decoding between masks, bytes, text and the 64 character
+ * boards of {@link BoardHistory} write into arrays the caller passes and
+ * allocate nothing.
+ * </p>
+ */
+public final class BoardCodec {
+
+    public static final int SQUARES = 32;
+    // the masks, by index
+    public static final int RED = 0;
+    public static final int WHITE = 1;
+    public static final int KINGS = 2;
+    public static final int MASKS = 3;
+    // the length of the binary and text forms
+    public static final int BYTES = 13;
+    public static final int TEXT_LENGTH = 18;
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        java.util.Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++)
+            DIGITS[ALPHABET[i]] = (byte) i;
+    }
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Gets the dark square at a row and column
+     * @param row the row, as the red player sees it
+     * @param cell the column
+     * @return the square, or -1 for a light square
+     */
+    public static int square(int row, int cell) {
+        if (((row + cell) & 1) == 0)
+            return -1;
+        return (row << 2) + (cell >> 1);
+    }
+
+    /**
+     * Gets the row of a square
+     * @param square the square
+     * @return its row, as the red player sees it
+     */
+    public static int row(int square) {
+        return square >> 2;
+    }
+
+    /**
+     * Gets the column of a square
+     * @param square the square
+     * @return its column
+     */
+    public static int cell(int square) {
+        return ((square & 3) << 1) + ((square >> 2 & 1) == 0 ? 1 : 0);
+    }
+
+    /**
+     * Encode a board
+     * @param board the board as the red player sees it
+     * @param masks where the masks are written
+     */
+    public static void encode(BoardView board, int[] masks) {
+        int red = 0, white = 0, kings = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            Piece piece = board.getSpace(row(square), cell(square)).getPiece();
+            if (piece == null || piece.getColor() == Piece.Color.HELP)
+                continue;
+            int bit = 1 << square;
+            if (piece.getColor() == Piece.Color.RED)
+                red |= bit;
+            else
+                white |= bit;
+            if (piece.getType() == Piece.Type.KING)
+                kings |= bit;
+        }
+        masks[RED] = red;
+        masks[WHITE] = white;
+        masks[KINGS] = kings;
+    }
+
+    /**
+     * Put a position on a board, replacing every piece on it; each piece
+     * placed is a new {@link Piece}
+     * @param masks the position
+     * @param board the board as the red player sees it
+     */
+    public static void decode(int[] masks, BoardView board) {
+        check(masks);
+        for (int square = 0; square < SQUARES; square++) {
+            Space space = board.getSpace(row(square), cell(square));
+            char code = pieceAt(masks, square);
+            if (code == BoardHistory.EMPTY) {
+                space.setPiece(null);
+                space.changeValid(true);
+            } else {
+                Piece.Color color = code == BoardHistory.RED_SINGLE || code == BoardHistory.RED_KING
+                        ? Piece.Color.RED : Piece.Color.WHITE;
+                Piece.Type type = Character.isUpperCase(code) ? Piece.Type.KING : Piece.Type.SINGLE;
+                space.setPiece(new Piece(type, color));
+                space.changeValid(false);
+            }
+        }
+    }
+
+    /**
+     * Gets the piece on a square
+     * @param masks the position
+     * @param square the square
+     * @return the piece as a {@link BoardHistory} character
+     */
+    public static char pieceAt(int[] masks, int square) {
+        int bit = 1 << square;
+        boolean king = (masks[KINGS] & bit) != 0;
+        if ((masks[RED] & bit) != 0)
+            return king ? BoardHistory.RED_KING : BoardHistory.RED_SINGLE;
+        if ((masks[WHITE] & bit) != 0)
+            return king ? BoardHistory.WHITE_KING : BoardHistory.WHITE_SINGLE;
+        return BoardHistory.EMPTY;
+    }
+
+    /**
+     * Turn a position around, from one player's side to the other's
+     * @param masks the position, which is turned in place
+     */
+    public static void flip(int[] masks) {
+        masks[RED] = Integer.reverse(masks[RED]);
+        masks[WHITE] = Integer.reverse(masks[WHITE]);
+        masks[KINGS] = Integer.reverse(masks[KINGS]);
+    }
+
+    /**
+     * Gets the squares that differ between two positions
+     * @param from the older position
+     * @param to the newer position
+     * @return a mask of the squares changed
+     */
+    public static int changed(int[] from, int[] to) {
+        return (from[RED] ^ to[RED]) | (from[WHITE] ^ to[WHITE]) | (from[KINGS] ^ to[KINGS]);
+    }
+
+    /**
+     * Write a position as the 64 characters of a {@link BoardHistory} board
+     * @param masks the position
+     * @param squares where the characters are written, at least 64 long
+     */
+    public static void toSquares(int[] masks, char[] squares) {
+        for (int i = 0; i < BoardView.NUM_ROW * BoardView.NUM_COL; i++)
+            squares[i] = BoardHistory.EMPTY;
+        for (int square = 0; square < SQUARES; square++)
+            squares[row(square) * BoardView.NUM_COL + cell(square)] = pieceAt(masks, square);
+    }
+
+    /**
+     * Read a position from the 64 characters of a {@link BoardHistory} board
+     * @param squares the board
+     * @param masks where the masks are written
+     */
+    public static void fromSquares(CharSequence squares, int[] masks) {
+        if (squares.length() != BoardView.NUM_ROW * BoardView.NUM_COL)
+            throw new IllegalArgumentException("A board has 64 squares, not " + squares.length());
+        masks[RED] = masks[WHITE] = masks[KINGS] = 0;
+        for (int square = 0; square < SQUARES; square++)
+            place(masks, square, squares.charAt(row(square) * BoardView.NUM_COL + cell(square)));
+    }
+
+    /**
+     * Write a position as bytes
+     * @param masks the position
+     * @param toMove the color to move
+     * @param out where the bytes are written
+     * @param offset where in out to start
+     */
+    public static void write(int[] masks, Piece.Color toMove, byte[] out, int offset) {
+        for (int m = 0; m < MASKS; m++) {
+            int mask = masks[m];
+            out[offset++] = (byte) (mask >>> 24);
+            out[offset++] = (byte) (mask >>> 16);
+            out[offset++] = (byte) (mask >>> 8);
+            out[offset++] = (byte) mask;
+        }
+        out[offset] = (byte) (toMove == Piece.Color.WHITE ? 1 : 0);
+    }
+
+    /**
+     * Read a position from bytes
+     * @param in the bytes
+     * @param offset where in the bytes the position starts
+     * @param masks where the masks are written
+     * @return the color to move
+     */
+    public static Piece.Color read(byte[] in, int offset, int[] masks) {
+        for (int m = 0; m < MASKS; m++) {
+            masks[m] = (in[offset] & 0xff) << 24 | (in[offset + 1] & 0xff) << 16
+                    | (in[offset + 2] & 0xff) << 8 | (in[offset + 3] & 0xff);
+            offset += 4;
+        }
+        check(masks);
+        return toMove(in[offset]);
+    }
+
+    /**
+     * Write a position as unpadded URL-safe base64
+     * @param masks the position
+     * @param toMove the color to move
+     * @param out where the {@link #TEXT_LENGTH} characters are written
+     * @param offset where in out to start
+     */
+    public static void writeText(int[] masks, Piece.Color toMove, char[] out, int offset) {
+        int bits = 0, buffer = 0;
+        for (int i = 0; i < BYTES; i++) {
+            buffer = buffer << 8 | byteAt(masks, toMove, i);
+            bits += 8;
+            while (bits >= 6) {
+                bits -= 6;
+                out[offset++] = ALPHABET[buffer >>> bits & 63];
+            }
+        }
+        out[offset] = ALPHABET[buffer << (6 - bits) & 63];
+    }
+
+    /**
+     * Write a position as unpadded URL-safe base64
+     * @param masks the position
+     * @param toMove the color to move
+     * @return the text
+     */
+    public static String toText(int[] masks, Piece.Color toMove) {
+        char[] text = new char[TEXT_LENGTH];
+        writeText(masks, toMove, text, 0);
+        return new String(text);
+    }
+
+    /**
+     * Read a position from unpadded URL-safe base64
+     * @param text the {@link #TEXT_LENGTH} characters
+     * @param masks where the masks are written
+     * @return the color to move
+     */
+    public static Piece.Color fromText(CharSequence text, int[] masks) {
+        if (text.length() != TEXT_LENGTH)
+            throw new IllegalArgumentException("A position is " + TEXT_LENGTH + " characters, not " + text.length());
+        masks[RED] = masks[WHITE] = masks[KINGS] = 0;
+        int bits = 0, buffer = 0, written = 0, last = 0;
+        for (int i = 0; i < TEXT_LENGTH; i++) {
+            char c = text.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0)
+                throw new IllegalArgumentException("Not base64: " + c);
+            buffer = buffer << 6 | digit;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                int b = buffer >>> bits & 0xff;
+                if (written < MASKS * 4)
+                    masks[written >> 2] |= b << (24 - 8 * (written & 3));
+                else
+                    last = b;
+                written++;
+            }
+        }
+        check(masks);
+        return toMove((byte) last);
+    }
+
+    /**
+     * Write a position as FEN, e.g. {@code B:W21,22,K23:B1,2}
+     * @param masks the position
+     * @param toMove the color to move
+     * @return the FEN
+     */
+    public static String toFen(int[] masks, Piece.Color toMove) {
+        StringBuilder fen = new StringBuilder(4 + 4 * Integer.bitCount(masks[RED] | masks[WHITE]));
+        fen.append(toMove == Piece.Color.WHITE ? 'W' : 'B');
+        fen.append(":W");
+        appendFen(fen, masks[WHITE], masks[KINGS]);
+        fen.append(":B");
+        appendFen(fen, masks[RED], masks[KINGS]);
+        return fen.toString();
+    }
+
+    /**
+     * Read a position from FEN
+     * @param fen the FEN, e.g. {@code B:W21,22,K23:B1,2}
+     * @param masks where the masks are written
+     * @return the color to move
+     */
+    public static Piece.Color fromFen(String fen, int[] masks) {
+        String[] fields = fen.trim().split(":");
+        if (fields.length != 3 || fields[0].length() != 1)
+            throw new IllegalArgumentException("Not a checkers FEN: " + fen);
+        masks[RED] = masks[WHITE] = masks[KINGS] = 0;
+        for (int f = 1; f < 3; f++) {
+            String field = fields[f];
+            if (field.isEmpty() || (field.charAt(0) != 'W' && field.charAt(0) != 'B'))
+                throw new IllegalArgumentException("Not a checkers FEN: " + fen);
+            boolean white = field.charAt(0) == 'W';
+            if (field.length() == 1)
+                continue;
+            for (String piece : field.substring(1).split(",")) {
+                boolean king = piece.startsWith("K");
+                int number;
+                try {
+                    number = Integer.parseInt(king ? piece.substring(1) : piece);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a square: " + piece);
+                }
+                if (number < 1 || number > SQUARES)
+                    throw new IllegalArgumentException("Not a square: " + piece);
+                int square = SQUARES - number;
+                place(masks, square, white ? (king ? BoardHistory.WHITE_KING : BoardHistory.WHITE_SINGLE)
+                        : (king ? BoardHistory.RED_KING : BoardHistory.RED_SINGLE));
+            }
+        }
+        check(masks);
+        switch (fields[0].charAt(0)) {
+            case 'B': return Piece.Color.RED;
+            case 'W': return Piece.Color.WHITE;
+            default: throw new IllegalArgumentException("Not a color to move: " + fields[0]);
+        }
+    }
+
+    /**
+     * Add one side's squares to a FEN, numbered from 1 to 32 from white's side
+     */
+    private static void appendFen(StringBuilder fen, int pieces, int kings) {
+        boolean first = true;
+        // square k is numbered 32 - k, so counting down from the top square counts up the numbers
+        for (int square = SQUARES - 1; square >= 0; square--) {
+            int bit = 1 << square;
+            if ((pieces & bit) == 0)
+                continue;
+            if (!first)
+                fen.append(',');
+            first = false;
+            if ((kings & bit) != 0)
+                fen.append('K');
+            fen.append(SQUARES - square);
+        }
+    }
+
+    /**
+     * Put the piece of a {@link BoardHistory} character on a square
+     */
+    private static void place(int[] masks, int square, char code) {
+        int bit = 1 << square;
+        switch (code) {
+            case BoardHistory.EMPTY: return;
+            case BoardHistory.RED_KING: masks[KINGS] |= bit; // fall through
+            case BoardHistory.RED_SINGLE: masks[RED] |= bit; return;
+            case BoardHistory.WHITE_KING: masks[KINGS] |= bit; // fall through
+            case BoardHistory.WHITE_SINGLE: masks[WHITE] |= bit; return;
+            default: throw new IllegalArgumentException("Not a piece: " + code);
+        }
+    }
+
+    /**
+     * Gets one byte of the binary form
+     */
+    private static int byteAt(int[] masks, Piece.Color toMove, int i) {
+        if (i == MASKS * 4)
+            return toMove == Piece.Color.WHITE ? 1 : 0;
+        return masks[i >> 2] >>> (24 - 8 * (i & 3)) & 0xff;
+    }
+
+    /**
+     * Gets the color to move from its byte
+     */
+    private static Piece.Color toMove(byte b) {
+        switch (b) {
+            case 0: return Piece.Color.RED;
+            case 1: return Piece.Color.WHITE;
+            default: throw new IllegalArgumentException("Not a color to move: " + b);
+        }
+    }
+
+    /**
+     * Make sure a position could be on a board
+     */
+    private static void check(int[] masks) {
+        if ((masks[RED] & masks[WHITE]) != 0)
+            throw new IllegalArgumentException("A square holds both colors");
+        if ((masks[KINGS] & ~(masks[RED] | masks[WHITE])) != 0)
+            throw new IllegalArgumentException("A king is on an empty square");
+    }
+}
@@ -0,0 +1,165 @@
+package com.webcheckers.model;
+
+import com.google.gson.Gson;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Times encoding and decoding boards in each of their forms and prints how
+ * fast each is and how big the result is.
+ *
+ * <p>
+ * Usage: {@code BoardCodecBenchmark [boards]}. The boards are played out from
+ * the starting position by random moves, and each form is timed on turning
+ * every board into it and back again: the masks from a {@link BoardView}, the
+ * 64 characters of {@link BoardHistory}, bytes, base64 text, FEN, and for
+ * comparison the whole {@link BoardView} as JSON, as the Game page sends it.
+ * </p>
+ */
+public class BoardCodecBenchmark {
+
+    public static final int DEFAULT_BOARDS = 100000;
+    // how many times each form is run before it is timed, so it is compiled first
+    private static final int WARM_UP = 3;
+
+    //Attributes
+    private final int[][] positions;
+    private final Piece.Color[] toMove;
+    private final BoardView board = new BoardView(Piece.Color.RED);
+    private final int[] masks = new int[BoardCodec.MASKS];
+    private final char[] squares = new char[BoardView.NUM_ROW * BoardView.NUM_COL];
+    private final byte[] bytes = new byte[BoardCodec.BYTES];
+    private final char[] text = new char[BoardCodec.TEXT_LENGTH];
+    // keeps the work from being optimized away
+    private long sink;
+
+    /**
+     * BoardCodecBenchmark constructor
+     * @param numBoards the number of boards each form is timed on
+     */
+    public BoardCodecBenchmark(int numBoards) {
+        if (numBoards < 1)
+            throw new IllegalArgumentException("numBoards must be at least 1");
+        positions = new int[numBoards][];
+        toMove = new Piece.Color[numBoards];
+        Random random = new Random(42);
+        int[] position = new int[BoardCodec.MASKS];
+        BoardCodec.encode(board, position);
+        for (int i = 0; i < numBoards; i++) {
+            if (i % 40 == 0)
+                BoardCodec.encode(new BoardView(Piece.Color.RED), position);
+            step(position, random);
+            positions[i] = position.clone();
+            toMove[i] = i % 2 == 0 ? Piece.Color.WHITE : Piece.Color.RED;
+        }
+    }
+
+    /**
+     * Move a random piece to a random empty square, crowning it now and then
+     */
+    private static void step(int[] position, Random random) {
+        int occupied = position[BoardCodec.RED] | position[BoardCodec.WHITE];
+        if (occupied == 0 || occupied == -1)
+            return;
+        int from, to;
+        do {
+            from = random.nextInt(BoardCodec.SQUARES);
+        } while ((occupied & 1 << from) == 0);
+        do {
+            to = random.nextInt(BoardCodec.SQUARES);
+        } while ((occupied & 1 << to) != 0);
+        for (int m = 0; m < BoardCodec.MASKS; m++) {
+            if ((position[m] & 1 << from) != 0)
+                position[m] = position[m] & ~(1 << from) | 1 << to;
+        }
+        if (random.nextInt(10) == 0)
+            position[BoardCodec.KINGS] |= 1 << to;
+    }
+
+    /**
+     * Time every form and print the results
+     */
+    public void run() {
+        Gson gson = new Gson();
+        for (int round = 0; round <= WARM_UP; round++) {
+            boolean timed = round == WARM_UP;
+            int n = positions.length;
+
+            long begin = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                BoardCodec.decode(positions[i], board);
+                BoardCodec.encode(board, masks);
+                sink += masks[BoardCodec.RED];
+            }
+            if (timed)
+                report("board view", n, System.nanoTime() - begin, 0);
+
+            begin = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                BoardCodec.toSquares(positions[i], squares);
+                BoardCodec.fromSquares(CharBuffer.wrap(squares), masks);
+                sink += masks[BoardCodec.WHITE];
+            }
+            if (timed)
+                report("64 chars", n, System.nanoTime() - begin, squares.length);
+
+            begin = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                BoardCodec.write(positions[i], toMove[i], bytes, 0);
+                sink += BoardCodec.read(bytes, 0, masks).ordinal();
+            }
+            if (timed)
+                report("bytes", n, System.nanoTime() - begin, BoardCodec.BYTES);
+
+            begin = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                BoardCodec.writeText(positions[i], toMove[i], text, 0);
+                sink += BoardCodec.fromText(CharBuffer.wrap(text), masks).ordinal();
+            }
+            if (timed)
+                report("base64", n, System.nanoTime() - begin, BoardCodec.TEXT_LENGTH);
+
+            begin = System.nanoTime();
+            int fenLength = 0;
+            for (int i = 0; i < n; i++) {
+                String fen = BoardCodec.toFen(positions[i], toMove[i]);
+                fenLength += fen.length();
+                sink += BoardCodec.fromFen(fen, masks).ordinal();
+            }
+            if (timed)
+                report("fen", n, System.nanoTime() - begin, fenLength / n);
+
+            int jsonRuns = Math.max(1, n / 10);
+            begin = System.nanoTime();
+            int jsonLength = 0;
+            for (int i = 0; i < jsonRuns; i++) {
+                BoardCodec.decode(positions[i], board);
+                jsonLength += gson.toJson(board).getBytes(StandardCharsets.UTF_8).length;
+            }
+            if (timed)
+                report("json view", jsonRuns, System.nanoTime() - begin, jsonLength / jsonRuns);
+        }
+    }
+
+    /**
+     * Print one timing
+     */
+    private static void report(String form, int count, long nanos, int size) {
+        System.out.println(String.format("%-10s %8d in %8.3f s, %12.0f ops/s, %5d bytes",
+                form, count, nanos / 1e9, count * 1e9 / Math.max(1, nanos), size));
+    }
+
+    /**
+     * Benchmark the forms of a board.
+     * @param args the number of boards, optional
+     */
+    public static void main(String[] args) {
+        int numBoards = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BOARDS;
+        BoardCodecBenchmark benchmark = new BoardCodecBenchmark(numBoards);
+        benchmark.run();
+        if (benchmark.sink == 42)
+            System.out.println();
+    }
+}
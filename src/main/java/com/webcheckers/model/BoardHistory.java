@@ -0,0 +1,174 @@
+package com.webcheckers.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last few boards of a match, numbered by version, so a player can be
+ * sent just the squares that changed since the board they already have.
+ *
+ * <p>
+ * Each board is kept as the three masks of a {@link BoardCodec} position,
+ * twelve bytes a board. Boards are sent as 64 characters, one character per
+ * square in row order: {@code .} for an empty square, {@code r} and {@code R}
+ * for a red single and king, {@code w} and {@code W} for a white single and
+ * king.
+ * </p>
+ */
+public class BoardHistory {
+
+    // how many boards are kept; a player further behind is sent the whole board
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final char EMPTY = '.';
+    public static final char RED_SINGLE = 'r';
+    public static final char RED_KING = 'R';
+    public static final char WHITE_SINGLE = 'w';
+    public static final char WHITE_KING = 'W';
+
+    /**
+     * A board and its version.
+     */
+    public static final class Entry {
+        private final long version;
+        private final int[] position;
+
+        private Entry(long version, int[] position) {
+            this.version = version;
+            this.position = position;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the board as the red player sees it
+         * @return the {@link BoardCodec} masks, a copy
+         */
+        public int[] getPosition() {
+            return position.clone();
+        }
+
+        /**
+         * Gets the board as the red player sees it
+         * @return the board as 64 characters
+         */
+        public String getBoard() {
+            return squares(position);
+        }
+    }
+
+    //Attributes
+    private final int[] positions;
+    private final int capacity;
+    private final int[] scratch = new int[BoardCodec.MASKS];
+    private long version = 0;
+
+    /**
+     * BoardHistory constructor
+     * @param initial the board at version 0, as the red player sees it
+     */
+    public BoardHistory(BoardView initial) {
+        this(initial, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * BoardHistory constructor
+     * @param initial the board at version 0, as the red player sees it
+     * @param capacity how many boards are kept
+     */
+    public BoardHistory(BoardView initial, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1");
+        this.capacity = capacity;
+        positions = new int[capacity * BoardCodec.MASKS];
+        BoardCodec.encode(initial, scratch);
+        System.arraycopy(scratch, 0, positions, 0, BoardCodec.MASKS);
+    }
+
+    /**
+     * Keep a new board as the next version
+     * @param board the board, as the red player sees it
+     * @return its version
+     */
+    public synchronized long record(BoardView board) {
+        BoardCodec.encode(board, scratch);
+        return record(scratch);
+    }
+
+    /**
+     * Keep a new board as the next version
+     * @param position the {@link BoardCodec} masks of the board, as the red player sees it
+     * @return its version
+     */
+    public synchronized long record(int[] position) {
+        version++;
+        System.arraycopy(position, 0, positions, slot(version), BoardCodec.MASKS);
+        return version;
+    }
+
+    /**
+     * Gets the latest board
+     * @return the latest board and its version
+     */
+    public synchronized Entry latest() {
+        return new Entry(version, copy(version));
+    }
+
+    /**
+     * Gets the board of an earlier version
+     * @param at the version
+     * @return the {@link BoardCodec} masks of the board, or null if that
+     * version is unknown or no longer kept
+     */
+    public synchronized int[] at(long at) {
+        if (at < 0 || at > version || version - at >= capacity)
+            return null;
+        return copy(at);
+    }
+
+    /**
+     * Gets where a version is kept
+     */
+    private int slot(long at) {
+        return (int) (at % capacity) * BoardCodec.MASKS;
+    }
+
+    /**
+     * Copy out the masks of a version
+     */
+    private int[] copy(long at) {
+        int[] position = new int[BoardCodec.MASKS];
+        System.arraycopy(positions, slot(at), position, 0, BoardCodec.MASKS);
+        return position;
+    }
+
+    /**
+     * Write a board as 64 characters
+     * @param position the {@link BoardCodec} masks of the board
+     * @return the board as 64 characters
+     */
+    public static String squares(int[] position) {
+        char[] squares = new char[BoardView.NUM_ROW * BoardView.NUM_COL];
+        BoardCodec.toSquares(position, squares);
+        return new String(squares);
+    }
+
+    /**
+     * List the squares that differ between two boards
+     * @param from the {@link BoardCodec} masks of the older board
+     * @param to the {@link BoardCodec} masks of the newer board
+     * @return each changed square as its row, its column and its new character, e.g. {@code "43r"}
+     */
+    public static List<String> changes(int[] from, int[] to) {
+        int changed = BoardCodec.changed(from, to);
+        List<String> changes = new ArrayList<>(Integer.bitCount(changed));
+        while (changed != 0) {
+            int square = Integer.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            changes.add(new String(new char[] {(char) ('0' + BoardCodec.row(square)),
+                    (char) ('0' + BoardCodec.cell(square)), BoardCodec.pieceAt(to, square)}));
+        }
+        return changes;
+    }
+}
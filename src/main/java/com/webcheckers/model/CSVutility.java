@@ -1,168 +1,507 @@
 package com.webcheckers.model;
 
+import com.opencsv.CSVParser;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
+import com.webcheckers.util.AtomicFiles;
+import com.webcheckers.util.GroupCommitter;
+import com.webcheckers.util.ProfileEvents.StatsWriteEvent;
 
+import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
-import static com.webcheckers.ui.WebServer.csvFile;
-
+/**
+ * Reads and writes the statistics file.
+ *
+ * <p>
+ * Each record is a name, five counters, a rating and a CRC32 of those seven
+ * fields. The file is never edited in place: every change rewrites it to a
+ * temporary file, forces that to disk and renames it over the old file, so a
+ * crash leaves either the old file or the new one. Changes from many game
+ * ends are written together by a {@link GroupCommitter}, one per file and
+ * shared by every CSVutility, so a busy server does not pay for one rewrite
+ * and one fsync per game. {@link #verifyAndRepair()} checks every record when
+ * the server starts.
+ * </p>
+ *
+ * <p>
+ * The game archive is only ever appended to. Each result is a winner, a loser,
+ * a time and a CRC32 of those three fields; results are appended in groups by
+ * a committer of their own and forced to disk before anyone is told they were
+ * saved. A crash can only cut the last line short, and reading skips any
+ * result whose checksum does not match.
+ * </p>
+ */
 public class CSVutility {
+    private static final Logger LOG = Logger.getLogger(CSVutility.class.getName());
+
+    // the fields of a record
+    public static final int NAME = 0;
+    public static final int RATING = 6;
+    public static final int CHECKSUM = 7;
+    public static final int RECORD_LENGTH = 8;
+    // records written before ratings and checksums existed
+    public static final int LEGACY_RECORD_LENGTH = 6;
+    // added to the name of the statistics file to name the file rows dropped by a repair go to
+    public static final String REJECTED_SUFFIX = ".rejected";
+    public static final String RESULTS_FILE_NAME = "GameResults.csv";
+    // the fields of a game result
+    public static final int WINNER = 0;
+    public static final int LOSER = 1;
+    public static final int TIME = 2;
+    public static final int RESULT_CHECKSUM = 3;
+    public static final int RESULT_RECORD_LENGTH = 4;
+    // results archived before they had checksums
+    public static final int LEGACY_RESULT_LENGTH = 3;
+
+    // one committer per statistics file and per game archive, shared by every instance
+    private static final Map<Path, GroupCommitter<String[]>> COMMITTERS = new ConcurrentHashMap<>();
+    private static final Map<Path, GroupCommitter<String[]>> RESULT_COMMITTERS = new ConcurrentHashMap<>();
+
+    //Attributes
+    private final Path file;
+    private final Path results;
 
     /**
-     * Edits the player records in case of an extra win or loss.
-     * @param player player to change records of
+     * Constructor for any statistics file, with the game archive next to it
+     * @param file the statistics file
+     */
+    public CSVutility(Path file) {
+        this(file, file.toAbsolutePath().resolveSibling(RESULTS_FILE_NAME));
+    }
+
+    /**
+     * Constructor for any statistics file and game archive
+     * @param file the statistics file
+     * @param results the game archive
+     */
+    public CSVutility(Path file, Path results) {
+        this.file = file.toAbsolutePath().normalize();
+        this.results = results.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Gets the statistics file
+     * @return the path of the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Work out the checksum of a record
+     * @param fields the record; only the fields before the checksum are used
+     * @return the CRC32 of the fields joined by commas, as eight hex digits
+     */
+    public static String checksum(String[] fields) {
+        return checksum(fields, CHECKSUM);
+    }
+
+    /**
+     * Work out the checksum of the first fields of a record
+     * @param fields the record
+     * @param count the number of fields covered
+     * @return the CRC32 of the fields joined by commas, as eight hex digits
+     */
+    private static String checksum(String[] fields, int count) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            if (i > 0)
+                crc.update(',');
+            crc.update(fields[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return String.format("%08x", crc.getValue());
+    }
+
+    /**
+     * Build the record of a player, checksum included
+     * @param player the player
+     * @return the record
+     */
+    public static String[] toRecord(Player player) {
+        String[] record = {player.getName(), Integer.toString(player.getGames()), Integer.toString(player.getWon()),
+                Integer.toString(player.getLost()), Integer.toString(player.getPiecesTaken()),
+                Integer.toString(player.getPiecesLost()), Double.toString(player.getRating()), null};
+        record[CHECKSUM] = checksum(record);
+        return record;
+    }
+
+    /**
+     * Check a record and turn it into a player. Uses the same rules as the bulk importer.
+     * @param record the fields read from the file
+     * @return the player
+     * @throws IllegalArgumentException saying what is wrong with the record
      */
-    public synchronized void editPlayerRecords(Player player) {
+    public static Player toPlayer(String[] record) {
+        if (record.length != RECORD_LENGTH && record.length != LEGACY_RECORD_LENGTH &&
+                record.length != LEGACY_RECORD_LENGTH + 1)
+            throw new IllegalArgumentException("expected " + RECORD_LENGTH + " fields but found " + record.length);
+        if (record.length == RECORD_LENGTH && !checksum(record).equalsIgnoreCase(record[CHECKSUM]))
+            throw new IllegalArgumentException("checksum does not match");
+        Player player;
         try {
-            FileReader fileReader = new FileReader(csvFile);
-            CSVReader csvReader = new CSVReader(fileReader);
-            // read file
-            List<String[]> lines = csvReader.readAll();
-            int i = 0;
-            String[] input = new String[6];
-            for (String[] line : lines) {
-                for (String str : line)
-                    System.out.print(str + " ");
-                if (line[0].equals(player.getName())) {
-                    input[0] = player.getName();
-                    input[1] = Integer.toString(player.getGames());
-                    input[2] = Integer.toString(player.getWon());
-                    input[3] = Integer.toString(player.getLost());
-                    input[4] = Integer.toString(player.getPiecesTaken());
-                    input[5] = Integer.toString(player.getPiecesLost());
-                    lines.remove(i);
-                    lines.add(input);
-                    break;
-                }
-                i++;
+            int[] counters = new int[5];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = Integer.parseInt(record[i + 1]);
+                if (counters[i] < 0)
+                    throw new IllegalArgumentException("negative counter");
             }
-            csvReader.close();
-            // write to file
-            FileWriter fileWriter = new FileWriter(csvFile);
-            CSVWriter csvWriter = new CSVWriter(fileWriter);
-            csvWriter.writeAll(lines);
-            csvWriter.flush();
-            csvWriter.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+            if (counters[1] > counters[0] || counters[2] > counters[0])
+                throw new IllegalArgumentException("more games won or lost than played");
+            double rating = record.length > RATING ? Double.parseDouble(record[RATING]) : Player.DEFAULT_RATING;
+            if (Double.isNaN(rating) || Double.isInfinite(rating))
+                throw new IllegalArgumentException("rating is not a number");
+            player = new Player(record[NAME], counters[0], counters[1], counters[2], counters[3], counters[4], rating);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("a counter is not a number");
         }
+        if (record[NAME].isEmpty() || player.containsInvalidCharacter())
+            throw new IllegalArgumentException("invalid player name");
+        return player;
     }
 
     /**
-     * Add a new player to the CSV file that holds all player records.
-     * @param username name of player to store
+     * Build the record of a game result, checksum included
+     * @param result the result
+     * @return the record
+     */
+    public static String[] toRecord(GameResult result) {
+        String[] record = {result.getWinner(), result.getLoser(), Long.toString(result.getTime()), null};
+        record[RESULT_CHECKSUM] = checksum(record, RESULT_CHECKSUM);
+        return record;
+    }
+
+    /**
+     * Check a record of the game archive and turn it into a result
+     * @param record the fields read from the file
+     * @return the result
+     * @throws IllegalArgumentException saying what is wrong with the record
      */
-    public synchronized void addPlayerToCSV(String username) {
+    public static GameResult toGameResult(String[] record) {
+        if (record.length != RESULT_RECORD_LENGTH && record.length != LEGACY_RESULT_LENGTH)
+            throw new IllegalArgumentException("expected " + RESULT_RECORD_LENGTH + " fields but found "
+                    + record.length);
+        if (record.length == RESULT_RECORD_LENGTH &&
+                !checksum(record, RESULT_CHECKSUM).equalsIgnoreCase(record[RESULT_CHECKSUM]))
+            throw new IllegalArgumentException("checksum does not match");
+        if (record[WINNER].isEmpty() || record[LOSER].isEmpty())
+            throw new IllegalArgumentException("a player is missing");
         try {
-            // write to the csv file so that the new player data can be found next time
-            FileWriter fileWriter = new FileWriter(csvFile, true);
-            CSVWriter csvWriter = new CSVWriter(fileWriter);
-            String[] stats = {username, "0", "0", "0", "0", "0"};
-            csvWriter.writeNext(stats);
-            csvWriter.flush();
-            csvWriter.close();
-            System.out.println("Added a new player to csv file.");
-        } catch (Exception e) {
-            e.printStackTrace();
+            return new GameResult(record[WINNER], record[LOSER], Long.parseLong(record[TIME]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("the time is not a number");
         }
     }
 
     /**
-     * Find the player's stat and return a new player with those attributes.
-     * @param username name of the player to find
-     * @return player
+     * Gets the committer of this file
      */
-    public Player findPlayer(String username) {
-        boolean found = false;
-        int games = 0;
-        int won = 0;
-        int lost = 0;
-        int piecesTaken = 0;
-        int piecesLost = 0;
+    private GroupCommitter<String[]> committer() {
+        return COMMITTERS.computeIfAbsent(file, path -> new GroupCommitter<>(this::writeBatch));
+    }
 
-        Player player;
+    /**
+     * Rewrite the file with a group of changed records. Only the group leader
+     * calls this, so the file is never rewritten by two threads at once.
+     * @param batch the new records, a later record for a name replaces an earlier one
+     * @throws IOException if the file could not be replaced
+     */
+    private void writeBatch(List<String[]> batch) throws IOException {
+        StatsWriteEvent event = StatsWriteEvent.begin("csv", batch.isEmpty() ? null : batch.get(0)[NAME],
+                batch.size());
         try {
-            FileReader fileReader = new FileReader(csvFile);
-            CSVReader csvReader = new CSVReader(fileReader);
+            Map<String, String[]> records = new LinkedHashMap<>();
+            for (String[] record : readRecords())
+                records.put(record[NAME], record);
+            for (String[] record : batch)
+                records.put(record[NAME], record);
+            writeRecords(records.values());
+            event.saved = true;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Read every record of the file as it is, without checking it
+     * @return the records, or none if there is no file yet
+     * @throws IOException if the file cannot be read
+     */
+    private List<String[]> readRecords() throws IOException {
+        if (!Files.exists(file))
+            return new ArrayList<>();
+        try (CSVReader csvReader = new CSVReader(new FileReader(file.toFile()))) {
+            List<String[]> records = new ArrayList<>();
             String[] nextRecord;
-            // find the username, if found get the attributes games, won, lost
             while ((nextRecord = csvReader.readNext()) != null) {
-                int i = 0;
-                for (String stat : nextRecord) {
-                    if (stat.equals(username)) {
-                        found = true;
-                    } else if (!found) {
-                        break;
-                    }
-                    if (found) {
-                        switch (i) {
-                            case 1:
-                                games = Integer.parseInt(stat);
-                            case 2:
-                                won = Integer.parseInt(stat);
-                            case 3:
-                                lost = Integer.parseInt(stat);
-                            case 4:
-                                piecesTaken = Integer.parseInt(stat);
-                            case 5:
-                                piecesLost = Integer.parseInt(stat);
-                        }
-                        i++;
-                    }
-                }
-                /*System.out.println(username);
-                System.out.println(Integer.toString(games));
-                System.out.println(Integer.toString(won));
-                System.out.println(Integer.toString(lost));
-                System.out.println(Integer.toString(piecesTaken));
-                System.out.println(Integer.toString(piecesLost));*/
-                if (found)
-                    break;
+                if (nextRecord.length > 1 || !nextRecord[0].isEmpty())
+                    records.add(nextRecord);
             }
-            csvReader.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+            return records;
         }
+    }
+
+    /**
+     * Replace the file with the given records
+     * @param records the records
+     * @throws IOException if the file could not be replaced
+     */
+    private void writeRecords(Collection<String[]> records) throws IOException {
+        AtomicFiles.write(file, (Writer writer) -> {
+            CSVWriter csvWriter = new CSVWriter(writer);
+            for (String[] record : records)
+                csvWriter.writeNext(record);
+            csvWriter.flush();
+        });
+    }
+
+    /**
+     * Durably saves the player records after an extra win or loss. Returns once
+     * the change is on disk, possibly written together with other changes.
+     * @param player player to change records of
+     * @return true if the records were saved
+     */
+    public boolean editPlayerRecords(Player player) {
+        return committer().commit(toRecord(player));
+    }
+
+    /**
+     * Add a new player to the CSV file that holds all player records.
+     * @param username name of player to store
+     * @return true if the player was saved
+     */
+    public boolean addPlayerToCSV(String username) {
+        boolean added = committer().commit(toRecord(new Player(username)));
+        if (added)
+            LOG.fine("Added " + username + " to the statistics file.");
+        return added;
+    }
+
+    /**
+     * Find the player's stat and return a new player with those attributes.
+     * @param username name of the player to find
+     * @return player
+     */
+    public Player findPlayer(String username) {
+        Player player = lookupPlayer(username);
         // if the player is not found in the csv file, add them to the csv file
-        if (!found) {
+        if (player == null) {
             player = new Player(username);
             addPlayerToCSV(username);
-        } else {
-            // create a new player with found attributes
-            player = new Player(username, games, won, lost, piecesTaken, piecesLost);
         }
-        System.out.println(player.getName() + " found: " + Boolean.toString(found));
+        LOG.finer(player.getName() + " found in the statistics file.");
         return player;
     }
 
+    /**
+     * Find the player's stats without adding them if they are missing.
+     * @param username name of the player to find
+     * @return player, or null if the file has no valid record for them
+     */
+    public Player lookupPlayer(String username) {
+        Player player = null;
+        try {
+            for (String[] record : readRecords()) {
+                if (record[NAME].equals(username)) {
+                    player = toPlayer(record);
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the statistics file", e);
+        } catch (IllegalArgumentException e) {
+            // the startup repair drops bad records, so this only happens if the file changed since
+            LOG.warning("Bad statistics for " + username + ": " + e.getMessage());
+        }
+        return player;
+    }
+
+    /**
+     * Durably saves the records of many players in one rewrite of the file.
+     * @param players the players
+     * @return true if the records were saved
+     */
+    public boolean editPlayerRecords(Collection<Player> players) {
+        List<String[]> records = new ArrayList<>(players.size());
+        for (Player player : players)
+            records.add(toRecord(player));
+        return committer().commitAll(records);
+    }
+
     /**
      * Read through the CSV file and add a player from every row to an array list
      * @return arraylist with all existing players offline or online
      */
-    public synchronized ArrayList<Player> readPlayers() {
+    public ArrayList<Player> readPlayers() {
         ArrayList<Player> list = new ArrayList<>();
         try {
-            FileReader fileReader = new FileReader(csvFile);
-            CSVReader csvReader = new CSVReader(fileReader);
-            String[] nextRecord;
-            // grab the attributes of each player and add them to a list so that we can sort them and put
-            // them into a leaderboard via TreeSets
-            while ((nextRecord = csvReader.readNext()) != null) {
-                String username = nextRecord[0];
-                int games = Integer.parseInt(nextRecord[1]);
-                int won = Integer.parseInt(nextRecord[2]);
-                int lost = Integer.parseInt(nextRecord[3]);
-                int piecesTaken = Integer.parseInt(nextRecord[4]);
-                int piecesLost = Integer.parseInt(nextRecord[5]);
-                list.add(new Player(username, games, won, lost, piecesTaken, piecesLost));
+            for (String[] record : readRecords()) {
+                try {
+                    list.add(toPlayer(record));
+                } catch (IllegalArgumentException e) {
+                    LOG.warning("Skipped statistics for " + record[NAME] + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the statistics file", e);
+        }
+        return list;
+    }
+
+    /**
+     * Check every record of the file and repair it, run once at start up before
+     * anything else uses the file. A temporary file left by a crash is deleted,
+     * records without a checksum are given one, and records that are damaged or
+     * repeat an earlier name are moved to a side file so nothing is thrown away.
+     * @return the number of records that were changed or moved aside
+     */
+    public int verifyAndRepair() {
+        try {
+            if (Files.deleteIfExists(AtomicFiles.tempFileFor(file)))
+                LOG.warning("Deleted a statistics file left half written by a crash.");
+            if (!Files.exists(file))
+                return 0;
+
+            CSVParser parser = new CSVParser();
+            Map<String, String[]> records = new LinkedHashMap<>();
+            List<String> rejected = new ArrayList<>();
+            int upgraded = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().isEmpty())
+                        continue;
+                    try {
+                        String[] record = parser.parseLine(line);
+                        Player player = toPlayer(record);
+                        if (records.containsKey(player.getName()))
+                            throw new IllegalArgumentException("repeats an earlier player");
+                        if (record.length != RECORD_LENGTH) {
+                            record = toRecord(player);
+                            upgraded++;
+                        }
+                        records.put(player.getName(), record);
+                    } catch (IOException | IllegalArgumentException e) {
+                        LOG.warning("Statistics line " + lineNumber + " moved aside: " + e.getMessage());
+                        rejected.add(line);
+                    }
+                }
+            }
+
+            if (!rejected.isEmpty()) {
+                Path sideFile = file.resolveSibling(file.getFileName() + REJECTED_SUFFIX);
+                Files.write(sideFile, rejected, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            if (upgraded > 0 || !rejected.isEmpty())
+                writeRecords(records.values());
+            if (upgraded > 0)
+                LOG.info("Added checksums to " + upgraded + " statistics records.");
+            return upgraded + rejected.size();
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not verify the statistics file", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the committer of the game archive
+     */
+    private GroupCommitter<String[]> resultCommitter() {
+        return RESULT_COMMITTERS.computeIfAbsent(results, path -> new GroupCommitter<>(this::appendBatch));
+    }
+
+    /**
+     * Append a group of results to the game archive and force them to disk.
+     * Only the group leader calls this, so two groups are never interleaved.
+     * @param batch the records of the results
+     * @throws IOException if they could not be written
+     */
+    private void appendBatch(List<String[]> batch) throws IOException {
+        boolean cutShort = endsCutShort(results);
+        AtomicFiles.append(results, (Writer writer) -> {
+            // a crash cut the last line short; start a new one so the first result is not lost with it
+            if (cutShort)
+                writer.write('\n');
+            CSVWriter csvWriter = new CSVWriter(writer);
+            for (String[] record : batch)
+                csvWriter.writeNext(record);
+            csvWriter.flush();
+        });
+    }
+
+    /**
+     * Checks whether a file ends part way through a line
+     */
+    private static boolean endsCutShort(Path path) throws IOException {
+        if (!Files.exists(path))
+            return false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0)
+                return false;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Durably add the result of a finished match to the end of the game archive.
+     * Returns once the result is on disk, possibly written together with others.
+     * @param result the result to store
+     * @return true if the result was saved
+     */
+    public boolean appendGameResult(GameResult result) {
+        boolean saved = resultCommitter().commit(toRecord(result));
+        if (!saved)
+            LOG.severe("Could not archive " + result);
+        return saved;
+    }
+
+    /**
+     * Read every result in the game archive, skipping any that are damaged
+     * @return the results, oldest first; empty if no game has been archived yet
+     */
+    public ArrayList<GameResult> readGameResults() {
+        ArrayList<GameResult> list = new ArrayList<>();
+        if (!Files.exists(results))
+            return list;
+        CSVParser parser = new CSVParser();
+        try (BufferedReader reader = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty())
+                    continue;
+                try {
+                    list.add(toGameResult(parser.parseLine(line)));
+                } catch (IOException | IllegalArgumentException e) {
+                    LOG.warning("Skipped game result on line " + lineNumber + ": " + e.getMessage());
+                }
             }
-            csvReader.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not read the game archive", e);
         }
         return list;
     }
@@ -0,0 +1,57 @@
+package com.webcheckers.model;
+
+/**
+ * The <a href='https://en.wikipedia.org/wiki/Elo_rating_system'>Elo rating system</a>.
+ * A player gains K times the difference between their score and the score
+ * their rating predicted against each opponent.
+ */
+public class EloRating implements RatingAlgorithm {
+    // the usual K factor for club players
+    public static final double DEFAULT_K = 32.0;
+
+    //Attributes
+    private final double k;
+    private final double initialRating;
+
+    /**
+     * Constructor for Elo with the usual parameters
+     */
+    public EloRating() {
+        this(DEFAULT_K, Player.DEFAULT_RATING);
+    }
+
+    /**
+     * Constructor for Elo
+     * @param k the most rating a single game can move
+     * @param initialRating the rating of a new player
+     */
+    public EloRating(double k, double initialRating) {
+        if (k <= 0)
+            throw new IllegalArgumentException("k must be positive");
+        this.k = k;
+        this.initialRating = initialRating;
+    }
+
+    @Override
+    public double initialRating() {
+        return initialRating;
+    }
+
+    /**
+     * The score a player is expected to make against an opponent
+     * @param rating the player's rating
+     * @param opponentRating the opponent's rating
+     * @return a number between 0 and 1
+     */
+    public static double expectedScore(double rating, double opponentRating) {
+        return 1.0 / (1.0 + Math.pow(10.0, (opponentRating - rating) / 400.0));
+    }
+
+    @Override
+    public double rate(double rating, double[] opponentRatings, double[] scores, int from, int to) {
+        double change = 0;
+        for (int i = from; i < to; i++)
+            change += scores[i] - expectedScore(rating, opponentRatings[i]);
+        return rating + k * change;
+    }
+}
@@ -0,0 +1,280 @@
+package com.webcheckers.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A finished game as kept in the replay archive: who played it, how it
+ * ended and every turn played, so that it can be watched again turn by
+ * turn.
+ *
+ * <p>
+ * A move takes two bytes, the dark squares it starts and ends on as the red
+ * player sees the board ({@link BoardCodec#square}). Every
+ * {@link #getKeyframeInterval()} turns the whole position is kept as well,
+ * as the {@link BoardCodec#BYTES} bytes of {@link BoardCodec#write}. Seeking
+ * a turn starts from the keyframe at or before it and plays fewer than
+ * interval turns, however long the game.
+ * </p>
+ */
+public final class GameRecord {
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 8;
+    // the interval is written as a byte
+    public static final int MAX_KEYFRAME_INTERVAL = 255;
+
+    //Attributes
+    private final long id;
+    private final String redPlayer;
+    private final String whitePlayer;
+    private final String message;
+    private final long time;
+    private final int interval;
+    // two bytes a move, every turn one after the other
+    private final byte[] moves;
+    // where the moves of each turn start in moves, and where the last one ends
+    private final int[] turnStarts;
+    private final byte[] keyframes;
+
+    private GameRecord(long id, String redPlayer, String whitePlayer, String message, long time, int interval,
+                       byte[] moves, int[] turnStarts, byte[] keyframes) {
+        this.id = id;
+        this.redPlayer = Objects.requireNonNull(redPlayer, "redPlayer must not be null");
+        this.whitePlayer = Objects.requireNonNull(whitePlayer, "whitePlayer must not be null");
+        this.message = message == null ? "" : message;
+        this.time = time;
+        this.interval = interval;
+        this.moves = moves;
+        this.turnStarts = turnStarts;
+        this.keyframes = keyframes;
+    }
+
+    /**
+     * Record a game from the position it started at and the turns played since
+     * @param id the id of the match
+     * @param redPlayer the name of the red player
+     * @param whitePlayer the name of the white player
+     * @param message how the game ended
+     * @param time when the game ended, in milliseconds since the epoch
+     * @param start the position the game started at
+     * @param toMove the color to move at the start
+     * @param turns the moves of each turn, as {@link #squares} gives them
+     * @param interval the number of turns between keyframes
+     * @return the record
+     */
+    public static GameRecord of(long id, String redPlayer, String whitePlayer, String message, long time,
+                                int[] start, Piece.Color toMove, List<byte[]> turns, int interval) {
+        if (interval < 1 || interval > MAX_KEYFRAME_INTERVAL)
+            throw new IllegalArgumentException("interval must be from 1 to " + MAX_KEYFRAME_INTERVAL);
+        int[] turnStarts = new int[turns.size() + 1];
+        for (int turn = 0; turn < turns.size(); turn++)
+            turnStarts[turn + 1] = turnStarts[turn] + turns.get(turn).length;
+        byte[] moves = new byte[turnStarts[turns.size()]];
+        for (int turn = 0; turn < turns.size(); turn++)
+            System.arraycopy(turns.get(turn), 0, moves, turnStarts[turn], turns.get(turn).length);
+
+        byte[] keyframes = new byte[(turns.size() / interval + 1) * BoardCodec.BYTES];
+        int[] masks = start.clone();
+        for (int turn = 0; ; turn++) {
+            if (turn % interval == 0)
+                BoardCodec.write(masks, toMove, keyframes, turn / interval * BoardCodec.BYTES);
+            if (turn == turns.size())
+                break;
+            play(masks, moves, turnStarts[turn], turnStarts[turn + 1]);
+            toMove = other(toMove);
+        }
+        return new GameRecord(id, redPlayer, whitePlayer, message, time, interval, moves, turnStarts, keyframes);
+    }
+
+    /**
+     * Gets the moves of a turn as squares of the red player's side of the board
+     * @param moves the moves, as the player who made them sees the board
+     * @param mover the color of the player who made them
+     * @return two bytes a move, the squares it starts and ends on
+     */
+    public static byte[] squares(List<Move> moves, Piece.Color mover) {
+        byte[] squares = new byte[moves.size() * 2];
+        for (int i = 0; i < moves.size(); i++) {
+            squares[2 * i] = (byte) square(moves.get(i).getStart(), mover);
+            squares[2 * i + 1] = (byte) square(moves.get(i).getEnd(), mover);
+        }
+        return squares;
+    }
+
+    /**
+     * Gets the square of a position, turning the white player's side of the board around
+     */
+    private static int square(Position position, Piece.Color side) {
+        int square = BoardCodec.square(position.getRow(), position.getCell());
+        if (square < 0)
+            throw new IllegalArgumentException("not a dark square: " + position);
+        return side == Piece.Color.WHITE ? BoardCodec.SQUARES - 1 - square : square;
+    }
+
+    /**
+     * Play moves on a position: each moves its piece, takes the piece it
+     * jumps and crowns a piece reaching the far row
+     */
+    private static void play(int[] masks, byte[] moves, int from, int to) {
+        for (int i = from; i < to; i += 2) {
+            int start = moves[i];
+            int end = moves[i + 1];
+            int startBit = 1 << start;
+            int endBit = 1 << end;
+            int color = (masks[BoardCodec.RED] & startBit) != 0 ? BoardCodec.RED : BoardCodec.WHITE;
+            masks[color] = masks[color] & ~startBit | endBit;
+            if ((masks[BoardCodec.KINGS] & startBit) != 0)
+                masks[BoardCodec.KINGS] = masks[BoardCodec.KINGS] & ~startBit | endBit;
+            int startRow = BoardCodec.row(start);
+            int endRow = BoardCodec.row(end);
+            if (Math.abs(startRow - endRow) == 2) {
+                int jumped = ~(1 << BoardCodec.square((startRow + endRow) / 2,
+                        (BoardCodec.cell(start) + BoardCodec.cell(end)) / 2));
+                for (int m = 0; m < BoardCodec.MASKS; m++)
+                    masks[m] &= jumped;
+            }
+            if (endRow == (color == BoardCodec.RED ? 0 : BoardView.NUM_ROW - 1))
+                masks[BoardCodec.KINGS] |= endBit;
+        }
+    }
+
+    private static Piece.Color other(Piece.Color color) {
+        return color == Piece.Color.RED ? Piece.Color.WHITE : Piece.Color.RED;
+    }
+
+    /**
+     * Find the position after a number of turns
+     * @param turn the number of turns played, from 0 to {@link #numTurns()}
+     * @param masks where the position is written
+     * @return the color to move
+     */
+    public Piece.Color seek(int turn, int[] masks) {
+        if (turn < 0 || turn > numTurns())
+            throw new IllegalArgumentException("no turn " + turn + " in a game of " + numTurns());
+        int keyframe = turn / interval;
+        Piece.Color toMove = BoardCodec.read(keyframes, keyframe * BoardCodec.BYTES, masks);
+        for (int played = keyframe * interval; played < turn; played++) {
+            play(masks, moves, turnStarts[played], turnStarts[played + 1]);
+            toMove = other(toMove);
+        }
+        return toMove;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getRedPlayer() {
+        return redPlayer;
+    }
+
+    public String getWhitePlayer() {
+        return whitePlayer;
+    }
+
+    /**
+     * Gets how the game ended
+     * @return the message shown when it was over
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets when the game ended
+     * @return the time, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getKeyframeInterval() {
+        return interval;
+    }
+
+    /**
+     * Gets the number of turns played
+     * @return number of turns
+     */
+    public int numTurns() {
+        return turnStarts.length - 1;
+    }
+
+    /**
+     * Checks whether a player played the game
+     * @param name the name of the player
+     * @return true if they played red or white
+     */
+    public boolean isPlayedBy(String name) {
+        return redPlayer.equals(name) || whitePlayer.equals(name);
+    }
+
+    /**
+     * Write the record as bytes: its id, players, end and time, the keyframe
+     * interval, the moves of each turn behind their number and the keyframes
+     * @return the bytes
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + moves.length + turnStarts.length
+                + keyframes.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeLong(id);
+            out.writeUTF(redPlayer);
+            out.writeUTF(whitePlayer);
+            out.writeUTF(message);
+            out.writeLong(time);
+            out.writeByte(interval);
+            out.writeShort(numTurns());
+            for (int turn = 0; turn < numTurns(); turn++) {
+                out.writeByte((turnStarts[turn + 1] - turnStarts[turn]) / 2);
+                out.write(moves, turnStarts[turn], turnStarts[turn + 1] - turnStarts[turn]);
+            }
+            out.write(keyframes);
+        } catch (IOException e) {
+            // written to memory, which does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a record written by {@link #encode}
+     * @param bytes the bytes
+     * @return the record
+     * @throws IOException if the bytes are not a record
+     */
+    public static GameRecord decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        long id = in.readLong();
+        String red = in.readUTF();
+        String white = in.readUTF();
+        String message = in.readUTF();
+        long time = in.readLong();
+        int interval = in.readUnsignedByte();
+        int numTurns = in.readUnsignedShort();
+        if (interval < 1)
+            throw new IOException("bad keyframe interval " + interval);
+        int[] turnStarts = new int[numTurns + 1];
+        ByteArrayOutputStream moves = new ByteArrayOutputStream();
+        for (int turn = 0; turn < numTurns; turn++) {
+            byte[] squares = new byte[in.readUnsignedByte() * 2];
+            in.readFully(squares);
+            for (byte square : squares) {
+                if (square < 0 || square >= BoardCodec.SQUARES)
+                    throw new IOException("bad square " + square);
+            }
+            moves.write(squares);
+            turnStarts[turn + 1] = turnStarts[turn] + squares.length;
+        }
+        byte[] keyframes = new byte[(numTurns / interval + 1) * BoardCodec.BYTES];
+        in.readFully(keyframes);
+        return new GameRecord(id, red, white, message, time, interval, moves.toByteArray(), turnStarts, keyframes);
+    }
+}
@@ -0,0 +1,58 @@
+package com.webcheckers.model;
+
+import java.util.Objects;
+
+/**
+ * The outcome of one finished match, as kept in the game archive. Checkers
+ * games here always end with a winner, so a result is just who beat whom
+ * and when.
+ */
+public final class GameResult {
+
+    //Attributes
+    private final String winner;
+    private final String loser;
+    private final long time;
+
+    /**
+     * GameResult constructor
+     * @param winner name of the player who won
+     * @param loser name of the player who lost
+     * @param time when the game ended, in milliseconds since the epoch
+     */
+    public GameResult(String winner, String loser, long time) {
+        this.winner = Objects.requireNonNull(winner, "winner must not be null");
+        this.loser = Objects.requireNonNull(loser, "loser must not be null");
+        this.time = time;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public String getLoser() {
+        return loser;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GameResult))
+            return false;
+        GameResult other = (GameResult) o;
+        return winner.equals(other.winner) && loser.equals(other.loser) && time == other.time;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(winner, loser, time);
+    }
+
+    @Override
+    public String toString() {
+        return winner + " beat " + loser + " at " + time;
+    }
+}
@@ -0,0 +1,80 @@
+package com.webcheckers.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a ranking. Pages are numbered from 1 and this object is
+ * immutable, so it can be handed to the template engine or to Gson as is.
+ */
+public final class LeaderboardPage {
+
+    //Attributes
+    private final RankingMetric metric;
+    private final int page;
+    private final int pageSize;
+    private final int totalPlayers;
+    private final int firstRank;
+    private final List<PlayerStats> players;
+
+    /**
+     * LeaderboardPage constructor
+     * @param metric the ranking the page was taken from
+     * @param page the page number, starting at 1
+     * @param pageSize the maximum number of players on a page
+     * @param totalPlayers the number of players in the whole ranking
+     * @param players the players on this page, best first
+     */
+    public LeaderboardPage(RankingMetric metric, int page, int pageSize, int totalPlayers, List<PlayerStats> players) {
+        this.metric = metric;
+        this.page = page;
+        this.pageSize = pageSize;
+        this.totalPlayers = totalPlayers;
+        this.firstRank = (page - 1) * pageSize + 1;
+        this.players = Collections.unmodifiableList(players);
+    }
+
+    public RankingMetric getMetric() {
+        return metric;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    /**
+     * Get the rank of the first player on this page
+     * @return the rank, starting at 1
+     */
+    public int getFirstRank() {
+        return firstRank;
+    }
+
+    public List<PlayerStats> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Get the number of pages in the whole ranking
+     * @return at least 1
+     */
+    public int getTotalPages() {
+        return Math.max(1, (totalPlayers + pageSize - 1) / pageSize);
+    }
+
+    public boolean hasPrevious() {
+        return page > 1;
+    }
+
+    public boolean hasNext() {
+        return page < getTotalPages();
+    }
+}
@@ -0,0 +1,43 @@
+package com.webcheckers.model;
+
+/**
+ * The default leaderboard as it stood at one version of the rankings, kept
+ * both as a table for the home page and as the JSON body of
+ * {@code GET /leaderboard}. Snapshots are immutable and shared by every
+ * request until a change to the rankings makes them stale.
+ */
+public final class LeaderboardSnapshot {
+
+    //Attributes
+    private final long version;
+    private final LeaderboardTable table;
+    private final String json;
+
+    /**
+     * LeaderboardSnapshot constructor
+     * @param version the version of the rankings the snapshot was taken at
+     * @param table the first page of the default ranking
+     * @param json the same page rendered as JSON
+     */
+    public LeaderboardSnapshot(long version, LeaderboardTable table, String json) {
+        this.version = version;
+        this.table = table;
+        this.json = json;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LeaderboardTable getTable() {
+        return table;
+    }
+
+    public LeaderboardPage getPage() {
+        return table.getPage();
+    }
+
+    public String getJson() {
+        return json;
+    }
+}
@@ -0,0 +1,95 @@
+package com.webcheckers.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of a ranking split into the columns the home page lists, one list
+ * per column. Every list is unmodifiable so one table can be rendered by any
+ * number of requests at once.
+ */
+public final class LeaderboardTable {
+
+    //Attributes
+    private final LeaderboardPage page;
+    private final List<Integer> ranks;
+    private final List<String> names;
+    private final List<Integer> games;
+    private final List<Integer> won;
+    private final List<Integer> lost;
+    private final List<Integer> piecesTaken;
+    private final List<Integer> piecesLost;
+    private final List<Integer> ratings;
+
+    /**
+     * LeaderboardTable constructor
+     * @param page the page to split into columns
+     */
+    public LeaderboardTable(LeaderboardPage page) {
+        this.page = page;
+        List<PlayerStats> players = page.getPlayers();
+        List<Integer> ranks = new ArrayList<>(players.size());
+        List<String> names = new ArrayList<>(players.size());
+        List<Integer> games = new ArrayList<>(players.size());
+        List<Integer> won = new ArrayList<>(players.size());
+        List<Integer> lost = new ArrayList<>(players.size());
+        List<Integer> piecesTaken = new ArrayList<>(players.size());
+        List<Integer> piecesLost = new ArrayList<>(players.size());
+        List<Integer> ratings = new ArrayList<>(players.size());
+        for (PlayerStats stats : players) {
+            ranks.add(page.getFirstRank() + ranks.size());
+            names.add(stats.getName());
+            games.add(stats.getGames());
+            won.add(stats.getWon());
+            lost.add(stats.getLost());
+            piecesTaken.add(stats.getPiecesTaken());
+            piecesLost.add(stats.getPiecesLost());
+            ratings.add(stats.getRating());
+        }
+        this.ranks = Collections.unmodifiableList(ranks);
+        this.names = Collections.unmodifiableList(names);
+        this.games = Collections.unmodifiableList(games);
+        this.won = Collections.unmodifiableList(won);
+        this.lost = Collections.unmodifiableList(lost);
+        this.piecesTaken = Collections.unmodifiableList(piecesTaken);
+        this.piecesLost = Collections.unmodifiableList(piecesLost);
+        this.ratings = Collections.unmodifiableList(ratings);
+    }
+
+    public LeaderboardPage getPage() {
+        return page;
+    }
+
+    public List<Integer> getRanks() {
+        return ranks;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public List<Integer> getGames() {
+        return games;
+    }
+
+    public List<Integer> getWon() {
+        return won;
+    }
+
+    public List<Integer> getLost() {
+        return lost;
+    }
+
+    public List<Integer> getPiecesTaken() {
+        return piecesTaken;
+    }
+
+    public List<Integer> getPiecesLost() {
+        return piecesLost;
+    }
+
+    public List<Integer> getRatings() {
+        return ratings;
+    }
+}
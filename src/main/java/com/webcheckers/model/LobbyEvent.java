@@ -0,0 +1,93 @@
+package com.webcheckers.model;
+
+import java.util.Objects;
+
+/**
+ * Something that changed in the lobby: a player signed in or out, a player's
+ * status changed, or a player was challenged. Challenges only concern the
+ * player challenged; everything else concerns everyone in the lobby.
+ */
+public final class LobbyEvent {
+
+    public enum Type {joined, left, status, challenged}
+
+    //Attributes
+    private final Type type;
+    private final String player;
+    private final Player.Status status;
+    private final String opponent;
+
+    private LobbyEvent(Type type, String player, Player.Status status, String opponent) {
+        this.type = type;
+        this.player = Objects.requireNonNull(player, "player must not be null");
+        this.status = status;
+        this.opponent = opponent;
+    }
+
+    /**
+     * A player signed in
+     * @param player the player
+     * @return the event
+     */
+    public static LobbyEvent joined(Player player) {
+        return new LobbyEvent(Type.joined, player.getName(), player.getStatus(), null);
+    }
+
+    /**
+     * A player signed out
+     * @param player the player
+     * @return the event
+     */
+    public static LobbyEvent left(Player player) {
+        return new LobbyEvent(Type.left, player.getName(), null, null);
+    }
+
+    /**
+     * A player's status changed
+     * @param player the player, with their new status
+     * @return the event
+     */
+    public static LobbyEvent status(Player player) {
+        return new LobbyEvent(Type.status, player.getName(), player.getStatus(), null);
+    }
+
+    /**
+     * A player was challenged to a match
+     * @param challenged the player challenged
+     * @param challenger the player who challenged them
+     * @return the event
+     */
+    public static LobbyEvent challenged(Player challenged, Player challenger) {
+        return new LobbyEvent(Type.challenged, challenged.getName(), challenged.getStatus(), challenger.getName());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public Player.Status getStatus() {
+        return status;
+    }
+
+    public String getOpponent() {
+        return opponent;
+    }
+
+    /**
+     * Checks whether a player in the lobby should be told about this event
+     * @param name the player in the lobby
+     * @return true if the event concerns them
+     */
+    public boolean isFor(String name) {
+        return type != Type.challenged || player.equals(name);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + player;
+    }
+}
@@ -1,12 +1,24 @@
 package com.webcheckers.model;
 
+import com.webcheckers.ui.PostPlayTurnRoute;
+import com.webcheckers.ui.PostSubmitTurnRoute;
 import com.webcheckers.ui.PostValidateMoveRoute;
 import com.webcheckers.util.Message;
+import com.webcheckers.util.ProfileEvents;
+import com.webcheckers.util.VersionedSignal;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 public class Match {
@@ -16,15 +28,16 @@ public class Match {
     private BoardView whiteBoardView = new BoardView(Piece.Color.WHITE);
     private Player redPlayer;
     private Player whitePlayer;
-    private Piece.Color activeColor;
-    private Player winner = null;
+    // read by both players' requests without the lock, written under it
+    private volatile Piece.Color activeColor;
+    private volatile Player winner = null;
     private ArrayList<Position> redPieces = initializePieces(redBoardView);
     private ArrayList<Position> whitePieces = initializePieces(whiteBoardView);
     private Stack<Piece> piecesRemoved = new Stack<>();
     private final Map<String, Object> modeOptions;
     private boolean isGameOver = false;
     public enum STATE {resigned, finished, running}
-    private STATE state;
+    private volatile STATE state;
     private ArrayList<Move> moves = new ArrayList<>();
     private boolean hasNextJump = false;
     private Piece.Type currentType = Piece.Type.SINGLE;
@@ -32,6 +45,18 @@ public class Match {
     private ArrayList<Position> possibleJumps = new ArrayList<>();
     private boolean possibleJump = false;
     private boolean help = false;
+    private boolean resultRecorded = false;
+    // moves on whenever the turn changes or the game ends, waking players waiting for it
+    private final VersionedSignal turnSignal = new VersionedSignal();
+    private final List<MatchListener> listeners = new CopyOnWriteArrayList<>();
+    // the boards at the end of the last few turns, so players can be sent only what changed
+    private final BoardHistory boardHistory;
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+    private final long id;
+    // moves on with everything either player's Game page shows, so unchanged pages need not be sent again
+    private final AtomicLong stateVersion = new AtomicLong();
+    // the number of turns played, so events logged for turns a snapshot already holds can be skipped
+    private volatile int turns = 0;
 
     /**
      * Create a new match between 2 players.
@@ -39,6 +64,7 @@ public class Match {
      * @param whitePlayer   - white player
      */
     public Match(Player redPlayer, Player whitePlayer){
+        this.id = NEXT_ID.incrementAndGet();
         this.redPlayer = redPlayer;
         this.whitePlayer = whitePlayer;
         this.activeColor = Piece.Color.RED;
@@ -46,6 +72,138 @@ public class Match {
         this.modeOptions = new HashMap<>(2);
         this.modeOptions.put("isGameOver", false);
         this.modeOptions.put("gameOverMessage", null);
+        this.boardHistory = new BoardHistory(redBoardView);
+    }
+
+    /**
+     * Bring back a running match from a snapshot, keeping its id.
+     * @param id the id of the match
+     * @param redPlayer the red player
+     * @param whitePlayer the white player
+     * @param position the board, as the red player sees it
+     * @param activeColor the color to move
+     * @param pending the moves validated so far this turn
+     * @param currentType the type of the piece moving this turn
+     * @param turns the number of turns played
+     */
+    private Match(long id, Player redPlayer, Player whitePlayer, int[] position, Piece.Color activeColor,
+                  List<Move> pending, Piece.Type currentType, int turns) {
+        this.id = id;
+        reserveId(id);
+        this.redPlayer = redPlayer;
+        this.whitePlayer = whitePlayer;
+        this.activeColor = activeColor;
+        this.state = STATE.running;
+        this.modeOptions = new HashMap<>(2);
+        this.modeOptions.put("isGameOver", false);
+        this.modeOptions.put("gameOverMessage", null);
+        BoardCodec.decode(position, redBoardView);
+        int[] flipped = position.clone();
+        BoardCodec.flip(flipped);
+        BoardCodec.decode(flipped, whiteBoardView);
+        this.redPieces = piecesOf(redBoardView, Piece.Color.RED);
+        this.whitePieces = piecesOf(whiteBoardView, Piece.Color.WHITE);
+        for (int i = redPieces.size(); i < 12; i++)
+            piecesRemoved.push(new Piece(Piece.Type.SINGLE, Piece.Color.RED));
+        for (int i = whitePieces.size(); i < 12; i++)
+            piecesRemoved.push(new Piece(Piece.Type.SINGLE, Piece.Color.WHITE));
+        this.moves = new ArrayList<>(pending);
+        this.currentType = currentType;
+        this.turns = turns;
+        this.boardHistory = new BoardHistory(redBoardView);
+    }
+
+    /**
+     * Make sure the matches started from now on get ids after one an earlier
+     * run of the server used, in a snapshot, a log or an archive
+     * @param id the id used
+     */
+    public static void reserveId(long id) {
+        NEXT_ID.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Bring back a match from its start, keeping its id, so that its turns
+     * can be played again from a log
+     * @param id the id of the match
+     * @param redPlayer the red player
+     * @param whitePlayer the white player
+     * @return the match, at its first turn
+     */
+    public static Match resume(long id, Player redPlayer, Player whitePlayer) {
+        int[] position = new int[BoardCodec.MASKS];
+        BoardCodec.encode(new BoardView(Piece.Color.RED), position);
+        return new Match(id, redPlayer, whitePlayer, position, Piece.Color.RED, Collections.emptyList(),
+                Piece.Type.SINGLE, 0);
+    }
+
+    /**
+     * Write the match as it stands, between moves: its id, players, board,
+     * the color to move, the number of turns played and the moves validated
+     * so far this turn. Help shown
+     * on the board is left out.
+     * @param out where the snapshot is written
+     * @throws IOException if it could not be written
+     */
+    public synchronized void writeSnapshot(DataOutput out) throws IOException {
+        int[] position = new int[BoardCodec.MASKS];
+        BoardCodec.encode(redBoardView, position);
+        byte[] board = new byte[BoardCodec.BYTES];
+        BoardCodec.write(position, activeColor, board, 0);
+        out.writeLong(id);
+        out.writeUTF(redPlayer.getName());
+        out.writeUTF(whitePlayer.getName());
+        out.write(board);
+        out.writeInt(turns);
+        out.writeByte(currentType == Piece.Type.KING ? 1 : 0);
+        out.writeByte(moves.size());
+        for (Move move : moves) {
+            out.writeByte(move.getStart().getRow());
+            out.writeByte(move.getStart().getCell());
+            out.writeByte(move.getEnd().getRow());
+            out.writeByte(move.getEnd().getCell());
+        }
+    }
+
+    /**
+     * Read a match written by {@link #writeSnapshot}
+     * @param in where the snapshot is read from
+     * @param players gives the player of a name
+     * @return the match, running again
+     * @throws IOException if it could not be read
+     */
+    public static Match readSnapshot(DataInput in, Function<String, Player> players) throws IOException {
+        long id = in.readLong();
+        Player red = players.apply(in.readUTF());
+        Player white = players.apply(in.readUTF());
+        byte[] board = new byte[BoardCodec.BYTES];
+        in.readFully(board);
+        int[] position = new int[BoardCodec.MASKS];
+        Piece.Color toMove = BoardCodec.read(board, 0, position);
+        int turns = in.readInt();
+        Piece.Type type = in.readByte() == 1 ? Piece.Type.KING : Piece.Type.SINGLE;
+        int numMoves = in.readUnsignedByte();
+        List<Move> pending = new ArrayList<>(numMoves);
+        for (int i = 0; i < numMoves; i++) {
+            Position start = new Position(in.readByte(), in.readByte());
+            pending.add(new Move(start, new Position(in.readByte(), in.readByte())));
+        }
+        return new Match(id, red, white, position, toMove, pending, type, turns);
+    }
+
+    /**
+     * Find the pieces of a color anywhere on a board
+     */
+    private static ArrayList<Position> piecesOf(BoardView board, Piece.Color color) {
+        ArrayList<Position> pieces = new ArrayList<>();
+        for (int y = 0; y < BoardView.NUM_ROW; y++) {
+            for (int x = 0; x < BoardView.NUM_COL; x++) {
+                Piece piece = board.getSpace(y, x).getPiece();
+                if (piece != null && piece.getColor() == color)
+                    pieces.add(new Position(y, x));
+            }
+        }
+        return pieces;
     }
 
     /**
@@ -93,19 +251,19 @@ public class Match {
     }
 
     /**
-     * Getter function for all the pieces red player has
+     * Getter function for all the pieces red player has, copied between turns
      * @return red player's pieces as space
      */
-    public ArrayList<Position> getRedPieces() {
-        return redPieces;
+    public synchronized ArrayList<Position> getRedPieces() {
+        return new ArrayList<>(redPieces);
     }
 
     /**
-     * Getter function for all the pieces white player has
+     * Getter function for all the pieces white player has, copied between turns
      * @return white player's pieces as space
      */
-    public ArrayList<Position> getWhitePieces() {
-        return whitePieces;
+    public synchronized ArrayList<Position> getWhitePieces() {
+        return new ArrayList<>(whitePieces);
     }
 
     /**
@@ -124,6 +282,125 @@ public class Match {
             activeColor = Piece.Color.WHITE;
         else
             activeColor = Piece.Color.RED;
+        stateVersion.incrementAndGet();
+        turnSignal.advance();
+    }
+
+    /**
+     * Ends the current player's turn once its moves have been played on the board,
+     * handing the turn to the other player and telling the listeners. A turn
+     * that leaves the other player no pieces also ends the match.
+     * @param played the moves of the turn, in order
+     */
+    public void endTurn(List<Move> played) {
+        Player mover = getCurrentPlayer();
+        List<Move> moves = Collections.unmodifiableList(new ArrayList<>(played));
+        turns++;
+        // kept first, so nobody is told of a turn that a crash could lose
+        for (MatchListener listener : listeners)
+            listener.turnPlayed(this, mover, moves);
+        // recorded before the turn changes, so anyone woken by it finds the new board
+        boardHistory.record(redBoardView);
+        changeActiveColor();
+        // a turn that takes the opponent's last piece ends the match, and everyone told of the turn sees it ended
+        boolean captured = (activeColor == Piece.Color.RED ? redPieces : whitePieces).isEmpty()
+                && end(mover, STATE.finished, mover.getName() + " has captured all the pieces.");
+        for (MatchListener listener : listeners)
+            listener.turnEnded(this, mover, moves);
+        if (captured)
+            fireGameEnded();
+    }
+
+    /**
+     * Add a listener told about turns and the end of the match
+     * @param listener the listener
+     */
+    public void addListener(MatchListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Getter function for the message shown when the game is over
+     * @return the message, or null while the game is running
+     */
+    public synchronized String getGameOverMessage() {
+        return (String) modeOptions.get("gameOverMessage");
+    }
+
+    /**
+     * Getter function for the options of the play mode: whether the game is over and its message
+     * @return a copy of the mode options
+     */
+    public synchronized Map<String, Object> getModeOptions() {
+        return new HashMap<>(modeOptions);
+    }
+
+    /**
+     * End the match, unless it has already ended
+     * @param winner the winner
+     * @param ending how it ended
+     * @param message the message shown when the game is over
+     * @return true if this ended it
+     */
+    private synchronized boolean end(Player winner, STATE ending, String message) {
+        if (state != STATE.running)
+            return false;
+        this.winner = winner;
+        state = ending;
+        modeOptions.put("isGameOver", true);
+        modeOptions.put("gameOverMessage", message);
+        stateVersion.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Tell the listeners the match ended, then wake the players waiting on it
+     */
+    private void fireGameEnded() {
+        for (MatchListener listener : listeners)
+            listener.gameEnded(this);
+        turnSignal.advance();
+    }
+
+    /**
+     * Getter function for the boards at the end of the last few turns
+     * @return the board history
+     */
+    public BoardHistory getBoardHistory() {
+        return boardHistory;
+    }
+
+    /**
+     * Getter function for the id of the match, unique while the server runs
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Getter function for the number of turns played
+     * @return the number of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Getter function for the version of what the players' Game pages show: the
+     * boards, the turn, help and the end of the game
+     * @return the state version
+     */
+    public long getStateVersion() {
+        return stateVersion.get();
+    }
+
+    /**
+     * Getter function for the signal that moves on when the turn changes or the game ends
+     * @return the turn signal
+     */
+    public VersionedSignal getTurnSignal() {
+        return turnSignal;
     }
 
     /**
@@ -136,6 +413,14 @@ public class Match {
         return whitePlayer;
     }
 
+    /**
+     * Gets the name of the player whose turn it is
+     */
+    private String currentName() {
+        Player player = getCurrentPlayer();
+        return player == null ? null : player.getName();
+    }
+
     /**
      * Getter function for red player's board view
      * @return red board view
@@ -157,14 +442,13 @@ public class Match {
     }
 
     /**
-     * Set the winner and change the stats
+     * Set the winner and change the stats. Only the first end of a match
+     * counts, so a match has one winner however its players race to end it.
      * @param winner the winner
      */
     public void setWinner(Player winner) {
-        this.winner = winner;
-        state = STATE.finished;
-        modeOptions.put("isGameOver", true);
-        modeOptions.put("gameOverMessage", winner.getName() + "captured all of the pieces.");
+        if (end(winner, STATE.finished, winner.getName() + " has captured all the pieces."))
+            fireGameEnded();
     }
 
     /**
@@ -176,13 +460,23 @@ public class Match {
     }
 
     /**
-     * sets the state of the game to resigned
+     * sets the state of the game to resigned, unless it has already ended
      */
     public void resignGame(Player winner, Player loser) {
-        this.winner = winner;
-        state = STATE.resigned;
-        modeOptions.put("isGameOver", true);
-        modeOptions.put("gameOverMessage", loser.getName() + " has resigned.");
+        if (end(winner, STATE.resigned, loser.getName() + " has resigned."))
+            fireGameEnded();
+    }
+
+    /**
+     * Marks the result of the match as recorded. Both players see the end of the
+     * match, but only the first to get here should record it.
+     * @return true the first time, false afterwards
+     */
+    public synchronized boolean markResultRecorded() {
+        if (resultRecorded)
+            return false;
+        resultRecorded = true;
+        return true;
     }
 
     /**
@@ -216,18 +510,18 @@ public class Match {
      * Add the move to the array list of moves made as stack
      * @param move the move made
      */
-    public void pushMove(Move move) { this.moves.add(move); }
+    public synchronized void pushMove(Move move) { this.moves.add(move); }
 
     /**
      * Remove the move from the array list of moves made as stack
      * @return the most recent move made
      */
-    public Move popMove() { return this.moves.remove(moves.size() - 1); }
+    public synchronized Move popMove() { return this.moves.remove(moves.size() - 1); }
 
     /**
      * Empty the array list of moves made
      */
-    public void emptyMoves() { this.moves = new ArrayList<>(); }
+    public synchronized void emptyMoves() { this.moves = new ArrayList<>(); }
 
     /**
      * Check if the piece at pos is not a king
@@ -496,7 +790,7 @@ public class Match {
     /**
      * Activate the help
      */
-    public void activateHelp(){
+    public synchronized void activateHelp(){
         BoardView board;
         Piece piece;
         Space space;
@@ -534,12 +828,13 @@ public class Match {
             }
         }
         help = true;
+        stateVersion.incrementAndGet();
     }
 
     /**
      * Deactivate the help
      */
-    public void deactivateHelp(){
+    public synchronized void deactivateHelp(){
         BoardView board;
         Space space;
         // get the board for the current player
@@ -568,6 +863,7 @@ public class Match {
             }
         }
         help = false;
+        stateVersion.incrementAndGet();
     }
 
     /**
@@ -618,6 +914,7 @@ public class Match {
             myEnd.getPiece().setType(Piece.Type.KING);
             oppEnd.getPiece().setType(Piece.Type.KING);
         }
+        stateVersion.incrementAndGet();
     }
 
     /**
@@ -688,6 +985,130 @@ public class Match {
             myEnd.getPiece().setType(Piece.Type.KING);
             oppEnd.getPiece().setType(Piece.Type.KING);
         }
+        stateVersion.incrementAndGet();
+    }
+
+    /**
+     * Play the moves validated this turn on the board and hand the turn over,
+     * unless the last of them was a jump another jump can follow.
+     * @return the message for the player
+     */
+    public synchronized Message submitTurn() {
+        ProfileEvents.MatchEvent event = ProfileEvents.MatchEvent.begin(ProfileEvents.MatchEvent.SUBMIT, id, currentName());
+        try {
+            return playMoves();
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Play the moves validated this turn, if the turn is complete
+     */
+    private Message playMoves() {
+        if (moves.isEmpty())
+            return PostSubmitTurnRoute.NO_MOVE_ERROR;
+        BoardView currentBoardView = activeColor == Piece.Color.RED ? redBoardView : whiteBoardView;
+        Move mostRecentMove = moves.get(moves.size() - 1);
+        // if it was a jump, check to see if there is another jump
+        if (Math.abs(mostRecentMove.getStart().getRow() - mostRecentMove.getEnd().getRow()) == 2
+                && checkFourDirections(currentBoardView, mostRecentMove.getEnd()))
+            return PostSubmitTurnRoute.JUMP_LEFT_ERROR;
+
+        ArrayList<Move> played = moves;
+        // perform all the moves
+        for (Move move : played) {
+            if (Math.abs(move.getStart().getRow() - move.getEnd().getRow()) == 2)
+                jump(move);
+            else
+                move(move);
+        }
+        // reset the moves to nothing
+        emptyMoves();
+        //alternate turns, telling anyone listening what was played
+        endTurn(played);
+        return PostSubmitTurnRoute.TURN_SUBMITTED_MESSAGE;
+    }
+
+    /**
+     * Validate every move of a turn and, if all of them are legal, play it; if
+     * any is not, nothing is played and the moves validated so far are dropped.
+     * Whose turn it is is checked under the same lock, so two turns sent at once
+     * by one player cannot both be played.
+     * @param player the player sending the turn
+     * @param turn the moves of the turn, in order
+     * @return the result, naming the first move refused if there is one
+     */
+    public synchronized TurnResult playTurn(Player player, List<Move> turn) {
+        ProfileEvents.MatchEvent event = ProfileEvents.MatchEvent.begin(ProfileEvents.MatchEvent.PLAY, id, currentName());
+        try {
+            return checkAndPlay(player, turn);
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Validate every move of a turn and play it if all are legal
+     */
+    private TurnResult checkAndPlay(Player player, List<Move> turn) {
+        if (state != STATE.running || winner != null || !getCurrentPlayer().equals(player))
+            return TurnResult.refused(0, PostPlayTurnRoute.NOT_YOUR_TURN_ERROR);
+        if (turn == null || turn.isEmpty())
+            return TurnResult.refused(0, PostSubmitTurnRoute.NO_MOVE_ERROR);
+        if (help)
+            return TurnResult.refused(0, PostSubmitTurnRoute.HELP_ERROR);
+        BoardView currentBoardView = activeColor == Piece.Color.RED ? redBoardView : whiteBoardView;
+        Position first = turn.get(0).getStart();
+        emptyMoves();
+        for (int i = 0; i < turn.size(); i++) {
+            Move move = turn.get(i);
+            Message message = checkSquares(currentBoardView, move, first, i == 0 ? null : turn.get(i - 1));
+            if (message == null)
+                message = validateMove(move);
+            if (message.getType() != Message.Type.INFO) {
+                emptyMoves();
+                return TurnResult.refused(i, message);
+            }
+        }
+        Message message = submitTurn();
+        if (message.getType() != Message.Type.INFO) {
+            emptyMoves();
+            return TurnResult.refused(turn.size(), message);
+        }
+        return TurnResult.played(message, stateVersion.get());
+    }
+
+    /**
+     * Check that a move sent as part of a whole turn is between squares on the
+     * board, to an empty one, starting from one of the player's pieces or from
+     * where the move before it ended
+     * @return the error, or null if the squares are fine
+     */
+    private Message checkSquares(BoardView board, Move move, Position first, Move previous) {
+        if (move == null || !onBoard(move.getStart()) || !onBoard(move.getEnd()))
+            return PostSubmitTurnRoute.OFF_BOARD_ERROR;
+        if (previous != null && !move.getStart().equals(previous.getEnd()))
+            return PostValidateMoveRoute.DIFFERENT_ERROR;
+        if (previous == null) {
+            Piece piece = board.getSpace(first.getRow(), first.getCell()).getPiece();
+            if (piece == null || piece.getColor() != activeColor)
+                return PostSubmitTurnRoute.NO_PIECE_ERROR;
+        }
+        Position end = move.getEnd();
+        // the moving piece is still on its first square until the turn is played
+        if (board.getSpace(end.getRow(), end.getCell()).getPiece() != null && !end.equals(first))
+            return PostSubmitTurnRoute.OCCUPIED_ERROR;
+        return null;
+    }
+
+    /**
+     * Checks whether a position is a dark square on the board
+     */
+    private static boolean onBoard(Position pos) {
+        return pos != null && pos.getRow() >= 0 && pos.getRow() < BoardView.NUM_ROW
+                && pos.getCell() >= 0 && pos.getCell() < BoardView.NUM_COL
+                && (pos.getRow() + pos.getCell()) % 2 == 1;
     }
 
     /**
@@ -695,7 +1116,19 @@ public class Match {
      * @param move
      * @return
      */
-    public Message validateMove(Move move){
+    public synchronized Message validateMove(Move move){
+        ProfileEvents.MatchEvent event = ProfileEvents.MatchEvent.begin(ProfileEvents.MatchEvent.VALIDATE, id, currentName());
+        try {
+            return checkMove(move);
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Check a move against the board and the moves made so far this turn
+     */
+    private Message checkMove(Move move){
         // get different board from the match
         BoardView currentBoardView;
 
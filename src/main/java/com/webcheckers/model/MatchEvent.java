@@ -0,0 +1,212 @@
+package com.webcheckers.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Something that changed a match, as kept in the match event log: it
+ * started, a turn was played, it ended by resignation or capture, or its
+ * players left it running and it was removed. A match can be played again
+ * from its events alone.
+ */
+public final class MatchEvent {
+
+    public enum Type {STARTED, TURN, RESIGNED, FINISHED, REMOVED}
+
+    //Attributes
+    private final Type type;
+    private final long matchId;
+    private final long time;
+    private final String redPlayer;
+    private final String whitePlayer;
+    private final int turn;
+    private final List<Move> moves;
+    private final String winner;
+
+    /**
+     * MatchEvent constructor; the fields that do not go with the type are null or 0
+     */
+    private MatchEvent(Type type, long matchId, long time, String redPlayer, String whitePlayer, int turn,
+                       List<Move> moves, String winner) {
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        this.matchId = matchId;
+        this.time = time;
+        this.redPlayer = redPlayer;
+        this.whitePlayer = whitePlayer;
+        this.turn = turn;
+        this.moves = moves;
+        this.winner = winner;
+    }
+
+    /**
+     * The start of a match
+     * @param match the match
+     * @return the event
+     */
+    public static MatchEvent started(Match match) {
+        return new MatchEvent(Type.STARTED, match.getId(), System.currentTimeMillis(),
+                match.getRedPlayer().getName(), match.getWhitePlayer().getName(), 0, null, null);
+    }
+
+    /**
+     * A turn just played
+     * @param match the match, whose turn count already includes the turn
+     * @param moves the moves of the turn, in order, as the player who moved sees the board
+     * @return the event
+     */
+    public static MatchEvent turn(Match match, List<Move> moves) {
+        return new MatchEvent(Type.TURN, match.getId(), System.currentTimeMillis(), null, null,
+                match.getTurns(), Collections.unmodifiableList(new ArrayList<>(moves)), null);
+    }
+
+    /**
+     * The end of a match
+     * @param match the match, which knows how it ended
+     * @return the event
+     */
+    public static MatchEvent ended(Match match) {
+        Player winner = match.getWinner();
+        return new MatchEvent(match.isGameResigned() == Match.STATE.resigned ? Type.RESIGNED : Type.FINISHED,
+                match.getId(), System.currentTimeMillis(), null, null, 0, null,
+                winner == null ? null : winner.getName());
+    }
+
+    /**
+     * The removal of a match its players left while it was running
+     * @param match the match
+     * @return the event
+     */
+    public static MatchEvent removed(Match match) {
+        return new MatchEvent(Type.REMOVED, match.getId(), System.currentTimeMillis(), null, null, 0, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Gets when the event happened
+     * @return the time, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public String getRedPlayer() {
+        return redPlayer;
+    }
+
+    public String getWhitePlayer() {
+        return whitePlayer;
+    }
+
+    /**
+     * Gets the number of the turn, counting from 1
+     * @return the turn, or 0 if this is not a turn
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * Write the event as bytes: its type, match id and time, then what goes with the type
+     * @return the bytes
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(type.ordinal());
+            out.writeLong(matchId);
+            out.writeLong(time);
+            switch (type) {
+                case STARTED:
+                    out.writeUTF(redPlayer);
+                    out.writeUTF(whitePlayer);
+                    break;
+                case TURN:
+                    out.writeInt(turn);
+                    out.writeByte(moves.size());
+                    for (Move move : moves) {
+                        out.writeByte(move.getStart().getRow());
+                        out.writeByte(move.getStart().getCell());
+                        out.writeByte(move.getEnd().getRow());
+                        out.writeByte(move.getEnd().getCell());
+                    }
+                    break;
+                default:
+                    out.writeUTF(winner == null ? "" : winner);
+            }
+        } catch (IOException e) {
+            // written to memory, which does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read an event written by {@link #encode}
+     * @param bytes the bytes
+     * @return the event
+     * @throws IOException if the bytes are not an event
+     */
+    public static MatchEvent decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= Type.values().length)
+            throw new IOException("unknown match event type " + ordinal);
+        Type type = Type.values()[ordinal];
+        long matchId = in.readLong();
+        long time = in.readLong();
+        switch (type) {
+            case STARTED:
+                return new MatchEvent(type, matchId, time, in.readUTF(), in.readUTF(), 0, null, null);
+            case TURN:
+                int turn = in.readInt();
+                int numMoves = in.readUnsignedByte();
+                List<Move> moves = new ArrayList<>(numMoves);
+                for (int i = 0; i < numMoves; i++) {
+                    Position start = new Position(in.readByte(), in.readByte());
+                    moves.add(new Move(start, new Position(in.readByte(), in.readByte())));
+                }
+                return new MatchEvent(type, matchId, time, null, null, turn, Collections.unmodifiableList(moves), null);
+            default:
+                String winner = in.readUTF();
+                return new MatchEvent(type, matchId, time, null, null, 0, null, winner.isEmpty() ? null : winner);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case STARTED:
+                return "match " + matchId + " started, " + redPlayer + " against " + whitePlayer;
+            case TURN:
+                return "match " + matchId + " turn " + turn + ": " + moves;
+            case REMOVED:
+                return "match " + matchId + " removed while running";
+            default:
+                return "match " + matchId + " " + type.name().toLowerCase() + ", won by " + winner;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.webcheckers.model;
+
+import java.util.List;
+
+/**
+ * Told about what happens in a match as it happens.
+ *
+ * <p>
+ * Listeners are called on the thread of the request that changed the match,
+ * so they should hand work off rather than block.
+ * </p>
+ */
+public interface MatchListener {
+
+    /**
+     * Two players started a match
+     * @param match the match, at its first turn
+     */
+    default void matchStarted(Match match) {
+    }
+
+    /**
+     * A player's turn was played on the board but not yet handed over: nobody
+     * waiting on the match has been woken and no other listener has heard of
+     * it. Listeners that must keep the turn before anyone sees it, such as a
+     * log on disk, do so here; the match stays locked until they return.
+     * @param match the match, whose turn count already includes the turn
+     * @param mover the player who moved
+     * @param moves the moves of the turn, in order
+     */
+    default void turnPlayed(Match match, Player mover, List<Move> moves) {
+    }
+
+    /**
+     * A player submitted their turn and it is now the other player's turn
+     * @param match the match
+     * @param mover the player who moved
+     * @param moves the moves of the turn, in order
+     */
+    void turnEnded(Match match, Player mover, List<Move> moves);
+
+    /**
+     * The match ended, by resignation or because a side ran out of pieces
+     * @param match the match, which knows how it ended
+     */
+    void gameEnded(Match match);
+
+    /**
+     * The match was removed from the game center, whether it ended or both
+     * players left it while it was running
+     * @param match the match
+     */
+    default void matchRemoved(Match match) {
+    }
+}
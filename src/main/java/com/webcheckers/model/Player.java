@@ -1,6 +1,8 @@
 package com.webcheckers.model;
 
 public class Player {
+    // the rating of a player who has not played a rated game
+    public static final double DEFAULT_RATING = 1500.0;
 
     //Attributes
     private String name;
@@ -9,9 +11,9 @@ public class Player {
     private int lost;
     private int piecesTaken;
     private int piecesLost;
-    private String ratio;
+    private double rating;
     public enum Status {waiting, challenged, ingame}
-    public Status status;
+    public volatile Status status;
     private boolean recentlyInGame;
     private boolean recordsModified;
     private boolean signOut = false;
@@ -28,8 +30,7 @@ public class Player {
         lost = 0;
         piecesTaken = 0;
         piecesLost = 0;
-        // undefined because no games played
-        ratio = "undefined";
+        rating = DEFAULT_RATING;
         status = Status.waiting;
         recentlyInGame = false;
         recordsModified = false;
@@ -43,6 +44,18 @@ public class Player {
      * @param lost number of games lost
      */
     public Player(String name, int games, int won, int lost, int piecesTaken, int piecesLost) {
+        this(name, games, won, lost, piecesTaken, piecesLost, DEFAULT_RATING);
+    }
+
+    /**
+     * Player constructor
+     * @param name sets name to the name provided
+     * @param games number of games played
+     * @param won number of games won
+     * @param lost number of games lost
+     * @param rating the player's rating
+     */
+    public Player(String name, int games, int won, int lost, int piecesTaken, int piecesLost, double rating) {
         assert(name != null);
         this.name = name;
         this.games = games;
@@ -50,7 +63,7 @@ public class Player {
         this.lost = lost;
         this.piecesTaken = piecesTaken;
         this.piecesLost = piecesLost;
-        ratio = Float.toString((float)won/games);
+        this.rating = rating;
         status = Status.waiting;
         recentlyInGame = false;
         recordsModified = false;
@@ -104,21 +117,19 @@ public class Player {
     }
 
     /**
-     * Increase the number of games played and games won. Updates w/l ratio.
+     * Increase the number of games played and games won.
      */
     public void addWon() {
         games++;
         won++;
-        ratio = Float.toString((float)won/games);
     }
 
     /**
-     * Increase the number of games lost and games played. Updates w/l ratio.
+     * Increase the number of games lost and games played.
      */
     public void addLost() {
         games++;
         lost++;
-        ratio = Float.toString((float)won/games);
     }
 
     /**
@@ -154,11 +165,29 @@ public class Player {
     }
 
     /**
-     * Get the w/l ratio.
-     * @return
+     * Get the w/l ratio, worked out when asked for since it is only shown on the home page.
+     * @return the ratio, or "undefined" if no games were played
      */
     public String getRatio() {
-        return ratio;
+        if (games == 0)
+            return "undefined";
+        return Float.toString((float)won/games);
+    }
+
+    /**
+     * Get the rating of the player
+     * @return rating
+     */
+    public double getRating() {
+        return rating;
+    }
+
+    /**
+     * Set the rating of the player after a rated game
+     * @param rating the new rating
+     */
+    public void setRating(double rating) {
+        this.rating = rating;
     }
 
     /**
@@ -236,4 +265,13 @@ public class Player {
         return false;
     }
 
+    /**
+     * Overridden hashCode function, so a player is found by name in maps as well.
+     * @return  - the hash of the name
+     */
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
 }
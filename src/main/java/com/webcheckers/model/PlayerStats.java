@@ -0,0 +1,102 @@
+package com.webcheckers.model;
+
+import java.util.Objects;
+
+/**
+ * An immutable copy of a player's records, taken when the records last changed.
+ * The leaderboards rank these instead of {@link Player} objects because a
+ * ranking structure must not see its keys change underneath it.
+ */
+public final class PlayerStats {
+
+    //Attributes
+    private final String name;
+    private final int games;
+    private final int won;
+    private final int lost;
+    private final int piecesTaken;
+    private final int piecesLost;
+    private final int rating;
+
+    /**
+     * PlayerStats constructor
+     * @param name name of the player
+     * @param games number of games played
+     * @param won number of games won
+     * @param lost number of games lost
+     * @param piecesTaken number of opponent pieces taken
+     * @param piecesLost number of friendly pieces lost
+     * @param rating the player's rating, rounded
+     */
+    public PlayerStats(String name, int games, int won, int lost, int piecesTaken, int piecesLost, int rating) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.games = games;
+        this.won = won;
+        this.lost = lost;
+        this.piecesTaken = piecesTaken;
+        this.piecesLost = piecesLost;
+        this.rating = rating;
+    }
+
+    /**
+     * Take a copy of the current records of a player
+     * @param player the player
+     * @return the player's stats
+     */
+    public static PlayerStats of(Player player) {
+        return new PlayerStats(player.getName(), player.getGames(), player.getWon(), player.getLost(),
+                player.getPiecesTaken(), player.getPiecesLost(), (int) Math.round(player.getRating()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWon() {
+        return won;
+    }
+
+    public int getLost() {
+        return lost;
+    }
+
+    public int getPiecesTaken() {
+        return piecesTaken;
+    }
+
+    public int getPiecesLost() {
+        return piecesLost;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    /**
+     * Override the equals method
+     * @param o the object that is compared to
+     * @return true if every record is the same
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PlayerStats))
+            return false;
+        PlayerStats other = (PlayerStats) o;
+        return name.equals(other.name) && games == other.games && won == other.won && lost == other.lost &&
+                piecesTaken == other.piecesTaken && piecesLost == other.piecesLost && rating == other.rating;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, games, won, lost, piecesTaken, piecesLost, rating);
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + games + "/" + won + "/" + lost + "/" + piecesTaken + "/" + piecesLost + " (" + rating + ")";
+    }
+}
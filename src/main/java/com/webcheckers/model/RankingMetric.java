@@ -0,0 +1,80 @@
+package com.webcheckers.model;
+
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * The records a leaderboard can be ranked by. Each metric knows the label of
+ * the home page button that selects it.
+ */
+public enum RankingMetric {
+    GAMES("Games Rankings", PlayerStats::getGames),
+    WON("Victory Rankings", PlayerStats::getWon),
+    LOST("Loss Rankings", PlayerStats::getLost),
+    PIECES_TAKEN("Pieces Taken Rankings", PlayerStats::getPiecesTaken),
+    PIECES_LOST("Pieces Lost Rankings", PlayerStats::getPiecesLost),
+    RATING("Rating Rankings", PlayerStats::getRating);
+
+    private final String label;
+    private final ToIntFunction<PlayerStats> extractor;
+    private final Comparator<PlayerStats> comparator;
+
+    RankingMetric(String label, ToIntFunction<PlayerStats> extractor) {
+        this.label = label;
+        this.extractor = extractor;
+        // highest value first, ties broken by name so no two players compare equal
+        this.comparator = Comparator.comparingInt(extractor).reversed()
+                .thenComparing(PlayerStats::getName);
+    }
+
+    /**
+     * Get the label of the button that selects this ranking
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Get the value of this metric for a player
+     * @param stats the player's stats
+     * @return the value ranked on
+     */
+    public int valueOf(PlayerStats stats) {
+        return extractor.applyAsInt(stats);
+    }
+
+    /**
+     * Get the order of this ranking, keyed by (value, name)
+     * @return the comparator
+     */
+    public Comparator<PlayerStats> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Find a metric by its name or its button label, ignoring case
+     * @param key the name or label, may be null
+     * @return the matching metric, GAMES if none matches
+     */
+    public static RankingMetric fromKey(String key) {
+        for (RankingMetric metric : values()) {
+            if (metric.name().equalsIgnoreCase(key) || metric.label.equalsIgnoreCase(key))
+                return metric;
+        }
+        return GAMES;
+    }
+
+    /**
+     * Find the metric selected by a leaderboard button
+     * @param label the button label, may be null
+     * @return the matching metric, GAMES if none matches
+     */
+    public static RankingMetric fromLabel(String label) {
+        for (RankingMetric metric : values()) {
+            if (metric.label.equals(label))
+                return metric;
+        }
+        return GAMES;
+    }
+}
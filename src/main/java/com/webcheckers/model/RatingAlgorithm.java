@@ -0,0 +1,34 @@
+package com.webcheckers.model;
+
+/**
+ * A way of rating players from their results.
+ *
+ * <p>
+ * Ratings are worked out one rating period at a time: every game of a period
+ * is scored against the ratings the players had when the period began, the
+ * way Glicko does it. A single game is simply a period of one game. Because
+ * no game in a period depends on another, the new ratings of all the players
+ * in a period can be computed at the same time.
+ * </p>
+ */
+public interface RatingAlgorithm {
+
+    /**
+     * Gets the rating of a player who has not played a rated game
+     * @return the starting rating
+     */
+    double initialRating();
+
+    /**
+     * Works out the rating of a player at the end of a rating period.
+     * Elements {@code from} to {@code to - 1} of the two arrays describe the
+     * player's games in the period.
+     * @param rating            - the player's rating when the period began
+     * @param opponentRatings   - the opponent's rating in each game when the period began
+     * @param scores            - the player's score in each game, 1 for a win and 0 for a loss
+     * @param from              - the first game of the player
+     * @param to                - one past the last game of the player
+     * @return the new rating
+     */
+    double rate(double rating, double[] opponentRatings, double[] scores, int from, int to);
+}
@@ -0,0 +1,144 @@
+package com.webcheckers.model;
+
+import com.google.gson.Gson;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What spectators of a match see after one of its turns: the board as the
+ * red player sees it, whose turn it is and how the game ended, if it has.
+ *
+ * <p>
+ * A frame is taken once when a turn ends and shared by every spectator of
+ * the match, so watching never reads the match itself. The board and the
+ * mode options are built the first time a spectator asks for them and kept;
+ * two spectators racing to build them build the same thing.
+ * </p>
+ */
+public final class SpectatorFrame {
+
+    private static final Gson GSON = new Gson();
+
+    //Attributes
+    private final long matchId;
+    private final long version;
+    private final long boardVersion;
+    private final String redPlayer;
+    private final String whitePlayer;
+    private final int[] position;
+    private final Piece.Color activeColor;
+    private final String gameOverMessage;
+    private final String tag;
+    private volatile BoardView board;
+    private volatile String modeOptions;
+
+    private SpectatorFrame(long matchId, long version, long boardVersion, String redPlayer, String whitePlayer,
+                           int[] position, Piece.Color activeColor, String gameOverMessage) {
+        this.matchId = matchId;
+        this.version = version;
+        this.boardVersion = boardVersion;
+        this.redPlayer = redPlayer;
+        this.whitePlayer = whitePlayer;
+        this.position = position;
+        this.activeColor = activeColor;
+        this.gameOverMessage = gameOverMessage;
+        this.tag = "s" + matchId + "-" + version;
+    }
+
+    /**
+     * Take the frame of a match as it is now
+     * @param match the match
+     * @return the frame
+     */
+    public static SpectatorFrame of(Match match) {
+        // the state version is read first, so a turn ending meanwhile gives a newer frame, not an older one
+        long version = match.getStateVersion();
+        BoardHistory.Entry latest = match.getBoardHistory().latest();
+        return new SpectatorFrame(match.getId(), version, latest.getVersion(), match.getRedPlayer().getName(),
+                match.getWhitePlayer().getName(), latest.getPosition(), match.getActiveColor(),
+                match.getGameOverMessage());
+    }
+
+    public long getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Gets the version of the match the frame was taken at
+     * @return the state version of the match
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the version of the board in the match's {@link BoardHistory}
+     * @return the board version
+     */
+    public long getBoardVersion() {
+        return boardVersion;
+    }
+
+    public String getRedPlayer() {
+        return redPlayer;
+    }
+
+    public String getWhitePlayer() {
+        return whitePlayer;
+    }
+
+    public Piece.Color getActiveColor() {
+        return activeColor;
+    }
+
+    /**
+     * Gets how the game ended
+     * @return the message, or null while the game is being played
+     */
+    public String getGameOverMessage() {
+        return gameOverMessage;
+    }
+
+    public boolean isGameOver() {
+        return gameOverMessage != null;
+    }
+
+    /**
+     * Gets the part of an entity tag naming this frame
+     * @return the match id and version
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Gets the board as the red player sees it; it is shared, so it must not be changed
+     * @return the board
+     */
+    public BoardView getBoard() {
+        BoardView built = board;
+        if (built == null) {
+            built = new BoardView(Piece.Color.RED);
+            BoardCodec.decode(position, built);
+            board = built;
+        }
+        return built;
+    }
+
+    /**
+     * Gets the options of the spectator mode as JSON text, for a page to read
+     * @return whether the game is over and its message
+     */
+    public String getModeOptions() {
+        String built = modeOptions;
+        if (built == null) {
+            Map<String, Object> options = new LinkedHashMap<>(2);
+            options.put("isGameOver", isGameOver());
+            options.put("gameOverMessage", gameOverMessage);
+            built = GSON.toJson(options);
+            modeOptions = built;
+        }
+        return built;
+    }
+}
@@ -0,0 +1,65 @@
+package com.webcheckers.model;
+
+import com.webcheckers.util.Message;
+
+/**
+ * What became of a whole turn sent at once: either it was played, or one of
+ * its moves was refused and nothing was played.
+ */
+public final class TurnResult {
+
+    //Attributes
+    private final Message message;
+    private final int failedMove;
+    private final long version;
+
+    private TurnResult(Message message, int failedMove, long version) {
+        this.message = message;
+        this.failedMove = failedMove;
+        this.version = version;
+    }
+
+    /**
+     * The turn was played
+     * @param message the message for the player
+     * @param version the state version of the match once it was played
+     * @return the result
+     */
+    public static TurnResult played(Message message, long version) {
+        return new TurnResult(message, -1, version);
+    }
+
+    /**
+     * A move of the turn was refused
+     * @param index the index of the move refused; the number of moves if the turn ended too soon
+     * @param message why it was refused
+     * @return the result
+     */
+    public static TurnResult refused(int index, Message message) {
+        return new TurnResult(message, index, -1);
+    }
+
+    public boolean isPlayed() {
+        return failedMove < 0;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the move refused
+     * @return its index in the turn, or -1 if the turn was played
+     */
+    public int getFailedMove() {
+        return failedMove;
+    }
+
+    /**
+     * Gets the state version the turn left the match at, read before anyone else could change it
+     * @return the version, or -1 if the turn was refused
+     */
+    public long getVersion() {
+        return version;
+    }
+}
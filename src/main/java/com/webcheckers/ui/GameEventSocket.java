@@ -0,0 +1,98 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.PushService;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * The WebSocket endpoint that game pages open to be pushed events.
+ *
+ * <p>
+ * The page connects with the {@code token} it was rendered with; a socket
+ * with no valid token is closed straight away. Events only flow from the
+ * server, anything the page sends is ignored.
+ * </p>
+ */
+@WebSocket
+public class GameEventSocket {
+    private static final Logger LOG = Logger.getLogger(GameEventSocket.class.getName());
+
+    // param name
+    public static final String TOKEN_PARAM = "token";
+    // close code for a socket whose token is not known
+    public static final int UNKNOWN_TOKEN = 4001;
+
+    /**
+     * Sends the events of one player down their socket.
+     */
+    private static final class SocketSink implements PushService.EventSink {
+        private final Session session;
+
+        private SocketSink(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public void send(String json) {
+            if (session.isOpen())
+                session.getRemote().sendStringByFuture(json);
+        }
+
+        @Override
+        public void close() {
+            session.close(StatusCode.NORMAL, "Replaced by a newer connection");
+        }
+    }
+
+    //Attributes
+    private final PushService pushService;
+    private final Map<Session, String> players = new ConcurrentHashMap<>();
+    private final Map<Session, SocketSink> socketSinks = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor for the WebSocket endpoint; one instance serves every socket.
+     *
+     * @param pushService
+     *    The {@link PushService} the sockets are opened with.
+     */
+    public GameEventSocket(final PushService pushService) {
+        Objects.requireNonNull(pushService, "pushService must not be null");
+        this.pushService = pushService;
+    }
+
+    @OnWebSocketConnect
+    public void onConnect(Session session) {
+        List<String> tokens = session.getUpgradeRequest().getParameterMap().get(TOKEN_PARAM);
+        SocketSink sink = new SocketSink(session);
+        String name = pushService.connect(tokens == null || tokens.isEmpty() ? null : tokens.get(0), sink);
+        if (name == null) {
+            session.close(UNKNOWN_TOKEN, "Unknown token");
+            return;
+        }
+        players.put(session, name);
+        socketSinks.put(session, sink);
+    }
+
+    @OnWebSocketClose
+    public void onClose(Session session, int statusCode, String reason) {
+        String name = players.remove(session);
+        SocketSink sink = socketSinks.remove(session);
+        if (name != null)
+            pushService.disconnect(name, sink);
+    }
+
+    @OnWebSocketError
+    public void onError(Session session, Throwable error) {
+        LOG.fine("Push socket failed: " + error.getMessage());
+    }
+}
@@ -1,21 +1,19 @@
 package com.webcheckers.ui;
 
-import com.google.gson.Gson;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVWriter;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.PushService;
+import com.webcheckers.appl.Storage;
 import com.webcheckers.model.*;
+import com.webcheckers.util.ETag;
 import com.webcheckers.util.Message;
 import spark.*;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
-import static com.webcheckers.ui.WebServer.csvFile;
 import static spark.Spark.halt;
 
 public class GetGameRoute implements Route {
@@ -30,33 +28,82 @@ public class GetGameRoute implements Route {
     public static final String WHITE_PLAYER_ATTR = "whitePlayer";
     public static final String ACTIVE_COLOR_ATTR = "activeColor";
     public static final String BOARD_ATTR = "board";
+    public static final String PUSH_TOKEN_ATTR = "pushToken";
+    public static final String BOARD_VERSION_ATTR = "boardVersion";
     public enum viewMode {PLAY, SPECTATOR, REPLAY}
 
-    public static final String MATCH_ATTR = "match";
-
     private final TemplateEngine templateEngine;
     private final GameCenter gameCenter;
     private final PlayerServices playerServices;
-    private final CSVutility csvutility;
-
-    private Gson gson;
+    private final LeaderboardService leaderboardService;
+    private final Storage storage;
+    private final PushService pushService;
 
     /**
      * The constructor for the {@code GET /game} route handler.
      *
+     * @param leaderboardService
+     *    The {@link LeaderboardService} told about records changed at the end of a game.
+     * @param storage
+     *    The {@link Storage} that saves records changed at the end of a game.
+     * @param pushService
+     *    The {@link PushService} the page opens its event socket with.
      * @param templateEngine
      *    The {@link TemplateEngine} used for rendering page HTML.
      */
     public GetGameRoute(final PlayerServices playerServices,
                         final GameCenter gameCenter,
+                        final LeaderboardService leaderboardService,
+                        final Storage storage,
+                        final PushService pushService,
                         final TemplateEngine templateEngine){
         Objects.requireNonNull(playerServices, "playerServices must not be null");
         Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(storage, "storage must not be null");
+        Objects.requireNonNull(pushService, "pushService must not be null");
         Objects.requireNonNull(templateEngine, "templateEngine must not be null");
         this.playerServices = playerServices;
         this.gameCenter = gameCenter;
+        this.leaderboardService = leaderboardService;
         this.templateEngine = templateEngine;
-        this.csvutility = new CSVutility();
+        this.storage = storage;
+        this.pushService = pushService;
+    }
+
+    /**
+     * Rate both players and archive the result the first time either of them sees the end of a match.
+     * @param match the finished match
+     * @param winner the player who won
+     * @param loser the player who lost
+     */
+    private void recordResult(Match match, Player winner, Player loser) {
+        GameResult result = gameCenter.recordResult(match, winner, loser);
+        if (result != null)
+            storage.appendGameResult(result);
+    }
+
+    /**
+     * Checks whether a match is still being played
+     * @param match the match
+     * @return true until someone wins, resigns or runs out of pieces
+     */
+    private static boolean isRunning(Match match) {
+        return match.isGameResigned() == Match.STATE.running && match.getWinner() == null
+                && match.getRedPieces().size() > 0 && match.getWhitePieces().size() > 0;
+    }
+
+    /**
+     * Build the tag of one player's Game page
+     * @param match the match
+     * @param stateVersion the state of the match shown
+     * @param player the player
+     * @param pushToken the token the page connects with, which a new page replaces
+     * @return the tag
+     */
+    static String pageTag(Match match, long stateVersion, Player player, String pushToken) {
+        return ETag.of(match.getId(), stateVersion, player.getName(),
+                Integer.toHexString(Objects.hashCode(pushToken)));
     }
 
     /**
@@ -72,14 +119,13 @@ public class GetGameRoute implements Route {
      */
     @Override
     public Object handle(Request request, Response response){
-        final Session httpSession = request.session();
-        final PlayerServices playerServices = httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
 
-        if(playerServices != null) {
+        if(context.isStarted()) {
             final Map<String, Object> vm = new HashMap<>();
             vm.put(GetHomeRoute.TITLE_ATTR, TITLE);
-            String currentPlayerName = httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
-            Player currentPlayer = playerServices.getPlayer(currentPlayerName);
+            String currentPlayerName = context.getName();
+            Player currentPlayer = context.getPlayer();
 
             vm.put(CURRENT_USER_ATTR, currentPlayer);
 
@@ -93,18 +139,28 @@ public class GetGameRoute implements Route {
                 whitePlayer = playerServices.getPlayer(opponentName);
                 // if either player is not available
                 if (! gameCenter.addMatch(redPlayer, whitePlayer)){
-                    httpSession.attribute("message", Message.error(whitePlayer.getName() + " is already in game!"));
+                    request.session().attribute("message", Message.error(whitePlayer.getName() + " is already in game!"));
                     response.redirect(WebServer.HOME_URL);
                     halt();
                     return null;
                 }
-                httpSession.attribute("help", false);
+                // the match was only made now, so it is not in the context yet
                 currentMatch = gameCenter.getMatch(redPlayer);
             } else { // else get the information from the match
-                currentMatch = gameCenter.getMatch(currentPlayer);
+                currentMatch = context.getMatch();
                 redPlayer = currentMatch.getRedPlayer();
                 whitePlayer = currentMatch.getWhitePlayer();
-                httpSession.attribute("help", false);
+            }
+
+            // the page of a running game only changes with the match, so a browser that has it is told so
+            response.header("Cache-Control", "private, no-cache");
+            final long stateVersion = currentMatch.getStateVersion();
+            final boolean cacheable = request.queryParams("button") == null && request.queryParams("help") == null
+                    && isRunning(currentMatch);
+            if (cacheable && ETag.matches(request.headers(ETag.IF_NONE_MATCH),
+                    pageTag(currentMatch, stateVersion, currentPlayer, pushService.currentToken(currentPlayer)))) {
+                response.status(304);
+                return "";
             }
 
             // only display the help button when it is your turn and the game is not ended
@@ -114,6 +170,9 @@ public class GetGameRoute implements Route {
                 if (currentMatch.getWinner() == null) {
                     vm.put("PLAYING", true);
                 }
+            } else if (! currentMatch.isGameOver() && currentMatch.getWinner() == null) {
+                // the help button is hidden until the page is told it is this player's turn
+                vm.put("WAITING", true);
             }
 
             // check if the help button is click
@@ -129,11 +188,6 @@ public class GetGameRoute implements Route {
                 }
             }
 
-            // save it to session
-            httpSession.attribute(MATCH_ATTR, currentMatch);
-            httpSession.attribute(RED_PLAYER_ATTR, redPlayer);
-            httpSession.attribute(WHITE_PLAYER_ATTR, whitePlayer);
-
             // send players to ftl
             vm.put(RED_PLAYER_ATTR, redPlayer);
             vm.put(WHITE_PLAYER_ATTR, whitePlayer);
@@ -154,6 +208,14 @@ public class GetGameRoute implements Route {
             vm.put(GetHomeRoute.CURRENT_PLAYER_ATTR, currentPlayerName);
 
             vm.put(ACTIVE_COLOR_ATTR, currentMatch.getActiveColor());
+            // the version of the board rendered, which the page asks for changes since
+            vm.put(BOARD_VERSION_ATTR, currentMatch.getBoardHistory().latest().getVersion());
+            // the page listens for its opponent's turns on a socket opened with this token
+            final String pushToken = pushService.issueToken(currentPlayer);
+            vm.put(PUSH_TOKEN_ATTR, pushToken);
+            // the end of a game records results as it is shown, so only running games are tagged
+            if (cacheable && isRunning(currentMatch))
+                response.header(ETag.HEADER, pageTag(currentMatch, stateVersion, currentPlayer, pushToken));
             // right now there is only the option to play
             viewMode currentViewMode = viewMode.PLAY;
             vm.put(VIEW_MODE_ATTR, currentViewMode);
@@ -162,6 +224,9 @@ public class GetGameRoute implements Route {
             if (currentMatch.isGameResigned() == Match.STATE.resigned) {
                 // remove the player from the ingame list after exiting the game
                 currentPlayer.changeRecentlyInGame(true);
+                // the player who resigned normally records the result first
+                recordResult(currentMatch, currentPlayer,
+                        currentPlayer.equals(redPlayer) ? whitePlayer : redPlayer);
                 // guard so that their records won't be modified more than once in case of mandatory refreshes
                 if (! currentPlayer.getRecordsModified()) {
                     int piecesTaken, piecesLost;
@@ -175,24 +240,20 @@ public class GetGameRoute implements Route {
                     currentPlayer.addPiecesTaken(piecesTaken);
                     currentPlayer.addPiecesLost(piecesLost);
                     currentPlayer.addWon();
-                    csvutility.editPlayerRecords(currentPlayer);
+                    storage.savePlayer(currentPlayer);
+                    leaderboardService.update(currentPlayer);
                     currentPlayer.setRecordsModified(true);
                 }
 
-                Gson gson = new Gson();
-                Map <String, Object> modeOptions = new HashMap<>(2);
-                modeOptions.put("isGameOver", true);
                 // produce the right message
-                if (currentPlayer.equals(redPlayer)) {
-                    modeOptions.put("gameOverMessage", whitePlayer.getName() + " has resigned. You won!");
-                } else if (currentPlayer.equals(whitePlayer)) {
-                    modeOptions.put("gameOverMessage", redPlayer.getName() + " has resigned. You won!");
-                }
-                vm.put(MODE_OPTION_ATTR, gson.toJson(modeOptions));
-                currentPlayer.changeStatus(Player.Status.waiting);
+                String gameOverMessage = (currentPlayer.equals(redPlayer) ? whitePlayer : redPlayer).getName()
+                        + " has resigned. You won!";
+                vm.put(MODE_OPTION_ATTR, JsonResponse.modeOptions(gameOverMessage));
+                playerServices.changeStatus(currentPlayer, Player.Status.waiting);
             } else if (currentMatch.getRedPieces().size() == 0) {
                 // remove the player from the ingame list after exiting the game
                 currentPlayer.changeRecentlyInGame(true);
+                recordResult(currentMatch, whitePlayer, redPlayer);
                 // guard so that their records won't be modified more than once in case of mandatory refreshes
                 if (! currentPlayer.getRecordsModified()) {
                     int piecesTaken, piecesLost;
@@ -209,20 +270,19 @@ public class GetGameRoute implements Route {
                         currentPlayer.addPiecesLost(piecesLost);
                         currentPlayer.addWon();
                     }
-                    csvutility.editPlayerRecords(currentPlayer);
+                    storage.savePlayer(currentPlayer);
+                    leaderboardService.update(currentPlayer);
                     currentPlayer.setRecordsModified(true);
                 }
-                Gson gson = new Gson();
-                Map <String, Object> modeOptions = new HashMap<>(2);
-                modeOptions.put("isGameOver", true);
-                modeOptions.put("gameOverMessage", whitePlayer.getName() + " has captured all opponent pieces!");
-                vm.put(MODE_OPTION_ATTR, gson.toJson(modeOptions));
+                vm.put(MODE_OPTION_ATTR,
+                        JsonResponse.modeOptions(whitePlayer.getName() + " has captured all opponent pieces!"));
                 //gameCenter.removePlayer(currentPlayer);
-                currentPlayer.changeStatus(Player.Status.waiting);
+                playerServices.changeStatus(currentPlayer, Player.Status.waiting);
                 //gameCenter.removeMatch(currentMatch);
             } else if (currentMatch.getWhitePieces().size() == 0) {
                 // remove the player from the ingame list after exiting the game
                 currentPlayer.changeRecentlyInGame(true);
+                recordResult(currentMatch, redPlayer, whitePlayer);
                 // guard so that their records won't be modified more than once in case of mandatory refreshes
                 if (! currentPlayer.getRecordsModified()) {
                     int piecesTaken, piecesLost;
@@ -239,15 +299,13 @@ public class GetGameRoute implements Route {
                         currentPlayer.addPiecesLost(piecesLost);
                         currentPlayer.addLost();
                     }
-                    csvutility.editPlayerRecords(currentPlayer);
+                    storage.savePlayer(currentPlayer);
+                    leaderboardService.update(currentPlayer);
                     currentPlayer.setRecordsModified(true);
                 }
-                Gson gson = new Gson();
-                Map <String, Object> modeOptions = new HashMap<>(2);
-                modeOptions.put("isGameOver", true);
-                modeOptions.put("gameOverMessage", redPlayer.getName() + " has captured all opponent pieces!");
-                vm.put(MODE_OPTION_ATTR, gson.toJson(modeOptions));
-                currentPlayer.changeStatus(Player.Status.waiting);
+                vm.put(MODE_OPTION_ATTR,
+                        JsonResponse.modeOptions(redPlayer.getName() + " has captured all opponent pieces!"));
+                playerServices.changeStatus(currentPlayer, Player.Status.waiting);
             }
             return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
         } else {
@@ -0,0 +1,139 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.BoardHistory;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Player;
+import com.webcheckers.util.Message;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the state of the player's game as JSON.
+ *
+ * <p>
+ * With {@code since=<version>} only the squares changed since that version of
+ * the board are sent, as {@code changes}: each is the row, the column and the
+ * new piece, for example {@code "43r"}. A player with no version, or one too
+ * far behind to be found in the match's {@link BoardHistory}, is sent the
+ * whole {@code board} instead. Either way the squares are as the player sees
+ * the board, and the active color, the mode options and the new version come
+ * along, so a turn is a few dozen bytes rather than the whole Game page.
+ * </p>
+ */
+public class GetGameStateRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetGameStateRoute.class.getName());
+
+    // param name
+    public static final String SINCE_PARAM = "since";
+
+    public static final Message NOT_IN_GAME_ERROR = Message.error("You are not in a game.");
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code GET /game/state} route handler.
+     *
+     * @param playerServices
+     *    The {@link PlayerServices} holding the players online.
+     * @param gameCenter
+     *    The {@link GameCenter} holding the matches.
+     * @param gson
+     *    The Google JSON parser object used to render the state.
+     */
+    public GetGameStateRoute(final PlayerServices playerServices, final GameCenter gameCenter, final Gson gson) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.gson = gson;
+    }
+
+    /**
+     * Render the state of the game, or what changed in it.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the state of the game as JSON
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetGameStateRoute is invoked.");
+        response.type("application/json");
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
+        Player currentPlayer = context.getPlayer();
+        Match currentMatch = context.getMatch();
+        if (currentMatch == null) {
+            response.status(404);
+            return JsonResponse.message(response, NOT_IN_GAME_ERROR);
+        }
+        final String since = request.queryParams(SINCE_PARAM);
+        return JsonResponse.write(response, writer -> writeState(writer, currentMatch, currentPlayer, since));
+    }
+
+    /**
+     * Write the state of a match sent to one of its players
+     * @param writer the writer
+     * @param match the match
+     * @param player the player
+     * @param since the version of the board the player has, or null
+     * @throws IOException if the writer fails
+     */
+    static void writeState(JsonWriter writer, Match match, Player player, String since) throws IOException {
+        BoardHistory history = match.getBoardHistory();
+        BoardHistory.Entry latest = history.latest();
+        int[] base = null;
+        if (since != null) {
+            try {
+                base = history.at(Long.parseLong(since));
+            } catch (NumberFormatException e) {
+                // a bad version gets the whole board
+            }
+        }
+        int[] board = latest.getPosition();
+        if (player.equals(match.getWhitePlayer())) {
+            BoardCodec.flip(board);
+            if (base != null)
+                BoardCodec.flip(base);
+        }
+
+        writer.beginObject();
+        writer.name("version").value(latest.getVersion());
+        writer.name("activeColor").value(match.getActiveColor().name());
+        if (base == null) {
+            writer.name("board").value(BoardHistory.squares(board));
+        } else {
+            writer.name("changes").beginArray();
+            char[] change = new char[3];
+            int changed = BoardCodec.changed(base, board);
+            while (changed != 0) {
+                int square = Integer.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                change[0] = (char) ('0' + BoardCodec.row(square));
+                change[1] = (char) ('0' + BoardCodec.cell(square));
+                change[2] = BoardCodec.pieceAt(board, square);
+                writer.value(String.valueOf(change));
+            }
+            writer.endArray();
+        }
+        writer.name("modeOptions");
+        JsonResponse.writeModeOptions(writer, match.getGameOverMessage());
+        writer.endObject();
+    }
+}
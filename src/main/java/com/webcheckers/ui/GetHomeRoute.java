@@ -4,10 +4,15 @@ import java.util.*;
 import java.util.logging.Logger;
 
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
-import com.webcheckers.model.Leaderboard;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.model.LeaderboardPage;
+import com.webcheckers.model.LeaderboardTable;
 import com.webcheckers.model.Match;
 import com.webcheckers.model.Player;
+import com.webcheckers.model.RankingMetric;
 import spark.*;
 
 import com.webcheckers.util.Message;
@@ -34,6 +39,7 @@ public class GetHomeRoute implements Route {
     static final String RATIO_ATTR = "ratio";
     static final String TAKEN_PIECES_ATTR = "piecesTaken";
     static final String LOST_PIECES_ATTR = "piecesLost";
+    static final String RATING_ATTR = "rating";
     static final String LEADERBOARD_ATTR = "leaderboard";
     static final String NAMES_ONLY_ATTR = "namesOnly";
     static final String GAMES_ONLY_ATTR = "gamesOnly";
@@ -41,6 +47,23 @@ public class GetHomeRoute implements Route {
     static final String LOST_ONLY_ATTR = "lostOnly";
     static final String PIECES_TAKEN_ONLY_ATTR = "piecesTakenOnly";
     static final String PIECES_LOST_ONLY_ATTR = "piecesLostOnly";
+    static final String RATINGS_ONLY_ATTR = "ratingsOnly";
+    static final String RANKS_ONLY_ATTR = "ranksOnly";
+    static final String BOARD_LABEL_ATTR = "boardLabel";
+    static final String PAGE_ATTR = "page";
+    static final String TOTAL_PAGES_ATTR = "totalPages";
+    static final String HAS_PREVIOUS_PAGE_ATTR = "hasPreviousPage";
+    static final String HAS_NEXT_PAGE_ATTR = "hasNextPage";
+    static final String PLAYER_RANK_ATTR = "playerRank";
+    static final String LOBBY_FILTER_ATTR = "find";
+    static final String MORE_PLAYERS_ATTR = "morePlayers";
+    static final String LOBBY_SIZE_ATTR = "lobbySize";
+    static final String REPLAYS_ATTR = "replays";
+    static final String LIVE_GAMES_ATTR = "liveGames";
+    // number of players shown on the leaderboard
+    static final int LEADERBOARD_SIZE = LeaderboardService.DEFAULT_PAGE_SIZE;
+    // most players shown in the lobby; the rest are found by searching
+    static final int LOBBY_SIZE = 20;
 
     public static final String VIEW_NAME = "home.ftl";
     private static final Message WELCOME_MSG = Message.info("Welcome to the world of online Checkers.");
@@ -53,20 +76,37 @@ public class GetHomeRoute implements Route {
 
     private final GameCenter gameCenter;
     private final PlayerServices playerServices;
+    private final LeaderboardService leaderboardService;
+    private final ReplayArchive replayArchive;
+    private final SpectatorService spectatorService;
     private final TemplateEngine templateEngine;
 
     /**
      * Create the Spark Route (UI controller) to handle all {@code GET /} HTTP requests.
      *
+     * @param leaderboardService
+     *   the rankings shown on the leaderboard
+     * @param replayArchive
+     *   the finished games, the player's latest of which are listed to watch again
+     * @param spectatorService
+     *   the frames of the matches being played, listed to watch
      * @param templateEngine
      *   the HTML template rendering engine
      */
-    public GetHomeRoute(final PlayerServices playerServices, final GameCenter gameCenter, final TemplateEngine templateEngine) {
+    public GetHomeRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                        final LeaderboardService leaderboardService, final ReplayArchive replayArchive,
+                        final SpectatorService spectatorService, final TemplateEngine templateEngine) {
         // validation
         Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(replayArchive, "replayArchive must not be null");
+        Objects.requireNonNull(spectatorService, "spectatorService must not be null");
         Objects.requireNonNull(templateEngine, "templateEngine must not be null");
         //
         this.gameCenter = gameCenter;
+        this.leaderboardService = leaderboardService;
+        this.replayArchive = replayArchive;
+        this.spectatorService = spectatorService;
         this.templateEngine = templateEngine;
         this.playerServices = playerServices;
         //
@@ -141,7 +181,6 @@ public class GetHomeRoute implements Route {
         }
 
         //If user is currently logged in
-        ArrayList<Player> players = playerServices.getPlayerList();
         if(httpSession.attribute(CURRENT_USERNAME_KEY) != null){
             Player player = playerServices.getPlayer(httpSession.attribute(CURRENT_USERNAME_KEY));
 
@@ -158,15 +197,6 @@ public class GetHomeRoute implements Route {
             // since nothing about the match is needed, otherwise will crash the session still in the game screen
             deleteMatchIfPossible(player);
 
-            // Grab leaderboards
-            Leaderboard leaderboard = new Leaderboard();
-            leaderboard.updateAllBoards();
-            TreeSet<Player> gamesBoard = leaderboard.getGamesBoard();
-            TreeSet<Player> wonBoard = leaderboard.getWonBoard();
-            TreeSet<Player> lostBoard = leaderboard.getLostBoard();
-            TreeSet<Player> piecesTakenBoard = leaderboard.getPiecesTakenBoard();
-            TreeSet<Player> piecesLostBoard = leaderboard.getPiecesLostBoard();
-
             // redirect the challenged player to the game
             if (player.getStatus() == Player.Status.challenged ||
                 player.getStatus() == Player.Status.ingame){
@@ -175,63 +205,16 @@ public class GetHomeRoute implements Route {
                 return null;
             }
 
-            ArrayList<String> namesOnly = new ArrayList<>();
-            ArrayList<Integer> gamesOnly = new ArrayList<>();
-            ArrayList<Integer> wonOnly = new ArrayList<>();
-            ArrayList<Integer> lostOnly = new ArrayList<>();
-            ArrayList<Integer> piecesTakenOnly = new ArrayList<>();
-            ArrayList<Integer> piecesLostOnly = new ArrayList<>();
-            // check what leaderboard should be displayed
-            String boardButton = request.queryParams("boardButton");
-            if (boardButton == null) {
-                // set to rank by number of games by default
-                namesOnly = leaderboard.getNamesOnly(gamesBoard);
-                gamesOnly = leaderboard.getGamesOnly(gamesBoard);
-                wonOnly = leaderboard.getWonOnly(gamesBoard);
-                lostOnly = leaderboard.getLostOnly(gamesBoard);
-                piecesTakenOnly = leaderboard.getPiecesTakenOnly(gamesBoard);
-                piecesLostOnly = leaderboard.getPiecesLostOnly(gamesBoard);
-            } else if (boardButton.equals("Games Rankings")) {
-                //System.out.println("changed to games");
-                namesOnly = leaderboard.getNamesOnly(gamesBoard);
-                gamesOnly = leaderboard.getGamesOnly(gamesBoard);
-                wonOnly = leaderboard.getWonOnly(gamesBoard);
-                lostOnly = leaderboard.getLostOnly(gamesBoard);
-                piecesTakenOnly = leaderboard.getPiecesTakenOnly(gamesBoard);
-                piecesLostOnly = leaderboard.getPiecesLostOnly(gamesBoard);
-            } else if (boardButton.equals("Victory Rankings")) {
-                //System.out.println("changed to won");
-                namesOnly = leaderboard.getNamesOnly(wonBoard);
-                gamesOnly = leaderboard.getGamesOnly(wonBoard);
-                wonOnly = leaderboard.getWonOnly(wonBoard);
-                lostOnly = leaderboard.getLostOnly(wonBoard);
-                piecesTakenOnly = leaderboard.getPiecesTakenOnly(wonBoard);
-                piecesLostOnly = leaderboard.getPiecesLostOnly(wonBoard);
-            } else if (boardButton.equals("Loss Rankings")) {
-                //System.out.println("changed to loss");
-                namesOnly = leaderboard.getNamesOnly(lostBoard);
-                gamesOnly = leaderboard.getGamesOnly(lostBoard);
-                wonOnly = leaderboard.getWonOnly(lostBoard);
-                lostOnly = leaderboard.getLostOnly(lostBoard);
-                piecesTakenOnly = leaderboard.getPiecesTakenOnly(lostBoard);
-                piecesLostOnly = leaderboard.getPiecesLostOnly(lostBoard);
-            } else if (boardButton.equals("Pieces Taken Rankings")) {
-                //System.out.println("changed to PiecesTaken");
-                namesOnly = leaderboard.getNamesOnly(piecesTakenBoard);
-                gamesOnly = leaderboard.getGamesOnly(piecesTakenBoard);
-                wonOnly = leaderboard.getWonOnly(piecesTakenBoard);
-                lostOnly = leaderboard.getLostOnly(piecesTakenBoard);
-                piecesTakenOnly = leaderboard.getPiecesTakenOnly(piecesTakenBoard);
-                piecesLostOnly = leaderboard.getPiecesLostOnly(piecesTakenBoard);
-            } else if (boardButton.equals("Pieces Lost Rankings")) {
-                //System.out.println("changed to piecesLost");
-                namesOnly = leaderboard.getNamesOnly(piecesLostBoard);
-                gamesOnly = leaderboard.getGamesOnly(piecesLostBoard);
-                wonOnly = leaderboard.getWonOnly(piecesLostBoard);
-                lostOnly = leaderboard.getLostOnly(piecesLostBoard);
-                piecesTakenOnly = leaderboard.getPiecesTakenOnly(piecesLostBoard);
-                piecesLostOnly = leaderboard.getPiecesLostOnly(piecesLostBoard);
-            }
+            // check what leaderboard should be displayed, ranked by number of games by default;
+            // the first page of the default ranking is shared by every request until the rankings change
+            RankingMetric metric = RankingMetric.fromLabel(request.queryParams("boardButton"));
+            int pageNumber = GetLeaderboardRoute.intParam(request, PAGE_ATTR, 1);
+            LeaderboardTable table;
+            if (metric == LeaderboardService.DEFAULT_METRIC && pageNumber == 1)
+                table = leaderboardService.getSnapshot().getTable();
+            else
+                table = new LeaderboardTable(leaderboardService.getPage(metric, pageNumber, LEADERBOARD_SIZE));
+            LeaderboardPage page = table.getPage();
 
             vm.put(MESSAGE_ATTR, SIGNIN_MSG);
             if (httpSession.attribute("message") != null)
@@ -243,19 +226,41 @@ public class GetHomeRoute implements Route {
             vm.put(RATIO_ATTR, player.getRatio());
             vm.put(TAKEN_PIECES_ATTR, player.getPiecesTaken());
             vm.put(LOST_PIECES_ATTR, player.getPiecesLost());
+            vm.put(RATING_ATTR, Math.round(player.getRating()));
             vm.put(CURRENT_USERNAME_KEY, httpSession.attribute(CURRENT_USERNAME_KEY));
+            // only a slice of the lobby is shown, starting with the names searched for
+            String find = request.queryParams(LOBBY_FILTER_ATTR);
+            if (find == null)
+                find = "";
+            List<Player> players = new ArrayList<>(playerServices.search(find, LOBBY_SIZE + 1));
             players.remove(player);
+            boolean morePlayers = players.size() > LOBBY_SIZE;
+            if (morePlayers)
+                players = players.subList(0, LOBBY_SIZE);
             vm.put(PLAYERS_ATTR, players);
-            vm.put(NAMES_ONLY_ATTR, namesOnly);
-            vm.put(GAMES_ONLY_ATTR, gamesOnly);
-            vm.put(WON_ONLY_ATTR, wonOnly);
-            vm.put(LOST_ONLY_ATTR, lostOnly);
-            vm.put(PIECES_TAKEN_ONLY_ATTR, piecesTakenOnly);
-            vm.put(PIECES_LOST_ONLY_ATTR, piecesLostOnly);
+            vm.put(LOBBY_FILTER_ATTR, find);
+            vm.put(MORE_PLAYERS_ATTR, morePlayers);
+            vm.put(LOBBY_SIZE_ATTR, LOBBY_SIZE);
+            vm.put(RANKS_ONLY_ATTR, table.getRanks());
+            vm.put(NAMES_ONLY_ATTR, table.getNames());
+            vm.put(GAMES_ONLY_ATTR, table.getGames());
+            vm.put(WON_ONLY_ATTR, table.getWon());
+            vm.put(LOST_ONLY_ATTR, table.getLost());
+            vm.put(PIECES_TAKEN_ONLY_ATTR, table.getPiecesTaken());
+            vm.put(PIECES_LOST_ONLY_ATTR, table.getPiecesLost());
+            vm.put(RATINGS_ONLY_ATTR, table.getRatings());
+            vm.put(BOARD_LABEL_ATTR, metric.getLabel());
+            vm.put(PAGE_ATTR, page.getPage());
+            vm.put(TOTAL_PAGES_ATTR, page.getTotalPages());
+            vm.put(HAS_PREVIOUS_PAGE_ATTR, page.hasPrevious());
+            vm.put(HAS_NEXT_PAGE_ATTR, page.hasNext());
+            vm.put(PLAYER_RANK_ATTR, leaderboardService.rankOf(player.getName(), metric));
+            vm.put(REPLAYS_ATTR, replayArchive.gamesOf(player.getName(), ReplayArchive.DEFAULT_LIST_SIZE));
+            vm.put(LIVE_GAMES_ATTR, spectatorService.liveFrames(SpectatorService.DEFAULT_LIST_SIZE));
             //TODO change home.ftl please
         } else {
             // only show the number of players online if you are not signed in
-            vm.put(NUM_PLAYERS_ATTR, playerServices.getPlayerList().size());
+            vm.put(NUM_PLAYERS_ATTR, playerServices.numPlayers());
             vm.put(MESSAGE_ATTR, WELCOME_MSG);
         }
 
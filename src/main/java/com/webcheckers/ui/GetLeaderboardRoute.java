@@ -0,0 +1,91 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.model.LeaderboardPage;
+import com.webcheckers.model.RankingMetric;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET one page of a leaderboard as JSON.
+ *
+ * <p>
+ * Accepts the optional parameters {@code metric} (a {@link RankingMetric} name
+ * or button label), {@code page} (starting at 1) and {@code pageSize}. The
+ * first page of the default ranking is served from the leaderboard snapshot.
+ * </p>
+ */
+public class GetLeaderboardRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetLeaderboardRoute.class.getName());
+
+    // param names
+    public static final String METRIC_PARAM = "metric";
+    public static final String PAGE_PARAM = "page";
+    public static final String PAGE_SIZE_PARAM = "pageSize";
+
+    private final LeaderboardService leaderboardService;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code GET /leaderboard} route handler.
+     *
+     * @param leaderboardService
+     *    The {@link LeaderboardService} holding the rankings.
+     * @param gson
+     *    The Google JSON parser object used to render the page.
+     */
+    public GetLeaderboardRoute(final LeaderboardService leaderboardService, final Gson gson) {
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.leaderboardService = leaderboardService;
+        this.gson = gson;
+    }
+
+    /**
+     * Read a whole number request parameter.
+     * @param request the HTTP request
+     * @param name the name of the parameter
+     * @param defaultValue the value used when the parameter is missing or not a number
+     * @return the value of the parameter
+     */
+    static int intParam(Request request, String name, int defaultValue) {
+        String value = request.queryParams(name);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Render one page of a leaderboard.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the page as JSON
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetLeaderboardRoute is invoked.");
+        RankingMetric metric = RankingMetric.fromKey(request.queryParams(METRIC_PARAM));
+        int page = intParam(request, PAGE_PARAM, 1);
+        int pageSize = intParam(request, PAGE_SIZE_PARAM, LeaderboardService.DEFAULT_PAGE_SIZE);
+
+        response.type("application/json");
+        if (metric == LeaderboardService.DEFAULT_METRIC && page == 1 && pageSize == LeaderboardService.DEFAULT_PAGE_SIZE)
+            return leaderboardService.getSnapshot().getJson();
+        LeaderboardPage leaderboardPage = leaderboardService.getPage(metric, page, pageSize);
+        return gson.toJson(leaderboardPage);
+    }
+}
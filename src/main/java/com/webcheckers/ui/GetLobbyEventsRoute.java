@@ -0,0 +1,337 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.LobbyEvent;
+import com.webcheckers.util.EventBus;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+import spark.Session;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET a stream of what changes in the lobby, as
+ * Server-Sent Events.
+ *
+ * <p>
+ * Each signed-in player on the Home page holds one stream open. Players
+ * signing in and out, status changes and challenges to the player are sent
+ * as they are published, each as one JSON {@code data:} line. Every stream
+ * has its own bounded queue; a stream that falls {@link #QUEUE_CAPACITY}
+ * events behind is closed, and the page reloads when its browser reconnects.
+ * Events are written by a small pool of threads, never by the request that
+ * caused them, and the writes never block: what a browser has not taken yet
+ * is kept for it, and a stream that falls {@link #PENDING_BYTES} bytes behind
+ * is closed too. A slow browser holds up nobody but itself.
+ * </p>
+ */
+public class GetLobbyEventsRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetLobbyEventsRoute.class.getName());
+
+    // the most events a stream may fall behind before it is closed
+    public static final int QUEUE_CAPACITY = 64;
+    // the most bytes kept for a browser that has not taken them yet before its stream is closed
+    public static final int PENDING_BYTES = 64 << 10;
+    // how often an idle stream is written to, well inside Jetty's idle timeout
+    public static final long HEARTBEAT_SECONDS = 15;
+    // how long a browser waits before reconnecting a closed stream
+    static final long RETRY_MS = 2000;
+    static final int WRITER_THREADS = 2;
+
+    //Attributes
+    private final PlayerServices playerServices;
+    private final Gson gson;
+    private final Set<LobbyStream> streams = ConcurrentHashMap.newKeySet();
+    private final Executor writers;
+    // the writers, when this route made them and so has to stop them
+    private final ExecutorService ownWriters;
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(daemon("lobby-heartbeat"));
+
+    /**
+     * The constructor for the {@code GET /lobby/events} route handler.
+     *
+     * @param playerServices
+     *    The {@link PlayerServices} whose lobby events are streamed.
+     * @param gson
+     *    The Google JSON parser object used to render the events.
+     */
+    public GetLobbyEventsRoute(final PlayerServices playerServices, final Gson gson) {
+        this(playerServices, gson, Executors.newFixedThreadPool(WRITER_THREADS, daemon("lobby-writer")));
+    }
+
+    /**
+     * The constructor for the {@code GET /lobby/events} route handler, writing events with the given threads.
+     */
+    GetLobbyEventsRoute(final PlayerServices playerServices, final Gson gson, final Executor writers) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.playerServices = playerServices;
+        this.gson = gson;
+        this.writers = writers;
+        this.ownWriters = writers instanceof ExecutorService ? (ExecutorService) writers : null;
+        heartbeat.scheduleWithFixedDelay(this::beat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open the stream of lobby events.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   nothing; the events are written to the held response
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetLobbyEventsRoute is invoked.");
+        final Session httpSession = request.session();
+        final String name = httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
+        if (name == null || playerServices.getPlayer(name) == null
+                || request.raw() == null || !request.raw().isAsyncSupported()) {
+            // 204 tells the browser's EventSource not to reconnect
+            response.status(204);
+            return "";
+        }
+
+        final AsyncContext async = request.raw().startAsync();
+        async.setTimeout(0);
+        final LobbyStream stream = new LobbyStream(async,
+                playerServices.getLobbyEvents().subscribe(QUEUE_CAPACITY, event -> event.isFor(name)));
+        async.addListener(stream);
+        streams.add(stream);
+        try {
+            response.type("text/event-stream");
+            response.header("Cache-Control", "no-cache");
+            // committing the response makes Spark leave it alone once the route returns
+            response.raw().flushBuffer();
+        } catch (IOException e) {
+            LOG.fine("Could not start a lobby stream: " + e.getMessage());
+            stream.close();
+            return "";
+        }
+        stream.open();
+        return "";
+    }
+
+    /**
+     * Gets the number of streams open
+     * @return number of streams
+     */
+    int numStreams() {
+        return streams.size();
+    }
+
+    /**
+     * Stop the heartbeat and the writers, and close every stream; called when
+     * the server shuts down
+     */
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        if (ownWriters != null)
+            ownWriters.shutdownNow();
+        for (LobbyStream stream : streams)
+            stream.close();
+    }
+
+    /**
+     * Write a comment to every idle stream, so it is not timed out and a
+     * browser that went away is noticed. A stream with something still to
+     * write needs no heartbeat.
+     */
+    void beat() {
+        for (LobbyStream stream : streams)
+            stream.beat();
+    }
+
+    /**
+     * Name the threads of a pool and keep them from holding the server up at exit
+     */
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One browser's stream of lobby events.
+     */
+    private final class LobbyStream implements AsyncListener, WriteListener {
+        private final AsyncContext async;
+        private final EventBus.Subscription<LobbyEvent> subscription;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        // what the browser has not taken yet, and whether what it took still has to be flushed
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private boolean unflushed = false;
+        private ServletOutputStream out;
+
+        private LobbyStream(AsyncContext async, EventBus.Subscription<LobbyEvent> subscription) {
+            this.async = async;
+            this.subscription = subscription;
+        }
+
+        /**
+         * Start sending events
+         */
+        private void open() {
+            try {
+                synchronized (this) {
+                    out = async.getResponse().getOutputStream();
+                    out.setWriteListener(this);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+            write("retry: " + RETRY_MS + "\n\n");
+            subscription.setListener(this::schedule);
+            schedule();
+        }
+
+        /**
+         * Have a writer send what is queued, unless one is about to
+         */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true))
+                writers.execute(this::drain);
+        }
+
+        /**
+         * Send every event queued, closing the stream if it fell behind
+         */
+        private void drain() {
+            scheduled.set(false);
+            List<LobbyEvent> events = new ArrayList<>();
+            subscription.drainTo(events);
+            if (!events.isEmpty()) {
+                StringBuilder text = new StringBuilder();
+                for (LobbyEvent event : events)
+                    text.append("data: ").append(gson.toJson(event)).append("\n\n");
+                write(text.toString());
+            }
+            if (subscription.isDropped()) {
+                LOG.fine("A lobby stream fell behind and was closed.");
+                close();
+            }
+        }
+
+        /**
+         * Write a heartbeat, unless something is still to be written
+         */
+        private synchronized void beat() {
+            if (!scheduled.get() && pending.size() == 0 && !unflushed)
+                write(": keep-alive\n\n");
+        }
+
+        /**
+         * Keep text for the browser and send what it can take now, closing
+         * the stream if it has fallen too far behind
+         */
+        private synchronized void write(String text) {
+            if (closed.get())
+                return;
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (pending.size() + bytes.length > PENDING_BYTES) {
+                LOG.fine("A lobby stream stopped taking what was written and was closed.");
+                close();
+                return;
+            }
+            pending.write(bytes, 0, bytes.length);
+            onWritePossible();
+        }
+
+        /**
+         * Send what is kept for the browser for as long as it takes it without
+         * blocking; the servlet calls this again once it can take more
+         */
+        @Override
+        public synchronized void onWritePossible() {
+            if (closed.get() || out == null)
+                return;
+            try {
+                while (out.isReady()) {
+                    if (pending.size() > 0) {
+                        byte[] bytes = pending.toByteArray();
+                        pending.reset();
+                        out.write(bytes);
+                        unflushed = true;
+                    } else if (unflushed) {
+                        unflushed = false;
+                        out.flush();
+                    } else {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        /**
+         * Stop the stream, once
+         */
+        private void close() {
+            if (!closed.compareAndSet(false, true))
+                return;
+            subscription.cancel();
+            streams.remove(this);
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // the request already ended
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // not restarted
+        }
+    }
+}
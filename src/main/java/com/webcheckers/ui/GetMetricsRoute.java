@@ -0,0 +1,72 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.MetricsRegistry;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to GET the server's metrics in the Prometheus text format.
+ *
+ * <p>
+ * Only callers on this machine are answered; anyone else is told there is
+ * nothing here, so the metrics are for a local scraper and not the players.
+ * </p>
+ */
+public class GetMetricsRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetMetricsRoute.class.getName());
+
+    private final MetricsRegistry metrics;
+
+    /**
+     * The constructor for the {@code GET /metrics} route handler.
+     *
+     * @param metrics
+     *    The {@link MetricsRegistry} to write out.
+     */
+    public GetMetricsRoute(final MetricsRegistry metrics) {
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        this.metrics = metrics;
+    }
+
+    /**
+     * Write out the metrics.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the metrics as text
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetMetricsRoute is invoked.");
+        if (!isLocal(request.ip()))
+            halt(404);
+        response.type(MetricsRegistry.CONTENT_TYPE);
+        return metrics.scrape();
+    }
+
+    /**
+     * Checks whether the address a request came from is this machine
+     */
+    static boolean isLocal(String ip) {
+        if (ip == null || ip.isEmpty())
+            return false;
+        try {
+            // the remote address is always a literal, so it is parsed, never looked up
+            return InetAddress.getByName(ip).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.model.RankingMetric;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the rank of one player as JSON.
+ *
+ * <p>
+ * Expects a {@code player} parameter and accepts an optional {@code metric}.
+ * The rank is -1 when the player has no records.
+ * </p>
+ */
+public class GetPlayerRankRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetPlayerRankRoute.class.getName());
+
+    // param names
+    public static final String PLAYER_PARAM = "player";
+
+    private final LeaderboardService leaderboardService;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code GET /leaderboard/rank} route handler.
+     *
+     * @param leaderboardService
+     *    The {@link LeaderboardService} holding the rankings.
+     * @param gson
+     *    The Google JSON parser object used to render the rank.
+     */
+    public GetPlayerRankRoute(final LeaderboardService leaderboardService, final Gson gson) {
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.leaderboardService = leaderboardService;
+        this.gson = gson;
+    }
+
+    /**
+     * Render the rank of a player.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the player, metric and rank as JSON
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetPlayerRankRoute is invoked.");
+        String name = request.queryParams(PLAYER_PARAM);
+        RankingMetric metric = RankingMetric.fromKey(request.queryParams(GetLeaderboardRoute.METRIC_PARAM));
+
+        Map<String, Object> rank = new LinkedHashMap<>(3);
+        rank.put("player", name);
+        rank.put("metric", metric);
+        rank.put("rank", name == null ? -1 : leaderboardService.rankOf(name, metric));
+        response.type("application/json");
+        return gson.toJson(rank);
+    }
+}
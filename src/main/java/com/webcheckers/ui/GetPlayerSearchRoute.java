@@ -0,0 +1,115 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the players whose names start with a prefix, as JSON.
+ *
+ * <p>
+ * Accepts a {@code prefix}, matched ignoring case, a {@code limit} and a
+ * {@code scope}: {@code online}, the default, searches the players signed in
+ * and {@code all} searches every registered player. Both are answered from a
+ * name index, so the cost depends on the number of matches returned and not
+ * on the number of players.
+ * </p>
+ */
+public class GetPlayerSearchRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetPlayerSearchRoute.class.getName());
+
+    // param names
+    public static final String PREFIX_PARAM = "prefix";
+    public static final String LIMIT_PARAM = "limit";
+    public static final String SCOPE_PARAM = "scope";
+    public static final String ALL_SCOPE = "all";
+    // the number of matches returned when none is asked for, and the most that may be
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final PlayerServices playerServices;
+    private final LeaderboardService leaderboardService;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code GET /players/search} route handler.
+     *
+     * @param playerServices
+     *    The {@link PlayerServices} holding the players online.
+     * @param leaderboardService
+     *    The {@link LeaderboardService} holding every registered player.
+     * @param gson
+     *    The Google JSON parser object used to render the matches.
+     */
+    public GetPlayerSearchRoute(final PlayerServices playerServices, final LeaderboardService leaderboardService,
+                                final Gson gson) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.playerServices = playerServices;
+        this.leaderboardService = leaderboardService;
+        this.gson = gson;
+    }
+
+    /**
+     * Render the matching players.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the prefix and the matching players, each with whether they are online, as JSON
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetPlayerSearchRoute is invoked.");
+        String prefix = request.queryParams(PREFIX_PARAM);
+        if (prefix == null)
+            prefix = "";
+        int limit = Math.min(Math.max(GetLeaderboardRoute.intParam(request, LIMIT_PARAM, DEFAULT_LIMIT), 1), MAX_LIMIT);
+
+        List<Map<String, Object>> matches = new ArrayList<>(limit);
+        if (ALL_SCOPE.equalsIgnoreCase(request.queryParams(SCOPE_PARAM))) {
+            for (PlayerStats stats : leaderboardService.search(prefix, limit)) {
+                Player online = playerServices.getPlayer(stats.getName());
+                matches.add(match(stats.getName(), online));
+            }
+        } else {
+            for (Player player : playerServices.search(prefix, limit))
+                matches.add(match(player.getName(), player));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>(2);
+        result.put("prefix", prefix);
+        result.put("players", matches);
+        response.type("application/json");
+        return gson.toJson(result);
+    }
+
+    /**
+     * Describe one matching player
+     * @param name the name of the player
+     * @param online the player if they are signed in, otherwise null
+     */
+    private static Map<String, Object> match(String name, Player online) {
+        Map<String, Object> match = new LinkedHashMap<>(3);
+        match.put("name", name);
+        match.put("online", online != null);
+        match.put("inGame", online != null && online.isInGame());
+        return match;
+    }
+}
@@ -0,0 +1,149 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.BoardView;
+import com.webcheckers.model.GameRecord;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.util.Message;
+import spark.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to GET the Game page of a finished game, in replay mode.
+ *
+ * <p>
+ * The turn shown is kept in the session, one per game, and moved by
+ * {@code /replay/nextTurn} and {@code /replay/previousTurn}; a {@code turn}
+ * parameter seeks straight to a turn.
+ * </p>
+ */
+public class GetReplayGameRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetReplayGameRoute.class.getName());
+
+    public static final String TITLE = "Replay";
+    public static final String GAME_ID_PARAM = "gameID";
+    public static final String TURN_PARAM = "turn";
+    public static final Message NO_GAME_MESSAGE = Message.error("That game cannot be replayed.");
+    // the turn a game is shown at, kept in the session under this and the id of the game
+    static final String TURN_KEY = "replayTurn-";
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final ReplayArchive replayArchive;
+    private final TemplateEngine templateEngine;
+
+    /**
+     * The constructor for the {@code GET /replay/game} route handler.
+     *
+     * @param replayArchive
+     *    The {@link ReplayArchive} the finished games are kept in.
+     * @param templateEngine
+     *    The {@link TemplateEngine} used for rendering page HTML.
+     */
+    public GetReplayGameRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                              final ReplayArchive replayArchive, final TemplateEngine templateEngine) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(replayArchive, "replayArchive must not be null");
+        Objects.requireNonNull(templateEngine, "templateEngine must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.replayArchive = replayArchive;
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Find the game a request names
+     * @param request the HTTP request
+     * @param replayArchive the finished games
+     * @return the game, or null if the request names none that was kept
+     */
+    static GameRecord findGame(Request request, ReplayArchive replayArchive) {
+        String id = request.queryParams(GAME_ID_PARAM);
+        if (id == null)
+            return null;
+        try {
+            return replayArchive.get(Long.parseLong(id.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the turn a game is shown at for a session
+     * @param session the HTTP session
+     * @param game the game
+     * @return the turn, 0 before the first has been played
+     */
+    static int turnOf(Session session, GameRecord game) {
+        Integer turn = session.attribute(TURN_KEY + game.getId());
+        return turn == null ? 0 : Math.min(turn, game.numTurns());
+    }
+
+    /**
+     * Render a finished game at the turn being watched.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the rendered HTML for the Game page
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetReplayGameRoute is invoked.");
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
+        final Player viewer = context.getPlayer();
+        if (!context.isStarted() || viewer == null) {
+            response.redirect(WebServer.HOME_URL);
+            halt();
+            return null;
+        }
+        final GameRecord game = findGame(request, replayArchive);
+        if (game == null) {
+            request.session().attribute(GetHomeRoute.MESSAGE_ATTR, NO_GAME_MESSAGE);
+            response.redirect(WebServer.HOME_URL);
+            halt();
+            return null;
+        }
+
+        int turn = GetLeaderboardRoute.intParam(request, TURN_PARAM, -1);
+        if (turn < 0)
+            turn = turnOf(request.session(), game);
+        turn = Math.min(turn, game.numTurns());
+        request.session().attribute(TURN_KEY + game.getId(), turn);
+
+        int[] position = new int[BoardCodec.MASKS];
+        Piece.Color toMove = game.seek(turn, position);
+        BoardView board = new BoardView(Piece.Color.RED);
+        BoardCodec.decode(position, board);
+
+        final Map<String, Object> vm = new HashMap<>();
+        vm.put(GetHomeRoute.TITLE_ATTR, TITLE);
+        vm.put(GetHomeRoute.CURRENT_PLAYER_ATTR, viewer.getName());
+        vm.put(GetHomeRoute.MESSAGE_ATTR, Message.info("Turn " + turn + " of " + game.numTurns() + "."));
+        vm.put(GetGameRoute.CURRENT_USER_ATTR, viewer);
+        vm.put(GetGameRoute.VIEW_MODE_ATTR, GetGameRoute.viewMode.REPLAY);
+        vm.put(GetGameRoute.MODE_OPTION_ATTR, JsonResponse.replayModeOptions(turn < game.numTurns(), turn > 0,
+                turn == game.numTurns() ? game.getMessage() : null));
+        vm.put(GetGameRoute.RED_PLAYER_ATTR, new Player(game.getRedPlayer()));
+        vm.put(GetGameRoute.WHITE_PLAYER_ATTR, new Player(game.getWhitePlayer()));
+        vm.put(GetGameRoute.ACTIVE_COLOR_ATTR, toMove);
+        vm.put(GetGameRoute.BOARD_ATTR, board);
+        // as text, so that the page gets the id without digit grouping
+        vm.put(GAME_ID_PARAM, Long.toString(game.getId()));
+        return templateEngine.render(new ModelAndView(vm, GetGameRoute.VIEW_NAME));
+    }
+}
@@ -0,0 +1,38 @@
+package com.webcheckers.ui;
+
+import spark.*;
+
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to GET {@code /replay/stopWatching}: forget the turn a
+ * finished game was watched at and go back to the Home page.
+ */
+public class GetReplayStopWatchingRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetReplayStopWatchingRoute.class.getName());
+
+    /**
+     * Stop watching a finished game.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   nothing; the Home page is shown instead
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetReplayStopWatchingRoute is invoked.");
+        final Session session = request.session(false);
+        final String id = request.queryParams(GetReplayGameRoute.GAME_ID_PARAM);
+        if (session != null && id != null)
+            session.removeAttribute(GetReplayGameRoute.TURN_KEY + id.trim());
+        response.redirect(WebServer.HOME_URL);
+        halt();
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.SpectatorFrame;
+import com.webcheckers.util.ETag;
+import com.webcheckers.util.Message;
+import spark.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to GET the Game page of a match being played, in
+ * spectator mode.
+ *
+ * <p>
+ * The page is rendered from the match's latest {@link SpectatorFrame}, which
+ * every spectator shares, and the version of the frame shown is kept in the
+ * session for {@code /spectator/checkTurn} to compare with. The page is
+ * tagged with the frame, so a spectator who already has it is answered
+ * {@code 304 Not Modified}.
+ * </p>
+ */
+public class GetSpectatorGameRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetSpectatorGameRoute.class.getName());
+
+    public static final String TITLE = "Spectator";
+    public static final String GAME_ID_PARAM = "gameID";
+    public static final Message NO_GAME_MESSAGE = Message.error("That game cannot be watched.");
+    // the version of the frame a game was shown at, kept in the session under this and the id of the game
+    static final String VERSION_KEY = "spectatorVersion-";
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final SpectatorService spectatorService;
+    private final TemplateEngine templateEngine;
+
+    /**
+     * The constructor for the {@code GET /spectator/game} route handler.
+     *
+     * @param spectatorService
+     *    The {@link SpectatorService} keeping the frames of the matches.
+     * @param templateEngine
+     *    The {@link TemplateEngine} used for rendering page HTML.
+     */
+    public GetSpectatorGameRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                                 final SpectatorService spectatorService, final TemplateEngine templateEngine) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(spectatorService, "spectatorService must not be null");
+        Objects.requireNonNull(templateEngine, "templateEngine must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.spectatorService = spectatorService;
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Find the frame of the match a request names
+     * @param request the HTTP request
+     * @param spectatorService the frames
+     * @return the frame, or null if the request names no match being watched
+     */
+    static SpectatorFrame findFrame(Request request, SpectatorService spectatorService) {
+        String id = request.queryParams(GAME_ID_PARAM);
+        if (id == null)
+            return null;
+        try {
+            return spectatorService.frame(Long.parseLong(id.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Build the tag of one spectator's Game page
+     * @param frame the frame shown
+     * @param viewer the spectator
+     * @return the tag
+     */
+    static String pageTag(SpectatorFrame frame, Player viewer) {
+        return ETag.of(frame.getTag(), viewer.getName());
+    }
+
+    /**
+     * Render a match at its latest frame.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the rendered HTML for the Game page
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetSpectatorGameRoute is invoked.");
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
+        final Player viewer = context.getPlayer();
+        if (!context.isStarted() || viewer == null) {
+            response.redirect(WebServer.HOME_URL);
+            halt();
+            return null;
+        }
+        final SpectatorFrame frame = findFrame(request, spectatorService);
+        if (frame == null) {
+            request.session().attribute(GetHomeRoute.MESSAGE_ATTR, NO_GAME_MESSAGE);
+            response.redirect(WebServer.HOME_URL);
+            halt();
+            return null;
+        }
+        // a player of a match being played plays it rather than watching it
+        if (!frame.isGameOver() && context.getMatch() != null && context.getMatch().getId() == frame.getMatchId()) {
+            response.redirect(WebServer.GAME_URL);
+            halt();
+            return null;
+        }
+
+        request.session().attribute(VERSION_KEY + frame.getMatchId(), frame.getVersion());
+        response.header("Cache-Control", "private, no-cache");
+        final String tag = pageTag(frame, viewer);
+        response.header(ETag.HEADER, tag);
+        if (ETag.matches(request.headers(ETag.IF_NONE_MATCH), tag)) {
+            response.status(304);
+            return "";
+        }
+
+        final Map<String, Object> vm = new HashMap<>();
+        vm.put(GetHomeRoute.TITLE_ATTR, TITLE);
+        vm.put(GetHomeRoute.CURRENT_PLAYER_ATTR, viewer.getName());
+        vm.put(GetGameRoute.CURRENT_USER_ATTR, viewer);
+        vm.put(GetGameRoute.VIEW_MODE_ATTR, GetGameRoute.viewMode.SPECTATOR);
+        vm.put(GetGameRoute.MODE_OPTION_ATTR, frame.getModeOptions());
+        vm.put(GetGameRoute.RED_PLAYER_ATTR, new Player(frame.getRedPlayer()));
+        vm.put(GetGameRoute.WHITE_PLAYER_ATTR, new Player(frame.getWhitePlayer()));
+        vm.put(GetGameRoute.ACTIVE_COLOR_ATTR, frame.getActiveColor());
+        vm.put(GetGameRoute.BOARD_ATTR, frame.getBoard());
+        vm.put(GetGameRoute.BOARD_VERSION_ATTR, frame.getBoardVersion());
+        // as text, so that the page gets the id without digit grouping
+        vm.put(GAME_ID_PARAM, Long.toString(frame.getMatchId()));
+        return templateEngine.render(new ModelAndView(vm, GetGameRoute.VIEW_NAME));
+    }
+}
@@ -0,0 +1,38 @@
+package com.webcheckers.ui;
+
+import spark.*;
+
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to GET {@code /spectator/stopWatching}: forget the frame
+ * a match was watched at and go back to the Home page.
+ */
+public class GetSpectatorStopWatchingRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetSpectatorStopWatchingRoute.class.getName());
+
+    /**
+     * Stop watching a match.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   nothing; the Home page is shown instead
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("GetSpectatorStopWatchingRoute is invoked.");
+        final Session session = request.session(false);
+        final String id = request.queryParams(GetSpectatorGameRoute.GAME_ID_PARAM);
+        if (session != null && id != null)
+            session.removeAttribute(GetSpectatorGameRoute.VERSION_KEY + id.trim());
+        response.redirect(WebServer.HOME_URL);
+        halt();
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.webcheckers.ui;
+
+import com.google.gson.stream.JsonWriter;
+import com.webcheckers.util.Message;
+import spark.Response;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the JSON answers of the Ajax routes without building them first.
+ *
+ * <p>
+ * A {@link Message} is answered with the bytes it keeps, which Spark copies
+ * to the response as they are. Any other answer is written field by field
+ * with a {@link JsonWriter} straight to the response's output stream, so no
+ * map, string or byte array is built for it. The JSON is what Gson would
+ * write for the same values. When a route is called without a servlet
+ * response, as in the route tests, the answer is returned as text instead.
+ * </p>
+ */
+public final class JsonResponse {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    /**
+     * Writes the body of an answer.
+     */
+    public interface Body {
+        /**
+         * Write the value
+         * @param writer the writer
+         * @throws IOException if the writer fails
+         */
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private JsonResponse() {
+    }
+
+    /**
+     * Gets a writer that writes JSON the way Gson does by default
+     * @param out where the JSON goes
+     * @return the writer
+     */
+    public static JsonWriter writer(Writer out) {
+        JsonWriter writer = new JsonWriter(out);
+        writer.setHtmlSafe(true);
+        writer.setSerializeNulls(false);
+        return writer;
+    }
+
+    /**
+     * Answer with a message
+     * @param response the HTTP response
+     * @param message the message
+     * @return what the route returns
+     */
+    public static Object message(Response response, Message message) {
+        byte[] json = message.toJsonBytes();
+        return response.raw() == null ? new String(json, StandardCharsets.UTF_8) : json;
+    }
+
+    /**
+     * Answer with JSON written as it is built
+     * @param response the HTTP response
+     * @param body writes the JSON
+     * @return what the route returns
+     */
+    public static Object write(Response response, Body body) {
+        HttpServletResponse raw = response.raw();
+        try {
+            if (raw == null) {
+                StringWriter text = new StringWriter();
+                try (JsonWriter writer = writer(text)) {
+                    body.write(writer);
+                }
+                return text.toString();
+            }
+            JsonWriter writer = writer(new OutputStreamWriter(raw.getOutputStream(), StandardCharsets.UTF_8));
+            body.write(writer);
+            writer.flush();
+            // already written, Spark adds nothing to it
+            return "";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the options of the play mode as an object
+     * @param writer the writer
+     * @param gameOverMessage why the game ended, or null while it is being played
+     * @throws IOException if the writer fails
+     */
+    public static void writeModeOptions(JsonWriter writer, String gameOverMessage) throws IOException {
+        writer.beginObject();
+        writer.name("isGameOver").value(gameOverMessage != null);
+        writer.name("gameOverMessage").value(gameOverMessage);
+        writer.endObject();
+    }
+
+    /**
+     * Gets the options of the replay mode as JSON text, for a page to read
+     * @param hasNext whether there is a turn after the one shown
+     * @param hasPrevious whether there is a turn before the one shown
+     * @param gameOverMessage why the game ended, shown at its last turn, or null before it
+     * @return the JSON
+     */
+    public static String replayModeOptions(boolean hasNext, boolean hasPrevious, String gameOverMessage) {
+        StringWriter text = new StringWriter(128);
+        try (JsonWriter writer = writer(text)) {
+            writer.beginObject();
+            writer.name("hasNext").value(hasNext);
+            writer.name("hasPrevious").value(hasPrevious);
+            writer.name("isGameOver").value(gameOverMessage != null);
+            writer.name("gameOverMessage").value(gameOverMessage);
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Gets the options of the play mode as JSON text, for a page to read
+     * @param gameOverMessage why the game ended, or null while it is being played
+     * @return the JSON
+     */
+    public static String modeOptions(String gameOverMessage) {
+        StringWriter text = new StringWriter(96);
+        try (JsonWriter writer = writer(text)) {
+            writeModeOptions(writer, gameOverMessage);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+}
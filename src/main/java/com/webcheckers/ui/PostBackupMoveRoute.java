@@ -13,6 +13,8 @@ import java.util.logging.Logger;
 public class PostBackupMoveRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostSubmitTurnRoute.class.getName());
 
+    public static final Message BACKUP_MESSAGE = Message.info("Backup Successful");
+
     private final TemplateEngine templateEngine;
     private final GameCenter gameCenter;
     private final PlayerServices playerServices;
@@ -51,24 +53,18 @@ public class PostBackupMoveRoute implements Route {
     public Object handle(Request request, Response response){
         LOG.finer("PostBackupMoveRoute has been invoked.");
 
-        final Session httpSession = request.session();
-        final PlayerServices playerServices = httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
-
-        Message message;
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
 
-        if(playerServices != null){
-            // get the information of the current user
-            String currentPlayerName = httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
-            Player currentPlayer = playerServices.getPlayer(currentPlayerName);
-            Match currentMatch = gameCenter.getMatch(currentPlayer);
+        if(context.isStarted()){
+            // the match of the current user
+            Match currentMatch = context.getMatch();
 
             Move previousMove = currentMatch.popMove();
             if (previousMove.getEnd().getRow() == 0) {
                 currentMatch.typeSingle();
             }
 
-            message = Message.info("Backup Successful");
-            return gson.toJson(message);
+            return JsonResponse.message(response, BACKUP_MESSAGE);
         }
 
         else
@@ -4,20 +4,56 @@ import com.google.gson.Gson;
 import com.webcheckers.appl.GameCenter;
 import com.webcheckers.appl.PlayerServices;
 import com.webcheckers.model.*;
+import com.webcheckers.util.ETag;
 import com.webcheckers.util.Message;
 import spark.*;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
 
 import static spark.Spark.halt;
 
+/**
+ * The UI Controller to POST a check of whose turn it is.
+ *
+ * <p>
+ * With {@code longPoll=true} a player who is waiting for their turn is not
+ * answered at once: the request is held, without a Jetty thread, until the
+ * opponent submits their turn, someone resigns or {@link #LONG_POLL_TIMEOUT_MS}
+ * passes. The player hears about the turn as soon as it happens and sends one
+ * request per turn instead of one every few seconds.
+ * </p>
+ *
+ * <p>
+ * A "not your turn" answer carries an ETag naming the match and the version
+ * of its turn. A player who sends it back in {@code If-None-Match} before the
+ * turn changes is answered {@code 304 Not Modified}, or held straight away
+ * when long polling, without the turn being checked again.
+ * </p>
+ */
 public class PostCheckTurnRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostCheckTurnRoute.class.getName());
+
+    // param asking to hold the request until the turn changes
+    public static final String LONG_POLL_PARAM = "longPoll";
+    // the longest a request is held, shorter than common proxy timeouts
+    public static final long LONG_POLL_TIMEOUT_MS = 25000;
+    static final int ANSWER_THREADS = 2;
+
     // Values used in the view-model map for rendering the game view.
     public static final Message isYourTurn = Message.info("true");
-    public static final Message notYourTurn = Message.error("false");
+    public static final Message notYourTurn = Message.info("false");
 
 
     private boolean isMyTurn = false;
@@ -26,6 +62,7 @@ public class PostCheckTurnRoute implements Route {
     private final GameCenter gameCenter;
     private final PlayerServices playerServices;
     private final Gson gson;
+    private final Executor answerers;
 
     /**
      * The constructor for the {@code POST /game} route handler.
@@ -36,6 +73,14 @@ public class PostCheckTurnRoute implements Route {
     public PostCheckTurnRoute(final PlayerServices playerServices,
                         final GameCenter gameCenter,
                         final TemplateEngine templateEngine, Gson gson){
+        this(playerServices, gameCenter, templateEngine, gson, answerPool());
+    }
+
+    /**
+     * The constructor for the {@code POST /game} route handler, answering held requests with the given threads.
+     */
+    PostCheckTurnRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                       final TemplateEngine templateEngine, Gson gson, final Executor answerers) {
         Objects.requireNonNull(playerServices, "playerServices must not be null");
         Objects.requireNonNull(gameCenter, "gameCenter must not be null");
         Objects.requireNonNull(templateEngine, "templateEngine must not be null");
@@ -43,6 +88,22 @@ public class PostCheckTurnRoute implements Route {
         this.gameCenter = gameCenter;
         this.templateEngine = templateEngine;
         this.gson = gson;
+        this.answerers = answerers;
+    }
+
+    /**
+     * Threads that write the answers of held requests; they end when idle, so
+     * nothing has to stop them at exit
+     */
+    private static Executor answerPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(ANSWER_THREADS, ANSWER_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "check-turn-answer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
     }
 
     /**
@@ -60,60 +121,91 @@ public class PostCheckTurnRoute implements Route {
         return false;
     }
 
+    /**
+     * Work out what the current player should be told about the turn, ending
+     * the game if either side has no pieces left.
+     * @param currentPlayer the player asking
+     * @param currentMatch their match
+     * @return the message for the player
+     */
+    Message checkTurn(Player currentPlayer, Match currentMatch) {
+        Player redPlayer = currentMatch.getRedPlayer();
+        Player whitePlayer = currentMatch.getWhitePlayer();
+        Player opponentPlayer;
+
+        //TODO take care of game end
+        ArrayList<Position> pieces;
+        ArrayList<Position> oppPieces;
+        if (currentPlayer.equals(redPlayer)) {
+            opponentPlayer = whitePlayer;
+            pieces = currentMatch.getRedPieces();
+            oppPieces = currentMatch.getWhitePieces();
+        } else {
+            opponentPlayer = redPlayer;
+            pieces = currentMatch.getWhitePieces();
+            oppPieces = currentMatch.getRedPieces();
+        }
+
+        if (pieces.size() == 0) {
+            currentMatch.setWinner(opponentPlayer);
+            playerServices.changeStatus(currentPlayer, Player.Status.waiting);
+            playerServices.changeStatus(opponentPlayer, Player.Status.waiting);
+            return Message.info(opponentPlayer.getName() + " has captured all the pieces.");
+            //gameCenter.removePlayer(currentPlayer);
+        } else if (oppPieces.size() == 0) {
+            currentMatch.setWinner(currentPlayer);
+            playerServices.changeStatus(currentPlayer, Player.Status.waiting);
+            playerServices.changeStatus(opponentPlayer, Player.Status.waiting);
+            return Message.info(currentPlayer.getName() + " has captured all the pieces.");
+            //gameCenter.removePlayer(currentPlayer);
+        } else if (currentMatch.getWinner() != null) {
+            // the opponent resigned, refresh so the game view shows the end of the game
+            return isYourTurn;
+        } else if (isMyTurn(currentPlayer, redPlayer, whitePlayer, currentMatch.getActiveColor())) {
+            // verify turn
+            return isYourTurn;
+        }
+        return notYourTurn;
+    }
+
     @Override
     public Object handle(Request request, Response response) {
-        final Session httpSession = request.session();
-        final PlayerServices playerServices = httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
 
-        Message message;
         // get the information of the current user
-        if (playerServices != null) {
-            String currentPlayerName = httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
-            Player currentPlayer = playerServices.getPlayer(currentPlayerName);
-            Player opponentPlayer;
+        if (context.isStarted()) {
+            Player currentPlayer = context.getPlayer();
 
             // Get the information from the match
-            Match currentMatch = gameCenter.getMatch(currentPlayer);
-            Player redPlayer = currentMatch.getRedPlayer();
-            Player whitePlayer = currentMatch.getWhitePlayer();
-
-            //TODO take care of game end
-            ArrayList<Position> pieces;
-            ArrayList<Position> oppPieces = currentMatch.getWhitePieces();
-            if (currentPlayer.equals(redPlayer)) {
-                opponentPlayer = whitePlayer;
-                pieces = currentMatch.getRedPieces();
-                oppPieces = currentMatch.getWhitePieces();
-            } else {
-                opponentPlayer = redPlayer;
-                pieces = currentMatch.getWhitePieces();
-                oppPieces = currentMatch.getRedPieces();
-            }
+            Match currentMatch = context.getMatch();
+            // the version is read first, so a turn submitted while checking still wakes the wait below
+            long seen = currentMatch.getTurnSignal().version();
+            boolean longPoll = Boolean.parseBoolean(request.queryParams(LONG_POLL_PARAM))
+                    && request.raw() != null && request.raw().isAsyncSupported();
+            String tag = turnTag(currentMatch, seen);
 
-            if (pieces.size() == 0) {
-                currentMatch.setWinner(opponentPlayer);
-                currentPlayer.changeStatus(Player.Status.waiting);
-                opponentPlayer.changeStatus(Player.Status.waiting);
-                message = Message.info(opponentPlayer.getName() + " has captured all the pieces.");
-                //gameCenter.removePlayer(currentPlayer);
-            } else if (oppPieces.size() == 0) {
-                currentMatch.setWinner(currentPlayer);
-                currentPlayer.changeStatus(Player.Status.waiting);
-                opponentPlayer.changeStatus(Player.Status.waiting);
-                message = Message.info(currentPlayer.getName() + " has captured all the pieces.");
-                //gameCenter.removePlayer(currentPlayer);
-            } else {
-                // verify turn
-                if (isMyTurn(currentPlayer, redPlayer, whitePlayer, currentMatch.getActiveColor())) {
-                    isMyTurn = true;
-                    message = isYourTurn;
-                } else {
-                    isMyTurn = false;
-                    message = notYourTurn;
+            // the player was already told it is not their turn at this version, and nothing has changed since
+            if (ETag.matches(request.headers(ETag.IF_NONE_MATCH), tag)) {
+                isMyTurn = false;
+                if (longPoll) {
+                    holdUntilTurnChanges(request.raw(), response, currentPlayer, currentMatch, seen, tag);
+                    return "";
                 }
+                response.header(ETag.HEADER, tag);
+                response.status(304);
+                return "";
             }
 
-            return gson.toJson(message);
+            Message message = checkTurn(currentPlayer, currentMatch);
+            isMyTurn = message == isYourTurn;
+
+            if (message == notYourTurn && longPoll) {
+                holdUntilTurnChanges(request.raw(), response, currentPlayer, currentMatch, seen, tag);
+                return "";
+            }
+            if (message == notYourTurn)
+                response.header(ETag.HEADER, tag);
+            return JsonResponse.message(response, message);
         }
         else {
             response.redirect("/home");
@@ -121,4 +213,88 @@ public class PostCheckTurnRoute implements Route {
             return null;
         }
     }
+
+    /**
+     * Build the tag of a "not your turn" answer, which holds until the turn changes or the game ends
+     * @param match the match
+     * @param turnVersion the version of its turn signal
+     * @return the tag
+     */
+    static String turnTag(Match match, long turnVersion) {
+        return ETag.of(match.getId(), "t" + turnVersion);
+    }
+
+    /**
+     * Hold the request without its thread until the turn changes or the poll
+     * times out, then answer it like a normal check.
+     *
+     * <p>
+     * The response is committed before the route returns so that Spark leaves
+     * it alone; the answer is written later by one of the answer threads once
+     * the turn changes, or by Jetty's scheduler when the poll times out. The
+     * tag sent with it is that of the version seen, which a later answer only
+     * makes out of date.
+     * </p>
+     */
+    private void holdUntilTurnChanges(HttpServletRequest raw, Response response, Player currentPlayer,
+                                      Match currentMatch, long seen, String tag) {
+        final AsyncContext async = raw.startAsync();
+        async.setTimeout(LONG_POLL_TIMEOUT_MS);
+        final AtomicBoolean answered = new AtomicBoolean(false);
+        // the turn signal runs this on the thread that changed the turn, inside the match lock, so the
+        // answer is written elsewhere and a slow player cannot hold up their opponent's turn
+        final Runnable wake = () -> answerers.execute(
+                () -> answer(async, answered, checkTurn(currentPlayer, currentMatch)));
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                currentMatch.getTurnSignal().cancel(wake);
+                answer(async, answered, notYourTurn);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                currentMatch.getTurnSignal().cancel(wake);
+                answered.set(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                // nothing to clean up
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // not restarted
+            }
+        });
+        try {
+            response.type("application/json");
+            response.header(ETag.HEADER, tag);
+            response.raw().flushBuffer();
+        } catch (IOException e) {
+            LOG.fine("Could not start a long poll: " + e.getMessage());
+        }
+        if (!currentMatch.getTurnSignal().await(seen, wake))
+            wake.run();
+    }
+
+    /**
+     * Write the answer of a held request, once
+     */
+    private static void answer(AsyncContext async, AtomicBoolean answered, Message message) {
+        if (!answered.compareAndSet(false, true))
+            return;
+        try {
+            async.getResponse().getOutputStream().write(message.toJsonBytes());
+        } catch (IOException | IllegalStateException e) {
+            LOG.fine("Could not answer a long poll: " + e.getMessage());
+        } finally {
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // the request already ended
+            }
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.TurnResult;
+import com.webcheckers.util.Message;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to POST a whole turn at once.
+ *
+ * <p>
+ * The {@code actionData} is every move of the turn in order, as a JSON array
+ * of moves like those sent to {@code /validateMove}. Each move is validated
+ * in turn and, if all are legal and the turn is complete, the turn is played
+ * and the new state version is sent back. Otherwise nothing is played and the
+ * index of the first move refused is sent back with the reason, the number of
+ * moves if the last jump could be followed by another. A turn of several
+ * jumps takes one request instead of one per jump and one to submit.
+ * </p>
+ */
+public class PostPlayTurnRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostPlayTurnRoute.class.getName());
+
+    public static final Message NOT_YOUR_TURN_ERROR = Message.error("It is not your turn.");
+    public static final Message NOT_IN_GAME_ERROR = Message.error("You are not in a game.");
+    public static final Message BAD_TURN_ERROR = Message.error("A turn is a list of moves.");
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code POST /playTurn} route handler.
+     *
+     * @param playerServices
+     *    The {@link PlayerServices} holding the players online.
+     * @param gameCenter
+     *    The {@link GameCenter} holding the matches.
+     * @param gson
+     *    The Google JSON parser object used to read the turn and render the result.
+     */
+    public PostPlayTurnRoute(final PlayerServices playerServices, final GameCenter gameCenter, final Gson gson) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.gson = gson;
+    }
+
+    /**
+     * Validate and play a whole turn.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the message, with the new state version or the index of the move refused
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("PostPlayTurnRoute is invoked.");
+        response.type("application/json");
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
+        Player currentPlayer = context.getPlayer();
+        Match currentMatch = context.getMatch();
+        if (currentMatch == null)
+            return JsonResponse.message(response, NOT_IN_GAME_ERROR);
+
+        Move[] turn;
+        try {
+            turn = gson.fromJson(request.queryParams(PostValidateMoveRoute.ACTION_DATA), Move[].class);
+        } catch (JsonParseException e) {
+            return JsonResponse.message(response, BAD_TURN_ERROR);
+        }
+        // whose turn it is, and the version it leaves, are checked and read under the match's lock
+        TurnResult result = currentMatch.playTurn(currentPlayer, turn == null ? null : Arrays.asList(turn));
+
+        return JsonResponse.write(response, writer -> {
+            writer.beginObject();
+            result.getMessage().writeFields(writer);
+            if (result.isPlayed())
+                writer.name("version").value(result.getVersion());
+            else
+                writer.name("index").value(result.getFailedMove());
+            writer.endObject();
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.util.Profiler;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to POST the switch that starts and stops a flight
+ * recording.
+ *
+ * <p>
+ * An {@code action} of {@code start} starts a recording and {@code stop}
+ * stops it and writes it out; without an action nothing changes. Either way
+ * the answer is JSON saying whether a recording is running and the file it
+ * goes to. Like the metrics, the switch is only answered for callers on this
+ * machine.
+ * </p>
+ */
+public class PostProfileRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostProfileRoute.class.getName());
+
+    // param names and values
+    public static final String ACTION_PARAM = "action";
+    public static final String START = "start";
+    public static final String STOP = "stop";
+
+    private final Profiler profiler;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code POST /admin/profile} route handler.
+     *
+     * @param profiler
+     *    The {@link Profiler} that runs the recordings.
+     * @param gson
+     *    The Google JSON parser object used to render the answer.
+     */
+    public PostProfileRoute(final Profiler profiler, final Gson gson) {
+        Objects.requireNonNull(profiler, "profiler must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.profiler = profiler;
+        this.gson = gson;
+    }
+
+    /**
+     * Start or stop a recording.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   whether a recording is running, and its file, as JSON
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("PostProfileRoute is invoked.");
+        if (!GetMetricsRoute.isLocal(request.ip()))
+            halt(404);
+        String action = request.queryParams(ACTION_PARAM);
+        Map<String, Object> answer = new LinkedHashMap<>(3);
+        try {
+            if (START.equals(action))
+                profiler.start();
+            else if (STOP.equals(action))
+                profiler.stop();
+            else if (action != null)
+                response.status(400);
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Could not " + action + " a flight recording", e);
+            response.status(500);
+            answer.put("error", e.getMessage());
+        }
+        Path file = profiler.getFile();
+        answer.put("recording", profiler.isRecording());
+        answer.put("file", file == null ? null : file.toAbsolutePath().toString());
+        response.type("application/json");
+        return gson.toJson(answer);
+    }
+}
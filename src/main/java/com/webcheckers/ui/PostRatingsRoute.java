@@ -0,0 +1,118 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.RatingService;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.model.EloRating;
+import com.webcheckers.model.Player;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The UI Controller to POST a recompute of every rating from the game archive.
+ *
+ * <p>
+ * The archive is replayed with Elo using the {@code k} and {@code periodSize}
+ * given, or the usual ones, and the new ratings are saved, loaded into the
+ * leaderboard and used to rate every game from then on. The answer is JSON
+ * saying how many players and games were rated. Like the profiler switch, it
+ * is only answered for callers on this machine.
+ * </p>
+ */
+public class PostRatingsRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostRatingsRoute.class.getName());
+
+    // param names
+    public static final String K_PARAM = "k";
+    public static final String PERIOD_SIZE_PARAM = "periodSize";
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final LeaderboardService leaderboardService;
+    private final Storage storage;
+    private final Gson gson;
+
+    /**
+     * The constructor for the {@code POST /admin/ratings} route handler.
+     *
+     * @param playerServices
+     *    The {@link PlayerServices} whose signed in players are re-rated.
+     * @param gameCenter
+     *    The {@link GameCenter} whose {@link RatingService} is recomputed.
+     * @param leaderboardService
+     *    The {@link LeaderboardService} loaded with the new ratings.
+     * @param storage
+     *    The {@link Storage} the new ratings are saved to.
+     * @param gson
+     *    The Google JSON parser object used to render the answer.
+     */
+    public PostRatingsRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                            final LeaderboardService leaderboardService, final Storage storage, final Gson gson) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(storage, "storage must not be null");
+        Objects.requireNonNull(gson, "gson must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.leaderboardService = leaderboardService;
+        this.storage = storage;
+        this.gson = gson;
+    }
+
+    /**
+     * Recompute the ratings and put them in use.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   the number of players and games rated, as JSON
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("PostRatingsRoute is invoked.");
+        if (!GetMetricsRoute.isLocal(request.ip()))
+            halt(404);
+        response.type("application/json");
+        Map<String, Object> answer = new LinkedHashMap<>(3);
+        RatingService ratingService = gameCenter.getRatingService();
+        EloRating algorithm;
+        int periodSize;
+        try {
+            String k = request.queryParams(K_PARAM);
+            String period = request.queryParams(PERIOD_SIZE_PARAM);
+            algorithm = k == null ? new EloRating() : new EloRating(Double.parseDouble(k), Player.DEFAULT_RATING);
+            periodSize = period == null ? RatingService.DEFAULT_PERIOD_SIZE : Integer.parseInt(period);
+            if (periodSize < 1)
+                throw new IllegalArgumentException("periodSize must be at least 1");
+        } catch (IllegalArgumentException e) {
+            response.status(400);
+            answer.put("error", e.getMessage());
+            return gson.toJson(answer);
+        }
+        Map<String, Double> ratings = ratingService.apply(algorithm, periodSize, playerServices, storage,
+                leaderboardService);
+        if (ratings == null) {
+            response.status(500);
+            answer.put("error", "the new ratings could not be saved");
+            return gson.toJson(answer);
+        }
+        answer.put("players", ratings.size());
+        answer.put("games", ratingService.numGames());
+        return gson.toJson(answer);
+    }
+}
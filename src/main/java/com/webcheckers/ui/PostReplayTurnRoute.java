@@ -0,0 +1,74 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.model.GameRecord;
+import com.webcheckers.util.Message;
+import spark.*;
+
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to POST {@code /replay/nextTurn} and
+ * {@code /replay/previousTurn}: move the turn a finished game is watched at
+ * one way or the other. The answer is "true" when the page should be
+ * shown again at the new turn, and "false" when there is no turn that way.
+ */
+public class PostReplayTurnRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostReplayTurnRoute.class.getName());
+
+    public static final Message MOVED_MESSAGE = Message.info("true");
+    public static final Message NOT_MOVED_MESSAGE = Message.info("false");
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final ReplayArchive replayArchive;
+    private final int step;
+
+    /**
+     * The constructor for the replay turn route handlers.
+     *
+     * @param replayArchive
+     *    The {@link ReplayArchive} the finished games are kept in.
+     * @param step
+     *    The number of turns to move, 1 for the next turn and -1 for the previous one.
+     */
+    public PostReplayTurnRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                               final ReplayArchive replayArchive, final int step) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(replayArchive, "replayArchive must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.replayArchive = replayArchive;
+        this.step = step;
+    }
+
+    /**
+     * Move the turn being watched.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   whether the turn moved, as a message
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("PostReplayTurnRoute is invoked.");
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
+        final GameRecord game = GetReplayGameRoute.findGame(request, replayArchive);
+        if (!context.isStarted() || game == null)
+            return JsonResponse.message(response, GetReplayGameRoute.NO_GAME_MESSAGE);
+
+        int turn = GetReplayGameRoute.turnOf(request.session(), game) + step;
+        if (turn < 0 || turn > game.numTurns())
+            return JsonResponse.message(response, NOT_MOVED_MESSAGE);
+        request.session().attribute(GetReplayGameRoute.TURN_KEY + game.getId(), turn);
+        return JsonResponse.message(response, MOVED_MESSAGE);
+    }
+}
@@ -7,8 +7,10 @@ import java.util.logging.Logger;
 
 import com.google.gson.Gson;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
-import com.webcheckers.model.CSVutility;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.model.GameResult;
 import com.webcheckers.model.Match;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
@@ -19,8 +21,9 @@ import static spark.Spark.halt;
 public class PostResignGameRoute implements Route {
     private PlayerServices playerServices;
     private GameCenter gameCenter;
+    private LeaderboardService leaderboardService;
     private TemplateEngine templateEngine;
-    private final CSVutility csvutility;
+    private final Storage storage;
     private final Gson gson;
     private final Message message = Message.info("You've resigned.");
     private static final String INSTRUCTION_MSG = "Choose your next action."; //TODO change
@@ -30,20 +33,27 @@ public class PostResignGameRoute implements Route {
      * Constructor for the PostResignGameRoute
      * @param playerServices    - playerServices for list of players
      * @param gameCenter        - gameCenter for managing games
+     * @param leaderboardService - leaderboardService told about the resigning player's records
+     * @param storage           - storage that saves the resigning player's records
      * @param templateEngine    - templateEngine for display // might not need
      */
     public PostResignGameRoute(PlayerServices playerServices,
                                GameCenter gameCenter,
+                               LeaderboardService leaderboardService,
+                               Storage storage,
                                TemplateEngine templateEngine,
                                Gson gson) {
         Objects.requireNonNull(playerServices, "playerServices must not be null");
         Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(storage, "storage must not be null");
         Objects.requireNonNull(templateEngine, "templateEngine must not be null");
         this.playerServices = playerServices;
         this.gameCenter = gameCenter;
+        this.leaderboardService = leaderboardService;
         this.templateEngine = templateEngine;
         this.gson = gson;
-        this.csvutility = new CSVutility();
+        this.storage = storage;
     }
 
     /**
@@ -61,19 +71,23 @@ public class PostResignGameRoute implements Route {
         LOG.finer("PostResignGameRoute has been invoked.");
 
         final Session httpSession = request.session();
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
 
-        String username = httpSession.attribute("currentPlayer");
         // just in case there are moves that is not removed
         httpSession.removeAttribute("moves");
-        Player currentPlayer = playerServices.getPlayer(username);
-        Match currentMatch = gameCenter.getMatch(currentPlayer);
+        Player currentPlayer = context.getPlayer();
+        Match currentMatch = context.getMatch();
         Player opponentPlayer;
         if (currentMatch.getRedPlayer().equals(currentPlayer))
             opponentPlayer = currentMatch.getWhitePlayer();
         else
             opponentPlayer = currentMatch.getRedPlayer();
-        currentPlayer.changeStatus(Player.Status.waiting);
-        currentMatch.resignGame(currentPlayer, opponentPlayer);
+        playerServices.changeStatus(currentPlayer, Player.Status.waiting);
+        currentMatch.resignGame(opponentPlayer, currentPlayer);
+        // the opponent wins, rate them both and archive the game
+        GameResult result = gameCenter.recordResult(currentMatch, opponentPlayer, currentPlayer);
+        if (result != null)
+            storage.appendGameResult(result);
         // delete the player from the ingame match list after exiting to home/lobby
         currentPlayer.changeRecentlyInGame(true);
         // guard so that their records won't be modified more than once in case of mandatory refreshes
@@ -89,7 +103,8 @@ public class PostResignGameRoute implements Route {
             currentPlayer.addPiecesTaken(piecesTaken);
             currentPlayer.addPiecesLost(piecesLost);
             currentPlayer.addLost();
-            csvutility.editPlayerRecords(currentPlayer);
+            storage.savePlayer(currentPlayer);
+            leaderboardService.update(currentPlayer);
             currentPlayer.setRecordsModified(true);
         }
 
@@ -104,6 +119,6 @@ public class PostResignGameRoute implements Route {
             return null;
         }
         //redirect to home since that's the next page after ending a game by sending a message
-        return gson.toJson(message);
+        return JsonResponse.message(response, message);
     }
 }
@@ -1,18 +1,12 @@
 package com.webcheckers.ui;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVWriter;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
-import com.webcheckers.model.CSVutility;
+import com.webcheckers.appl.Storage;
 import com.webcheckers.util.Message;
 import spark.*;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -20,7 +14,6 @@ import java.util.logging.Logger;
 
 import com.webcheckers.model.Player;
 
-import static com.webcheckers.ui.WebServer.csvFile;
 import static spark.Spark.halt;
 
 public class PostSignInRoute implements Route {
@@ -38,20 +31,35 @@ public class PostSignInRoute implements Route {
 
     private final TemplateEngine templateEngine;
     private final PlayerServices playerServices;
-    private CSVutility csvutility;
+    private final GameCenter gameCenter;
+    private final LeaderboardService leaderboardService;
+    private final Storage storage;
 
     /**
      * Create the Spark Route (UI controller) to handle all {@code GET /} HTTP requests.
      *
+     * @param gameCenter
+     *   the matches, some of which may have been brought back after a restart
+     * @param leaderboardService
+     *   the rankings that a first time player is added to
+     * @param storage
+     *   the storage players' records are read from, and first time players added to
      * @param templateEngine
      *   the HTML template rendering engine
      */
-    public PostSignInRoute(PlayerServices playerServices, TemplateEngine templateEngine){
+    public PostSignInRoute(PlayerServices playerServices, GameCenter gameCenter, LeaderboardService leaderboardService,
+                           Storage storage, TemplateEngine templateEngine){
         Objects.requireNonNull(playerServices, "gameCenter must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+        Objects.requireNonNull(storage, "storage must not be null");
         Objects.requireNonNull(templateEngine, "templateEngine must not be null");
 
         this.templateEngine = templateEngine;
         this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.leaderboardService = leaderboardService;
+        this.storage = storage;
 
         LOG.config("PostSignInRoute is initialized.");
     }
@@ -71,7 +79,7 @@ public class PostSignInRoute implements Route {
             return 1;
         else if (player.containsInvalidCharacter())
             return 2;
-        else if (this.playerServices.getPlayerList().contains(player))
+        else if (this.playerServices.isAvailable(player))
             return 3;
         return 0;
     }
@@ -106,10 +114,11 @@ public class PostSignInRoute implements Route {
         if(httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY) != null) {
             // Name is not taken and it is alphanumerical
             if (statCode == 0) {
-                csvutility = new CSVutility();
-
-                Player player = csvutility.findPlayer(username);
+                // a player whose match was brought back after a restart signs in as its player
+                Player player = gameCenter.rejoin(storage.findOrAddPlayer(username));
                 playerServices.addPlayer(player);
+                // first time players were just added to storage
+                leaderboardService.update(player);
 
                 httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY, username);
                 httpSession.removeAttribute("numPlayers");
@@ -0,0 +1,91 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.model.SpectatorFrame;
+import com.webcheckers.util.ETag;
+import com.webcheckers.util.Message;
+import spark.*;
+
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to POST {@code /spectator/checkTurn}: check whether the
+ * match being watched has moved on from the frame the page shows. The
+ * answer is "true" when the page should be shown again.
+ *
+ * <p>
+ * A "false" answer carries an ETag naming the frame. A spectator who sends
+ * it back in {@code If-None-Match} before the next turn is answered
+ * {@code 304 Not Modified} from the shared frame alone.
+ * </p>
+ */
+public class PostSpectatorCheckTurnRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostSpectatorCheckTurnRoute.class.getName());
+
+    public static final Message CHANGED_MESSAGE = Message.info("true");
+    public static final Message UNCHANGED_MESSAGE = Message.info("false");
+
+    private final PlayerServices playerServices;
+    private final GameCenter gameCenter;
+    private final SpectatorService spectatorService;
+
+    /**
+     * The constructor for the {@code POST /spectator/checkTurn} route handler.
+     *
+     * @param spectatorService
+     *    The {@link SpectatorService} keeping the frames of the matches.
+     */
+    public PostSpectatorCheckTurnRoute(final PlayerServices playerServices, final GameCenter gameCenter,
+                                       final SpectatorService spectatorService) {
+        Objects.requireNonNull(playerServices, "playerServices must not be null");
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        Objects.requireNonNull(spectatorService, "spectatorService must not be null");
+        this.playerServices = playerServices;
+        this.gameCenter = gameCenter;
+        this.spectatorService = spectatorService;
+    }
+
+    /**
+     * Build the tag of an answer that the frame shown is still the latest
+     * @param frame the frame
+     * @return the tag
+     */
+    static String checkTag(SpectatorFrame frame) {
+        return ETag.of(frame.getTag(), "c");
+    }
+
+    /**
+     * Check whether the match has moved on.
+     *
+     * @param request
+     *   the HTTP request
+     * @param response
+     *   the HTTP response
+     *
+     * @return
+     *   whether to show the page again, as a message
+     */
+    @Override
+    public Object handle(Request request, Response response) {
+        LOG.finer("PostSpectatorCheckTurnRoute is invoked.");
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
+        final SpectatorFrame frame = GetSpectatorGameRoute.findFrame(request, spectatorService);
+        if (!context.isStarted() || frame == null)
+            return JsonResponse.message(response, GetSpectatorGameRoute.NO_GAME_MESSAGE);
+
+        final String tag = checkTag(frame);
+        if (ETag.matches(request.headers(ETag.IF_NONE_MATCH), tag)) {
+            response.header(ETag.HEADER, tag);
+            response.status(304);
+            return "";
+        }
+        Long shown = request.session().attribute(GetSpectatorGameRoute.VERSION_KEY + frame.getMatchId());
+        if (shown == null || shown != frame.getVersion())
+            return JsonResponse.message(response, CHANGED_MESSAGE);
+        response.header(ETag.HEADER, tag);
+        return JsonResponse.message(response, UNCHANGED_MESSAGE);
+    }
+}
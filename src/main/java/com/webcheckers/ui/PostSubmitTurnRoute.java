@@ -7,14 +7,21 @@ import com.webcheckers.model.*;
 import com.webcheckers.util.Message;
 import spark.*;
 
-import java.util.ArrayList;
 import java.util.Objects;
-import java.util.Stack;
 import java.util.logging.Logger;
 
 public class PostSubmitTurnRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostSubmitTurnRoute.class.getName());
 
+    public static final Message TURN_SUBMITTED_MESSAGE = Message.info("Your turn was submitted");
+    public static final Message JUMP_LEFT_ERROR = Message.error("There is still available jump");
+    public static final Message HELP_ERROR = Message.error("You cannot submit a turn if you clicked help.");
+    public static final Message NO_MOVE_ERROR = Message.error("Make a move before submitting your turn.");
+    // only possible for turns sent whole, which skip the moves the page checks itself
+    public static final Message OFF_BOARD_ERROR = Message.error("Moves must be between dark squares on the board.");
+    public static final Message NO_PIECE_ERROR = Message.error("You can only move your own pieces.");
+    public static final Message OCCUPIED_ERROR = Message.error("You can only move to an empty square.");
+
     private final TemplateEngine templateEngine;
     private final GameCenter gameCenter;
     private final PlayerServices playerServices;
@@ -53,71 +60,20 @@ public class PostSubmitTurnRoute implements Route {
     public Object handle(Request request, Response response){
         LOG.finer("PostSubmitTurnRoute has been invoked.");
 
-        final Session httpSession = request.session();
-        final PlayerServices playerServices = httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
 
         Message message;
 
-        if(playerServices != null){
-            // get the information of the current user
-            String currentPlayerName = httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
-            Player currentPlayer = playerServices.getPlayer(currentPlayerName);
-
-            // Get the information from the match
-            Match currentMatch = gameCenter.getMatch(currentPlayer);
+        if(context.isStarted()){
+            // Get the information from the match of the current user
+            Match currentMatch = context.getMatch();
 
             if (currentMatch.getHelp()) {
-                return gson.toJson(Message.error("You cannot submit a turn if you clicked help."));
-            }
-
-            // If you can still jump
-            BoardView currentBoardView;
-            if (currentMatch.getActiveColor() == Piece.Color.RED){
-                currentBoardView = currentMatch.getRedBoardView();
-            }
-            else {
-                currentBoardView = currentMatch.getWhiteBoardView();
+                return JsonResponse.message(response, HELP_ERROR);
             }
 
-            Move mostRecentMove = currentMatch.popMove();
-            currentMatch.pushMove(mostRecentMove);
-            int diffY = Math.abs(mostRecentMove.getStart().getRow() - mostRecentMove.getEnd().getRow());
-            Boolean hasNextJump = false;
-            // if it was a jump
-            if (diffY == 2) {
-                // check to see if there is another jump
-                Position end = mostRecentMove.getEnd();
-                hasNextJump = currentMatch.checkFourDirections(currentBoardView, end);
-            }
-            // if there is another jump after a jump
-            if (hasNextJump) {
-                message = Message.error("There is still available jump");
-                return gson.toJson(message);
-            }
-            // regular move / no more jump
-            else {
-                ArrayList<Move> moves = currentMatch.getMoves();
-                Move move;
-                // perform all the moves
-                for (int i = 0; i < moves.size(); i++){
-                    move = moves.get(i);
-                    int dif = Math.abs(move.getStart().getRow() - move.getEnd().getRow());
-                    if (dif == 2) {
-                        currentMatch.jump(move);
-                    }
-                    else {
-                        currentMatch.move(move);
-                    }
-                }
-                // reset the moves to nothing
-                currentMatch.emptyMoves();
-
-                //alternate turns
-                currentMatch.changeActiveColor();
-
-                message = Message.info("Your turn was submitted");
-                return gson.toJson(message);
-            }
+            message = currentMatch.submitTurn();
+            return JsonResponse.message(response, message);
         }
         else{
             return null;
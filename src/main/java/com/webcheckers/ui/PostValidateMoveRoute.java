@@ -36,6 +36,7 @@ public class PostValidateMoveRoute implements Route {
     public static final Message END_ERROR = Message.error("There is no more jump can be made from this piece.\n" +
                                                             "You have to either submit or backup.");
     public static final Message MULTIPLE_ERROR = Message.error("You cannot jump if you just moved.");
+    public static final Message HELP_ERROR = Message.error("You must click help again in order to make a move.");
     public static final Message REPEAT_ERROR = Message.error("You cannot jump jump over the piece you just jumped over.");
 
 
@@ -69,24 +70,21 @@ public class PostValidateMoveRoute implements Route {
      */
     @Override
     public Object handle(Request request, Response response) {
-        final Session httpSession = request.session();
-        final PlayerServices playerServices = httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
+        final RequestContext context = RequestContext.of(request, playerServices, gameCenter);
 
-        if (playerServices != null) {
-            // get the information of the current user
-            String currentPlayerName = httpSession.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
-            Player currentPlayer = playerServices.getPlayer(currentPlayerName);
-            Match currentMatch = gameCenter.getMatch(currentPlayer);
+        if (context.isStarted()) {
+            // the match of the current user
+            Match currentMatch = context.getMatch();
 
             //check if the help button is clicked
             if (currentMatch.getHelp()){
-                return gson.toJson(Message.error("You must click help again in order to make a move."));
+                return JsonResponse.message(response, HELP_ERROR);
             }
 
             Move move = gson.fromJson(request.queryParams(ACTION_DATA), Move.class);
 
             Message message = currentMatch.validateMove(move);
-            return gson.toJson(message);
+            return JsonResponse.message(response, message);
 
         }
         return null;
@@ -0,0 +1,38 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.ProfileEvents;
+import spark.ModelAndView;
+import spark.TemplateEngine;
+
+import java.util.Objects;
+
+/**
+ * A {@link TemplateEngine} that writes a flight recorder event for every
+ * page it renders, naming the template, around the engine that does the work.
+ */
+public class ProfiledTemplateEngine extends TemplateEngine {
+
+    //Attributes
+    private final TemplateEngine engine;
+
+    /**
+     * ProfiledTemplateEngine constructor
+     * @param engine the engine that renders the pages
+     */
+    public ProfiledTemplateEngine(TemplateEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "engine must not be null");
+    }
+
+    @Override
+    public String render(ModelAndView modelAndView) {
+        ProfileEvents.TemplateRenderEvent event = new ProfileEvents.TemplateRenderEvent();
+        event.begin();
+        String page = engine.render(modelAndView);
+        if (event.shouldCommit()) {
+            event.template = modelAndView.getViewName();
+            event.length = page == null ? 0 : page.length();
+            event.commit();
+        }
+        return page;
+    }
+}
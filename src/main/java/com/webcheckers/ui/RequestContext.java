@@ -0,0 +1,118 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Player;
+import spark.Filter;
+import spark.Request;
+import spark.Session;
+
+/**
+ * Who a request is from and the match they are in, worked out once per
+ * request.
+ *
+ * <p>
+ * The HTTP session only holds the player's name and the marker the Home page
+ * sets; nothing else about a player or match is kept in it. The
+ * {@link #filter} reads those before the route runs, looks the player and
+ * their match up once and leaves the result on the request, so the routes
+ * share one lookup and hold the {@link Player} and {@link Match} directly.
+ * A request without a session gets {@link #NONE} and no session is made for
+ * it. A route reached without the filter, as in the route tests, looks the
+ * context up itself the first time it asks.
+ * </p>
+ */
+public final class RequestContext {
+
+    static final String CONTEXT_ATTR = "webcheckers.context";
+    // a request from someone who has not been to the Home page
+    public static final RequestContext NONE = new RequestContext(false, null, null, null);
+
+    //Attributes
+    private final boolean started;
+    private final String name;
+    private final Player player;
+    private final Match match;
+
+    private RequestContext(boolean started, String name, Player player, Match match) {
+        this.started = started;
+        this.name = name;
+        this.player = player;
+        this.match = match;
+    }
+
+    /**
+     * Gets the filter that works out the context of every request
+     * @param playerServices the players signed in
+     * @param gameCenter the matches being played
+     * @return the filter
+     */
+    public static Filter filter(PlayerServices playerServices, GameCenter gameCenter) {
+        return (request, response) ->
+                request.attribute(CONTEXT_ATTR, resolve(request.session(false), playerServices, gameCenter));
+    }
+
+    /**
+     * Gets the context of a request, working it out if the filter did not
+     * @param request the HTTP request
+     * @param playerServices the players signed in
+     * @param gameCenter the matches being played
+     * @return the context
+     */
+    public static RequestContext of(Request request, PlayerServices playerServices, GameCenter gameCenter) {
+        RequestContext context = request.attribute(CONTEXT_ATTR);
+        if (context == null) {
+            context = resolve(request.session(), playerServices, gameCenter);
+            request.attribute(CONTEXT_ATTR, context);
+        }
+        return context;
+    }
+
+    /**
+     * Look up the player of a session and their match
+     */
+    static RequestContext resolve(Session session, PlayerServices playerServices, GameCenter gameCenter) {
+        if (session == null)
+            return NONE;
+        boolean started = session.attribute(GetHomeRoute.PLAYERSERVICES_KEY) != null;
+        String name = session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY);
+        if (!started && name == null)
+            return NONE;
+        Player player = name == null ? null : playerServices.getPlayer(name);
+        Match match = player == null ? null : gameCenter.getMatch(player);
+        return new RequestContext(started, name, player, match);
+    }
+
+    /**
+     * Checks whether the session has been through the Home page
+     * @return true if it has
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Gets the name the session signed in with
+     * @return the name, or null if nobody signed in
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the player signed in
+     * @return the player, or null if nobody is signed in
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the match the player was in when the request arrived
+     * @return the match, or null if they were in none
+     */
+    public Match getMatch() {
+        return match;
+    }
+}
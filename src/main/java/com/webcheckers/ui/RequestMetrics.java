@@ -0,0 +1,115 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.LatencyHistogram;
+import com.webcheckers.util.MetricsRegistry;
+import spark.Request;
+import spark.Response;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The filters that time every request and count its status, by route.
+ *
+ * <p>
+ * {@link #start} runs before the route and {@link #finish} after it, even
+ * when the route halts. A route is its method and path; requests for a path
+ * that was not passed to {@link #track}, or that were answered 404, are all
+ * counted as {@link #OTHER}, so a scan of made up paths cannot add series
+ * without end. Spark only sets the 404 of an unmatched path after every
+ * filter has run, so the paths have to be told. The time is how long the route took to
+ * return; a long poll or stream held afterwards is not counted. Each route's
+ * histogram and counters are looked up once and kept, so a request costs two
+ * map reads and a few atomic increments.
+ * </p>
+ */
+public class RequestMetrics {
+
+    public static final String LATENCY_METRIC = "webcheckers_request_duration_seconds";
+    public static final String REQUESTS_METRIC = "webcheckers_requests_total";
+    // every path that matched no route
+    public static final String OTHER = "other";
+    private static final String START_ATTR = "metrics.startNanos";
+
+    /**
+     * The metrics of one route.
+     */
+    private static final class RouteMetrics {
+        private final LatencyHistogram latency;
+        // by status class, 1xx to 5xx
+        private final LongAdder[] statuses = new LongAdder[5];
+
+        private RouteMetrics(MetricsRegistry registry, String method, String path) {
+            latency = registry.summary(LATENCY_METRIC, "Time taken to handle requests.",
+                    "method", method, "route", path);
+            for (int i = 0; i < statuses.length; i++)
+                statuses[i] = registry.counter(REQUESTS_METRIC, "Requests handled, by status class.",
+                        "method", method, "route", path, "status", (i + 1) + "xx");
+        }
+    }
+
+    //Attributes
+    private final MetricsRegistry registry;
+    private final Set<String> paths = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, ConcurrentMap<String, RouteMetrics>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * RequestMetrics constructor
+     * @param registry where the metrics are kept
+     */
+    public RequestMetrics(MetricsRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry must not be null");
+    }
+
+    /**
+     * Count requests for these paths by path, rather than as {@link #OTHER}
+     * @param paths the paths that have routes
+     */
+    public void track(String... paths) {
+        this.paths.addAll(Arrays.asList(paths));
+    }
+
+    /**
+     * Note when a request started
+     * @param request the HTTP request
+     * @param response the HTTP response
+     */
+    public void start(Request request, Response response) {
+        request.attribute(START_ATTR, System.nanoTime());
+    }
+
+    /**
+     * Count a request that finished
+     * @param request the HTTP request
+     * @param response the HTTP response
+     */
+    public void finish(Request request, Response response) {
+        Long started = request.attribute(START_ATTR);
+        if (started == null)
+            return;
+        long nanos = System.nanoTime() - started;
+        int status = response.raw() == null ? response.status() : response.raw().getStatus();
+        String path = request.pathInfo();
+        if (!paths.contains(path)) {
+            path = OTHER;
+            // Spark answers these 404 once the filters are done
+            if (status < 400)
+                status = 404;
+        } else if (status == 404)
+            path = OTHER;
+        RouteMetrics metrics = routes
+                .computeIfAbsent(request.requestMethod(), method -> new ConcurrentHashMap<>())
+                .get(path);
+        if (metrics == null)
+            metrics = routes.get(request.requestMethod()).computeIfAbsent(path,
+                    key -> new RouteMetrics(registry, request.requestMethod(), key));
+        metrics.latency.recordNanos(nanos);
+        int statusClass = status / 100 - 1;
+        if (statusClass >= 0 && statusClass < metrics.statuses.length)
+            metrics.statuses[statusClass].increment();
+    }
+}
@@ -5,12 +5,21 @@ import static spark.Spark.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import com.google.gson.Gson;
 
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.PushService;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.util.MetricsRegistry;
+import com.webcheckers.util.Profiler;
+import spark.Spark;
 import spark.TemplateEngine;
 
 
@@ -60,24 +69,57 @@ public class WebServer {
   public static final String SIGNIN_URL = "/signin";
   public static final String POST_SINGIN_URL = "/postsignin";
   public static final String GAME_URL = "/game";
+  public static final String GAME_STATE_URL = "/game/state";
   public static final String POST_SIGNOUT_URL = "/signout";
   public static final String CHECK_TURN_URL = "/checkTurn";
   public static final String VALIDATE_MOVE_URL = "/validateMove";
   public static final String SUBMIT_TURN_URL = "/submitTurn";
+  public static final String PLAY_TURN_URL = "/playTurn";
   public static final String BACKUP_URL = "/backupMove";
   public static final String RESIGN_URL = "/resignGame";
+  public static final String LEADERBOARD_URL = "/leaderboard";
+  public static final String PLAYER_RANK_URL = "/leaderboard/rank";
+  public static final String PLAYER_SEARCH_URL = "/players/search";
+  public static final String EVENTS_URL = "/events";
+  public static final String LOBBY_EVENTS_URL = "/lobby/events";
+  public static final String METRICS_URL = "/metrics";
+  public static final String PROFILE_URL = "/admin/profile";
+  public static final String RATINGS_URL = "/admin/ratings";
+  public static final String REPLAY_GAME_URL = "/replay/game";
+  public static final String REPLAY_NEXT_URL = "/replay/nextTurn";
+  public static final String REPLAY_PREVIOUS_URL = "/replay/previousTurn";
+  public static final String REPLAY_STOP_URL = "/replay/stopWatching";
+  public static final String SPECTATOR_GAME_URL = "/spectator/game";
+  public static final String SPECTATOR_CHECK_TURN_URL = "/spectator/checkTurn";
+  public static final String SPECTATOR_STOP_URL = "/spectator/stopWatching";
 
   public static final Path currentRelativePath = Paths.get("");
   public static final String s = currentRelativePath.toAbsolutePath().toString();
   public static final String csvFile = s + "/src/main/resources/public/Statistics.csv";
+  public static final String resultsFile = s + "/src/main/resources/public/GameResults.csv";
+  public static final String snapshotDir = s + "/data/snapshots";
+  public static final String eventLogDir = s + "/data/events";
+  public static final String replayDir = s + "/data/replays";
+
+  // the longest a shutdown waits for Jetty to finish the requests it is answering
+  public static final long STOP_TIMEOUT_MILLIS = 10000;
+  private static final long STOP_POLL_MILLIS = 20;
 
   //
   // Attributes
   //
   private final PlayerServices playerServices;
   private final GameCenter gameCenter;
+  private final LeaderboardService leaderboardService;
+  private final Storage storage;
+  private final PushService pushService;
+  private final ReplayArchive replayArchive;
+  private final SpectatorService spectatorService;
+  private final MetricsRegistry metrics;
+  private final Profiler profiler;
   private final TemplateEngine templateEngine;
   private final Gson gson;
+  private final GetLobbyEventsRoute lobbyEventsRoute;
 
   //
   // Constructor
@@ -86,6 +128,20 @@ public class WebServer {
   /**
    * The constructor for the Web Server.
    *
+   * @param leaderboardService
+   *    The {@link LeaderboardService} that ranks the players.
+   * @param storage
+   *    The {@link Storage} that keeps players' records and finished games.
+   * @param pushService
+   *    The {@link PushService} that pushes match events to game pages.
+   * @param replayArchive
+   *    The {@link ReplayArchive} that keeps finished games to watch again.
+   * @param spectatorService
+   *    The {@link SpectatorService} that keeps what spectators of each match see.
+   * @param metrics
+   *    The {@link MetricsRegistry} that requests are timed into.
+   * @param profiler
+   *    The {@link Profiler} switched on and off at {@code /admin/profile}.
    * @param templateEngine
    *    The default {@link TemplateEngine} to render page-level HTML views.
    * @param gson
@@ -94,17 +150,37 @@ public class WebServer {
    * @throws NullPointerException
    *    If any of the parameters are {@code null}.
    */
-  public WebServer(final PlayerServices playerServices, final GameCenter gameCenter, final TemplateEngine templateEngine,
-                   final Gson gson) {
+  public WebServer(final PlayerServices playerServices, final GameCenter gameCenter,
+                   final LeaderboardService leaderboardService, final Storage storage,
+                   final PushService pushService, final ReplayArchive replayArchive,
+                   final SpectatorService spectatorService,
+                   final MetricsRegistry metrics,
+                   final Profiler profiler,
+                   final TemplateEngine templateEngine, final Gson gson) {
     // validation
     //Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    Objects.requireNonNull(leaderboardService, "leaderboardService must not be null");
+    Objects.requireNonNull(storage, "storage must not be null");
+    Objects.requireNonNull(pushService, "pushService must not be null");
+    Objects.requireNonNull(replayArchive, "replayArchive must not be null");
+    Objects.requireNonNull(spectatorService, "spectatorService must not be null");
+    Objects.requireNonNull(metrics, "metrics must not be null");
+    Objects.requireNonNull(profiler, "profiler must not be null");
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
     Objects.requireNonNull(gson, "gson must not be null");
     //
     this.playerServices = playerServices;
     this.gameCenter = gameCenter;
+    this.leaderboardService = leaderboardService;
+    this.storage = storage;
+    this.pushService = pushService;
+    this.replayArchive = replayArchive;
+    this.spectatorService = spectatorService;
+    this.metrics = metrics;
+    this.profiler = profiler;
     this.templateEngine = templateEngine;
     this.gson = gson;
+    this.lobbyEventsRoute = new GetLobbyEventsRoute(playerServices, gson);
   }
 
   //
@@ -122,6 +198,9 @@ public class WebServer {
    */
   public void initialize() {
 
+    // WebSocket endpoints have to be set up before anything else
+    webSocket(EVENTS_URL, new GameEventSocket(pushService));
+
     // Configuration to serve static files
     staticFileLocation("/public");
 
@@ -158,25 +237,107 @@ public class WebServer {
     //// Create separate Route classes to handle each route; this keeps your
     //// code clean; using small classes.
 
+    // Time every request, by route.
+    final RequestMetrics requestMetrics = new RequestMetrics(metrics);
+    before(requestMetrics::start);
+    afterAfter(requestMetrics::finish);
+    // Work out who each request is from, and their match, once for every route.
+    before(RequestContext.filter(playerServices, gameCenter));
+
     // Shows the Checkers game Home page.
 
-    get(HOME_URL, new GetHomeRoute(playerServices, gameCenter, templateEngine));
+    get(HOME_URL, new GetHomeRoute(playerServices, gameCenter, leaderboardService, replayArchive, spectatorService,
+        templateEngine));
     //todo get Checkers game page.
     get(SIGNIN_URL, new GetSignInRoute(templateEngine));
-    get(POST_SINGIN_URL, new PostSignInRoute(playerServices, templateEngine));
-    post(POST_SINGIN_URL, new PostSignInRoute(playerServices, templateEngine));
+    get(POST_SINGIN_URL, new PostSignInRoute(playerServices, gameCenter, leaderboardService, storage, templateEngine));
+    post(POST_SINGIN_URL, new PostSignInRoute(playerServices, gameCenter, leaderboardService, storage, templateEngine));
     post(POST_SIGNOUT_URL, new PostSignOutRoute(playerServices, templateEngine));
     //get game.
-    get(GAME_URL, new GetGameRoute(playerServices, gameCenter, templateEngine));
+    // Send the player only what changed in their game.
+    get(GAME_STATE_URL, new GetGameStateRoute(playerServices, gameCenter, gson));
+    get(GAME_URL, new GetGameRoute(playerServices, gameCenter, leaderboardService, storage, pushService, templateEngine));
 
     post(CHECK_TURN_URL, new PostCheckTurnRoute(playerServices, gameCenter, templateEngine, gson));
     post(VALIDATE_MOVE_URL, new PostValidateMoveRoute(playerServices, gameCenter, templateEngine, gson));
     post(SUBMIT_TURN_URL, new PostSubmitTurnRoute(playerServices,gameCenter,templateEngine, gson));
+    // Validate and play a whole turn in one request.
+    post(PLAY_TURN_URL, new PostPlayTurnRoute(playerServices, gameCenter, gson));
     post(BACKUP_URL, new PostBackupMoveRoute(playerServices,gameCenter,templateEngine, gson));
-    get(RESIGN_URL, new PostResignGameRoute(playerServices, gameCenter, templateEngine, gson));
-    post(RESIGN_URL, new PostResignGameRoute(playerServices, gameCenter, templateEngine, gson));
+    get(RESIGN_URL, new PostResignGameRoute(playerServices, gameCenter, leaderboardService, storage, templateEngine, gson));
+    post(RESIGN_URL, new PostResignGameRoute(playerServices, gameCenter, leaderboardService, storage, templateEngine, gson));
+
+    // Watch a finished game again, turn by turn.
+    get(REPLAY_GAME_URL, new GetReplayGameRoute(playerServices, gameCenter, replayArchive, templateEngine));
+    post(REPLAY_NEXT_URL, new PostReplayTurnRoute(playerServices, gameCenter, replayArchive, 1));
+    post(REPLAY_PREVIOUS_URL, new PostReplayTurnRoute(playerServices, gameCenter, replayArchive, -1));
+    get(REPLAY_STOP_URL, new GetReplayStopWatchingRoute());
+
+    // Watch a match being played, from frames shared by every spectator.
+    get(SPECTATOR_GAME_URL, new GetSpectatorGameRoute(playerServices, gameCenter, spectatorService, templateEngine));
+    post(SPECTATOR_CHECK_TURN_URL, new PostSpectatorCheckTurnRoute(playerServices, gameCenter, spectatorService));
+    get(SPECTATOR_STOP_URL, new GetSpectatorStopWatchingRoute());
+
+    get(LEADERBOARD_URL, new GetLeaderboardRoute(leaderboardService, gson));
+    get(PLAYER_RANK_URL, new GetPlayerRankRoute(leaderboardService, gson));
+    get(PLAYER_SEARCH_URL, new GetPlayerSearchRoute(playerServices, leaderboardService, gson));
+    // Stream lobby changes to the Home page as they happen.
+    get(LOBBY_EVENTS_URL, lobbyEventsRoute);
+    // Let a scraper on this machine read the metrics.
+    get(METRICS_URL, new GetMetricsRoute(metrics));
+    // Let someone on this machine start and stop a flight recording.
+    post(PROFILE_URL, new PostProfileRoute(profiler, gson));
+    // Let someone on this machine work out every rating again from the game archive.
+    post(RATINGS_URL, new PostRatingsRoute(playerServices, gameCenter, leaderboardService, storage, gson));
+    // Time the routes above by path; any other path is counted together.
+    requestMetrics.track(HOME_URL, SIGNIN_URL, POST_SINGIN_URL, POST_SIGNOUT_URL, GAME_STATE_URL, GAME_URL,
+        CHECK_TURN_URL, VALIDATE_MOVE_URL, SUBMIT_TURN_URL, PLAY_TURN_URL, BACKUP_URL, RESIGN_URL,
+        LEADERBOARD_URL, PLAYER_RANK_URL, PLAYER_SEARCH_URL, LOBBY_EVENTS_URL, METRICS_URL, PROFILE_URL,
+        RATINGS_URL, REPLAY_GAME_URL, REPLAY_NEXT_URL, REPLAY_PREVIOUS_URL, REPLAY_STOP_URL,
+        SPECTATOR_GAME_URL, SPECTATOR_CHECK_TURN_URL, SPECTATOR_STOP_URL);
     //
     LOG.config("WebServer is initialized.");
   }
 
+  /**
+   * Stop Jetty and wait until it has stopped, so that no request is still
+   * being answered once this returns. Spark stops Jetty on a thread of its
+   * own, and says it has finished by no longer knowing its port.
+   *
+   * @param timeoutMillis
+   *    The longest to wait.
+   *
+   * @return
+   *    true if Jetty stopped in time
+   */
+  public boolean stop(long timeoutMillis) {
+    Spark.stop();
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    while (System.nanoTime() < deadline) {
+      try {
+        port();
+      } catch (IllegalStateException e) {
+        LOG.config("WebServer is stopped.");
+        return true;
+      }
+      try {
+        Thread.sleep(STOP_POLL_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    LOG.warning("WebServer did not stop within " + timeoutMillis + " ms.");
+    return false;
+  }
+
+  /**
+   * Stop the threads the routes keep running in the background; called when
+   * the server shuts down.
+   */
+  public void shutdown() {
+    lobbyEventsRoute.shutdown();
+    LOG.config("WebServer is shut down.");
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.webcheckers.util;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * Replaces files so that a crash leaves either the old contents or the new
+ * ones, never a mix. The new contents go to a temporary file next to the
+ * target, are forced to disk, and the temporary file is then renamed over the
+ * target in one step. Files that only grow are appended to and forced to disk
+ * instead, so a crash can at worst cut the last line short.
+ */
+public final class AtomicFiles {
+    private static final Logger LOG = Logger.getLogger(AtomicFiles.class.getName());
+
+    // added to the name of the target to name its temporary file
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Writes the new contents of a file.
+     */
+    public interface Content {
+        /**
+         * Write the contents; the writer must not be closed.
+         * @param writer where to write
+         * @throws IOException if writing fails
+         */
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Gets the temporary file used while replacing a file
+     * @param target the file being replaced
+     * @return the temporary file
+     */
+    public static Path tempFileFor(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Replace the contents of a file, durably and in one step.
+     * @param target the file to replace, created if it does not exist
+     * @param content writes the new contents
+     * @throws IOException if the file could not be replaced; the old contents are then untouched
+     */
+    public static void write(Path target, Content content) throws IOException {
+        Path temp = tempFileFor(target);
+        try (FileOutputStream out = new FileOutputStream(temp.toFile());
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            content.writeTo(writer);
+            writer.flush();
+            out.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        replace(temp, target);
+    }
+
+    /**
+     * Replace the contents of a file with bytes, durably and in one step.
+     * @param target the file to replace, created if it does not exist
+     * @param bytes the new contents
+     * @throws IOException if the file could not be replaced; the old contents are then untouched
+     */
+    public static void write(Path target, byte[] bytes) throws IOException {
+        Path temp = tempFileFor(target);
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            out.write(bytes);
+            out.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        replace(temp, target);
+    }
+
+    /**
+     * Add to the end of a file and force it to disk before returning.
+     * @param target the file to add to, created if it does not exist
+     * @param content writes what is added
+     * @throws IOException if it could not be written; part of it may then be in the file
+     */
+    public static void append(Path target, Content content) throws IOException {
+        boolean created = !Files.exists(target);
+        try (FileOutputStream out = new FileOutputStream(target.toFile(), true);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            content.writeTo(writer);
+            writer.flush();
+            out.getFD().sync();
+        }
+        if (created)
+            syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Rename a fully written temporary file over its target.
+     */
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Force the directory entry of a renamed or new file to disk. Not every platform
+     * can open a directory, in which case the entry is left to the file system.
+     * @param directory the directory holding the file
+     */
+    static void syncDirectory(Path directory) {
+        if (directory == null)
+            return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.finer("Could not sync directory " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.webcheckers.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small, fixed set of open database connections shared by every request.
+ *
+ * <p>
+ * Opening a connection costs far more than a simple query, so the connections
+ * are opened once and handed out in turn. A thread that finds them all in use
+ * waits for one to be given back.
+ * </p>
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Work done with a borrowed connection.
+     * @param <T> the type of the result
+     */
+    public interface SqlWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    //Attributes
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> all;
+    private volatile boolean closed = false;
+
+    /**
+     * Open every connection of the pool
+     * @param url the JDBC url of the database
+     * @param size the number of connections
+     * @throws SQLException if a connection could not be opened
+     */
+    public ConnectionPool(String url, int size) throws SQLException {
+        if (size < 1)
+            throw new IllegalArgumentException("size must be at least 1");
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.all = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = DriverManager.getConnection(url);
+                all.add(connection);
+                idle.add(connection);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of connections
+     * @return size of the pool
+     */
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * Borrow a connection, waiting for one if they are all in use.
+     * Every connection borrowed must be given back with {@link #release}.
+     * @return the connection
+     * @throws SQLException if the pool is closed or the wait was interrupted
+     */
+    public Connection borrow() throws SQLException {
+        if (closed)
+            throw new SQLException("The connection pool is closed");
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Give back a borrowed connection. A transaction left open is rolled back.
+     * @param connection the connection
+     */
+    public void release(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "Could not reset a pooled connection", e);
+        }
+        idle.offer(connection);
+    }
+
+    /**
+     * Run some work with a borrowed connection, giving it back afterwards.
+     * @param work the work
+     * @param <T> the type of the result
+     * @return the result of the work
+     * @throws SQLException if the work failed
+     */
+    public <T> T execute(SqlWork<T> work) throws SQLException {
+        Connection connection = borrow();
+        try {
+            return work.run(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    /**
+     * Close every connection; connections still borrowed are closed too
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Connection connection : all) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.log(Level.WARNING, "Could not close a pooled connection", e);
+            }
+        }
+        idle.clear();
+    }
+}
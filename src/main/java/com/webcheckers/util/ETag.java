@@ -0,0 +1,55 @@
+package com.webcheckers.util;
+
+/**
+ * Entity tags for responses that only change when some version moves on.
+ *
+ * <p>
+ * A tag is built from the parts that decide a response, typically an id and
+ * a version, so a client that sends back the tag it was given in
+ * {@code If-None-Match} can be answered {@code 304 Not Modified} without the
+ * response being built at all.
+ * </p>
+ */
+public final class ETag {
+
+    public static final String HEADER = "ETag";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+
+    private ETag() {
+    }
+
+    /**
+     * Build a tag
+     * @param parts what the response depends on; none may contain a quote
+     * @return the tag, quoted
+     */
+    public static String of(Object... parts) {
+        StringBuilder tag = new StringBuilder(32).append('"');
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0)
+                tag.append('-');
+            tag.append(parts[i]);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Checks whether a client already has a response
+     * @param ifNoneMatch the {@code If-None-Match} header, or null
+     * @param tag the tag of the current response
+     * @return true if the header holds the tag or {@code *}
+     */
+    public static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null)
+            return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            // weak comparison, as If-None-Match calls for
+            if (candidate.startsWith("W/"))
+                candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(tag))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,154 @@
+package com.webcheckers.util;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Hands events to subscribers, each through a queue of its own.
+ *
+ * <p>
+ * Publishing never blocks: an event is offered to the queue of every
+ * subscriber that wants it, and a subscriber whose queue is full has fallen
+ * too far behind, so it is dropped instead of holding up the publisher or
+ * the other subscribers. A dropped subscriber has missed events and should
+ * start again from scratch.
+ * </p>
+ *
+ * @param <E> the type of the events
+ */
+public class EventBus<E> {
+    private static final Logger LOG = Logger.getLogger(EventBus.class.getName());
+
+    /**
+     * One subscriber's queue of events not yet taken.
+     *
+     * @param <E> the type of the events
+     */
+    public static final class Subscription<E> {
+        private final EventBus<E> bus;
+        private final BlockingQueue<E> queue;
+        private final Predicate<? super E> filter;
+        private volatile Runnable listener = () -> { };
+        private volatile boolean dropped = false;
+
+        private Subscription(EventBus<E> bus, int capacity, Predicate<? super E> filter) {
+            this.bus = bus;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.filter = filter;
+        }
+
+        /**
+         * Set what to run after an event is queued or the subscription is dropped;
+         * it runs on the publisher's thread, so it should hand work off
+         * @param listener the listener
+         */
+        public void setListener(Runnable listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Take every event queued so far
+         * @param events where the events are added, oldest first
+         * @return the number of events taken
+         */
+        public int drainTo(Collection<? super E> events) {
+            return queue.drainTo(events);
+        }
+
+        /**
+         * Gets the number of events queued
+         * @return number of events
+         */
+        public int size() {
+            return queue.size();
+        }
+
+        /**
+         * Checks whether the subscriber fell behind and was dropped
+         * @return true if events were missed
+         */
+        public boolean isDropped() {
+            return dropped;
+        }
+
+        /**
+         * Stop receiving events
+         */
+        public void cancel() {
+            bus.subscriptions.remove(this);
+        }
+
+        /**
+         * Queue an event, or drop the subscription if its queue is full
+         */
+        private void offer(E event) {
+            if (!filter.test(event))
+                return;
+            if (!queue.offer(event)) {
+                dropped = true;
+                cancel();
+                bus.dropped.incrementAndGet();
+                LOG.fine("A subscriber fell behind and was dropped.");
+            }
+            listener.run();
+        }
+    }
+
+    //Attributes
+    private final Set<Subscription<E>> subscriptions = new CopyOnWriteArraySet<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Subscribe to every event
+     * @param capacity the most events queued before the subscriber is dropped
+     * @return the subscription
+     */
+    public Subscription<E> subscribe(int capacity) {
+        return subscribe(capacity, event -> true);
+    }
+
+    /**
+     * Subscribe to the events that pass a filter
+     * @param capacity the most events queued before the subscriber is dropped
+     * @param filter which events are wanted
+     * @return the subscription
+     */
+    public Subscription<E> subscribe(int capacity, Predicate<? super E> filter) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1");
+        Subscription<E> subscription = new Subscription<>(this, capacity, filter);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Offer an event to every subscriber
+     * @param event the event
+     */
+    public void publish(E event) {
+        for (Subscription<E> subscription : subscriptions)
+            subscription.offer(event);
+    }
+
+    /**
+     * Gets the number of subscribers
+     * @return number of subscribers
+     */
+    public int numSubscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Gets the number of subscribers dropped for falling behind
+     * @return number dropped
+     */
+    public long numDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,164 @@
+package com.webcheckers.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Makes changes durable in groups so that many writers share one slow write.
+ *
+ * <p>
+ * A writer queues its change and, if no group is being written, becomes the
+ * leader: it takes every change queued so far and writes them all at once.
+ * Changes queued while the leader is busy wait for the next group, which the
+ * first of their writers to wake up leads. Every writer returns only once its
+ * own change has been written, so a busy server pays for one write per group
+ * instead of one per change.
+ * </p>
+ *
+ * @param <T> the type of the changes
+ */
+public class GroupCommitter<T> {
+    private static final Logger LOG = Logger.getLogger(GroupCommitter.class.getName());
+
+    /**
+     * Writes a group of changes durably.
+     * @param <T> the type of the changes
+     */
+    public interface BatchWriter<T> {
+        /**
+         * Write every change of a group, oldest first.
+         * @param batch the changes
+         * @throws IOException if the group could not be written
+         */
+        void write(List<T> batch) throws IOException;
+    }
+
+    /**
+     * Changes queued together and, once their group is written, how that went.
+     */
+    private static final class Pending<T> {
+        private final List<T> changes;
+        private boolean done = false;
+        private boolean written = false;
+
+        private Pending(List<T> changes) {
+            this.changes = changes;
+        }
+    }
+
+    //Attributes
+    private final BatchWriter<T> writer;
+    private final Object lock = new Object();
+    private List<Pending<T>> queue = new ArrayList<>();
+    private boolean writing = false;
+    private long groups = 0;
+    private long changes = 0;
+
+    /**
+     * Constructor for a GroupCommitter
+     * @param writer writes each group
+     */
+    public GroupCommitter(BatchWriter<T> writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Queue a change and wait until it has been written.
+     * @param change the change
+     * @return true if it was written, false if writing its group failed
+     */
+    public boolean commit(T change) {
+        return commitAll(Collections.singletonList(change));
+    }
+
+    /**
+     * Queue several changes and wait until they have been written. They are
+     * always written in the same group.
+     * @param changes the changes, oldest first
+     * @return true if they were written, false if writing their group failed
+     */
+    public boolean commitAll(List<T> changes) {
+        if (changes.isEmpty())
+            return true;
+        Pending<T> pending = new Pending<>(new ArrayList<>(changes));
+        boolean interrupted = false;
+        List<Pending<T>> group;
+        try {
+            synchronized (lock) {
+                queue.add(pending);
+                while (!pending.done && writing) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // keep waiting, the change is already queued and will be written
+                        interrupted = true;
+                    }
+                }
+                if (pending.done)
+                    return pending.written;
+                // lead the next group
+                writing = true;
+                group = queue;
+                queue = new ArrayList<>();
+            }
+            return writeGroup(group);
+        } finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write a group as its leader and wake up everyone waiting on it.
+     * @param group the changes of the group
+     * @return true if the group was written
+     */
+    private boolean writeGroup(List<Pending<T>> group) {
+        boolean written = false;
+        try {
+            List<T> batch = new ArrayList<>();
+            for (Pending<T> queued : group)
+                batch.addAll(queued.changes);
+            writer.write(batch);
+            written = true;
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.SEVERE, "Could not write a group of " + group.size() + " commits", e);
+        } finally {
+            synchronized (lock) {
+                for (Pending<T> queued : group) {
+                    queued.done = true;
+                    queued.written = written;
+                    changes += queued.changes.size();
+                }
+                writing = false;
+                groups++;
+                lock.notifyAll();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Gets the number of groups written so far
+     * @return number of groups
+     */
+    public long getGroups() {
+        synchronized (lock) {
+            return groups;
+        }
+    }
+
+    /**
+     * Gets the number of changes written so far
+     * @return number of changes
+     */
+    public long getChanges() {
+        synchronized (lock) {
+            return changes;
+        }
+    }
+}
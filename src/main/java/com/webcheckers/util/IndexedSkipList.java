@@ -0,0 +1,333 @@
+package com.webcheckers.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * A sorted collection that also supports positional access.
+ *
+ * <p>
+ * This is an <a href='https://en.wikipedia.org/wiki/Skip_list#Indexable_skiplist'>indexable skip list</a>:
+ * every forward link remembers how many elements it skips over, so finding the
+ * element at a given index or the index of a given element costs O(log n), the
+ * same as an insertion or removal. The comparator must be a total order; two
+ * elements that compare as equal are treated as the same element.
+ * </p>
+ *
+ * <p>
+ * This class is not thread safe, callers are expected to guard it.
+ * </p>
+ *
+ * @param <E> the type of the elements
+ */
+public class IndexedSkipList<E> implements Iterable<E> {
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * A node of the list; {@code span[i]} is the number of level 0 steps that
+     * {@code next[i]} jumps over.
+     */
+    private static final class Node<E> {
+        private final E value;
+        private final Node<E>[] next;
+        private final int[] span;
+
+        @SuppressWarnings("unchecked")
+        private Node(E value, int level) {
+            this.value = value;
+            this.next = (Node<E>[]) new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    //Attributes
+    private final Comparator<? super E> comparator;
+    private final Node<E> head = new Node<>(null, MAX_LEVEL);
+    private final Random random;
+    private int level = 1;
+    private int size = 0;
+
+    /**
+     * Create an empty list ordered by the given comparator.
+     * @param comparator    - the total order of the elements
+     */
+    public IndexedSkipList(Comparator<? super E> comparator) {
+        this(comparator, new Random());
+    }
+
+    /**
+     * Create an empty list ordered by the given comparator.
+     * @param comparator    - the total order of the elements
+     * @param random        - the source of node heights
+     */
+    public IndexedSkipList(Comparator<? super E> comparator, Random random) {
+        this.comparator = Objects.requireNonNull(comparator, "comparator must not be null");
+        this.random = Objects.requireNonNull(random, "random must not be null");
+    }
+
+    /**
+     * Gets the number of elements
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the list holds no elements
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Pick the height of a new node, each level is half as likely as the one below.
+     * @return a level between 1 and MAX_LEVEL
+     */
+    private int randomLevel() {
+        int lvl = 1;
+        while (lvl < MAX_LEVEL && random.nextBoolean())
+            lvl++;
+        return lvl;
+    }
+
+    /**
+     * Insert an element at its sorted position.
+     * @param value the element to add
+     * @return false if an equal element is already in the list
+     */
+    @SuppressWarnings("unchecked")
+    public boolean add(E value) {
+        Objects.requireNonNull(value, "value must not be null");
+        Node<E>[] update = (Node<E>[]) new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        if (x.next[0] != null && comparator.compare(x.next[0].value, value) == 0)
+            return false;
+
+        int lvl = randomLevel();
+        if (lvl > level) {
+            for (int i = level; i < lvl; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = lvl;
+        }
+        Node<E> node = new Node<>(value, lvl);
+        for (int i = 0; i < lvl; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            // split the span of the link that now points at the new node
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        // links above the new node now jump over one more element
+        for (int i = lvl; i < level; i++)
+            update[i].span[i]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove the element equal to the given one.
+     * @param value the element to remove
+     * @return true if it was found and removed
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(E value) {
+        Objects.requireNonNull(value, "value must not be null");
+        Node<E>[] update = (Node<E>[]) new Node[MAX_LEVEL];
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0)
+                x = x.next[i];
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || comparator.compare(x.value, value) != 0)
+            return false;
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null)
+            level--;
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks if an element equal to the given one is in the list
+     * @param value the element
+     * @return true if found
+     */
+    public boolean contains(E value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Gets the position of an element in sorted order.
+     * @param value the element
+     * @return the zero based index, or -1 if it is not in the list
+     */
+    public int indexOf(E value) {
+        Objects.requireNonNull(value, "value must not be null");
+        int rank = 0;
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && comparator.compare(x.value, value) == 0)
+                return rank - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the node at a zero based index.
+     */
+    private Node<E> nodeAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        int target = index + 1;
+        int traversed = 0;
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == target)
+                return x;
+        }
+        throw new IllegalStateException("skip list spans are corrupt");
+    }
+
+    /**
+     * Gets the element at a zero based index.
+     * @param index the position
+     * @return the element at that position
+     */
+    public E get(int index) {
+        return nodeAt(index).value;
+    }
+
+    /**
+     * Copies out a run of consecutive elements; costs O(log n + count).
+     * @param from  the index of the first element
+     * @param count the maximum number of elements
+     * @return the elements, fewer than count if the list ends first
+     */
+    public List<E> subList(int from, int count) {
+        List<E> result = new ArrayList<>(Math.max(0, Math.min(count, size - from)));
+        if (from < 0 || from >= size || count <= 0)
+            return result;
+        Node<E> x = nodeAt(from);
+        while (x != null && result.size() < count) {
+            result.add(x.value);
+            x = x.next[0];
+        }
+        return result;
+    }
+
+    /**
+     * Replace the contents of the list with elements that are already in order.
+     * Every element is appended at the tail, so this costs O(n) rather than the
+     * O(n log n) of adding them one at a time.
+     * @param sorted the elements, strictly increasing by the comparator
+     * @throws IllegalArgumentException if the elements are out of order or repeated
+     */
+    @SuppressWarnings("unchecked")
+    public void loadSorted(List<? extends E> sorted) {
+        clear();
+        // the last node seen at each level and its 1-based position, the head being 0
+        Node<E>[] last = (Node<E>[]) new Node[MAX_LEVEL];
+        int[] lastRank = new int[MAX_LEVEL];
+        for (int i = 0; i < MAX_LEVEL; i++)
+            last[i] = head;
+        E previous = null;
+        int rank = 0;
+        for (E value : sorted) {
+            Objects.requireNonNull(value, "value must not be null");
+            if (previous != null && comparator.compare(previous, value) >= 0) {
+                clear();
+                throw new IllegalArgumentException("elements are not in strictly increasing order at " + rank);
+            }
+            previous = value;
+            rank++;
+            int lvl = randomLevel();
+            if (lvl > level)
+                level = lvl;
+            Node<E> node = new Node<>(value, lvl);
+            for (int i = 0; i < lvl; i++) {
+                last[i].next[i] = node;
+                last[i].span[i] = rank - lastRank[i];
+                last[i] = node;
+                lastRank[i] = rank;
+            }
+        }
+        size = rank;
+        // the last link of each level runs to the end of the list
+        for (int i = 0; i < level; i++)
+            last[i].span[i] = size - lastRank[i];
+    }
+
+    /**
+     * Remove every element.
+     */
+    public void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    /**
+     * Iterate over the elements in sorted order.
+     * @return the iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Node<E> current = head.next[0];
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public E next() {
+                if (current == null)
+                    throw new NoSuchElementException();
+                E value = current.value;
+                current = current.next[0];
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.webcheckers.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long something took, in microseconds, so that percentiles can
+ * be read back to within about 3%.
+ *
+ * <p>
+ * Buckets are laid out as in an HDR histogram: values below
+ * {@link #SUB_BUCKETS} get a bucket each, and every doubling above that is
+ * split into {@link #SUB_BUCKETS} buckets of equal width, so a bucket is never
+ * wider than 1/32 of the values in it. Recording is one atomic increment of a
+ * bucket plus two adders, with no locks and no allocation, so any number of
+ * request threads may record at once. Values past about 19 hours are counted
+ * in the top bucket.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // the largest value with a bucket of its own, in microseconds
+    public static final long MAX_MICROS = (1L << 36) - 1;
+    private static final int NUM_BUCKETS = index(MAX_MICROS) + 1;
+
+    //Attributes
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Count one time taken
+     * @param nanos the time, in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Count one time taken
+     * @param micros the time, in microseconds
+     */
+    public void record(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_MICROS);
+        buckets.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value))
+            seen = max.get();
+    }
+
+    /**
+     * Gets the number of times counted
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the total of the times counted
+     * @return the total, in microseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the longest time counted
+     * @return the longest time, in microseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets a percentile of the times counted. Times still being counted may or
+     * may not be included.
+     * @param quantile the fraction of times at or below the answer, from 0 to 1
+     * @return the time, in microseconds, or 0 if nothing was counted
+     */
+    public long percentile(double quantile) {
+        return percentiles(quantile)[0];
+    }
+
+    /**
+     * Gets several percentiles of the times counted in one pass
+     * @param quantiles the fractions of times at or below each answer, from 0 to 1, in increasing order
+     * @return the times, in microseconds, or 0 if nothing was counted
+     */
+    public long[] percentiles(double... quantiles) {
+        long[] counts = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long[] answers = new long[quantiles.length];
+        if (total == 0)
+            return answers;
+        long highest = max.get();
+        int bucket = 0;
+        long seen = counts[0];
+        for (int q = 0; q < quantiles.length; q++) {
+            if (quantiles[q] < 0 || quantiles[q] > 1 || (q > 0 && quantiles[q] < quantiles[q - 1]))
+                throw new IllegalArgumentException("quantiles must be from 0 to 1, in increasing order");
+            long rank = Math.max(1, (long) Math.ceil(quantiles[q] * total));
+            while (seen < rank && bucket < NUM_BUCKETS - 1)
+                seen += counts[++bucket];
+            answers[q] = Math.min(highest(bucket), highest);
+        }
+        return answers;
+    }
+
+    /**
+     * Gets the bucket of a value
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the largest value of a bucket
+     */
+    static long highest(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = (index >> SUB_BITS) - 1;
+        long lowest = (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
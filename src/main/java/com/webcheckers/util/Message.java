@@ -1,5 +1,11 @@
 package com.webcheckers.util;
 
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
 /**
@@ -11,6 +17,12 @@ import java.util.logging.Logger;
  * This implementation is immutable and also supports a JSON representation.
  * </p>
  *
+ * <p>
+ * The JSON is the same as Gson writes for the object. It is encoded the first
+ * time it is asked for and kept, so a constant message is sent as the same
+ * bytes every time without being serialized again.
+ * </p>
+ *
  * @author <a href='mailto:bdbvse@rit.edu'>Bryan Basham</a>
  */
 public final class Message {
@@ -59,6 +71,8 @@ public final class Message {
 
   private final String text;
   private final Type type;
+  // the JSON, once encoded; transient so Gson leaves it out
+  private transient volatile byte[] json;
 
   //
   // Constructor
@@ -104,6 +118,42 @@ public final class Message {
       return !type.equals(Type.ERROR);
   }
 
+  /**
+   * Write the fields of the message into a JSON object being written.
+   *
+   * @param writer  the writer, inside an object
+   * @throws IOException if the writer fails
+   */
+  public void writeFields(final JsonWriter writer) throws IOException {
+      writer.name("text").value(text);
+      writer.name("type").value(type == null ? null : type.name());
+  }
+
+  /**
+   * Get the message as JSON, encoded as UTF-8.
+   *
+   * @return the JSON; shared, so it must not be changed
+   */
+  public byte[] toJsonBytes() {
+      byte[] bytes = json;
+      if (bytes == null) {
+          StringWriter text = new StringWriter(64);
+          try (JsonWriter writer = new JsonWriter(text)) {
+              // as Gson writes by default
+              writer.setHtmlSafe(true);
+              writer.setSerializeNulls(false);
+              writer.beginObject();
+              writeFields(writer);
+              writer.endObject();
+          } catch (IOException e) {
+              throw new UncheckedIOException(e);
+          }
+          bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+          json = bytes;
+      }
+      return bytes;
+  }
+
   //
   // Object methods
   //
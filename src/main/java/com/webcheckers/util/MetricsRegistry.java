@@ -0,0 +1,183 @@
+package com.webcheckers.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counters, gauges and latency summaries by name and labels, written out in
+ * the Prometheus text format.
+ *
+ * <p>
+ * Each metric belongs to a family: a name, a help line and a type, with one
+ * series per set of labels. Looking a series up creates it the first time;
+ * callers that record often keep the {@link LongAdder} or
+ * {@link LatencyHistogram} they are given rather than looking it up again.
+ * Latencies are written as summaries, in seconds, with the quantiles in
+ * {@link #QUANTILES}.
+ * </p>
+ */
+public class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * The kinds of metric.
+     */
+    enum Type {counter, gauge, summary}
+
+    /**
+     * The series of one metric name.
+     */
+    private static final class Family {
+        private final String help;
+        private final Type type;
+        // labels, already written as {key="value",...}, to what is counted
+        private final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        private Family(String help, Type type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    //Attributes
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets a counter
+     * @param name the name of the metric
+     * @param help what it counts
+     * @param labels label names and values, alternately
+     * @return the counter
+     */
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) series(name, help, Type.counter, labels, LongAdder::new);
+    }
+
+    /**
+     * Gets a latency summary
+     * @param name the name of the metric, ending in {@code _seconds}
+     * @param help what it times
+     * @param labels label names and values, alternately
+     * @return the histogram the summary is read from
+     */
+    public LatencyHistogram summary(String name, String help, String... labels) {
+        return (LatencyHistogram) series(name, help, Type.summary, labels, LatencyHistogram::new);
+    }
+
+    /**
+     * Add a gauge, read each time the metrics are written
+     * @param name the name of the metric
+     * @param help what it measures
+     * @param value reads the value
+     * @param labels label names and values, alternately
+     */
+    public void gauge(String name, String help, Supplier<? extends Number> value, String... labels) {
+        series(name, help, Type.gauge, labels, () -> value);
+    }
+
+    /**
+     * Find or add a series
+     */
+    private Object series(String name, String help, Type type, String[] labels, Supplier<?> create) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (family.type != type)
+            throw new IllegalArgumentException(name + " is a " + family.type + ", not a " + type);
+        return family.series.computeIfAbsent(labels(labels), key -> create.get());
+    }
+
+    /**
+     * Write label names and values as {key="value",...}
+     */
+    private static String labels(String[] labels) {
+        if (labels.length % 2 != 0)
+            throw new IllegalArgumentException("labels are names and values, alternately");
+        if (labels.length == 0)
+            return "";
+        StringBuilder text = new StringBuilder().append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0)
+                text.append(',');
+            text.append(labels[i]).append("=\"");
+            escape(labels[i + 1], text);
+            text.append('"');
+        }
+        return text.append('}').toString();
+    }
+
+    /**
+     * Escape a label value
+     */
+    private static void escape(String value, StringBuilder text) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"')
+                text.append('\\').append(c);
+            else if (c == '\n')
+                text.append("\\n");
+            else
+                text.append(c);
+        }
+    }
+
+    /**
+     * Add a label to labels already written
+     */
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    /**
+     * Write every metric in the Prometheus text format
+     * @return the metrics
+     */
+    @SuppressWarnings("unchecked")
+    public String scrape() {
+        StringBuilder text = new StringBuilder(4096);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            text.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                switch (family.type) {
+                    case counter:
+                        line(text, name, labels, ((LongAdder) series.getValue()).sum());
+                        break;
+                    case gauge:
+                        Number value = ((Supplier<? extends Number>) series.getValue()).get();
+                        line(text, name, labels, value == null ? Double.NaN : value.doubleValue());
+                        break;
+                    case summary:
+                        LatencyHistogram histogram = (LatencyHistogram) series.getValue();
+                        long[] micros = histogram.percentiles(QUANTILES);
+                        for (int q = 0; q < QUANTILES.length; q++)
+                            line(text, name, withLabel(labels, "quantile", Double.toString(QUANTILES[q])),
+                                    micros[q] / 1e6);
+                        line(text, name + "_sum", labels, histogram.getSum() / 1e6);
+                        line(text, name + "_count", labels, histogram.getCount());
+                        break;
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Write one sample
+     */
+    private static void line(StringBuilder text, String name, String labels, double value) {
+        text.append(name).append(labels).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15)
+            text.append((long) value);
+        else
+            text.append(String.format(Locale.ROOT, "%.6g", value));
+        text.append('\n');
+    }
+}
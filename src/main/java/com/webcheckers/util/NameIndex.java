@@ -0,0 +1,128 @@
+package com.webcheckers.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Values kept by name in name order, for looking names up by prefix.
+ *
+ * <p>
+ * Names are ordered ignoring case first, so every name starting with a prefix,
+ * in any case, sits in one run of the index. Finding the first k matches is
+ * O(log n + k) whatever the size of the index. The index is a concurrent skip
+ * list, so it may be read while it is being changed without any locking.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public class NameIndex<V> {
+
+    // case-insensitive order, with exact order to tell names apart that only differ in case
+    private static final Comparator<String> ORDER =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.<String>naturalOrder());
+
+    //Attributes
+    private final ConcurrentSkipListMap<String, V> index = new ConcurrentSkipListMap<>(ORDER);
+    // the skip list counts itself by walking every name, so the size is kept here
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Add a value, replacing any value with the same name
+     * @param name the name
+     * @param value the value
+     * @return the value replaced, or null
+     */
+    public V put(String name, V value) {
+        V old = index.put(name, value);
+        if (old == null)
+            size.incrementAndGet();
+        return old;
+    }
+
+    /**
+     * Add a value unless the name is taken
+     * @param name the name
+     * @param value the value
+     * @return true if it was added
+     */
+    public boolean putIfAbsent(String name, V value) {
+        if (index.putIfAbsent(name, value) != null)
+            return false;
+        size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Remove the value of a name
+     * @param name the name
+     * @return the value removed, or null
+     */
+    public V remove(String name) {
+        V old = index.remove(name);
+        if (old != null)
+            size.decrementAndGet();
+        return old;
+    }
+
+    /**
+     * Gets the value of a name, which must match exactly
+     * @param name the name
+     * @return the value, or null
+     */
+    public V get(String name) {
+        return name == null ? null : index.get(name);
+    }
+
+    /**
+     * Gets the number of names
+     * @return size of the index
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Remove every name, not to be mixed with other changes
+     */
+    public void clear() {
+        index.clear();
+        size.set(0);
+    }
+
+    /**
+     * Gets a live view of every value, in name order
+     * @return the values
+     */
+    public Collection<V> values() {
+        return index.values();
+    }
+
+    /**
+     * Gets the first values whose names start with a prefix, ignoring case
+     * @param prefix the prefix, empty matches every name
+     * @param limit the most values to return
+     * @return at most limit values, in name order
+     */
+    public List<V> startingWith(String prefix, int limit) {
+        List<V> matches = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        if (limit <= 0)
+            return matches;
+        // of the names equal to the prefix ignoring case, the upper case one comes first
+        String from = prefix.toUpperCase(Locale.ROOT);
+        for (Map.Entry<String, V> entry : index.tailMap(from, true).entrySet()) {
+            String name = entry.getKey();
+            if (!name.regionMatches(true, 0, prefix, 0, prefix.length()))
+                break;
+            matches.add(entry.getValue());
+            if (matches.size() == limit)
+                break;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,146 @@
+package com.webcheckers.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events the server writes around the work that
+ * decides its latency.
+ *
+ * <p>
+ * Each event is begun before the work and committed after it, so it carries
+ * how long the work took as well as its fields. While no recording has an
+ * event enabled, begin and commit do nothing and the JIT drops them, so the
+ * events stay in place in production. Recordings are started with
+ * {@link Profiler} or {@code -XX:StartFlightRecording}, and read with JDK
+ * Mission Control or {@code jfr print --categories WebCheckers}.
+ * </p>
+ */
+public final class ProfileEvents {
+
+    public static final String CATEGORY = "WebCheckers";
+
+    private ProfileEvents() {
+    }
+
+    /**
+     * Validating, submitting or playing the moves of a match.
+     */
+    @Name("webcheckers.Match")
+    @Label("Match Operation")
+    @Category({CATEGORY, "Game"})
+    @Description("A move validated or a turn played")
+    public static class MatchEvent extends Event {
+        public static final String VALIDATE = "validateMove";
+        public static final String SUBMIT = "submitTurn";
+        public static final String PLAY = "playTurn";
+
+        @Label("Operation")
+        public String operation;
+        @Label("Match")
+        public long matchId;
+        @Label("Player")
+        public String player;
+
+        /**
+         * Start timing an operation
+         * @param operation what is being done
+         * @param matchId the id of the match
+         * @param player the name of the player whose turn it is
+         * @return the event, to be committed when the operation ends
+         */
+        public static MatchEvent begin(String operation, long matchId, String player) {
+            MatchEvent event = new MatchEvent();
+            event.operation = operation;
+            event.matchId = matchId;
+            event.player = player;
+            event.begin();
+            return event;
+        }
+    }
+
+    /**
+     * Loading, updating or snapshotting the rankings.
+     */
+    @Name("webcheckers.Leaderboard")
+    @Label("Leaderboard Rebuild")
+    @Category({CATEGORY, "Leaderboard"})
+    @Description("Rankings loaded, a player moved, or the first page rebuilt")
+    public static class LeaderboardEvent extends Event {
+        public static final String LOAD = "load";
+        public static final String UPDATE = "update";
+        public static final String SNAPSHOT = "snapshot";
+
+        @Label("Operation")
+        public String operation;
+        @Label("Player")
+        public String player;
+        @Label("Players")
+        public int players;
+
+        /**
+         * Start timing a change to the rankings
+         * @param operation what is being done
+         * @param player the player moved, or null
+         * @return the event, to be committed when the change ends
+         */
+        public static LeaderboardEvent begin(String operation, String player) {
+            LeaderboardEvent event = new LeaderboardEvent();
+            event.operation = operation;
+            event.player = player;
+            event.begin();
+            return event;
+        }
+    }
+
+    /**
+     * Writing player statistics to storage.
+     */
+    @Name("webcheckers.StatsWrite")
+    @Label("Statistics Write")
+    @Category({CATEGORY, "Storage"})
+    @Description("Player records written to the statistics file or database")
+    public static class StatsWriteEvent extends Event {
+        @Label("Store")
+        public String store;
+        @Label("Player")
+        public String player;
+        @Label("Records")
+        public int records;
+        @Label("Saved")
+        public boolean saved;
+
+        /**
+         * Start timing a write
+         * @param store where the records go
+         * @param player the player written, or the first of several
+         * @param records how many records are written
+         * @return the event, to be committed when the write ends
+         */
+        public static StatsWriteEvent begin(String store, String player, int records) {
+            StatsWriteEvent event = new StatsWriteEvent();
+            event.store = store;
+            event.player = player;
+            event.records = records;
+            event.begin();
+            return event;
+        }
+    }
+
+    /**
+     * Rendering a page template.
+     */
+    @Name("webcheckers.TemplateRender")
+    @Label("Template Render")
+    @Category({CATEGORY, "UI"})
+    @Description("A page rendered from its template")
+    public static class TemplateRenderEvent extends Event {
+        @Label("Template")
+        public String template;
+        @Label("Characters")
+        public int length;
+    }
+}
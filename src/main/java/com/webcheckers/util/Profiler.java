@@ -0,0 +1,118 @@
+package com.webcheckers.util;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Starts and stops one flight recording at a time, written to a local file.
+ *
+ * <p>
+ * A recording uses the JDK's {@code profile} settings, with every
+ * {@link ProfileEvents} event enabled and no threshold, so a slow move, page
+ * or statistics write can be lined up with the method samples, locks and
+ * garbage collections around it. A recording left running stops itself after
+ * {@link #MAX_DURATION} and is still written out.
+ * </p>
+ */
+public class Profiler {
+    private static final Logger LOG = Logger.getLogger(Profiler.class.getName());
+
+    public static final Duration MAX_DURATION = Duration.ofMinutes(30);
+    public static final String SETTINGS = "profile";
+    private static final String[] EVENTS = {
+            "webcheckers.Match", "webcheckers.Leaderboard", "webcheckers.StatsWrite", "webcheckers.TemplateRender"
+    };
+
+    //Attributes
+    private final Path directory;
+    private Recording recording;
+    private Path file;
+
+    /**
+     * Profiler constructor
+     * @param directory where recordings are written
+     */
+    public Profiler(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Start a recording, unless one is running
+     * @return the file it will be written to
+     * @throws IOException if the recording could not be started
+     */
+    public synchronized Path start() throws IOException {
+        if (isRecording())
+            return file;
+        // one that stopped itself has already been written out
+        if (recording != null)
+            recording.close();
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(SETTINGS));
+        } catch (ParseException e) {
+            throw new IOException("Could not read the " + SETTINGS + " settings", e);
+        }
+        for (String event : EVENTS)
+            started.enable(event).withThreshold(Duration.ZERO);
+        Files.createDirectories(directory);
+        Path target = directory.resolve("webcheckers-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jfr");
+        started.setName("WebCheckers");
+        started.setToDisk(true);
+        started.setDestination(target);
+        started.setDuration(MAX_DURATION);
+        started.start();
+        recording = started;
+        file = target;
+        LOG.info("Started a flight recording to " + target);
+        return target;
+    }
+
+    /**
+     * Stop the recording and write it out
+     * @return the file it was written to, or null if nothing was recording
+     */
+    public synchronized Path stop() {
+        if (recording == null)
+            return null;
+        try {
+            if (recording.getState() == RecordingState.RUNNING)
+                recording.stop();
+        } catch (IllegalStateException e) {
+            LOG.log(Level.WARNING, "Flight recording had already stopped", e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        LOG.info("Wrote a flight recording to " + file);
+        return file;
+    }
+
+    /**
+     * Checks whether a recording is running
+     * @return true if it is
+     */
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Gets the file of the latest recording
+     * @return the file, or null if nothing was recorded
+     */
+    public synchronized Path getFile() {
+        return file;
+    }
+}
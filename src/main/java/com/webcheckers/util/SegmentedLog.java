@@ -0,0 +1,390 @@
+package com.webcheckers.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of records on disk, written durably in groups.
+ *
+ * <p>
+ * Every record gets the next sequence number and is framed by its length, a
+ * CRC-32 of its sequence number and bytes, and its sequence number. Records
+ * are appended to the newest segment, a file named after the sequence number
+ * of its first record; once it reaches the segment size the next record
+ * starts a new one. Appends are written by a {@link GroupCommitter}, so a
+ * busy server forces the log to disk once per group rather than once per
+ * record, and an append returns only once its record is on disk.
+ * </p>
+ *
+ * <p>
+ * A crash can leave the last record half written. Opening the log cuts the
+ * newest segment back to its last whole record; reading stops a segment at
+ * the first record whose checksum does not match. Segments older than a
+ * snapshot of what they record can be deleted with {@link #deleteBefore}.
+ * </p>
+ */
+public class SegmentedLog implements Closeable {
+    private static final Logger LOG = Logger.getLogger(SegmentedLog.class.getName());
+
+    public static final long DEFAULT_SEGMENT_BYTES = 8L << 20;
+    public static final String SEGMENT_SUFFIX = ".log";
+    // the length, checksum and sequence number in front of every record
+    private static final int FRAME_BYTES = 16;
+    // larger lengths are taken for damage rather than records
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    /**
+     * Reads the records of a log.
+     */
+    public interface RecordReader {
+        /**
+         * Read one record
+         * @param sequence the sequence number of the record
+         * @param record the bytes of the record
+         */
+        void read(long sequence, byte[] record);
+    }
+
+    /**
+     * A record waiting for its group to be written, which gives it its sequence number.
+     */
+    private static final class Append {
+        private final byte[] record;
+        private long sequence;
+
+        private Append(byte[] record) {
+            this.record = record;
+        }
+    }
+
+    //Attributes
+    private final Path dir;
+    private final long segmentBytes;
+    private final GroupCommitter<Append> committer = new GroupCommitter<>(this::writeBatch);
+    // the fields below are only used by the leader of a group, or under the log's lock
+    private FileChannel segment;
+    private Path segmentPath;
+    private long segmentSize;
+    private volatile long nextSequence = 1;
+
+    /**
+     * Constructor for a SegmentedLog; the log is read and written once opened
+     * @param dir the directory of the segments, created when the log is opened
+     * @param segmentBytes the size a segment is rolled over at
+     */
+    public SegmentedLog(Path dir, long segmentBytes) {
+        if (segmentBytes <= FRAME_BYTES)
+            throw new IllegalArgumentException("segmentBytes must be larger than " + FRAME_BYTES);
+        this.dir = dir.toAbsolutePath().normalize();
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Open the log for appending after its last whole record, cutting off a
+     * record left half written
+     * @throws IOException if the log could not be opened
+     */
+    public synchronized void open() throws IOException {
+        if (segment != null)
+            return;
+        Files.createDirectories(dir);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            startSegment(nextSequence);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long[] end = {firstSequence(last) - 1, 0};
+        long valid = readSegment(last, (sequence, record) -> end[0] = sequence);
+        segment = FileChannel.open(last, StandardOpenOption.WRITE);
+        segmentPath = last;
+        if (segment.size() > valid) {
+            LOG.warning("Cut " + (segment.size() - valid) + " bytes of a damaged record off " + last.getFileName());
+            segment.truncate(valid);
+            segment.force(true);
+        }
+        segment.position(valid);
+        segmentSize = valid;
+        nextSequence = end[0] + 1;
+    }
+
+    /**
+     * Append a record and wait until it is on disk
+     * @param record the bytes of the record
+     * @return the sequence number of the record, or -1 if it could not be written
+     */
+    public long append(byte[] record) {
+        if (record.length > MAX_RECORD_BYTES)
+            throw new IllegalArgumentException("record of " + record.length + " bytes is too large");
+        Append append = new Append(record);
+        return committer.commit(append) ? append.sequence : -1;
+    }
+
+    /**
+     * Gets the sequence number the next record appended will get
+     * @return the next sequence number
+     */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Read every record, oldest first
+     * @param reader reads each record
+     * @throws IOException if a segment could not be read
+     */
+    public void read(RecordReader reader) throws IOException {
+        read(0, reader);
+    }
+
+    /**
+     * Read the records from a sequence number on, oldest first
+     * @param from the sequence number of the first record to read
+     * @param reader reads each record
+     * @throws IOException if a segment could not be read
+     */
+    public void read(long from, RecordReader reader) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            // a segment ends before the one after it starts
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= from)
+                continue;
+            readSegment(segments.get(i), (sequence, record) -> {
+                if (sequence >= from)
+                    reader.read(sequence, record);
+            });
+        }
+    }
+
+    /**
+     * Delete the segments holding only records before a sequence number. The
+     * newest segment is kept.
+     * @param sequence the sequence number of the first record to keep
+     * @return the number of segments deleted
+     */
+    public synchronized int deleteBefore(long sequence) {
+        int deleted = 0;
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= sequence; i++) {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not delete old segments of " + dir, e);
+        }
+        return deleted;
+    }
+
+    /**
+     * Gets the number of groups written so far
+     * @return number of groups
+     */
+    public long getGroups() {
+        return committer.getGroups();
+    }
+
+    /**
+     * Close the log; appends fail from now on
+     */
+    @Override
+    public synchronized void close() {
+        if (segment == null)
+            return;
+        try {
+            segment.force(true);
+            segment.close();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not close " + dir, e);
+        }
+        segment = null;
+    }
+
+    /**
+     * Write a group of records, starting new segments as they fill up, and
+     * force them to disk. A group that fails part way is taken back off the
+     * log, so the next group follows the last one written.
+     */
+    private synchronized void writeBatch(List<Append> batch) throws IOException {
+        if (segment == null)
+            throw new IOException("log " + dir + " is not open");
+        Path first = segmentPath;
+        long size = segmentSize;
+        try {
+            writeRecords(batch);
+        } catch (IOException e) {
+            rollBack(first, size);
+            throw e;
+        }
+    }
+
+    /**
+     * Write the records of a group after the last one written
+     */
+    private void writeRecords(List<Append> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CRC32 crc = new CRC32();
+        long sequence = nextSequence;
+        for (Append append : batch) {
+            int frame = FRAME_BYTES + append.record.length;
+            // a record larger than a segment gets a segment of its own
+            if (segmentSize + bytes.size() > 0 && segmentSize + bytes.size() + frame > segmentBytes) {
+                writeFully(bytes.toByteArray());
+                bytes.reset();
+                segment.force(false);
+                segment.close();
+                startSegment(sequence);
+            }
+            crc.reset();
+            crc.update(ByteBuffer.allocate(8).putLong(0, sequence).array(), 0, 8);
+            crc.update(append.record, 0, append.record.length);
+            out.writeInt(append.record.length);
+            out.writeInt((int) crc.getValue());
+            out.writeLong(sequence);
+            out.write(append.record);
+            append.sequence = sequence++;
+        }
+        writeFully(bytes.toByteArray());
+        segment.force(false);
+        nextSequence = sequence;
+    }
+
+    /**
+     * Cut a failed group off the log: delete the segments it started and cut
+     * the segment it started in back to its size before. If even that fails
+     * the log is closed, and opening it again cuts off what cannot be read.
+     */
+    private void rollBack(Path first, long size) {
+        try {
+            if (!first.equals(segmentPath) || !segment.isOpen()) {
+                segment.close();
+                for (Path path : segments())
+                    if (path.compareTo(first) > 0)
+                        Files.deleteIfExists(path);
+                segment = FileChannel.open(first, StandardOpenOption.WRITE);
+                segmentPath = first;
+            }
+            segment.truncate(size);
+            segment.position(size);
+            segment.force(true);
+            segmentSize = size;
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Could not take a failed group off " + first + "; closing the log", e);
+            try {
+                segment.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+            segment = null;
+        }
+    }
+
+    /**
+     * Write bytes at the end of the newest segment
+     */
+    private void writeFully(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining())
+            segment.write(buffer);
+        segmentSize += bytes.length;
+    }
+
+    /**
+     * Start a new segment, for records from a sequence number on
+     */
+    private void startSegment(long first) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", first, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segmentPath = path;
+        segmentSize = 0;
+        // the new file's entry is forced too, or a crash could lose the segment its records were forced to
+        AtomicFiles.syncDirectory(dir);
+    }
+
+    /**
+     * Read the whole records of a segment
+     * @return the number of bytes they take up
+     */
+    private static long readSegment(Path path, RecordReader reader) throws IOException {
+        long valid = 0;
+        long expected = firstSequence(path);
+        CRC32 crc = new CRC32();
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return valid;
+                }
+                if (length < 0 || length > MAX_RECORD_BYTES)
+                    break;
+                byte[] frame = new byte[8 + length];
+                int checksum;
+                try {
+                    checksum = in.readInt();
+                    in.readFully(frame);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(frame, 0, frame.length);
+                long sequence = ByteBuffer.wrap(frame).getLong();
+                if ((int) crc.getValue() != checksum || sequence != expected)
+                    break;
+                byte[] record = new byte[length];
+                System.arraycopy(frame, 8, record, 0, length);
+                reader.read(sequence, record);
+                valid += FRAME_BYTES + length;
+                expected++;
+            }
+        }
+        LOG.warning("Stopped reading " + path.getFileName() + " at a damaged record, " + valid + " bytes in.");
+        return valid;
+    }
+
+    /**
+     * Gets the segments of the log, oldest first
+     */
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir))
+            return segments;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files)
+                segments.add(file);
+        }
+        // names are zero padded, so they sort in the order of their sequence numbers
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Gets the sequence number of the first record of a segment, from its name
+     */
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.webcheckers.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A version number that waiters can be told about when it moves on.
+ *
+ * <p>
+ * A waiter registers the version it has seen along with a callback. The
+ * callback runs once, on the thread that advances the version, as soon as
+ * the version differs from the one seen; if it already does, the waiter is
+ * told at once instead of being registered. Nobody blocks a thread while
+ * waiting, so a request held until something changes costs only its
+ * callback.
+ * </p>
+ */
+public class VersionedSignal {
+    private static final Logger LOG = Logger.getLogger(VersionedSignal.class.getName());
+
+    //Attributes
+    private long version = 0;
+    private List<Runnable> waiters = new ArrayList<>();
+
+    /**
+     * Gets the current version
+     * @return the version
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Move to the next version and tell every waiter
+     * @return the new version
+     */
+    public long advance() {
+        List<Runnable> woken;
+        long current;
+        synchronized (this) {
+            current = ++version;
+            woken = waiters;
+            waiters = new ArrayList<>();
+        }
+        // waiters run outside the lock so they may read the new state freely
+        for (Runnable waiter : woken) {
+            try {
+                waiter.run();
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "A waiter failed", e);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Wait for the version to move on from one already seen
+     * @param seen the version the waiter has seen
+     * @param waiter run once the version differs from seen
+     * @return true if the waiter was registered, false if the version has
+     * already moved on, in which case the waiter is not run
+     */
+    public synchronized boolean await(long seen, Runnable waiter) {
+        if (version != seen)
+            return false;
+        waiters.add(waiter);
+        return true;
+    }
+
+    /**
+     * Stop waiting, for waiters that gave up
+     * @param waiter the waiter registered
+     */
+    public synchronized void cancel(Runnable waiter) {
+        waiters.remove(waiter);
+    }
+
+    /**
+     * Gets the number of registered waiters
+     * @return number of waiters
+     */
+    public synchronized int numWaiters() {
+        return waiters.size();
+    }
+}
@@ -25,6 +25,13 @@ define(function(require){
   var VALID_CLASS = 'valid';
   var PIECE_CLASS = 'Piece';
   var SPACE_CLASS = 'Space';
+  // the pieces named by the characters of a board sent by the server
+  var PIECE_CODES = {
+    'r': {type: 'SINGLE', color: 'RED'},
+    'R': {type: 'KING', color: 'RED'},
+    'w': {type: 'SINGLE', color: 'WHITE'},
+    'W': {type: 'KING', color: 'WHITE'}
+  };
 
   /**
    * Constructor function.
@@ -58,28 +65,30 @@ define(function(require){
     };
 
     /**
-     * Initializes the board for game play.
+     * Finds the current user's Piece elements, which may be enabled for play,
+     * and stops the opponent's Pieces from being dragged.
      */
-    BoardController.prototype.initializeDragAndDrop = function initializeDragAndDrop(gameState) {
-      var currentUsersColor, opponentsColor;
-      if (gameState.isPlayerRed()) {
-        currentUsersColor = 'RED';
-        opponentsColor = 'WHITE';
-      } else {
-        currentUsersColor = 'WHITE';
-        opponentsColor = 'RED';
-      }
-      
+    this.collectMyPieces = function collectMyPieces(gameState) {
+      var currentUsersColor = gameState.isPlayerRed() ? 'RED' : 'WHITE';
+      var opponentsColor = gameState.isPlayerRed() ? 'WHITE' : 'RED';
+      _pieces = [];
       // create a list of my Piece elements
       jQuery(makePieceSelector(currentUsersColor)).each(function(idx) {
         // record each Piece element
         _pieces.push(this);
       });
-      
       // force no drag support for the opponent pieces
       jQuery(makePieceSelector(opponentsColor))
       // disable dragging behavior
+      .off('dragstart')
       .on({ 'dragstart' : false });
+    };
+
+    /**
+     * Initializes the board for game play.
+     */
+    BoardController.prototype.initializeDragAndDrop = function initializeDragAndDrop(gameState) {
+      this.collectMyPieces(gameState);
 
       // attach DnD handlers on open spaces
       jQuery('#game-board').on({
@@ -101,6 +110,45 @@ define(function(require){
   // Public (external) methods
   //
 
+  /**
+   * Brings the board up to date with a state sent by the server: either the
+   * whole board as 64 characters or just the squares that changed, each as
+   * its row, its column and its piece.
+   */
+  BoardController.prototype.applyBoardState = function applyBoardState(state) {
+    jQuery('#game-board td').removeClass(PENDING_CLASS + ' ' + VALID_CLASS + ' ' + HOVER_CLASS);
+    if (state.board) {
+      for (var i = 0; i < state.board.length; i++) {
+        this.setSquare(Math.floor(i / 8), i % 8, state.board.charAt(i));
+      }
+    } else {
+      state.changes.forEach((change) => {
+        this.setSquare(parseInt(change.charAt(0), 10), parseInt(change.charAt(1), 10), change.charAt(2));
+      });
+    }
+  };
+
+  /**
+   * Puts the piece named by a board character on a square, or empties it.
+   */
+  BoardController.prototype.setSquare = function setSquare(row, cell, code) {
+    var $space = this.getSpace$({row: row, cell: cell});
+    var piece = PIECE_CODES[code];
+    $space.find('div.' + PIECE_CLASS).remove();
+    if (piece) {
+      jQuery('<div></div>')
+        .addClass(PIECE_CLASS)
+        .attr('id', 'piece-' + row + '-' + cell)
+        .attr('data-type', piece.type)
+        .attr('data-color', piece.color)
+        .appendTo($space);
+      $space.removeClass(SPACE_CLASS);
+    } else if ((row + cell) % 2 === 1) {
+      // only the dark squares can be moved to
+      $space.addClass(SPACE_CLASS);
+    }
+  };
+
   /**
    * Sets the Space at this position to the Pending state.
    */
@@ -84,6 +84,29 @@ define(function(require){
       return this.isPlayerRed() ? gameData.whitePlayer : gameData.redPlayer;
     };
 
+    /**
+     * Get the token the Game View opens its push channel with.
+     */
+    this.getPushToken = function getPushToken() {
+      return gameData.pushToken;
+    };
+
+    /**
+     * Get the version of the board shown.
+     */
+    this.getBoardVersion = function getBoardVersion() {
+      return gameData.boardVersion;
+    };
+
+    /**
+     * Take in a newer state of the game sent by the server.
+     */
+    this.update = function update(state) {
+      gameData.boardVersion = state.version;
+      gameData.activeColor = state.activeColor;
+      gameData.modeOptions = state.modeOptions;
+    };
+
     /**
      * Query whether RED is the active player.
      *
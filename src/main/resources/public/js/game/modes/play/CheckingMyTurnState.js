@@ -40,8 +40,8 @@ define(function (require) {
    */
   CheckingMyTurnState.prototype.onEntry = function onEntry() {
     this._controller.disableButton(PlayModeConstants.RESIGN_BUTTON_ID);
-    // query the server if it's my turn
-    AjaxUtils.callServer('/checkTurn',
+    // query the server if it's my turn; the server answers once the turn changes or the poll times out
+    AjaxUtils.callServerIfModified('/checkTurn?longPoll=true',
         // the handler method should be run in the context of 'this' State object
         handleResponse, this);
   };
@@ -50,19 +50,25 @@ define(function (require) {
   // Private methods
   //
 
-  function handleResponse(message) {
-    if (message.type === 'INFO') {
+  function handleResponse(message, textStatus) {
+    // the server already said it is not my turn, and nothing has changed since
+    if (textStatus === 'notmodified') {
+      this._controller.setState(PlayModeConstants.WAITING_TO_CHECK_MY_TURN);
+    }
+    else if (message.type === 'INFO') {
       if (message.text === 'true') {
         // end the State machine by refreshing the Game View (via a browser page request)
         this._controller.refresh();
       } else {
+        // not my turn yet, or the long poll timed out: check again straight away
         this._controller.setState(PlayModeConstants.WAITING_TO_CHECK_MY_TURN);
       }
     }
     // handle error message
     else {
       this._controller.displayMessage(message);
-      this._controller.setState(PlayModeConstants.WAITING_TO_CHECK_MY_TURN);
+      // back off before checking again so an error does not turn into a busy loop
+      setTimeout(() => { this._controller.setState(PlayModeConstants.WAITING_TO_CHECK_MY_TURN); }, 5000);
     }
   }
 
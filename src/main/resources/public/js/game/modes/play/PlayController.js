@@ -14,6 +14,7 @@ define(function(require){
   const ControlsToolbarMixin = require('../../util/ControlsToolbarMixin');
   const AjaxUtils = require('../../util/AjaxUtils');
   const LangUtils = require('../../util/LangUtils');
+  const PushChannel = require('../../util/PushChannel');
   const PlayModeConstants = require('./PlayModeConstants');
 
   // import PLAY mode states
@@ -51,7 +52,12 @@ define(function(require){
     this._pendingMove = null;
     this.$activePiece = null;
     this._boardController = boardController;
+    this._view = view;
     this._gameState = gameState;
+    this._pollingSuspended = false;
+    this._pushChannel = new PushChannel(gameState.getPushToken(),
+        (event) => this.handlePushEvent(event),
+        () => this.resumePolling());
 
     // Add the State Pattern mixin
     StatePatternMixin.call(this);
@@ -96,6 +102,8 @@ define(function(require){
      * Start Play mode.
      */
     this.startup = function startup() {
+      // listen for the opponent's turns; polling covers the wait until this opens
+      this._pushChannel.open();
       // start Play mode
       this.setState(PlayModeConstants.STARTING_PLAY_MODE);
     };
@@ -198,9 +206,58 @@ define(function(require){
   };
 
   /**
-   * Exit the game by navigating to the Home page.
+   * Bring the Game View up to date with the server, fetching only the
+   * squares that changed since the board shown.  The end of the game, and
+   * anything that goes wrong, still reloads the whole Game View.
    */
   PlayController.prototype.refresh = function refresh() {
+    jQuery.ajax({
+      url: '/game/state?since=' + this._gameState.getBoardVersion(),
+      dataType: 'json'
+    })
+    .done((state) => this.applyState(state))
+    .fail(() => this.reloadGameView());
+  };
+
+  /**
+   * Show a state of the game sent by the server.
+   */
+  PlayController.prototype.applyState = function applyState(state) {
+    if (state.modeOptions.isGameOver) {
+      this.reloadGameView();
+      return;
+    }
+    // the push channel and a poll may both report the same turn
+    if (state.version === this._gameState.getBoardVersion()) {
+      return;
+    }
+    if (this.isTurnActive()) {
+      this.reloadGameView();
+      return;
+    }
+    // whatever was played this turn is now on the board the server sent
+    this._pollingSuspended = false;
+    this._turnTemp = null;
+    this._pendingMove = null;
+    this.$activePiece = null;
+    this._boardController.disableAllMyPieces();
+    this._boardController.applyBoardState(state);
+    this._gameState.update(state);
+    this._boardController.collectMyPieces(this._gameState);
+    this._view.setTurnFlasher();
+    if (this._gameState.isMyTurn()) {
+      jQuery('#help-form').prop('hidden', false);
+      this.setState(PlayModeConstants.EMPTY_TURN);
+    } else {
+      jQuery('#help-form').prop('hidden', true);
+      this.setState(PlayModeConstants.WAITING_TO_CHECK_MY_TURN);
+    }
+  };
+
+  /**
+   * Reload the whole Game View (via a browser page request).
+   */
+  PlayController.prototype.reloadGameView = function reloadGameView() {
     let gameViewURL = '/game';
     const gameID = this._gameState.getGameID();
     if (LangUtils.exists(gameID)) {
@@ -209,6 +266,36 @@ define(function(require){
     window.location = gameViewURL;
   };
 
+  /**
+   * Handle an event pushed by the server.  Anything the opponent did,
+   * and the end of the game, is shown by refreshing the Game View.
+   */
+  PlayController.prototype.handlePushEvent = function handlePushEvent(event) {
+    if (event.type === 'opponentMoved' || event.type === 'resigned' || event.type === 'gameOver') {
+      this.refresh();
+    }
+  };
+
+  /**
+   * Stop polling for my turn if the server pushes it instead.
+   *
+   * @return {boolean} true, if polling was suspended
+   */
+  PlayController.prototype.suspendPollingIfPushed = function suspendPollingIfPushed() {
+    this._pollingSuspended = this._pushChannel.isOpen();
+    return this._pollingSuspended;
+  };
+
+  /**
+   * Go back to polling for my turn after the push channel closed.
+   */
+  PlayController.prototype.resumePolling = function resumePolling() {
+    if (this._pollingSuspended) {
+      this._pollingSuspended = false;
+      this.setState(PlayModeConstants.CHECKING_MY_TURN);
+    }
+  };
+
   PlayController.prototype.isTurnActive = function isTurnActive() {
     return this._turn.length > 0;
   };
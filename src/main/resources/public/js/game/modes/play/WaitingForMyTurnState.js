@@ -39,8 +39,10 @@ define(function(require){
      */
     WaitingForMyTurnState.prototype.onEntry = function onEntry() {
         this._controller.enableButton(PlayModeConstants.RESIGN_BUTTON_ID);
-        // wait five seconds then check my turn
-        setTimeout(() => { this._controller.setState(PlayModeConstants.CHECKING_MY_TURN); }, 5000);
+        // the server pushes the opponent's turn down the open channel, so there is nothing to poll
+        if (this._controller.suspendPollingIfPushed()) return;
+        // the server holds each check until the turn changes, so check again straight away
+        setTimeout(() => { this._controller.setState(PlayModeConstants.CHECKING_MY_TURN); }, 0);
     }
 
     // export class constructor
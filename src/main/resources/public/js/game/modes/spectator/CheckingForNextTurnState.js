@@ -39,8 +39,8 @@ define(function(require){
    * Method when entering this state.
    */
   CheckingForNextTurnState.prototype.onEntry = function onEntry() {
-    // query the server if the next turn has been played
-    AjaxUtils.callServer('/spectator/checkTurn',
+    // query the server if the next turn has been played; it answers 304 while nothing has changed
+    AjaxUtils.callServerIfModified('/spectator/checkTurn',
         // the handler method should be run in the context of 'this' State object
         handleResponse, this);
   };
@@ -49,9 +49,13 @@ define(function(require){
   // Private methods
   //
 
-  function handleResponse(message) {
+  function handleResponse(message, textStatus) {
+    // the server already said no turn has been played, and nothing has changed since
+    if (textStatus === 'notmodified') {
+      this._controller.setState(SpectatorModeConstants.WAITING_FOR_NEXT_TURN);
+    }
     // is it successful?
-    if (message.type === 'INFO') {
+    else if (message.type === 'INFO') {
       // check for special case messages
       if (message.text === 'true') {
         // tell the browser to redisplay the Game View to get the updated board
@@ -55,6 +55,24 @@ define(function (require) {
       jQuery.ajax(makeAjaxOptionsWithNoData(actionURL, callback, callbackContext));
     },
 
+    /**
+     * Make an Ajax call to the server, sending back the ETag of its last answer.
+     *
+     * <p>
+     *   An unchanged answer comes back as a 304 with no body, in which case the
+     *   callback is passed no message and a status of 'notmodified'.
+     *
+     * @param actionURL  the URL for a server Ajax action
+     * @param callback  the developer's handler for the response, passed the message and the status
+     * @param callbackContext  the object context within which the callback is executed (the 'this' object)
+     */
+    callServerIfModified: function (actionURL, callback, callbackContext) {
+      const options = makeAjaxOptionsWithNoData(actionURL, callback, callbackContext);
+      // jQuery keeps the ETag of each URL and sends it back in If-None-Match
+      options.ifModified = true;
+      jQuery.ajax(options);
+    },
+
     /**
      * Make an Ajax call to the server that supplies an action data object.
      *
@@ -0,0 +1,68 @@
+/**
+ * This module exports the PushChannel class constructor.
+ *
+ * This component holds the WebSocket the server pushes match events
+ * down: the opponent moving, resigning or the game ending.  When the
+ * browser has no WebSocket, or the socket cannot be opened, the channel
+ * simply stays closed and the Game View keeps polling the server.
+ */
+define(function(require){
+  'use strict';
+
+  /**
+   * The URL of the server's event socket.
+   */
+  const EVENTS_PATH = '/events';
+
+  /**
+   * Constructor function.
+   *
+   * @param {string} token
+   *    The token the Game View was rendered with.
+   * @param {function} onEvent
+   *    Called with each event object the server pushes.
+   * @param {function} onClose
+   *    Called once when an open channel closes.
+   */
+  function PushChannel(token, onEvent, onClose) {
+    // private attributes
+    this._socket = null;
+    this._token = token;
+    this._onEvent = onEvent;
+    this._onClose = onClose;
+  }
+
+  /**
+   * Open the channel, unless the browser cannot.
+   */
+  PushChannel.prototype.open = function open() {
+    if (!this._token || typeof window.WebSocket !== 'function') return;
+    const scheme = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+    const url = `${scheme}//${window.location.host}${EVENTS_PATH}?token=${encodeURIComponent(this._token)}`;
+    try {
+      this._socket = new WebSocket(url);
+    } catch (error) {
+      console.warn('Could not open the push channel', error);
+      this._socket = null;
+      return;
+    }
+    this._socket.onmessage = (message) => this._onEvent(JSON.parse(message.data));
+    this._socket.onclose = () => {
+      this._socket = null;
+      this._onClose();
+    };
+  };
+
+  /**
+   * Queries whether events are reaching the Game View.
+   *
+   * @return {boolean}  true if the channel is open
+   */
+  PushChannel.prototype.isOpen = function isOpen() {
+    return this._socket !== null && this._socket.readyState === WebSocket.OPEN;
+  };
+
+  // export class constructor
+  return PushChannel;
+
+});
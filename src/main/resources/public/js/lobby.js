@@ -0,0 +1,119 @@
+/**
+ * Suggests the names of players online while a name is typed into the lobby search.
+ */
+(function () {
+  'use strict';
+
+  var form = document.getElementById('lobby-search');
+  if (!form) {
+    return;
+  }
+  var input = form.elements['find'];
+  var names = document.getElementById('player-names');
+  var pending = null;
+
+  input.addEventListener('input', function () {
+    var prefix = input.value;
+    if (pending) {
+      pending.abort();
+    }
+    pending = new XMLHttpRequest();
+    pending.open('GET', '/players/search?prefix=' + encodeURIComponent(prefix));
+    pending.onload = function () {
+      if (this.status !== 200) {
+        return;
+      }
+      var players = JSON.parse(this.responseText).players;
+      while (names.firstChild) {
+        names.removeChild(names.firstChild);
+      }
+      players.forEach(function (player) {
+        var option = document.createElement('option');
+        option.value = player.name;
+        names.appendChild(option);
+      });
+    };
+    pending.send();
+  });
+}());
+
+/**
+ * Keeps the lobby up to date from the server's stream of lobby events, going
+ * to the game as soon as this player is challenged.  Browsers without
+ * EventSource reload the page every few seconds instead.
+ */
+(function () {
+  'use strict';
+
+  var lobby = document.getElementById('lobby-players');
+  if (!lobby) {
+    return;
+  }
+  if (typeof window.EventSource !== 'function') {
+    setTimeout(function () { window.location.reload(); }, 10000);
+    return;
+  }
+  var me = lobby.getAttribute('data-me');
+  var find = lobby.getAttribute('data-find').toLowerCase();
+  var limit = parseInt(lobby.getAttribute('data-limit'), 10);
+  var opened = false;
+
+  function buttonFor(name) {
+    var buttons = lobby.getElementsByTagName('button');
+    for (var i = 0; i < buttons.length; i++) {
+      if (buttons[i].value === name) {
+        return buttons[i];
+      }
+    }
+    return null;
+  }
+
+  function addPlayer(name, status) {
+    var buttons = lobby.getElementsByTagName('button');
+    if (name === me || buttonFor(name) || name.toLowerCase().indexOf(find) !== 0 || buttons.length >= limit) {
+      return;
+    }
+    var button = document.createElement('button');
+    button.type = 'submit';
+    button.name = 'button';
+    button.value = name;
+    button.setAttribute('data-status', status);
+    button.textContent = ' ' + name + ' ';
+    // keep the lobby in name order, like the server renders it
+    var before = null;
+    for (var i = 0; i < buttons.length && before === null; i++) {
+      if (buttons[i].value.toLowerCase() > name.toLowerCase()) {
+        before = buttons[i];
+      }
+    }
+    lobby.insertBefore(button, before);
+  }
+
+  var events = new EventSource('/lobby/events');
+  events.onopen = function () {
+    // events sent while the stream was down are lost, so start again from the page
+    if (opened) {
+      window.location.reload();
+    }
+    opened = true;
+  };
+  events.onmessage = function (message) {
+    var event = JSON.parse(message.data);
+    var button;
+    if (event.type === 'challenged') {
+      window.location = '/game';
+    } else if (event.type === 'joined') {
+      addPlayer(event.player, event.status);
+    } else if (event.type === 'left') {
+      button = buttonFor(event.player);
+      if (button) {
+        lobby.removeChild(button);
+      }
+    } else if (event.type === 'status') {
+      button = buttonFor(event.player);
+      if (button) {
+        button.setAttribute('data-status', event.status);
+      }
+    }
+  };
+}());
@@ -13,7 +13,9 @@
         "modeOptions" : ${modeOptionsAsJSON!'{}'},
         "redPlayer" : "${redPlayer.name}",
         "whitePlayer" : "${whitePlayer.name}",
-        "activeColor" : "${activeColor}"
+        "activeColor" : "${activeColor}",
+        "pushToken" : "${pushToken!''}",
+        "boardVersion" : ${(boardVersion!0)?c}
     };
     </script>
 </head>
@@ -53,8 +55,8 @@
 
                         <fieldset id="game-toolbar">
                             <legend>Controls</legend>
-                            <#if PLAYING??>
-                                <form action="./game">
+                            <#if PLAYING?? || WAITING??>
+                                <form action="./game" id="help-form"<#if WAITING??> hidden</#if>>
                                     <#if HELP??>
                                         <p> Click me to remove HELP </p>
                                         <button type="submit" name=help value="remove"> Remove Help </button>
@@ -2,7 +2,10 @@
 
     <head>
         <meta http-equiv="Content-Type" content="text/html; charset=UTF-8"></meta>
-        <meta http-equiv="refresh" content="10">
+        <#-- signed-in players are kept up to date by the lobby's event stream -->
+        <#if !currentPlayer??>
+            <meta http-equiv="refresh" content="10">
+        </#if>
         <title>Web Checkers | ${title}</title>
         <link rel="stylesheet" type="text/css" href="/css/style.css">
     </head>
@@ -36,21 +39,34 @@
                     <p>Games Lost: ${lost}</p><br>
                     <p>W/L Ratio: ${ratio}</p><br>
                     <p>Opponent Pieces Taken: ${piecesTaken}</p><br>
-                    <p>Friendly Pieces Lost: ${piecesLost}</p>
+                    <p>Friendly Pieces Lost: ${piecesLost}</p><br>
+                    <p>Rating: ${rating?c}</p>
                 </div>
 
                 <div class="stats" id="leaderboard">
                     <div id="leaderboard-state">
-                        <form action"./">
+                        <form action="./">
                             <input type="submit" name="boardButton" value="Games Rankings"></input>
                             <input type="submit" name="boardButton" value="Victory Rankings"></input>
                             <input type="submit" name="boardButton" value="Loss Rankings"></input>
                             <input type="submit" name="boardButton" value="Pieces Taken Rankings"></input>
                             <input type="submit" name="boardButton" value="Pieces Lost Rankings"></input>
+                            <input type="submit" name="boardButton" value="Rating Rankings"></input>
                         </form>
                     </div>
                     <div id="rankings">
+                        <#if boardLabel??>
+                            <p>${boardLabel} - Page ${page} of ${totalPages}<#if playerRank gt 0> - Your Rank: ${playerRank}</#if></p>
+                        </#if>
                         <div id="board-display">
+                            <div class="wrapper">
+                                <h2 id="rank-label" class="label">Rank</h2>
+                                <#if ranksOnly??>
+                                    <#list ranksOnly as rank>
+                                        <p id="rank_display" class="display">${rank}</p>
+                                    </#list>
+                                </#if>
+                            </div>
                             <div class="wrapper">
                                 <h2 id="username-label" class="label">Username</h2>
                                 <#if namesOnly??>
@@ -99,21 +115,68 @@
                                     </#list>
                                 </#if>
                             </div>
+                            <div class="wrapper">
+                                <h2 id="rating-label" class="label">Rating</h2>
+                                <#if ratingsOnly??>
+                                    <#list ratingsOnly as rating>
+                                        <p id="rating_display" class="display">${rating?c}</p>
+                                    </#list>
+                                </#if>
+                            </div>
                         </div>
+                        <#if boardLabel??>
+                            <div id="board-pages">
+                                <#if hasPreviousPage>
+                                    <a href="./?boardButton=${boardLabel?url}&page=${page - 1}">Previous</a>
+                                </#if>
+                                <#if hasNextPage>
+                                    <a href="./?boardButton=${boardLabel?url}&page=${page + 1}">Next</a>
+                                </#if>
+                            </div>
+                        </#if>
                     </div>
                 </div>
 
                 <div class="body">
                     <#if players??>
                         <p>Currently Signed in Players:</p>
-                        <form action="./game">
+                        <form action="./" id="lobby-search">
+                            <input type="text" name="find" value="${(find!"")?html}" list="player-names" autocomplete="off"
+                                   placeholder="Find a player"></input>
+                            <datalist id="player-names"></datalist>
+                            <input type="submit" value="Find"></input>
+                        </form>
+                        <form action="./game" id="lobby-players" data-me="${currentPlayer}" data-find="${(find!"")?html}"
+                              data-limit="${lobbySize}">
                             <#list players as player>
-                                <button type="submit" name=button value="${player.name}"> ${player.name} </button>
+                                <button type="submit" name=button value="${player.name}"
+                                        data-status="${player.status}"> ${player.name} </button>
                             </#list>
                         </form>
+                        <#if morePlayers>
+                            <p>More players are online, search for them by name.</p>
+                        </#if>
                     </#if>
                 </div>
+                <script src="/js/lobby.js"></script>
+
+                <#if liveGames?? && liveGames?has_content>
+                    <div class="body" id="live-games">
+                        <p>Games Being Played:</p>
+                        <#list liveGames as live>
+                            <a href="/spectator/game?gameID=${live.matchId?c}">${live.redPlayer} against ${live.whitePlayer}</a><br>
+                        </#list>
+                    </div>
+                </#if>
 
+                <#if replays?? && replays?has_content>
+                    <div class="body" id="replays">
+                        <p>Your Games to Watch Again:</p>
+                        <#list replays as replay>
+                            <a href="/replay/game?gameID=${replay.id?c}">${replay.redPlayer} against ${replay.whitePlayer}</a><br>
+                        </#list>
+                    </div>
+                </#if>
 
             </#if>
     </body>
@@ -0,0 +1,68 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class CsvStorageTest {
+    private CsvStorage CuT;
+    private Path directory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("storage");
+        CuT = new CsvStorage(directory.resolve("Statistics.csv"), directory.resolve("GameResults.csv"),
+                directory.resolve("snapshots"));
+        CuT.open();
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        CuT.close();
+        for (Path path : Files.walk(directory).sorted(Comparator.reverseOrder()).toArray(Path[]::new))
+            Files.delete(path);
+    }
+
+    @Test
+    void checkPlayers() {
+        assertNull(CuT.findPlayer("One"), "Unknown player found");
+        CuT.findOrAddPlayer("One");
+        assertTrue(CuT.savePlayers(Arrays.asList(new Player("Two", 2, 2, 0, 3, 1),
+                new Player("Three", 1, 0, 1, 0, 2))), "Batch not saved");
+
+        assertEquals(2, CuT.findPlayer("Two").getWon(), "Wrong records");
+        assertEquals(3, CuT.readAllStats().size(), "Wrong number of players");
+    }
+
+    @Test
+    void checkGameResults() {
+        GameResult result = new GameResult("One", "Two", 7);
+        assertTrue(CuT.appendGameResult(result), "Result not saved");
+        assertEquals(Arrays.asList(result), CuT.readGameResults(), "Wrong archive");
+    }
+
+    @Test
+    void checkMatchSnapshots() {
+        assertTrue(CuT.readMatchSnapshots().isEmpty(), "Snapshots before any were saved");
+        assertTrue(CuT.saveMatchSnapshot("m1", new byte[]{1, 2}), "Snapshot not saved");
+        assertFalse(CuT.saveMatchSnapshot("../m2", new byte[]{4}), "Unsafe id accepted");
+
+        Map<String, byte[]> snapshots = CuT.readMatchSnapshots();
+        assertArrayEquals(new byte[]{1, 2}, snapshots.get("m1"), "Wrong snapshot");
+        assertTrue(CuT.deleteMatchSnapshot("m1"), "Snapshot not deleted");
+        assertTrue(CuT.readMatchSnapshots().isEmpty(), "Snapshot left behind");
+    }
+}
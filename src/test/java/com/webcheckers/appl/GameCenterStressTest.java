@@ -0,0 +1,340 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.LoadHarness;
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.BoardHistory;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchListener;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.TurnResult;
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays the game center and its matches from many threads at once and checks
+ * what must hold however the threads interleave.
+ *
+ * <p>
+ * The size of a run is set with the {@code stress.matches} property and its
+ * random choices with {@code stress.seed}; the seed of a run is in every
+ * failure message. Run only these tests, for instance with more matches
+ * before trying a lock-free game center, with
+ * {@code mvn test-compile surefire:test@stress -Dstress.matches=500}.
+ * </p>
+ */
+@Tag("Application-tier")
+@Tag("Stress")
+public class GameCenterStressTest {
+    private static final int MATCHES = Integer.getInteger("stress.matches", 16);
+    private static final long SEED = Long.getLong("stress.seed", System.nanoTime());
+    private static final int THREADS = 8;
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private GameCenter CuT;
+    private PlayerServices playerServices;
+    private Random random;
+
+    // told about every match the game center starts
+    private final Map<Match, AtomicInteger> turnsEnded = new ConcurrentHashMap<>();
+    private final Map<Match, AtomicInteger> gamesEnded = new ConcurrentHashMap<>();
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setup() {
+        playerServices = new PlayerServices();
+        CuT = new GameCenter(playerServices);
+        random = new Random(SEED);
+        CuT.addMatchListener(new MatchListener() {
+            @Override
+            public void turnEnded(Match match, Player mover, List<Move> moves) {
+                turnsEnded.computeIfAbsent(match, key -> new AtomicInteger()).incrementAndGet();
+            }
+
+            @Override
+            public void gameEnded(Match match) {
+                gamesEnded.computeIfAbsent(match, key -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Run tasks on their own threads, all started at once, and wait for them
+     */
+    private void runAll(List<Runnable> tasks, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (Runnable task : tasks) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                "Threads still running, seed " + SEED);
+        assertTrue(failures.isEmpty(), failures.size() + " failures, seed " + SEED + ": " + failures.peek());
+    }
+
+    /**
+     * Count the pieces of a color on a board
+     */
+    private static int count(String board, char single, char king) {
+        int pieces = 0;
+        for (char square : board.toCharArray()) {
+            if (square == single || square == king)
+                pieces++;
+        }
+        return pieces;
+    }
+
+    @Test
+    void checkMatchesNotLost() throws InterruptedException {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 8 * MATCHES; i++)
+            players.add(new Player("Player" + i));
+        Queue<Player[]> added = new ConcurrentLinkedQueue<>();
+        Set<Player> matched = ConcurrentHashMap.newKeySet();
+        Set<Player> removed = ConcurrentHashMap.newKeySet();
+        AtomicInteger matchesRemoved = new AtomicInteger();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final Random choices = new Random(random.nextLong());
+            tasks.add(() -> {
+                for (int op = 0; op < 500 * MATCHES; op++) {
+                    Player player = players.get(choices.nextInt(players.size()));
+                    switch (choices.nextInt(6)) {
+                        case 0:
+                            Player opponent = players.get(choices.nextInt(players.size()));
+                            if (CuT.addMatch(player, opponent)) {
+                                if (!matched.add(player) || !matched.add(opponent))
+                                    failures.add(player.getName() + " or " + opponent.getName() + " in two matches");
+                                added.add(new Player[]{player, opponent});
+                            }
+                            break;
+                        case 1:
+                            Match match = CuT.getMatch(player);
+                            if (match != null && !match.getRedPlayer().equals(player)
+                                    && !match.getWhitePlayer().equals(player))
+                                failures.add(player.getName() + " found in a match of others");
+                            break;
+                        case 2:
+                            // a player who just left their match is in none, which must not throw
+                            CuT.isCurrent(player);
+                            CuT.isInMatch(player);
+                            break;
+                        case 3:
+                            // now and then a match is taken off the list, or a player leaves theirs
+                            if (choices.nextInt(20) == 0 && CuT.removeMatch(CuT.getMatch(player)))
+                                matchesRemoved.incrementAndGet();
+                            break;
+                        case 4:
+                            if (choices.nextInt(20) == 0 && CuT.removePlayer(player))
+                                removed.add(player);
+                            break;
+                        default:
+                            CuT.numLiveMatches();
+                    }
+                }
+            });
+        }
+        runAll(tasks, THREADS);
+
+        for (Player[] pair : added) {
+            for (Player player : pair) {
+                if (removed.contains(player))
+                    continue;
+                Match match = CuT.getMatch(player);
+                assertNotNull(match, "Match of " + player.getName() + " lost, seed " + SEED);
+                assertSame(pair[0], match.getRedPlayer(), "Wrong red player, seed " + SEED);
+                assertSame(pair[1], match.getWhitePlayer(), "Wrong white player, seed " + SEED);
+            }
+        }
+        assertEquals(added.size() - matchesRemoved.get(), CuT.numLiveMatches(),
+                "Live matches miscounted, seed " + SEED);
+    }
+
+    @Test
+    void checkMatchesPlayed() throws InterruptedException {
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < MATCHES; i++) {
+            Player red = new Player("Red" + i);
+            Player white = new Player("White" + i);
+            assertTrue(CuT.addMatch(red, white), "Match not added");
+            matches.add(CuT.getMatch(red));
+        }
+        Map<Match, AtomicInteger> results = new ConcurrentHashMap<>();
+        AtomicInteger playing = new AtomicInteger(2 * MATCHES);
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (Match match : matches) {
+            for (boolean red : new boolean[]{true, false}) {
+                final Random choices = new Random(random.nextLong());
+                final int limit = 5 + choices.nextInt(60);
+                tasks.add(() -> {
+                    try {
+                        play(match, red, limit, choices, results);
+                    } finally {
+                        playing.decrementAndGet();
+                    }
+                });
+            }
+        }
+        // read the matches the way the players' pages do while they are played
+        for (int t = 0; t < 2; t++) {
+            tasks.add(() -> {
+                Map<Match, Integer> fewest = new ConcurrentHashMap<>();
+                while (playing.get() > 0) {
+                    for (Match match : matches) {
+                        int pieces = match.getRedPieces().size() + match.getWhitePieces().size();
+                        Integer seen = fewest.put(match, pieces);
+                        if (seen != null && pieces > seen)
+                            failures.add("Pieces came back in match " + match.getId());
+                        match.getModeOptions();
+                        BoardHistory.Entry latest = match.getBoardHistory().latest();
+                        if (count(latest.getBoard(), BoardHistory.RED_SINGLE, BoardHistory.RED_KING) > 12)
+                            failures.add("Too many red pieces in match " + match.getId());
+                    }
+                    Thread.yield();
+                }
+            });
+        }
+        runAll(tasks, 2 * MATCHES + 2);
+
+        for (Match match : matches) {
+            String board = match.getBoardHistory().latest().getBoard();
+            int redPieces = count(board, BoardHistory.RED_SINGLE, BoardHistory.RED_KING);
+            int whitePieces = count(board, BoardHistory.WHITE_SINGLE, BoardHistory.WHITE_KING);
+            String name = "match " + match.getId() + ", seed " + SEED;
+            assertNotNull(match.getWinner(), "No winner in " + name);
+            assertTrue(match.getWinner() == match.getRedPlayer() || match.getWinner() == match.getWhitePlayer(),
+                    "Winner not a player of " + name);
+            assertNotEquals(Match.STATE.running, match.isGameResigned(), "Still running: " + name);
+            assertEquals(1, gamesEnded.get(match).get(), "End not told once in " + name);
+            assertEquals(1, results.get(match).get(), "Result not recorded once in " + name);
+            assertEquals(redPieces, match.getRedPieces().size(), "Red pieces differ from the board in " + name);
+            assertEquals(whitePieces, match.getWhitePieces().size(), "White pieces differ from the board in " + name);
+            assertEquals(24 - redPieces - whitePieces, match.getPiecesRemoved().size(),
+                    "Pieces lost in " + name);
+            int turns = turnsEnded.containsKey(match) ? turnsEnded.get(match).get() : 0;
+            assertEquals(turns, match.getBoardHistory().latest().getVersion(), "Turns lost in " + name);
+        }
+    }
+
+    /**
+     * Play one side of a match: legal turns, validated move by move or sent
+     * whole, until the limit, when the player resigns, as their opponent may
+     * be doing at the same time
+     */
+    private void play(Match match, boolean red, int limit, Random choices, Map<Match, AtomicInteger> results) {
+        Player me = red ? match.getRedPlayer() : match.getWhitePlayer();
+        Player opponent = red ? match.getWhitePlayer() : match.getRedPlayer();
+        Piece.Color color = red ? Piece.Color.RED : Piece.Color.WHITE;
+        int turns = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS / 2);
+        while (match.getWinner() == null && System.nanoTime() < deadline) {
+            long seen = match.getTurnSignal().version();
+            if (CuT.getMatch(me) != match) {
+                failures.add(me.getName() + " lost their match");
+                return;
+            }
+            if (match.getActiveColor() != color || !CuT.isCurrent(me)) {
+                CountDownLatch woken = new CountDownLatch(1);
+                if (match.getTurnSignal().await(seen, woken::countDown)) {
+                    try {
+                        woken.await(10, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            int[] position = match.getBoardHistory().latest().getPosition();
+            if (!red)
+                BoardCodec.flip(position);
+            List<Move> turn = LoadHarness.chooseTurn(BoardHistory.squares(position), red, choices);
+            if (turns++ >= limit || turn.isEmpty())
+                break;
+            if (choices.nextBoolean()) {
+                TurnResult result = match.playTurn(me, turn);
+                if (!result.isPlayed())
+                    failures.add("Turn refused: " + result.getMessage().getText());
+            } else {
+                for (Move move : turn) {
+                    Message message = match.validateMove(move);
+                    if (message.getType() != Message.Type.INFO)
+                        failures.add("Move refused: " + message.getText());
+                }
+                Message message = match.submitTurn();
+                if (message.getType() != Message.Type.INFO)
+                    failures.add("Turn refused: " + message.getText());
+            }
+        }
+        match.resignGame(opponent, me);
+        // both players record the end as they leave, as the routes do
+        if (CuT.recordResult(match, match.getWinner(), match.getWinner() == me ? opponent : me) != null)
+            results.computeIfAbsent(match, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Test
+    void checkOneWinner() throws InterruptedException {
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < 4 * MATCHES; i++) {
+            Player red = new Player("Red" + i);
+            Player white = new Player("White" + i);
+            CuT.addMatch(red, white);
+            matches.add(CuT.getMatch(red));
+        }
+        List<Runnable> tasks = new ArrayList<>();
+        for (Match match : matches) {
+            Player red = match.getRedPlayer();
+            Player white = match.getWhitePlayer();
+            // both resign while the pages of both see the other's pieces gone
+            tasks.add(() -> match.resignGame(white, red));
+            tasks.add(() -> match.resignGame(red, white));
+            tasks.add(() -> match.setWinner(red));
+            tasks.add(() -> match.setWinner(white));
+        }
+        Collections.shuffle(tasks, random);
+        runAll(tasks, THREADS);
+
+        for (Match match : matches) {
+            String name = "match " + match.getId() + ", seed " + SEED;
+            assertEquals(1, gamesEnded.get(match).get(), "End not told once in " + name);
+            Player winner = match.getWinner();
+            String message = match.getGameOverMessage();
+            if (match.isGameResigned() == Match.STATE.resigned) {
+                Player loser = winner == match.getRedPlayer() ? match.getWhitePlayer() : match.getRedPlayer();
+                assertEquals(loser.getName() + " has resigned.", message, "Message of another end in " + name);
+            } else {
+                assertTrue(message.startsWith(winner.getName()), "Message of another winner in " + name);
+            }
+        }
+    }
+}
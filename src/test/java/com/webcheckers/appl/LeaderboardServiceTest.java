@@ -0,0 +1,135 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.LeaderboardPage;
+import com.webcheckers.model.LeaderboardSnapshot;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.model.RankingMetric;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class LeaderboardServiceTest {
+    private LeaderboardService CuT;
+    private Player playerOne = new Player("One", 10, 7, 3, 20, 5);
+    private Player playerTwo = new Player("Two", 4, 1, 3, 40, 30);
+    private Player playerThree = new Player("Three", 10, 2, 8, 9, 9);
+
+    @BeforeEach
+    void setup() {
+        CuT = new LeaderboardService();
+        CuT.loadAll(Arrays.asList(playerOne, playerTwo, playerThree));
+    }
+
+    @Test
+    void checkLoadAll() {
+        assertEquals(3, CuT.numPlayers(), "Not every player loaded");
+    }
+
+    @Test
+    void checkRankingOrder() {
+        List<PlayerStats> top = CuT.getTopPlayers(RankingMetric.GAMES, 3);
+        // ties on games played are broken by name
+        assertEquals("One", top.get(0).getName(), "Wrong first player");
+        assertEquals("Three", top.get(1).getName(), "Wrong second player");
+        assertEquals("Two", top.get(2).getName(), "Wrong third player");
+
+        assertEquals("Two", CuT.getTopPlayers(RankingMetric.PIECES_TAKEN, 1).get(0).getName(),
+                "Wrong leader of pieces taken");
+    }
+
+    @Test
+    void checkTopPlayersIsBounded() {
+        assertEquals(2, CuT.getTopPlayers(RankingMetric.WON, 2).size(), "Too many players returned");
+    }
+
+    @Test
+    void checkUpdateMovesPlayer() {
+        playerTwo.addWon();
+        playerTwo.addWon();
+        playerTwo.addWon();
+        playerTwo.addWon();
+        playerTwo.addWon();
+        playerTwo.addWon();
+        playerTwo.addWon();
+        CuT.update(playerTwo);
+        assertEquals(3, CuT.numPlayers(), "Update added a duplicate player");
+        assertEquals("Two", CuT.getTopPlayers(RankingMetric.GAMES, 1).get(0).getName(), "Player not moved up");
+        assertEquals("Two", CuT.getTopPlayers(RankingMetric.WON, 1).get(0).getName(), "Player not moved up");
+    }
+
+    @Test
+    void checkUpdateAddsNewPlayer() {
+        CuT.update(new Player("Four"));
+        assertEquals(4, CuT.numPlayers(), "New player not added");
+    }
+
+    @Test
+    void checkFromLabel() {
+        assertEquals(RankingMetric.LOST, RankingMetric.fromLabel("Loss Rankings"), "Wrong metric for label");
+        assertEquals(RankingMetric.GAMES, RankingMetric.fromLabel(null), "Games is not the default");
+    }
+
+    @Test
+    void checkGetPage() {
+        LeaderboardPage page = CuT.getPage(RankingMetric.GAMES, 2, 2);
+        assertEquals(2, page.getPage(), "Wrong page number");
+        assertEquals(3, page.getFirstRank(), "Wrong first rank");
+        assertEquals(2, page.getTotalPages(), "Wrong number of pages");
+        assertEquals(1, page.getPlayers().size(), "Wrong number of players on the last page");
+        assertEquals("Two", page.getPlayers().get(0).getName(), "Wrong player on the last page");
+        assertTrue(page.hasPrevious(), "Second page should have a previous page");
+        assertFalse(page.hasNext(), "Last page should not have a next page");
+    }
+
+    @Test
+    void checkGetPagePastTheEnd() {
+        LeaderboardPage page = CuT.getPage(RankingMetric.GAMES, Integer.MAX_VALUE, 2);
+        assertEquals(2, page.getPage(), "Page past the end is not the last page");
+        assertEquals(1, CuT.getPage(RankingMetric.GAMES, -4, 2).getPage(), "Negative page is not the first page");
+    }
+
+    @Test
+    void checkRankOf() {
+        assertEquals(1, CuT.rankOf("One", RankingMetric.WON), "Wrong rank by wins");
+        assertEquals(3, CuT.rankOf("Three", RankingMetric.PIECES_TAKEN), "Wrong rank by pieces taken");
+        assertEquals(-1, CuT.rankOf("Nobody", RankingMetric.WON), "Unknown player should have no rank");
+    }
+
+    @Test
+    void checkFromKey() {
+        assertEquals(RankingMetric.PIECES_LOST, RankingMetric.fromKey("pieces_lost"), "Wrong metric for name");
+        assertEquals(RankingMetric.WON, RankingMetric.fromKey("victory rankings"), "Wrong metric for label");
+        assertEquals(RankingMetric.GAMES, RankingMetric.fromKey("bogus"), "Games is not the default");
+    }
+
+    @Test
+    void checkSnapshotIsShared() {
+        LeaderboardSnapshot snapshot = CuT.getSnapshot();
+        assertSame(snapshot, CuT.getSnapshot(), "Snapshot rebuilt without a change");
+        assertEquals(CuT.getVersion(), snapshot.getVersion(), "Snapshot has the wrong version");
+        assertEquals(Arrays.asList("One", "Three", "Two"), snapshot.getTable().getNames(), "Wrong names");
+        assertEquals(Arrays.asList(1, 2, 3), snapshot.getTable().getRanks(), "Wrong ranks");
+
+        // re-recording unchanged stats is not a change
+        CuT.update(playerOne);
+        assertSame(snapshot, CuT.getSnapshot(), "Snapshot rebuilt without a change");
+    }
+
+    @Test
+    void checkSnapshotRebuiltAfterUpdate() {
+        LeaderboardSnapshot snapshot = CuT.getSnapshot();
+        playerTwo.addWon();
+        CuT.update(playerTwo);
+        LeaderboardSnapshot rebuilt = CuT.getSnapshot();
+        assertNotSame(snapshot, rebuilt, "Snapshot not rebuilt after a change");
+        assertTrue(rebuilt.getVersion() > snapshot.getVersion(), "Version did not move on");
+        assertTrue(rebuilt.getJson().contains("\"games\":5"), "JSON not rebuilt");
+    }
+}
@@ -0,0 +1,210 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchEvent;
+import com.webcheckers.model.MatchListener;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.SegmentedLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("Application-tier")
+public class MatchEventLogTest {
+    private MatchEventLog CuT;
+    private Path directory;
+    private GameCenter gameCenter;
+    private Player red;
+    private Player white;
+    private Match match;
+
+    private static final List<Move> RED_TURN = Collections.singletonList(
+            new Move(new Position(5, 0), new Position(4, 1)));
+    private static final List<Move> WHITE_TURN = Collections.singletonList(
+            new Move(new Position(5, 2), new Position(4, 3)));
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("events");
+        CuT = open();
+        gameCenter = new GameCenter(new PlayerServices());
+        gameCenter.addMatchListener(CuT);
+        red = new Player("One");
+        white = new Player("Two");
+        gameCenter.addMatch(red, white);
+        match = gameCenter.getMatch(red);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        CuT.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    /**
+     * The event log, as a server starting on the same directory opens it
+     */
+    private MatchEventLog open() throws IOException {
+        SegmentedLog log = new SegmentedLog(directory, 128);
+        log.open();
+        return new MatchEventLog(log);
+    }
+
+    private MatchEventLog restart() throws IOException {
+        CuT.close();
+        CuT = open();
+        return CuT;
+    }
+
+    @Test
+    void checkEventsLogged() throws IOException {
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        match.resignGame(white, red);
+        List<MatchEvent> events = new ArrayList<>();
+        CuT.read(events::add);
+
+        assertEquals(3, events.size(), "Events not logged");
+        assertEquals(MatchEvent.Type.STARTED, events.get(0).getType(), "Start not logged");
+        assertEquals("Two", events.get(0).getWhitePlayer(), "Player not logged");
+        assertEquals(MatchEvent.Type.TURN, events.get(1).getType(), "Turn not logged");
+        assertEquals(1, events.get(1).getTurn(), "Turn misnumbered");
+        assertEquals(RED_TURN, events.get(1).getMoves(), "Moves not logged");
+        assertEquals(MatchEvent.Type.RESIGNED, events.get(2).getType(), "Resignation not logged");
+        assertEquals(match.getId(), events.get(2).getMatchId(), "Match not named");
+        assertEquals(0, CuT.getLost(), "Events lost");
+    }
+
+    /**
+     * Count the turns in the log
+     */
+    private long loggedTurns() {
+        List<MatchEvent> events = new ArrayList<>();
+        try {
+            CuT.read(events::add);
+        } catch (IOException e) {
+            fail("Log not read");
+        }
+        return events.stream().filter(event -> event.getType() == MatchEvent.Type.TURN).count();
+    }
+
+    @Test
+    void checkTurnLoggedBeforeTold() {
+        // a listener ahead of the log, and a player waiting for the turn
+        GameCenter told = new GameCenter(new PlayerServices());
+        List<Long> heard = new ArrayList<>();
+        told.addMatchListener(new MatchListener() {
+            @Override
+            public void turnEnded(Match ended, Player mover, List<Move> moves) {
+                heard.add(loggedTurns());
+            }
+
+            @Override
+            public void gameEnded(Match ended) {
+                // not played to the end
+            }
+        });
+        told.addMatchListener(CuT);
+        told.addMatch(new Player("Three"), new Player("Four"));
+        Match second = told.getMatch(new Player("Three"));
+        assertTrue(second.getTurnSignal().await(second.getTurnSignal().version(), () -> heard.add(loggedTurns())),
+                "Signal already advanced");
+
+        assertTrue(second.playTurn(second.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        assertEquals(Arrays.asList(1L, 1L), heard, "Turn told before it was logged");
+    }
+
+    @Test
+    void checkReplayWithoutSnapshot() throws IOException {
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        assertTrue(match.playTurn(match.getWhitePlayer(), WHITE_TURN).isPlayed(), "White's turn refused");
+
+        List<Match> replayed = restart().replay(Collections.emptyList(), Player::new);
+        assertEquals(1, replayed.size(), "Match not played again");
+        Match again = replayed.get(0);
+        assertEquals(match.getId(), again.getId(), "Id changed");
+        assertEquals("One", again.getRedPlayer().getName(), "Red player changed");
+        assertEquals(2, again.getTurns(), "Turns lost");
+        assertEquals(Piece.Color.RED, again.getActiveColor(), "Turn changed");
+        assertEquals(match.getBoardHistory().latest().getBoard(), again.getBoardHistory().latest().getBoard(),
+                "Board changed");
+    }
+
+    @Test
+    void checkEndedNotReplayed() throws IOException {
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        match.resignGame(white, red);
+        assertTrue(restart().replay(Collections.emptyList(), Player::new).isEmpty(), "Ended match played again");
+    }
+
+    @Test
+    void checkRemovedNotReplayed() throws IOException {
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        // both players left the running match
+        assertTrue(gameCenter.removeMatch(match), "Match not removed");
+
+        List<Match> replayed = restart().replay(Collections.emptyList(), Player::new);
+        assertTrue(replayed.isEmpty(), "Removed match played again");
+        GameCenter restarted = new GameCenter(new PlayerServices());
+        restarted.restoreMatches(replayed);
+        assertFalse(restarted.isInMatch(new Player("One")), "Player put back into a match they left");
+        List<MatchEvent> events = new ArrayList<>();
+        CuT.read(events::add);
+        assertEquals(MatchEvent.Type.REMOVED, events.get(events.size() - 1).getType(), "Removal not logged");
+    }
+
+    @Test
+    void checkNoTurnLostAfterSnapshot() throws IOException {
+        Map<String, byte[]> snapshots = new HashMap<>();
+        Storage storage = mock(Storage.class);
+        when(storage.saveMatchSnapshot(anyString(), any())).thenAnswer(invocation -> {
+            snapshots.put(invocation.getArgument(0), invocation.getArgument(1));
+            return true;
+        });
+        when(storage.readMatchSnapshots()).thenReturn(snapshots);
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        // a few matches more, so that the segments before the snapshot fill up
+        for (int i = 0; i < 4; i++)
+            gameCenter.addMatch(new Player("Red" + i), new Player("White" + i));
+        assertEquals(5, new SnapshotService(gameCenter, storage, CuT).snapshot(), "Live matches not saved");
+        // played after the snapshot, so only in the log
+        assertTrue(match.playTurn(match.getWhitePlayer(), WHITE_TURN).isPlayed(), "White's turn refused");
+        long deleted;
+        try (Stream<Path> files = Files.list(directory)) {
+            deleted = files.filter(file -> file.getFileName().toString().startsWith("00000000000000000001")).count();
+        }
+        assertEquals(0, deleted, "Segments before the snapshot kept");
+
+        GameCenter restarted = new GameCenter(new PlayerServices());
+        assertEquals(5, new SnapshotService(restarted, storage, restart()).restore(), "Matches not brought back");
+        Match again = restarted.getMatch(new Player("One"));
+        assertEquals(2, again.getTurns(), "Turn after the snapshot lost");
+        assertEquals(match.getBoardHistory().latest().getBoard(), again.getBoardHistory().latest().getBoard(),
+                "Board changed");
+    }
+}
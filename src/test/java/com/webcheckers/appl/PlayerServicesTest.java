@@ -1,12 +1,15 @@
 package com.webcheckers.appl;
 
 
+import com.webcheckers.model.LobbyEvent;
 import com.webcheckers.model.Player;
+import com.webcheckers.util.EventBus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -88,4 +91,36 @@ public class PlayerServicesTest {
 
         assertFalse(CuT.isAvailable(playerTwo), "PlayerTwo should not be available");
     }
+
+    @Test
+    void checkLobbyEvents() {
+        EventBus.Subscription<LobbyEvent> lobby = CuT.getLobbyEvents().subscribe(10);
+        CuT.addPlayer(playerOne);
+        CuT.addPlayer(playerOne);
+        CuT.changeStatus(playerOne, Player.Status.ingame);
+        CuT.changeStatus(playerOne, Player.Status.ingame);
+        CuT.removePlayer(playerOne);
+        CuT.removePlayer(playerOne);
+
+        List<LobbyEvent> events = new ArrayList<>();
+        lobby.drainTo(events);
+        assertEquals(3, events.size(), "Repeated changes were published");
+        assertEquals(LobbyEvent.Type.joined, events.get(0).getType(), "Sign in not published");
+        assertEquals(LobbyEvent.Type.status, events.get(1).getType(), "Status change not published");
+        assertEquals(Player.Status.ingame, events.get(1).getStatus(), "Wrong status published");
+        assertEquals(LobbyEvent.Type.left, events.get(2).getType(), "Sign out not published");
+    }
+
+    @Test
+    void checkChallengeOnlyForChallenged() {
+        CuT.challenge(playerTwo, playerOne);
+        EventBus.Subscription<LobbyEvent> one = CuT.getLobbyEvents().subscribe(10, e -> e.isFor("One"));
+        EventBus.Subscription<LobbyEvent> two = CuT.getLobbyEvents().subscribe(10, e -> e.isFor("Two"));
+        CuT.challenge(playerTwo, playerOne);
+
+        assertEquals(0, one.size(), "Challenger told of the challenge");
+        List<LobbyEvent> events = new ArrayList<>();
+        two.drainTo(events);
+        assertEquals("One", events.get(0).getOpponent(), "Challenger not named");
+    }
 }
@@ -0,0 +1,123 @@
+package com.webcheckers.appl;
+
+import com.google.gson.Gson;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class PushServiceTest {
+    private PushService CuT;
+    private Player red = new Player("One");
+    private Player white = new Player("Two");
+    private Match match;
+
+    /**
+     * Collects what is pushed to a player
+     */
+    private static class FakeSink implements PushService.EventSink {
+        private final List<String> sent = new ArrayList<>();
+        private boolean closed = false;
+
+        @Override
+        public void send(String json) {
+            sent.add(json);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        CuT = new PushService(new Gson());
+        match = new Match(red, white);
+        match.addListener(CuT);
+    }
+
+    @Test
+    void checkConnect() {
+        String token = CuT.issueToken(red);
+        assertEquals("One", CuT.connect(token, new FakeSink()), "Token did not name its player");
+        assertTrue(CuT.isConnected("One"), "Channel not open");
+        assertNull(CuT.connect("no such token", new FakeSink()), "Unknown token connected");
+        assertNull(CuT.connect(null, new FakeSink()), "Missing token connected");
+    }
+
+    @Test
+    void checkNewTokenReplacesOld() {
+        String old = CuT.issueToken(red);
+        CuT.issueToken(red);
+        assertNull(CuT.connect(old, new FakeSink()), "An old token still connects");
+    }
+
+    @Test
+    void checkReconnectClosesOldChannel() {
+        String token = CuT.issueToken(red);
+        FakeSink first = new FakeSink();
+        FakeSink second = new FakeSink();
+        CuT.connect(token, first);
+        CuT.connect(token, second);
+        assertTrue(first.closed, "Replaced channel left open");
+
+        // the old channel closing must not forget the new one
+        CuT.disconnect("One", first);
+        assertTrue(CuT.isConnected("One"), "New channel forgotten");
+        CuT.disconnect("One", second);
+        assertFalse(CuT.isConnected("One"), "Closed channel still connected");
+    }
+
+    @Test
+    void checkTurnEvents() {
+        FakeSink redSink = new FakeSink();
+        FakeSink whiteSink = new FakeSink();
+        CuT.connect(CuT.issueToken(red), redSink);
+        CuT.connect(CuT.issueToken(white), whiteSink);
+
+        match.endTurn(Collections.singletonList(new Move(new Position(5, 0), new Position(4, 1))));
+
+        assertEquals(1, redSink.sent.size(), "Mover not told once");
+        assertTrue(redSink.sent.get(0).contains(PushService.TURN_CHANGED), "Mover not told the turn changed");
+        assertEquals(1, whiteSink.sent.size(), "Opponent not told once");
+        assertTrue(whiteSink.sent.get(0).contains(PushService.OPPONENT_MOVED), "Opponent not told of the move");
+        assertTrue(whiteSink.sent.get(0).contains("\"moves\""), "Moves not sent to the opponent");
+        assertTrue(whiteSink.sent.get(0).contains("WHITE"), "New active color not sent");
+    }
+
+    @Test
+    void checkGameEndEvents() {
+        FakeSink redSink = new FakeSink();
+        FakeSink whiteSink = new FakeSink();
+        CuT.connect(CuT.issueToken(red), redSink);
+        CuT.connect(CuT.issueToken(white), whiteSink);
+
+        match.resignGame(red, white);
+        match.resignGame(red, white);
+
+        assertEquals(1, redSink.sent.size(), "Game end not sent once");
+        assertTrue(redSink.sent.get(0).contains(PushService.RESIGNED), "Resignation not sent");
+        assertEquals(redSink.sent, whiteSink.sent, "Players told different things");
+    }
+
+    @Test
+    void checkUnconnectedPlayerSkipped() {
+        FakeSink redSink = new FakeSink();
+        CuT.connect(CuT.issueToken(red), redSink);
+
+        match.setWinner(red);
+
+        assertTrue(redSink.sent.get(0).contains(PushService.GAME_OVER), "Game over not sent");
+    }
+}
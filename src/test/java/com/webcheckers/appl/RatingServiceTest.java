@@ -0,0 +1,131 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.EloRating;
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.model.RatingAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Tag("Application-tier")
+public class RatingServiceTest {
+    private RatingService CuT;
+    private Player playerOne;
+    private Player playerTwo;
+
+    @BeforeEach
+    void setup() {
+        CuT = new RatingService();
+        playerOne = new Player("One");
+        playerTwo = new Player("Two");
+    }
+
+    @Test
+    void checkRecordResult() {
+        Match match = new Match(playerOne, playerTwo);
+        GameResult result = CuT.recordResult(match, playerOne, playerTwo);
+        assertNotNull(result, "Result not recorded");
+        assertEquals("One", result.getWinner(), "Wrong winner");
+        // two equal players move by half of K
+        assertEquals(Player.DEFAULT_RATING + EloRating.DEFAULT_K / 2, playerOne.getRating(), 1e-9, "Wrong winner rating");
+        assertEquals(Player.DEFAULT_RATING - EloRating.DEFAULT_K / 2, playerTwo.getRating(), 1e-9, "Wrong loser rating");
+        assertEquals(1, CuT.numGames(), "Result not archived");
+    }
+
+    @Test
+    void checkRecordResultOnce() {
+        Match match = new Match(playerOne, playerTwo);
+        CuT.recordResult(match, playerOne, playerTwo);
+        double rating = playerOne.getRating();
+        assertNull(CuT.recordResult(match, playerOne, playerTwo), "Match recorded twice");
+        assertEquals(rating, playerOne.getRating(), "Rating changed twice");
+        assertEquals(1, CuT.numGames(), "Match archived twice");
+    }
+
+    @Test
+    void checkRecomputeMatchesIncremental() {
+        Random random = new Random(7);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            players.add(new Player("P" + i));
+        for (int g = 0; g < 500; g++) {
+            Player winner = players.get(random.nextInt(players.size()));
+            Player loser = players.get(random.nextInt(players.size()));
+            if (winner != loser)
+                CuT.recordResult(new Match(winner, loser), winner, loser);
+        }
+
+        // periods of one game replay the archive exactly as it was recorded
+        Map<String, Double> ratings = CuT.recompute(new EloRating(), 1);
+        for (Player player : players) {
+            if (ratings.containsKey(player.getName()))
+                assertEquals(player.getRating(), ratings.get(player.getName()), 1e-6, "Ratings differ for " + player.getName());
+        }
+    }
+
+    @Test
+    void checkRecomputeWithPeriods() {
+        CuT.loadArchive(Arrays.asList(new GameResult("One", "Two", 1), new GameResult("One", "Three", 2)));
+        RatingAlgorithm rating = CuT.getAlgorithm();
+        Map<String, Double> ratings = CuT.recompute(new EloRating(10, 1000), RatingService.DEFAULT_PERIOD_SIZE);
+        // both games are scored against the starting ratings
+        assertEquals(1010, ratings.get("One"), 1e-9, "Wrong rating for the winner");
+        assertEquals(995, ratings.get("Two"), 1e-9, "Wrong rating for a loser");
+        assertEquals(995, ratings.get("Three"), 1e-9, "Wrong rating for a loser");
+        assertSame(rating, CuT.getAlgorithm(), "Algorithm changed by a dry run");
+    }
+
+    @Test
+    void checkApply() {
+        CuT.loadArchive(Arrays.asList(new GameResult("One", "Two", 1), new GameResult("One", "Three", 2)));
+        PlayerServices playerServices = new PlayerServices();
+        playerServices.addPlayer(playerOne);
+        Storage storage = mock(Storage.class);
+        when(storage.findPlayer("Two")).thenReturn(playerTwo);
+        when(storage.savePlayers(any())).thenReturn(true);
+        PlayerStats stats = new PlayerStats("One", 2, 2, 0, 0, 0, 1010);
+        when(storage.readAllStats()).thenReturn(Collections.singletonList(stats));
+        LeaderboardService leaderboardService = new LeaderboardService();
+        RatingAlgorithm rating = new EloRating(10, 1000);
+
+        Map<String, Double> ratings = CuT.apply(rating, RatingService.DEFAULT_PERIOD_SIZE, playerServices, storage,
+                leaderboardService);
+
+        assertEquals(1010, ratings.get("One"), 1e-9, "Wrong rating for the winner");
+        assertEquals(1010, playerOne.getRating(), 1e-9, "Player signed in not re-rated");
+        assertEquals(995, playerTwo.getRating(), 1e-9, "Stored player not re-rated");
+        verify(storage).savePlayers(argThat((Collection<Player> players) -> players.size() == 3));
+        assertEquals(1, leaderboardService.numPlayers(), "Leaderboard not loaded again");
+        assertSame(rating, CuT.getAlgorithm(), "Algorithm not swapped");
+    }
+
+    @Test
+    void checkApplyNotSaved() {
+        CuT.loadArchive(Collections.singletonList(new GameResult("One", "Two", 1)));
+        PlayerServices playerServices = new PlayerServices();
+        playerServices.addPlayer(playerOne);
+        Storage storage = mock(Storage.class);
+        when(storage.savePlayers(any())).thenReturn(false);
+        RatingAlgorithm rating = CuT.getAlgorithm();
+
+        assertNull(CuT.apply(new EloRating(10, 1000), 1, playerServices, storage, new LeaderboardService()),
+                "Ratings applied without being saved");
+        assertEquals(Player.DEFAULT_RATING, playerOne.getRating(), 1e-9, "Player re-rated without a save");
+        assertSame(rating, CuT.getAlgorithm(), "Algorithm swapped without a save");
+    }
+}
@@ -0,0 +1,114 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.BoardHistory;
+import com.webcheckers.model.GameRecord;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.SegmentedLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class ReplayArchiveTest {
+    private ReplayArchive CuT;
+    private Path directory;
+    private GameCenter gameCenter;
+    private Player red;
+    private Player white;
+
+    private static final List<Move> RED_TURN = Collections.singletonList(
+            new Move(new Position(5, 0), new Position(4, 1)));
+    private static final List<Move> WHITE_TURN = Collections.singletonList(
+            new Move(new Position(5, 2), new Position(4, 3)));
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("replays");
+        CuT = open();
+        gameCenter = new GameCenter(new PlayerServices());
+        gameCenter.addMatchListener(CuT);
+        red = new Player("One");
+        white = new Player("Two");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        CuT.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    /**
+     * The archive, as a server starting on the same directory opens it
+     */
+    private ReplayArchive open() throws IOException {
+        SegmentedLog log = new SegmentedLog(directory, 256);
+        log.open();
+        ReplayArchive archive = new ReplayArchive(log, 1);
+        archive.load();
+        return archive;
+    }
+
+    /**
+     * Play a match of two turns that the red player resigns
+     */
+    private Match play(Player red, Player white) {
+        gameCenter.addMatch(red, white);
+        Match match = gameCenter.getMatch(red);
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        assertTrue(match.playTurn(match.getWhitePlayer(), WHITE_TURN).isPlayed(), "White's turn refused");
+        match.resignGame(white, red);
+        return match;
+    }
+
+    @Test
+    void checkGameArchived() {
+        Match match = play(red, white);
+        GameRecord game = CuT.get(match.getId());
+        assertNotNull(game, "Game not archived");
+        assertEquals(2, game.numTurns(), "Turns lost");
+        assertEquals(match.getGameOverMessage(), game.getMessage(), "End lost");
+        int[] masks = new int[BoardCodec.MASKS];
+        game.seek(2, masks);
+        assertEquals(match.getBoardHistory().latest().getBoard(), BoardHistory.squares(masks),
+                "Last position wrong");
+        assertEquals(Collections.singletonList(game), CuT.gamesOf("Two", ReplayArchive.DEFAULT_LIST_SIZE),
+                "Game not listed for its player");
+        assertTrue(CuT.gamesOf("Three", ReplayArchive.DEFAULT_LIST_SIZE).isEmpty(), "Game listed for another");
+    }
+
+    @Test
+    void checkArchiveReadAgain() throws IOException {
+        Match first = play(red, white);
+        // a new game center, as the first still has the players in a match
+        gameCenter = new GameCenter(new PlayerServices());
+        gameCenter.addMatchListener(CuT);
+        Match second = play(new Player("One"), new Player("Three"));
+        CuT.close();
+        CuT = open();
+        assertEquals(2, CuT.size(), "Games not read again");
+        List<GameRecord> games = CuT.gamesOf("One", 1);
+        assertEquals(1, games.size(), "Limit not kept");
+        assertEquals(second.getId(), games.get(0).getId(), "Newest game not first");
+        assertEquals(first.getGameOverMessage(), CuT.get(first.getId()).getMessage(), "End lost");
+        assertTrue(new Match(red, white).getId() > second.getId(), "Id of an archived game taken");
+    }
+}
@@ -0,0 +1,141 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("Application-tier")
+public class SnapshotServiceTest {
+    private SnapshotService CuT;
+    private GameCenter gameCenter;
+    private Storage storage;
+    private Map<String, byte[]> snapshots;
+    private Player red;
+    private Player white;
+
+    @BeforeEach
+    public void setup() {
+        snapshots = new HashMap<>();
+        storage = mock(Storage.class);
+        when(storage.saveMatchSnapshot(anyString(), any())).thenAnswer(invocation -> {
+            snapshots.put(invocation.getArgument(0), invocation.getArgument(1));
+            return true;
+        });
+        when(storage.readMatchSnapshots()).thenReturn(snapshots);
+        gameCenter = new GameCenter(new PlayerServices());
+        CuT = new SnapshotService(gameCenter, storage);
+        red = new Player("One");
+        white = new Player("Two");
+        gameCenter.addMatch(red, white);
+    }
+
+    /**
+     * A service restarting on the snapshot of this one, with no matches of its own
+     */
+    private GameCenter restart() {
+        GameCenter restarted = new GameCenter(new PlayerServices());
+        assertEquals(1, new SnapshotService(restarted, storage).restore(), "Match not brought back");
+        return restarted;
+    }
+
+    @Test
+    void checkRoundTrip() {
+        Match match = gameCenter.getMatch(red);
+        assertEquals(Message.Type.INFO, match.validateMove(new Move(new Position(5, 0), new Position(4, 1))).getType(),
+                "Red's move refused");
+        assertEquals(Message.Type.INFO, match.submitTurn().getType(), "Red's turn refused");
+        Move pending = new Move(new Position(5, 2), new Position(4, 3));
+        assertEquals(Message.Type.INFO, match.validateMove(pending).getType(), "White's move refused");
+
+        assertEquals(1, CuT.snapshot(), "Live match not saved");
+        Match restored = restart().getMatch(new Player("Two"));
+
+        assertNotNull(restored, "Player not in the match brought back");
+        assertEquals(match.getId(), restored.getId(), "Id changed");
+        assertEquals("One", restored.getRedPlayer().getName(), "Red player changed");
+        assertEquals("Two", restored.getWhitePlayer().getName(), "White player changed");
+        assertEquals(Piece.Color.WHITE, restored.getActiveColor(), "Turn changed");
+        assertEquals(Collections.singletonList(pending), restored.getMoves(), "Pending move lost");
+        assertEquals(match.getBoardHistory().latest().getBoard(), restored.getBoardHistory().latest().getBoard(),
+                "Board changed");
+        assertEquals(match.getRedPieces().size(), restored.getRedPieces().size(), "Red pieces changed");
+        assertEquals(match.getWhitePieces().size(), restored.getWhitePieces().size(), "White pieces changed");
+
+        assertEquals(Message.Type.INFO, restored.submitTurn().getType(), "Pending move not playable");
+        assertEquals(Piece.Color.RED, restored.getActiveColor(), "Turn not passed on");
+    }
+
+    @Test
+    void checkRejoin() {
+        CuT.snapshot();
+        GameCenter restarted = restart();
+        Player signingIn = new Player("One");
+        Player rejoined = restarted.rejoin(signingIn);
+
+        assertSame(restarted.getMatch(signingIn).getRedPlayer(), rejoined, "Player not signed in as their match's");
+        assertTrue(rejoined.isInGame(), "Player brought back out of game");
+        Player stranger = new Player("Three");
+        assertSame(stranger, restarted.rejoin(stranger), "Player in no match changed");
+        assertFalse(restarted.addMatch(new Player("Two"), stranger), "Player brought back challenged again");
+    }
+
+    @Test
+    void checkEndedNotSaved() {
+        gameCenter.getMatch(red).resignGame(red, white);
+        assertEquals(0, CuT.snapshot(), "Ended match saved");
+        assertEquals(0, new SnapshotService(new GameCenter(new PlayerServices()), storage).restore(),
+                "Ended match brought back");
+    }
+
+    @Test
+    void checkDamagedSnapshot() {
+        Player third = new Player("Three");
+        Player fourth = new Player("Four");
+        gameCenter.addMatch(third, fourth);
+        assertEquals(2, CuT.snapshot(), "Live matches not saved");
+        byte[] saved = snapshots.get(SnapshotService.LIVE_ID);
+
+        snapshots.put(SnapshotService.LIVE_ID, Arrays.copyOf(saved, saved.length - 1));
+        assertEquals(1, new SnapshotService(new GameCenter(new PlayerServices()), storage).restore(),
+                "Matches before the cut not brought back");
+        snapshots.put(SnapshotService.LIVE_ID, new byte[]{1, 2, 3});
+        assertEquals(0, new SnapshotService(new GameCenter(new PlayerServices()), storage).restore(),
+                "Unknown snapshot brought back");
+        snapshots.clear();
+        assertEquals(0, new SnapshotService(new GameCenter(new PlayerServices()), storage).restore(),
+                "Missing snapshot brought back");
+    }
+
+    @Test
+    void checkSaveFails() {
+        when(storage.saveMatchSnapshot(eq(SnapshotService.LIVE_ID), any())).thenReturn(false);
+        assertEquals(-1, CuT.snapshot(), "Failed save reported saved");
+    }
+
+    @Test
+    void checkStop() {
+        CuT.start(3600);
+        assertEquals(1, CuT.stop(), "Live match not saved on stop");
+        List<Match> live = gameCenter.liveMatches();
+        assertEquals(1, live.size(), "Stopping changed the matches");
+    }
+}
@@ -0,0 +1,99 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.model.SpectatorFrame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class SpectatorServiceTest {
+    private SpectatorService CuT;
+    private GameCenter gameCenter;
+    private Player red;
+    private Player white;
+    private Match match;
+
+    private static final List<Move> RED_TURN = Collections.singletonList(
+            new Move(new Position(5, 0), new Position(4, 1)));
+
+    @BeforeEach
+    void setup() {
+        CuT = new SpectatorService(1);
+        gameCenter = new GameCenter(new PlayerServices());
+        gameCenter.addMatchListener(CuT);
+        red = new Player("One");
+        white = new Player("Two");
+        gameCenter.addMatch(red, white);
+        match = gameCenter.getMatch(red);
+    }
+
+    @Test
+    void checkFramePerTurn() {
+        SpectatorFrame started = CuT.frame(match.getId());
+        assertNotNull(started, "No frame of the start");
+        assertEquals(Piece.Color.RED, started.getActiveColor(), "Red does not move first");
+        assertSame(started, CuT.frame(match.getId()), "Frame not shared");
+        assertSame(started.getBoard(), started.getBoard(), "Board built again");
+
+        assertTrue(match.playTurn(match.getRedPlayer(), RED_TURN).isPlayed(), "Red's turn refused");
+        SpectatorFrame turn = CuT.frame(match.getId());
+        assertTrue(turn.getVersion() > started.getVersion(), "Frame not newer");
+        assertNotEquals(started.getTag(), turn.getTag(), "Tag not changed");
+        assertEquals(Piece.Color.WHITE, turn.getActiveColor(), "Turn not changed");
+        assertEquals(match.getBoardHistory().latest().getVersion(), turn.getBoardVersion(), "Board version wrong");
+        assertNotNull(turn.getBoard().getSpace(4, 1).getPiece(), "Move not shown");
+        assertNull(turn.getBoard().getSpace(5, 0).getPiece(), "Piece left behind");
+        assertEquals("{\"isGameOver\":false}", turn.getModeOptions(), "Mode options wrong");
+    }
+
+    @Test
+    void checkEndedFrames() {
+        match.resignGame(white, red);
+        SpectatorFrame ended = CuT.frame(match.getId());
+        assertTrue(ended.isGameOver(), "End not shown");
+        assertEquals("One has resigned.", ended.getGameOverMessage(), "Message of the end lost");
+        assertTrue(CuT.liveFrames(SpectatorService.DEFAULT_LIST_SIZE).isEmpty(), "Ended match listed");
+
+        Match second = new Match(new Player("Three"), new Player("Four"));
+        second.addListener(CuT);
+        CuT.matchStarted(second);
+        assertEquals(1, CuT.liveFrames(SpectatorService.DEFAULT_LIST_SIZE).size(), "Match not listed");
+        second.resignGame(second.getWhitePlayer(), second.getRedPlayer());
+        assertNull(CuT.frame(match.getId()), "Oldest ended match kept");
+        assertNotNull(CuT.frame(second.getId()), "Latest ended match forgotten");
+    }
+
+    @Test
+    void checkRemovedMatches() {
+        assertTrue(gameCenter.removeMatch(match), "Match not removed");
+        assertNull(CuT.frame(match.getId()), "Frame of a match left running kept");
+        assertTrue(CuT.liveFrames(SpectatorService.DEFAULT_LIST_SIZE).isEmpty(), "Match left running listed");
+
+        Player third = new Player("Three");
+        gameCenter.addMatch(third, new Player("Four"));
+        Match second = gameCenter.getMatch(third);
+        second.resignGame(second.getWhitePlayer(), third);
+        assertTrue(gameCenter.removeMatch(second), "Ended match not removed");
+        assertNotNull(CuT.frame(second.getId()), "Frame of an ended match dropped before its time");
+    }
+
+    @Test
+    void checkRestoredMatches() {
+        SpectatorService restarted = new SpectatorService();
+        assertNull(restarted.frame(match.getId()), "Frame of an unknown match");
+        assertEquals(1, restarted.publish(gameCenter.liveMatches()), "Live match not taken");
+        SpectatorFrame frame = restarted.frame(match.getId());
+        assertEquals("Two", frame.getWhitePlayer(), "Player of a restored match wrong");
+        assertEquals(match.getStateVersion(), frame.getVersion(), "Version of a restored match wrong");
+    }
+}
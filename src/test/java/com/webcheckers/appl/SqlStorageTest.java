@@ -0,0 +1,97 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class SqlStorageTest {
+    private SqlStorage CuT;
+
+    @BeforeEach
+    void setup() {
+        // a private in-memory database that lives as long as the pool keeps a connection open
+        CuT = new SqlStorage("jdbc:h2:mem:" + UUID.randomUUID(), 2);
+        CuT.open();
+    }
+
+    @AfterEach
+    void cleanup() {
+        CuT.close();
+    }
+
+    @Test
+    void checkFindOrAddPlayer() {
+        assertNull(CuT.findPlayer("One"), "Unknown player found");
+        assertEquals("One", CuT.findOrAddPlayer("One").getName(), "Player not added");
+        assertNotNull(CuT.findPlayer("One"), "Added player not stored");
+    }
+
+    @Test
+    void checkSavePlayer() {
+        Player player = new Player("One", 3, 2, 1, 4, 5, 1516.5);
+        assertTrue(CuT.savePlayer(player), "Player not saved");
+        player.addWon();
+        assertTrue(CuT.savePlayer(player), "Player not replaced");
+
+        Player found = CuT.findPlayer("One");
+        assertEquals(4, found.getGames(), "Games not saved");
+        assertEquals(3, found.getWon(), "Wins not saved");
+        assertEquals(1516.5, found.getRating(), "Rating not saved");
+    }
+
+    @Test
+    void checkSavePlayers() {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            players.add(new Player("P" + i, i, i, 0, 0, 0));
+        assertTrue(CuT.savePlayers(players), "Batch not saved");
+        assertTrue(CuT.savePlayers(players), "Batch not merged");
+
+        List<PlayerStats> stats = CuT.readAllStats();
+        assertEquals(50, stats.size(), "Wrong number of players");
+        assertEquals(7, CuT.findPlayer("P7").getWon(), "Wrong records");
+    }
+
+    @Test
+    void checkGameResults() {
+        GameResult first = new GameResult("One", "Two", 1);
+        GameResult second = new GameResult("Two", "One", 2);
+        assertTrue(CuT.appendGameResult(first), "Result not saved");
+        assertTrue(CuT.appendGameResult(second), "Result not saved");
+        assertEquals(Arrays.asList(first, second), CuT.readGameResults(), "Archive not in order");
+    }
+
+    @Test
+    void checkMatchSnapshots() {
+        assertTrue(CuT.saveMatchSnapshot("m1", new byte[]{1, 2}), "Snapshot not saved");
+        assertTrue(CuT.saveMatchSnapshot("m1", new byte[]{3}), "Snapshot not replaced");
+        assertFalse(CuT.saveMatchSnapshot("../m2", new byte[]{4}), "Unsafe id accepted");
+
+        Map<String, byte[]> snapshots = CuT.readMatchSnapshots();
+        assertEquals(1, snapshots.size(), "Wrong number of snapshots");
+        assertArrayEquals(new byte[]{3}, snapshots.get("m1"), "Wrong snapshot");
+
+        assertTrue(CuT.deleteMatchSnapshot("m1"), "Snapshot not deleted");
+        assertFalse(CuT.deleteMatchSnapshot("m1"), "Snapshot deleted twice");
+    }
+
+    @Test
+    void checkClosed() {
+        CuT.close();
+        assertFalse(CuT.savePlayer(new Player("One")), "Saved after close");
+        assertTrue(CuT.readAllStats().isEmpty(), "Read after close");
+    }
+}
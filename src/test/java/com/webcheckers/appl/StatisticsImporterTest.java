@@ -0,0 +1,98 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CSVutility;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.PlayerStats;
+import com.webcheckers.model.RankingMetric;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class StatisticsImporterTest {
+    private StatisticsImporter CuT;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        // tiny chunks so that even a small file is split between tasks
+        CuT = new StatisticsImporter(ForkJoinPool.commonPool(), 16);
+        file = Files.createTempFile("statistics", ".csv");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void write(String contents) throws IOException {
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void checkImport() throws IOException {
+        write("\"One\",\"10\",\"7\",\"3\",\"20\",\"5\"\n" +
+                "\"Two\",\"4\",\"1\",\"3\",\"40\",\"30\",\"1600.4\"\r\n" +
+                "Three,10,2,8,9,9\n");
+        ImportReport report = CuT.importFile(file);
+        assertEquals(3, report.getRowsRead(), "Wrong number of rows");
+        assertEquals(0, report.getRejectedRows(), "Valid rows rejected: " + report.getRejections());
+        PlayerStats two = report.getPlayers().get(1);
+        assertEquals("Two", two.getName(), "Rows out of order");
+        assertEquals(30, two.getPiecesLost(), "Wrong pieces lost");
+        assertEquals(1600, two.getRating(), "Wrong rating");
+    }
+
+    @Test
+    void checkRejections() throws IOException {
+        write("\"One\",\"10\",\"7\",\"3\",\"20\",\"5\"\n" +
+                "\"Bad!\",\"1\",\"1\",\"0\",\"0\",\"0\"\n" +
+                "\"Short\",\"1\"\n" +
+                "\"Count\",\"1\",\"x\",\"0\",\"0\",\"0\"\n" +
+                "\"One\",\"1\",\"1\",\"0\",\"0\",\"0\"\n");
+        ImportReport report = CuT.importFile(file);
+        assertEquals(5, report.getRowsRead(), "Wrong number of rows");
+        assertEquals(1, report.getAcceptedRows(), "Wrong number of rows kept");
+        assertEquals(4, report.getRejectedRows(), "Wrong number of rows rejected");
+        assertEquals(2, report.getRejections().get(0).getLine(), "Wrong line for a bad name");
+        assertEquals(3, report.getRejections().get(1).getLine(), "Wrong line for a short row");
+        assertTrue(report.getRejections().get(2).getReason().startsWith("won"), "Wrong reason for a bad count");
+        assertEquals(5, report.getRejections().get(3).getLine(), "Wrong line for a repeated player");
+    }
+
+    @Test
+    void checkImportInto() throws IOException {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            contents.append("\"P").append(i).append("\",\"").append(i).append("\",\"0\",\"0\",\"0\",\"0\"\n");
+        write(contents.toString());
+        LeaderboardService leaderboardService = new LeaderboardService();
+        ImportReport report = CuT.importInto(file, leaderboardService);
+        assertEquals(1000, report.getAcceptedRows(), "Rows lost");
+        assertEquals(1000, leaderboardService.numPlayers(), "Players not loaded");
+        assertEquals("P999", leaderboardService.getTopPlayers(RankingMetric.GAMES, 1).get(0).getName(),
+                "Wrong leader");
+        assertEquals(1000, leaderboardService.rankOf("P0", RankingMetric.GAMES), "Wrong rank after a bulk load");
+    }
+
+    @Test
+    void checkChecksums() throws IOException {
+        String[] record = CSVutility.toRecord(new Player("One", 10, 7, 3, 20, 5));
+        String good = "\"" + String.join("\",\"", record) + "\"\n";
+        record[1] = "11";
+        String damaged = "\"" + String.join("\",\"", record) + "\"\n";
+        write(good + damaged);
+        ImportReport report = CuT.importFile(file);
+        assertEquals(1, report.getAcceptedRows(), "Checksummed row not kept");
+        assertEquals("checksum does not match", report.getRejections().get(0).getReason(), "Damaged row kept");
+    }
+}
@@ -0,0 +1,104 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class BoardCodecTest {
+
+    private static final String START_FEN =
+            "B:W21,22,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,11,12";
+
+    private int[] start;
+
+    @BeforeEach
+    void setup() {
+        start = new int[BoardCodec.MASKS];
+        BoardCodec.encode(new BoardView(Piece.Color.RED), start);
+    }
+
+    @Test
+    void checkSquares() {
+        for (int square = 0; square < BoardCodec.SQUARES; square++) {
+            assertEquals(square, BoardCodec.square(BoardCodec.row(square), BoardCodec.cell(square)),
+                    "Square " + square + " not found again");
+        }
+        assertEquals(-1, BoardCodec.square(0, 0), "Light square has a number");
+    }
+
+    @Test
+    void checkStart() {
+        assertEquals(0xfff00000, start[BoardCodec.RED], "Red not on the bottom three rows");
+        assertEquals(0x00000fff, start[BoardCodec.WHITE], "White not on the top three rows");
+        assertEquals(0, start[BoardCodec.KINGS], "Kings at the start");
+
+        int[] white = new int[BoardCodec.MASKS];
+        BoardCodec.encode(new BoardView(Piece.Color.WHITE), white);
+        BoardCodec.flip(white);
+        assertArrayEquals(start, white, "White's board is not red's turned around");
+    }
+
+    @Test
+    void checkBoardView() {
+        int[] position = {1 << 20, 1 << 3 | 1 << 4, 1 << 4};
+        BoardView board = new BoardView(Piece.Color.RED);
+        BoardCodec.decode(position, board);
+        int[] back = new int[BoardCodec.MASKS];
+        BoardCodec.encode(board, back);
+        assertArrayEquals(position, back, "Board not decoded");
+        assertEquals(Piece.Type.KING, board.getSpace(1, 0).getPiece().getType(), "King not placed");
+        assertTrue(board.getSpace(7, 0).isValid(), "Emptied square not valid");
+    }
+
+    @Test
+    void checkBytes() {
+        start[BoardCodec.KINGS] = 1 << 31;
+        byte[] bytes = new byte[BoardCodec.BYTES + 2];
+        BoardCodec.write(start, Piece.Color.WHITE, bytes, 2);
+        int[] back = new int[BoardCodec.MASKS];
+        assertEquals(Piece.Color.WHITE, BoardCodec.read(bytes, 2, back), "Color to move lost");
+        assertArrayEquals(start, back, "Position not read back");
+    }
+
+    @Test
+    void checkText() {
+        String text = BoardCodec.toText(start, Piece.Color.RED);
+        assertEquals(BoardCodec.TEXT_LENGTH, text.length(), "Wrong text length");
+        byte[] bytes = new byte[BoardCodec.BYTES];
+        BoardCodec.write(start, Piece.Color.RED, bytes, 0);
+        assertEquals(java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), text,
+                "Not base64");
+
+        int[] back = new int[BoardCodec.MASKS];
+        assertEquals(Piece.Color.RED, BoardCodec.fromText(text, back), "Color to move lost");
+        assertArrayEquals(start, back, "Position not read back");
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.fromText("!" + text.substring(1), back),
+                "Bad text read");
+    }
+
+    @Test
+    void checkFen() {
+        assertEquals(START_FEN, BoardCodec.toFen(start, Piece.Color.RED), "Wrong FEN for the start");
+        int[] back = new int[BoardCodec.MASKS];
+        assertEquals(Piece.Color.RED, BoardCodec.fromFen(START_FEN, back), "Color to move lost");
+        assertArrayEquals(start, back, "FEN not read back");
+
+        assertEquals(Piece.Color.WHITE, BoardCodec.fromFen("W:WK4:B29", back), "Color to move lost");
+        assertArrayEquals(new int[] {1 << 3, 1 << 28, 1 << 28}, back, "Kings not read");
+        assertEquals("W:WK4:B29", BoardCodec.toFen(back, Piece.Color.WHITE), "Kings not written");
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.fromFen("B:W33:B1", back), "Bad square read");
+    }
+
+    @Test
+    void checkInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardCodec.read(new byte[] {0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0}, 0, new int[3]),
+                "Both colors on a square");
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardCodec.read(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0}, 0, new int[3]),
+                "King on an empty square");
+    }
+}
@@ -0,0 +1,74 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class BoardHistoryTest {
+
+    private static final String START =
+            ".w.w.w.w" + "w.w.w.w." + ".w.w.w.w" + "........" +
+            "........" + "r.r.r.r." + ".r.r.r.r" + "r.r.r.r.";
+
+    /**
+     * Gets the masks of a board written as 64 characters
+     */
+    private static int[] position(String squares) {
+        int[] position = new int[BoardCodec.MASKS];
+        BoardCodec.fromSquares(squares, position);
+        return position;
+    }
+
+    @Test
+    void checkSquares() {
+        BoardHistory CuT = new BoardHistory(new BoardView(Piece.Color.RED));
+        assertEquals(START, CuT.latest().getBoard(), "Starting board not encoded");
+        int[] white = CuT.latest().getPosition();
+        BoardCodec.flip(white);
+        assertEquals(new StringBuilder(START).reverse().toString(), BoardHistory.squares(white),
+                "White's board is not red's turned around");
+    }
+
+    @Test
+    void checkHistory() {
+        BoardHistory CuT = new BoardHistory(new BoardView(Piece.Color.RED), 2);
+        int[] b = position(START.replace('w', '.'));
+        int[] c = position(START.replace('r', '.'));
+        assertEquals(0, CuT.latest().getVersion(), "History does not start at version 0");
+        assertEquals(1, CuT.record(b), "Wrong version recorded");
+        assertEquals(2, CuT.record(c), "Wrong version recorded");
+
+        assertArrayEquals(c, CuT.latest().getPosition(), "Latest board not kept");
+        assertArrayEquals(b, CuT.at(1), "Earlier board not kept");
+        assertNull(CuT.at(0), "Board kept past the capacity");
+        assertNull(CuT.at(3), "Future board found");
+        assertNull(CuT.at(-1), "Negative version found");
+    }
+
+    @Test
+    void checkChanges() {
+        String moved = START.substring(0, 33) + "r" + START.substring(34, 40) + "." + START.substring(41);
+        assertEquals(Arrays.asList("41r", "50."), BoardHistory.changes(position(START), position(moved)),
+                "Move not found");
+        assertEquals(Collections.emptyList(), BoardHistory.changes(position(START), position(START)),
+                "Same board changed");
+    }
+
+    @Test
+    void checkMatchRecordsTurns() {
+        Match match = new Match(new Player("One"), new Player("Two"));
+        Move move = new Move(new Position(5, 0), new Position(4, 1));
+        match.move(move);
+        match.endTurn(Collections.singletonList(move));
+
+        BoardHistory.Entry latest = match.getBoardHistory().latest();
+        assertEquals(1, latest.getVersion(), "Turn not recorded");
+        assertEquals(Arrays.asList("41r", "50."),
+                BoardHistory.changes(match.getBoardHistory().at(0), latest.getPosition()), "Turn not on the board");
+    }
+}
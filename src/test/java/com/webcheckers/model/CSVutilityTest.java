@@ -0,0 +1,130 @@
+package com.webcheckers.model;
+
+import com.webcheckers.util.AtomicFiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class CSVutilityTest {
+    private CSVutility CuT;
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("statistics");
+        file = directory.resolve("Statistics.csv");
+        CuT = new CSVutility(file);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        for (Path path : Files.list(directory).toArray(Path[]::new))
+            Files.delete(path);
+        Files.delete(directory);
+    }
+
+    @Test
+    void checkEditPlayerRecords() {
+        Player player = CuT.findPlayer("One");
+        player.addWon();
+        player.setRating(1516.0);
+        assertTrue(CuT.editPlayerRecords(player), "Records not saved");
+
+        Player found = CuT.findPlayer("One");
+        assertEquals(1, found.getWon(), "Wins not saved");
+        assertEquals(1516.0, found.getRating(), "Rating not saved");
+        assertFalse(Files.exists(AtomicFiles.tempFileFor(file)), "Temporary file left behind");
+    }
+
+    @Test
+    void checkConcurrentEdits() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Player player = new Player("P" + i, i, i, 0, 0, 0);
+            threads.add(new Thread(() -> assertTrue(CuT.editPlayerRecords(player), "Records not saved")));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        List<Player> players = CuT.readPlayers();
+        assertEquals(16, players.size(), "An edit was lost");
+        for (Player player : players)
+            assertEquals(Integer.parseInt(player.getName().substring(1)), player.getWon(), "Wrong wins saved");
+    }
+
+    @Test
+    void checkRepair() throws IOException {
+        String[] good = CSVutility.toRecord(new Player("Good", 3, 2, 1, 4, 5));
+        String[] damaged = CSVutility.toRecord(new Player("Damaged", 3, 2, 1, 4, 5));
+        damaged[1] = "30";
+        Files.write(file, Arrays.asList(
+                quote(good),
+                quote(damaged),
+                "\"Legacy\",\"4\",\"1\",\"3\",\"40\",\"30\"",
+                "\"Good\",\"1\",\"1\",\"0\",\"0\",\"0\"",
+                "\"Torn\",\"4\""), StandardCharsets.UTF_8);
+        Files.write(AtomicFiles.tempFileFor(file), Arrays.asList("half written"), StandardCharsets.UTF_8);
+
+        assertEquals(4, CuT.verifyAndRepair(), "Wrong number of records repaired");
+        assertFalse(Files.exists(AtomicFiles.tempFileFor(file)), "Crashed temporary file not deleted");
+        List<Player> players = CuT.readPlayers();
+        assertEquals(2, players.size(), "Bad records kept");
+        assertEquals("Legacy", players.get(1).getName(), "Legacy record not kept");
+        assertEquals(3, Files.readAllLines(file.resolveSibling("Statistics.csv" + CSVutility.REJECTED_SUFFIX)).size(),
+                "Bad records not moved aside");
+        // the legacy record now has a checksum
+        assertEquals(0, CuT.verifyAndRepair(), "Repaired file still needs repair");
+    }
+
+    @Test
+    void checkChecksum() {
+        String[] record = CSVutility.toRecord(new Player("One"));
+        assertEquals(CSVutility.RECORD_LENGTH, record.length, "Wrong record length");
+        assertEquals("One", CSVutility.toPlayer(record).getName(), "Record does not read back");
+        record[2] = "1";
+        assertThrows(IllegalArgumentException.class, () -> CSVutility.toPlayer(record), "Damage not detected");
+    }
+
+    private static String quote(String[] record) {
+        return "\"" + String.join("\",\"", record) + "\"";
+    }
+
+    @Test
+    void checkGameResults() throws IOException {
+        Path results = directory.resolve(CSVutility.RESULTS_FILE_NAME);
+        GameResult first = new GameResult("One", "Two", 7);
+        GameResult second = new GameResult("Two", "One", 8);
+        assertTrue(CuT.appendGameResult(first), "Result not saved");
+        // a crash while appending cuts the last line short, and a damaged line is skipped
+        Files.write(results, Arrays.asList("\"Two\",\"One\",\"9\",\"00000000\""), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        Files.write(results, "\"Thr".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertTrue(CuT.appendGameResult(second), "Result after a cut short line not saved");
+
+        assertEquals(Arrays.asList(first, second), CuT.readGameResults(), "Damaged results not skipped");
+    }
+
+    @Test
+    void checkLegacyGameResults() throws IOException {
+        Files.write(directory.resolve(CSVutility.RESULTS_FILE_NAME), Arrays.asList("\"One\",\"Two\",\"7\""),
+                StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(new GameResult("One", "Two", 7)), CuT.readGameResults(),
+                "Result without a checksum not read");
+    }
+}
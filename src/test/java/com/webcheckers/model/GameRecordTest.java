@@ -0,0 +1,91 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class GameRecordTest {
+
+    // the moves of seven turns as red sees the board, two of them jumps
+    private static final int[][] TURNS = {
+            {5, 2, 4, 3}, {2, 5, 3, 4}, {4, 3, 2, 5}, {1, 6, 3, 4}, {5, 0, 4, 1}, {2, 3, 3, 2}, {4, 1, 2, 3}};
+
+    private Match match;
+    private List<byte[]> turns;
+    private List<int[]> positions;
+
+    /**
+     * Play the turns on a match, noting the moves and the position after each
+     */
+    @BeforeEach
+    void setup() {
+        match = new Match(new Player("One"), new Player("Two"));
+        turns = new ArrayList<>();
+        positions = new ArrayList<>();
+        positions.add(match.getBoardHistory().latest().getPosition());
+        for (int[] turn : TURNS) {
+            Piece.Color mover = match.getActiveColor();
+            List<Move> moves = Collections.singletonList(mover == Piece.Color.RED
+                    ? new Move(new Position(turn[0], turn[1]), new Position(turn[2], turn[3]))
+                    : new Move(new Position(7 - turn[0], 7 - turn[1]), new Position(7 - turn[2], 7 - turn[3])));
+            assertTrue(match.playTurn(match.getCurrentPlayer(), moves).isPlayed(),
+                    "Turn " + Arrays.toString(turn) + " refused");
+            turns.add(GameRecord.squares(moves, mover));
+            positions.add(match.getBoardHistory().latest().getPosition());
+        }
+    }
+
+    private GameRecord record(int interval) {
+        return GameRecord.of(7, "One", "Two", "One has won.", 1000, positions.get(0), Piece.Color.RED, turns,
+                interval);
+    }
+
+    /**
+     * Checks every turn of a record against the positions of the match
+     */
+    private void assertSeeks(GameRecord CuT) {
+        assertEquals(TURNS.length, CuT.numTurns(), "Turns lost");
+        for (int turn = 0; turn <= CuT.numTurns(); turn++) {
+            int[] masks = new int[BoardCodec.MASKS];
+            Piece.Color toMove = CuT.seek(turn, masks);
+            assertEquals(BoardHistory.squares(positions.get(turn)), BoardHistory.squares(masks),
+                    "Wrong position after turn " + turn);
+            assertEquals(turn % 2 == 0 ? Piece.Color.RED : Piece.Color.WHITE, toMove,
+                    "Wrong color to move after turn " + turn);
+        }
+    }
+
+    @Test
+    void checkSeek() {
+        assertSeeks(record(1));
+        assertSeeks(record(3));
+        assertSeeks(record(GameRecord.DEFAULT_KEYFRAME_INTERVAL));
+        assertThrows(IllegalArgumentException.class, () -> record(3).seek(TURNS.length + 1,
+                new int[BoardCodec.MASKS]), "Seeked past the end");
+    }
+
+    @Test
+    void checkEncode() throws IOException {
+        GameRecord CuT = GameRecord.decode(record(3).encode());
+        assertEquals(7, CuT.getId(), "Id lost");
+        assertEquals("One", CuT.getRedPlayer(), "Red player lost");
+        assertEquals("Two", CuT.getWhitePlayer(), "White player lost");
+        assertEquals("One has won.", CuT.getMessage(), "End lost");
+        assertEquals(1000, CuT.getTime(), "Time lost");
+        assertEquals(3, CuT.getKeyframeInterval(), "Interval lost");
+        assertTrue(CuT.isPlayedBy("Two"), "Player not found");
+        assertFalse(CuT.isPlayedBy("Three"), "Player found");
+        assertSeeks(CuT);
+        assertThrows(IOException.class, () -> GameRecord.decode(Arrays.copyOf(record(3).encode(), 40)),
+                "Cut record read");
+    }
+}
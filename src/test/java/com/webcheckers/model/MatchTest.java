@@ -1,10 +1,19 @@
 package com.webcheckers.model;
 
+import com.webcheckers.ui.PostPlayTurnRoute;
 import com.webcheckers.ui.PostValidateMoveRoute;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -54,6 +63,60 @@ public class MatchTest {
         assertEquals(match.getWinner(), winner, "getWinner functions incorrectly.");
     }
 
+    @Test
+    public void testCaptureAllEndsMatch() throws IOException {
+        // red at (5, 2) can jump white's last piece at (4, 3)
+        int[] position = new int[BoardCodec.MASKS];
+        position[BoardCodec.RED] = 1 << BoardCodec.square(5, 2);
+        position[BoardCodec.WHITE] = 1 << BoardCodec.square(4, 3);
+        byte[] board = new byte[BoardCodec.BYTES];
+        BoardCodec.write(position, Piece.Color.RED, board, 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(match.getId() + 1000);
+        out.writeUTF("user");
+        out.writeUTF("user2");
+        out.write(board);
+        out.writeInt(20);
+        out.writeByte(0);
+        out.writeByte(0);
+        Match endgame = Match.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                name -> name.equals("user") ? redPlayer : whitePlayer);
+        List<String> heard = new ArrayList<>();
+        endgame.addListener(new MatchListener() {
+            @Override
+            public void turnEnded(Match ended, Player mover, List<Move> turn) {
+                heard.add("turn " + ended.getGameOverMessage());
+            }
+
+            @Override
+            public void gameEnded(Match ended) {
+                heard.add("end " + ended.getGameOverMessage());
+            }
+        });
+
+        assertTrue(endgame.playTurn(redPlayer, Collections.singletonList(
+                new Move(new Position(5, 2), new Position(3, 4)))).isPlayed(), "Red's jump refused.");
+        assertEquals(redPlayer, endgame.getWinner(), "Capturing every piece did not win.");
+        assertEquals(Match.STATE.finished, endgame.isGameResigned(), "Match not finished.");
+        assertEquals(true, endgame.getModeOptions().get("isGameOver"), "Game over not shown.");
+        assertEquals(Arrays.asList("turn user has captured all the pieces.", "end user has captured all the pieces."),
+                heard, "Listeners not told the turn ended the match.");
+    }
+
+    @Test
+    public void testPlayTurnOnlyOnTurn(){
+        List<Move> turn = Collections.singletonList(new Move(new Position(5, 0), new Position(4, 1)));
+        TurnResult played = match.playTurn(redPlayer, turn);
+        assertTrue(played.isPlayed(), "Red's turn refused.");
+        assertEquals(match.getStateVersion(), played.getVersion(), "Version of the turn not sent back.");
+        // the same turn sent again: red must not get to move white's pieces
+        TurnResult again = match.playTurn(redPlayer, turn);
+        assertFalse(again.isPlayed(), "Red played white's turn.");
+        assertEquals(PostPlayTurnRoute.NOT_YOUR_TURN_ERROR, again.getMessage(), "Wrong reason.");
+        assertEquals(Piece.Color.WHITE, match.getActiveColor(), "Turn changed by a refused turn.");
+    }
+
 //    @Test
 //    public void testValidateMoveJump() {
 //        Piece piece = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
@@ -69,4 +69,18 @@ public class PlayerTest {
         player.addLost();
         assertEquals(player.getLost(), player2.getLost(), "Win not added correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void checkRatio() {
+        Player player2 = new Player(name2);
+        assertEquals("undefined", player2.getRatio(), "Ratio defined without games");
+        player2.addWon();
+        player2.addLost();
+        assertEquals("0.5", player2.getRatio(), "Wrong ratio");
+    }
+
+    @Test
+    public void checkDefaultRating() {
+        assertEquals(Player.DEFAULT_RATING, player.getRating(), "New player has the wrong rating");
+    }
+}
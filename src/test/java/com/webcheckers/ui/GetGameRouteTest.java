@@ -1,18 +1,26 @@
 package com.webcheckers.ui;
 
+import com.google.gson.Gson;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.PushService;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.model.Match;
 import com.webcheckers.model.Player;
+import com.webcheckers.util.ETag;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import spark.*;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @Tag("UI-tier")
@@ -27,6 +35,7 @@ public class GetGameRouteTest {
 
     private PlayerServices playerServices;
     private GameCenter gameCenter;
+    private LeaderboardService leaderboardService;
 
     /**
      * Setup new mock objects for each test.
@@ -42,9 +51,10 @@ public class GetGameRouteTest {
         //create required parameters
         playerServices = new PlayerServices();
         gameCenter = new GameCenter(playerServices);
+        leaderboardService = new LeaderboardService();
 
         // create a unique CuT for each test
-        CuT = new GetGameRoute(playerServices,gameCenter,engine);
+        CuT = new GetGameRoute(playerServices, gameCenter, leaderboardService, mock(Storage.class), new PushService(new Gson()), engine);
     }
 
     /**
@@ -71,7 +81,7 @@ public class GetGameRouteTest {
 
     @Test
     void checkHandle() {
-        GetGameRoute gameRoute = new GetGameRoute(playerServices, gameCenter, engine);
+        GetGameRoute gameRoute = new GetGameRoute(playerServices, gameCenter, leaderboardService, mock(Storage.class), new PushService(new Gson()), engine);
         try {
             assertEquals(gameRoute.handle(request, response), CuT.handle(request, response), "Handle not functioning properly");
         } catch (HaltException he) {
@@ -79,4 +89,29 @@ public class GetGameRouteTest {
         }
         verify(response).redirect(WebServer.HOME_URL);
     }
+
+    @Test
+    void checkNotModified() {
+        Player red = new Player("One");
+        playerServices.addPlayer(red);
+        playerServices.addPlayer(new Player("Two"));
+        gameCenter.addMatch(red, playerServices.getPlayer("Two"));
+        Match match = gameCenter.getMatch(red);
+        when(session.attribute(GetHomeRoute.PLAYERSERVICES_KEY)).thenReturn(playerServices);
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+        when(engine.render(any(ModelAndView.class))).thenReturn("page");
+
+        assertEquals("page", CuT.handle(request, response), "Page not rendered");
+        ArgumentCaptor<String> tag = ArgumentCaptor.forClass(String.class);
+        verify(response).header(eq(ETag.HEADER), tag.capture());
+
+        when(request.headers(ETag.IF_NONE_MATCH)).thenReturn("W/" + tag.getValue());
+        assertEquals("", CuT.handle(request, response), "Unchanged page rendered again");
+        verify(response).status(304);
+        verify(engine, times(1)).render(any(ModelAndView.class));
+
+        match.changeActiveColor();
+        assertEquals("page", CuT.handle(request, response), "Changed page not rendered");
+        verify(engine, times(2)).render(any(ModelAndView.class));
+    }
 }
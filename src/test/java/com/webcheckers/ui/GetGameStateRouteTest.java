@@ -0,0 +1,113 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetGameStateRouteTest {
+    private GetGameStateRoute CuT;
+
+    private Request request;
+    private Session session;
+    private Response response;
+    private Gson gson = new Gson();
+
+    private PlayerServices playerServices;
+    private GameCenter gameCenter;
+    private Match match;
+
+    @BeforeEach
+    void setup() {
+        request = mock(Request.class);
+        session = mock(Session.class);
+        when(request.session()).thenReturn(session);
+        response = mock(Response.class);
+
+        playerServices = new PlayerServices();
+        gameCenter = new GameCenter(playerServices);
+        Player red = new Player("One");
+        Player white = new Player("Two");
+        playerServices.addPlayer(red);
+        playerServices.addPlayer(white);
+        gameCenter.addMatch(red, white);
+        match = gameCenter.getMatch(red);
+
+        CuT = new GetGameStateRoute(playerServices, gameCenter, gson);
+    }
+
+    /**
+     * Ask for the state as a player, from a version
+     */
+    private JsonObject state(String player, String since) {
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn(player);
+        when(request.queryParams(GetGameStateRoute.SINCE_PARAM)).thenReturn(since);
+        return gson.fromJson((String) CuT.handle(request, response), JsonObject.class);
+    }
+
+    /**
+     * Red plays their first turn
+     */
+    private void redMoves() {
+        Move move = new Move(new Position(5, 0), new Position(4, 1));
+        match.move(move);
+        match.endTurn(Collections.singletonList(move));
+    }
+
+    @Test
+    void checkFullBoard() {
+        JsonObject state = state("One", null);
+        assertEquals(0, state.get("version").getAsLong(), "Wrong version");
+        assertEquals("RED", state.get("activeColor").getAsString(), "Wrong active color");
+        assertEquals(64, state.get("board").getAsString().length(), "Whole board not sent");
+        assertFalse(state.has("changes"), "Changes sent with the whole board");
+        assertFalse(state.getAsJsonObject("modeOptions").get("isGameOver").getAsBoolean(), "Game over");
+    }
+
+    @Test
+    void checkChangesSince() {
+        redMoves();
+        JsonObject red = state("One", "0");
+        assertEquals(1, red.get("version").getAsLong(), "Wrong version");
+        assertEquals("WHITE", red.get("activeColor").getAsString(), "Turn not changed");
+        assertFalse(red.has("board"), "Whole board sent");
+        assertEquals("[\"41r\",\"50.\"]", red.get("changes").toString(), "Wrong changes for red");
+
+        JsonObject white = state("Two", "0");
+        assertEquals("[\"27.\",\"36r\"]", white.get("changes").toString(), "White's changes not turned around");
+
+        assertEquals(0, state("One", "1").getAsJsonArray("changes").size(), "Changes sent when up to date");
+    }
+
+    @Test
+    void checkTooFarBehind() {
+        for (int i = 0; i < 20; i++)
+            match.getBoardHistory().record(match.getBoardHistory().latest().getPosition());
+        assertTrue(state("One", "0").has("board"), "Whole board not sent to a player too far behind");
+        assertTrue(state("One", "nonsense").has("board"), "Whole board not sent for a bad version");
+    }
+
+    @Test
+    void checkNotInGame() {
+        playerServices.addPlayer(new Player("Three"));
+        JsonObject state = state("Three", null);
+        verify(response).status(404);
+        assertEquals("ERROR", state.get("type").getAsString(), "No error for a player not in a game");
+    }
+}
@@ -14,7 +14,10 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.SpectatorService;
 
 import spark.HaltException;
 import spark.ModelAndView;
@@ -49,7 +52,8 @@ public class GetHomeRouteTest {
         gameCenter = new GameCenter(playerServices);
         player = mock(Player.class);
 
-        CuT = new GetHomeRoute(playerServices, gameCenter, engine);
+        CuT = new GetHomeRoute(playerServices, gameCenter, new LeaderboardService(), mock(ReplayArchive.class),
+                new SpectatorService(), engine);
     }
 
     /**
@@ -0,0 +1,62 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetLeaderboardRouteTest {
+    private GetLeaderboardRoute CuT;
+
+    private Request request;
+    private Response response;
+    private Gson gson = new Gson();
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+
+        leaderboardService = new LeaderboardService();
+        leaderboardService.loadAll(Arrays.asList(new Player("One", 10, 7, 3, 20, 5),
+                new Player("Two", 4, 1, 3, 40, 30), new Player("Three", 10, 2, 8, 9, 9)));
+
+        CuT = new GetLeaderboardRoute(leaderboardService, gson);
+    }
+
+    @Test
+    void checkPage() {
+        when(request.queryParams(GetLeaderboardRoute.METRIC_PARAM)).thenReturn("won");
+        when(request.queryParams(GetLeaderboardRoute.PAGE_PARAM)).thenReturn("2");
+        when(request.queryParams(GetLeaderboardRoute.PAGE_SIZE_PARAM)).thenReturn("1");
+
+        JsonObject page = gson.fromJson((String) CuT.handle(request, response), JsonObject.class);
+        assertEquals("WON", page.get("metric").getAsString(), "Wrong metric");
+        assertEquals(2, page.get("firstRank").getAsInt(), "Wrong first rank");
+        assertEquals("Three", page.getAsJsonArray("players").get(0).getAsJsonObject().get("name").getAsString(),
+                "Wrong player on the page");
+        verify(response).type("application/json");
+    }
+
+    @Test
+    void checkDefaults() {
+        when(request.queryParams(GetLeaderboardRoute.PAGE_PARAM)).thenReturn("not a number");
+
+        JsonObject page = gson.fromJson((String) CuT.handle(request, response), JsonObject.class);
+        assertEquals("GAMES", page.get("metric").getAsString(), "Games is not the default");
+        assertEquals(1, page.get("page").getAsInt(), "First page is not the default");
+        assertEquals(3, page.getAsJsonArray("players").size(), "Wrong number of players");
+    }
+}
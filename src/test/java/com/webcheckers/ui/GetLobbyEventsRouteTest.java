@@ -0,0 +1,191 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetLobbyEventsRouteTest {
+    private GetLobbyEventsRoute CuT;
+
+    private Request request;
+    private Session session;
+    private Response response;
+    private AsyncContext async;
+    private BrowserStream written;
+
+    private PlayerServices playerServices;
+
+    /**
+     * The stream to a browser, which takes what is written only while it is ready
+     */
+    private static final class BrowserStream extends ServletOutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            if (!ready)
+                throw new IllegalStateException("written while not ready");
+            bytes.write(b);
+        }
+
+        /**
+         * The browser takes what it was sent, and the stream is ready again
+         */
+        void drain() throws IOException {
+            ready = true;
+            listener.onWritePossible();
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        request = mock(Request.class);
+        session = mock(Session.class);
+        when(request.session()).thenReturn(session);
+        response = mock(Response.class);
+
+        HttpServletRequest raw = mock(HttpServletRequest.class);
+        async = mock(AsyncContext.class);
+        ServletResponse asyncResponse = mock(ServletResponse.class);
+        written = new BrowserStream();
+        when(request.raw()).thenReturn(raw);
+        when(raw.isAsyncSupported()).thenReturn(true);
+        when(raw.startAsync()).thenReturn(async);
+        when(response.raw()).thenReturn(mock(HttpServletResponse.class));
+        when(async.getResponse()).thenReturn(asyncResponse);
+        when(asyncResponse.getOutputStream()).thenReturn(written);
+
+        playerServices = new PlayerServices();
+        // events are written on the publishing thread so the test can see them straight away
+        CuT = new GetLobbyEventsRoute(playerServices, new Gson(), Runnable::run);
+    }
+
+    @Test
+    void checkSignedOutRefused() {
+        CuT.handle(request, response);
+        verify(response).status(204);
+        assertEquals(0, CuT.numStreams(), "Stream opened without a player");
+    }
+
+    @Test
+    void checkEventsStreamed() {
+        Player one = new Player("One");
+        Player two = new Player("Two");
+        playerServices.addPlayer(one);
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+
+        assertEquals("", CuT.handle(request, response), "Stream answered at once");
+        verify(response).type("text/event-stream");
+        assertEquals(1, CuT.numStreams(), "Stream not held open");
+
+        playerServices.addPlayer(two);
+        playerServices.challenge(two, one);
+        playerServices.challenge(one, two);
+
+        String stream = written.toString();
+        assertTrue(stream.startsWith("retry: "), "Reconnect delay not sent");
+        assertTrue(stream.contains("data: {\"type\":\"joined\",\"player\":\"Two\""), "Sign in not streamed");
+        assertFalse(stream.contains("\"opponent\":\"One\""), "Another player's challenge streamed");
+        assertTrue(stream.contains("\"opponent\":\"Two\""), "Challenge not streamed");
+        verify(async, never()).complete();
+    }
+
+    @Test
+    void checkSlowStreamClosed() {
+        playerServices.addPlayer(new Player("One"));
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+        // nothing is written until the test runs the writer, as if the browser were slow
+        List<Runnable> pending = new ArrayList<>();
+        CuT = new GetLobbyEventsRoute(playerServices, new Gson(), pending::add);
+        CuT.handle(request, response);
+
+        for (int i = 0; i <= GetLobbyEventsRoute.QUEUE_CAPACITY; i++)
+            playerServices.addPlayer(new Player("Player" + i));
+        pending.forEach(Runnable::run);
+
+        verify(async).complete();
+        assertEquals(0, CuT.numStreams(), "Slow stream still open");
+        assertEquals(0, playerServices.getLobbyEvents().numSubscribers(), "Slow stream still subscribed");
+    }
+
+    @Test
+    void checkStalledBrowserClosed() {
+        playerServices.addPlayer(new Player("One"));
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+        CuT.handle(request, response);
+
+        // the browser stops taking what is written, and the writers never block on it
+        written.ready = false;
+        for (int i = 0; CuT.numStreams() > 0 && i < GetLobbyEventsRoute.PENDING_BYTES; i++)
+            playerServices.addPlayer(new Player("Player" + i));
+
+        verify(async).complete();
+        assertEquals(0, CuT.numStreams(), "Stalled stream still open");
+    }
+
+    @Test
+    void checkHeartbeatSkippedWhileWriting() throws IOException {
+        playerServices.addPlayer(new Player("One"));
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+        written.ready = false;
+        CuT.handle(request, response);
+
+        CuT.beat();
+        written.drain();
+        assertTrue(written.toString().startsWith("retry: "), "Kept text not sent");
+        assertFalse(written.toString().contains("keep-alive"), "Heartbeat queued behind a write");
+
+        CuT.beat();
+        assertTrue(written.toString().contains(": keep-alive"), "Idle stream not kept alive");
+    }
+
+    @Test
+    void checkShutdownClosesStreams() {
+        playerServices.addPlayer(new Player("One"));
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+        CuT.handle(request, response);
+
+        CuT.shutdown();
+        verify(async).complete();
+        assertEquals(0, CuT.numStreams(), "Stream left open at shutdown");
+    }
+}
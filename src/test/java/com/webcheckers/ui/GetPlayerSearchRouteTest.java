@@ -0,0 +1,75 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetPlayerSearchRouteTest {
+    private GetPlayerSearchRoute CuT;
+
+    private Request request;
+    private Response response;
+    private Gson gson = new Gson();
+
+    @BeforeEach
+    void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+
+        PlayerServices playerServices = new PlayerServices();
+        playerServices.addPlayer(new Player("Anna"));
+        playerServices.addPlayer(new Player("Bob"));
+        LeaderboardService leaderboardService = new LeaderboardService();
+        leaderboardService.loadAll(Arrays.asList(new Player("Anna"), new Player("Andy"), new Player("Bob")));
+
+        CuT = new GetPlayerSearchRoute(playerServices, leaderboardService, gson);
+    }
+
+    @Test
+    void checkOnline() {
+        when(request.queryParams(GetPlayerSearchRoute.PREFIX_PARAM)).thenReturn("an");
+
+        JsonArray players = gson.fromJson((String) CuT.handle(request, response), JsonObject.class)
+                .getAsJsonArray("players");
+        assertEquals(1, players.size(), "Offline players searched");
+        assertEquals("Anna", players.get(0).getAsJsonObject().get("name").getAsString(), "Wrong player");
+        verify(response).type("application/json");
+    }
+
+    @Test
+    void checkAll() {
+        when(request.queryParams(GetPlayerSearchRoute.PREFIX_PARAM)).thenReturn("AN");
+        when(request.queryParams(GetPlayerSearchRoute.SCOPE_PARAM)).thenReturn(GetPlayerSearchRoute.ALL_SCOPE);
+
+        JsonArray players = gson.fromJson((String) CuT.handle(request, response), JsonObject.class)
+                .getAsJsonArray("players");
+        assertEquals(2, players.size(), "Registered players not searched");
+        assertEquals("Andy", players.get(0).getAsJsonObject().get("name").getAsString(), "Not in name order");
+        assertFalse(players.get(0).getAsJsonObject().get("online").getAsBoolean(), "Andy is not online");
+        assertTrue(players.get(1).getAsJsonObject().get("online").getAsBoolean(), "Anna is online");
+    }
+
+    @Test
+    void checkLimit() {
+        when(request.queryParams(GetPlayerSearchRoute.SCOPE_PARAM)).thenReturn(GetPlayerSearchRoute.ALL_SCOPE);
+        when(request.queryParams(GetPlayerSearchRoute.LIMIT_PARAM)).thenReturn("1");
+
+        JsonArray players = gson.fromJson((String) CuT.handle(request, response), JsonObject.class)
+                .getAsJsonArray("players");
+        assertEquals(1, players.size(), "Limit not kept");
+    }
+}
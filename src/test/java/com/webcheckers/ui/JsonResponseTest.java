@@ -0,0 +1,92 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("UI-tier")
+public class JsonResponseTest {
+    private Gson gson = new Gson();
+
+    @Test
+    void checkMessageBytes() {
+        for (Message message : new Message[]{PostValidateMoveRoute.END_ERROR, Message.info("It's <Bob> & \"Al\""),
+                Message.info("café"), new Message(null, Message.Type.ERROR)}) {
+            assertEquals(gson.toJson(message), new String(message.toJsonBytes(), StandardCharsets.UTF_8),
+                    "Not what Gson writes for " + message);
+        }
+        assertSame(PostCheckTurnRoute.isYourTurn.toJsonBytes(), PostCheckTurnRoute.isYourTurn.toJsonBytes(),
+                "Bytes encoded again");
+        assertEquals("{\"text\":\"true\",\"type\":\"INFO\"}", gson.toJson(PostCheckTurnRoute.isYourTurn),
+                "Cached bytes written by Gson");
+    }
+
+    @Test
+    void checkMessage() {
+        Response response = mock(Response.class);
+        assertEquals(gson.toJson(PostCheckTurnRoute.notYourTurn),
+                JsonResponse.message(response, PostCheckTurnRoute.notYourTurn), "Text not returned without a servlet");
+        when(response.raw()).thenReturn(mock(HttpServletResponse.class));
+        assertSame(PostCheckTurnRoute.notYourTurn.toJsonBytes(),
+                JsonResponse.message(response, PostCheckTurnRoute.notYourTurn), "Kept bytes not returned");
+    }
+
+    @Test
+    void checkWrite() throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        HttpServletResponse raw = mock(HttpServletResponse.class);
+        when(raw.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // written at once
+            }
+
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+        });
+        Response response = mock(Response.class);
+        when(response.raw()).thenReturn(raw);
+
+        assertEquals("", JsonResponse.write(response, writer -> {
+            writer.beginObject();
+            writer.name("version").value(3);
+            writer.endObject();
+        }), "Written answer returned as well");
+        assertEquals("{\"version\":3}", new String(written.toByteArray(), StandardCharsets.UTF_8),
+                "Answer not streamed");
+    }
+
+    @Test
+    void checkModeOptions() {
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("isGameOver", true);
+        options.put("gameOverMessage", "Bob's pieces are gone");
+        assertEquals(gson.toJson(options), JsonResponse.modeOptions("Bob's pieces are gone"), "Wrong game over");
+        JsonObject playing = gson.fromJson(JsonResponse.modeOptions(null), JsonObject.class);
+        assertFalse(playing.get("isGameOver").getAsBoolean(), "Game over while playing");
+        assertFalse(playing.has("gameOverMessage"), "Null message written");
+    }
+}
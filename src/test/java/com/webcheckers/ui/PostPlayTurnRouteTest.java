@@ -0,0 +1,107 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("UI-tier")
+public class PostPlayTurnRouteTest {
+    private PostPlayTurnRoute CuT;
+
+    private Request request;
+    private Session session;
+    private Response response;
+    private Gson gson = new Gson();
+
+    private PlayerServices playerServices;
+    private GameCenter gameCenter;
+    private Match match;
+
+    @BeforeEach
+    void setup() {
+        request = mock(Request.class);
+        session = mock(Session.class);
+        when(request.session()).thenReturn(session);
+        response = mock(Response.class);
+
+        playerServices = new PlayerServices();
+        gameCenter = new GameCenter(playerServices);
+        Player red = new Player("One");
+        playerServices.addPlayer(red);
+        playerServices.addPlayer(new Player("Two"));
+        gameCenter.addMatch(red, playerServices.getPlayer("Two"));
+        match = gameCenter.getMatch(red);
+
+        CuT = new PostPlayTurnRoute(playerServices, gameCenter, gson);
+    }
+
+    /**
+     * Send a turn as a player and read the answer
+     */
+    private JsonObject play(String name, String turn) {
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn(name);
+        when(request.queryParams(PostValidateMoveRoute.ACTION_DATA)).thenReturn(turn);
+        return gson.fromJson((String) CuT.handle(request, response), JsonObject.class);
+    }
+
+    /**
+     * Write a move as JSON
+     */
+    private static String move(int fromRow, int fromCell, int toRow, int toCell) {
+        return "{\"start\":{\"row\":" + fromRow + ",\"cell\":" + fromCell + "},"
+                + "\"end\":{\"row\":" + toRow + ",\"cell\":" + toCell + "}}";
+    }
+
+    @Test
+    void checkPlayed() {
+        long version = match.getStateVersion();
+        JsonObject answer = play("One", "[" + move(5, 0, 4, 1) + "]");
+        assertEquals("INFO", answer.get("type").getAsString(), "Legal turn refused");
+        assertTrue(answer.get("version").getAsLong() > version, "No new version sent");
+        assertEquals("Two", match.getCurrentPlayer().getName(), "Turn not handed over");
+        assertNotNull(match.getRedBoardView().getSpace(4, 1).getPiece(), "Move not played");
+        assertEquals(1, match.getBoardHistory().latest().getVersion(), "Turn not recorded");
+    }
+
+    @Test
+    void checkRefused() {
+        JsonObject answer = play("One", "[" + move(5, 0, 4, 1) + "," + move(4, 1, 3, 2) + "]");
+        assertEquals("ERROR", answer.get("type").getAsString(), "Second move after a move allowed");
+        assertEquals(1, answer.get("index").getAsInt(), "Wrong move refused");
+        assertEquals(PostValidateMoveRoute.MULTIPLE_ERROR.getText(), answer.get("text").getAsString(),
+                "Wrong reason");
+        assertEquals("One", match.getCurrentPlayer().getName(), "Turn handed over");
+        assertNull(match.getRedBoardView().getSpace(4, 1).getPiece(), "Part of the turn played");
+        assertTrue(match.getMoves().isEmpty(), "Refused moves kept");
+
+        answer = play("One", "[" + move(4, 1, 3, 2) + "]");
+        assertEquals(PostSubmitTurnRoute.NO_PIECE_ERROR.getText(), answer.get("text").getAsString(),
+                "Moved from an empty square");
+        answer = play("One", "[" + move(5, 0, 9, 1) + "]");
+        assertEquals(PostSubmitTurnRoute.OFF_BOARD_ERROR.getText(), answer.get("text").getAsString(),
+                "Moved off the board");
+    }
+
+    @Test
+    void checkNotYourTurn() {
+        JsonObject answer = play("Two", "[" + move(5, 0, 4, 1) + "]");
+        assertEquals(PostPlayTurnRoute.NOT_YOUR_TURN_ERROR.getText(), answer.get("text").getAsString(),
+                "White moved first");
+        assertEquals(PostPlayTurnRoute.BAD_TURN_ERROR.getText(), play("One", "{").get("text").getAsString(),
+                "Bad JSON read");
+        assertEquals(0, play("One", "[]").get("index").getAsInt(), "Empty turn played");
+    }
+}
@@ -1,4 +1,112 @@
 package com.webcheckers.ui;
 
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
+import com.webcheckers.appl.MatchEventLog;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.Storage;
+import com.webcheckers.model.GameRecord;
+import com.webcheckers.model.GameResult;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.MatchEvent;
+import com.webcheckers.model.Player;
+import com.webcheckers.util.SegmentedLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import spark.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
 public class PostResignGameRouteTest {
+    private PostResignGameRoute CuT;
+
+    private Request request;
+    private Session session;
+    private Response response;
+    private Storage storage;
+    private Path directory;
+
+    private PlayerServices playerServices;
+    private GameCenter gameCenter;
+    private MatchEventLog eventLog;
+    private ReplayArchive replayArchive;
+
+    @BeforeEach
+    void setup() throws IOException {
+        request = mock(Request.class);
+        session = mock(Session.class);
+        when(request.session()).thenReturn(session);
+        response = mock(Response.class);
+        storage = mock(Storage.class);
+
+        directory = Files.createTempDirectory("resign");
+        SegmentedLog events = new SegmentedLog(directory.resolve("events"), SegmentedLog.DEFAULT_SEGMENT_BYTES);
+        events.open();
+        eventLog = new MatchEventLog(events);
+        SegmentedLog replays = new SegmentedLog(directory.resolve("replays"), SegmentedLog.DEFAULT_SEGMENT_BYTES);
+        replays.open();
+        replayArchive = new ReplayArchive(replays, GameRecord.DEFAULT_KEYFRAME_INTERVAL);
+
+        playerServices = new PlayerServices();
+        gameCenter = new GameCenter(playerServices);
+        gameCenter.addMatchListener(eventLog);
+        gameCenter.addMatchListener(replayArchive);
+        when(session.attribute(GetHomeRoute.PLAYERSERVICES_KEY)).thenReturn(playerServices);
+
+        CuT = new PostResignGameRoute(playerServices, gameCenter, new LeaderboardService(), storage,
+                mock(TemplateEngine.class), new Gson());
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        eventLog.close();
+        replayArchive.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    @Test
+    void checkOpponentWinsResignation() throws IOException {
+        Player red = new Player("One");
+        Player white = new Player("Two");
+        playerServices.addPlayer(red);
+        playerServices.addPlayer(white);
+        gameCenter.addMatch(red, white);
+        Match match = gameCenter.getMatch(red);
+        // red resigns
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+
+        CuT.handle(request, response);
+
+        assertEquals(white, match.getWinner(), "The player who resigned won");
+        assertEquals("One has resigned.", match.getGameOverMessage(), "Wrong player named as resigning");
+        ArgumentCaptor<GameResult> result = ArgumentCaptor.forClass(GameResult.class);
+        verify(storage).appendGameResult(result.capture());
+        assertEquals("Two", result.getValue().getWinner(), "Wrong winner rated");
+        List<MatchEvent> events = new ArrayList<>();
+        eventLog.read(events::add);
+        MatchEvent ended = events.get(events.size() - 1);
+        assertEquals(MatchEvent.Type.RESIGNED, ended.getType(), "Resignation not logged");
+        assertEquals("Two", ended.getWinner(), "Wrong winner logged");
+        assertEquals("One has resigned.", replayArchive.get(match.getId()).getMessage(),
+                "Wrong player archived as resigning");
+    }
 }
@@ -3,6 +3,7 @@ package com.webcheckers.ui;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.webcheckers.model.Player;
@@ -12,7 +13,11 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.LeaderboardService;
 import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.ReplayArchive;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.appl.Storage;
 
 import spark.HaltException;
 import spark.ModelAndView;
@@ -42,12 +47,14 @@ public class PostSignInRouteTest {
     // friendly objects
     private PlayerServices playerServices;
     private GameCenter gameCenter;
+    private LeaderboardService leaderboardService;
 
     // mock objects
     private Request request;
     private Session session;
     private TemplateEngine engine;
     private Response response;
+    private Storage storage;
 
     /**
      * Setup new mock objects for each test.
@@ -59,12 +66,15 @@ public class PostSignInRouteTest {
         when(request.session()).thenReturn(session);
         response = mock(Response.class);
         engine = mock(TemplateEngine.class);
+        storage = mock(Storage.class);
+        when(storage.findOrAddPlayer(any(String.class))).thenAnswer(call -> new Player(call.getArgument(0)));
 
         // create a unique CuT for each test
         // the GameCenter is friendly but the engine mock will need configuration
         playerServices = new PlayerServices();
         gameCenter = new GameCenter(playerServices);
-        CuT = new PostSignInRoute(playerServices, engine);
+        leaderboardService = new LeaderboardService();
+        CuT = new PostSignInRoute(playerServices, gameCenter, leaderboardService, storage, engine);
     }
 
     /**
@@ -89,11 +99,13 @@ public class PostSignInRouteTest {
         // Invoke the test
         assertThrows(HaltException.class, () -> {
             CuT.handle(request, response); }, "Redirect to ./home");
+        verify(storage).findOrAddPlayer(username);
 
         // Now the previous condition passed, redirect to GetHomeRoute
         //when(request.session().attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn(username);
         when(request.session().attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn(username);
-        GetHomeRoute redirectToHome = new GetHomeRoute(playerServices, gameCenter, engine);
+        GetHomeRoute redirectToHome = new GetHomeRoute(playerServices, gameCenter, leaderboardService,
+                mock(ReplayArchive.class), new SpectatorService(), engine);
         redirectToHome.handle(request, response);
 
         // Analyze the results:
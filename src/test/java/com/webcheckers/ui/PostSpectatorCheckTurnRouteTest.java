@@ -0,0 +1,104 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.appl.SpectatorService;
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.ETag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.*;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class PostSpectatorCheckTurnRouteTest {
+    private PostSpectatorCheckTurnRoute CuT;
+
+    private Request request;
+    private Session session;
+    private Response response;
+    private Gson gson = new Gson();
+
+    private PlayerServices playerServices;
+    private GameCenter gameCenter;
+    private SpectatorService spectatorService;
+    private Match match;
+    private String key;
+
+    @BeforeEach
+    void setup() {
+        request = mock(Request.class);
+        session = mock(Session.class);
+        when(request.session()).thenReturn(session);
+        response = mock(Response.class);
+
+        playerServices = new PlayerServices();
+        gameCenter = new GameCenter(playerServices);
+        spectatorService = new SpectatorService();
+        gameCenter.addMatchListener(spectatorService);
+        Player red = new Player("One");
+        gameCenter.addMatch(red, new Player("Two"));
+        match = gameCenter.getMatch(red);
+
+        // a third player watching
+        playerServices.addPlayer(new Player("Three"));
+        when(session.attribute(GetHomeRoute.PLAYERSERVICES_KEY)).thenReturn(playerServices);
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("Three");
+        when(request.queryParams(GetSpectatorGameRoute.GAME_ID_PARAM)).thenReturn(Long.toString(match.getId()));
+        key = GetSpectatorGameRoute.VERSION_KEY + match.getId();
+
+        CuT = new PostSpectatorCheckTurnRoute(playerServices, gameCenter, spectatorService);
+    }
+
+    @Test
+    void checkNoTurn() {
+        when(session.attribute(key)).thenReturn(spectatorService.frame(match.getId()).getVersion());
+
+        assertEquals(gson.toJson(PostSpectatorCheckTurnRoute.UNCHANGED_MESSAGE), CuT.handle(request, response),
+                "Spectator told of a turn not played");
+        verify(response).header(ETag.HEADER,
+                PostSpectatorCheckTurnRoute.checkTag(spectatorService.frame(match.getId())));
+    }
+
+    @Test
+    void checkNotModified() {
+        String tag = PostSpectatorCheckTurnRoute.checkTag(spectatorService.frame(match.getId()));
+        when(request.headers(ETag.IF_NONE_MATCH)).thenReturn(tag);
+
+        assertEquals("", CuT.handle(request, response), "Answered although nothing changed");
+        verify(response).status(304);
+        verify(session, never()).attribute(key);
+    }
+
+    @Test
+    void checkTurnPlayed() {
+        when(session.attribute(key)).thenReturn(spectatorService.frame(match.getId()).getVersion());
+        String tag = PostSpectatorCheckTurnRoute.checkTag(spectatorService.frame(match.getId()));
+        when(request.headers(ETag.IF_NONE_MATCH)).thenReturn(tag);
+        assertTrue(match.playTurn(match.getRedPlayer(),
+                Collections.singletonList(new Move(new Position(5, 0), new Position(4, 1)))).isPlayed(),
+                "Red's turn refused");
+
+        assertEquals(gson.toJson(PostSpectatorCheckTurnRoute.CHANGED_MESSAGE), CuT.handle(request, response),
+                "Spectator not told of the turn");
+        verify(response, never()).status(304);
+    }
+
+    @Test
+    void checkUnknownGame() {
+        when(request.queryParams(GetSpectatorGameRoute.GAME_ID_PARAM)).thenReturn("nope");
+
+        assertEquals(gson.toJson(GetSpectatorGameRoute.NO_GAME_MESSAGE), CuT.handle(request, response),
+                "Unknown game watched");
+    }
+}
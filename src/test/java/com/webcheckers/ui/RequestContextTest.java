@@ -0,0 +1,68 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerServices;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class RequestContextTest {
+    private Request request;
+    private Session session;
+
+    private PlayerServices playerServices;
+    private GameCenter gameCenter;
+    private Player red;
+
+    @BeforeEach
+    void setup() {
+        request = mock(Request.class);
+        session = mock(Session.class);
+
+        playerServices = new PlayerServices();
+        gameCenter = new GameCenter(playerServices);
+        red = new Player("One");
+        playerServices.addPlayer(red);
+        playerServices.addPlayer(new Player("Two"));
+        gameCenter.addMatch(red, playerServices.getPlayer("Two"));
+    }
+
+    @Test
+    void checkResolve() {
+        when(session.attribute(GetHomeRoute.PLAYERSERVICES_KEY)).thenReturn(playerServices);
+        when(session.attribute(GetHomeRoute.CURRENT_USERNAME_KEY)).thenReturn("One");
+        RequestContext CuT = RequestContext.resolve(session, playerServices, gameCenter);
+        assertTrue(CuT.isStarted(), "Started session not seen");
+        assertEquals("One", CuT.getName(), "Wrong name");
+        assertSame(red, CuT.getPlayer(), "Wrong player");
+        assertSame(gameCenter.getMatch(red), CuT.getMatch(), "Wrong match");
+
+        assertSame(RequestContext.NONE, RequestContext.resolve(null, playerServices, gameCenter),
+                "Context made without a session");
+        assertSame(RequestContext.NONE, RequestContext.resolve(mock(Session.class), playerServices, gameCenter),
+                "Context made for a session that never saw the Home page");
+    }
+
+    @Test
+    void checkFilter() throws Exception {
+        when(request.session(false)).thenReturn(null);
+        RequestContext.filter(playerServices, gameCenter).handle(request, mock(Response.class));
+        verify(request).attribute(RequestContext.CONTEXT_ATTR, RequestContext.NONE);
+        verify(request, never()).session();
+
+        when(request.attribute(RequestContext.CONTEXT_ATTR)).thenReturn(RequestContext.NONE);
+        assertSame(RequestContext.NONE, RequestContext.of(request, playerServices, gameCenter),
+                "Context of the filter not used");
+        verify(request, times(1)).attribute(eq(RequestContext.CONTEXT_ATTR), any(RequestContext.class));
+    }
+}
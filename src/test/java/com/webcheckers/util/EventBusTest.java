@@ -0,0 +1,81 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class EventBusTest {
+    private EventBus<String> CuT;
+
+    @BeforeEach
+    void setup() {
+        CuT = new EventBus<>();
+    }
+
+    @Test
+    void checkPublish() {
+        EventBus.Subscription<String> first = CuT.subscribe(4);
+        EventBus.Subscription<String> second = CuT.subscribe(4);
+        CuT.publish("a");
+        CuT.publish("b");
+
+        List<String> events = new ArrayList<>();
+        first.drainTo(events);
+        assertEquals(Arrays.asList("a", "b"), events, "Events not queued in order");
+        assertEquals(2, second.size(), "Second subscriber missed events");
+        assertEquals(0, first.size(), "Events not taken");
+    }
+
+    @Test
+    void checkFilter() {
+        EventBus.Subscription<String> subscription = CuT.subscribe(4, event -> event.startsWith("x"));
+        CuT.publish("a");
+        CuT.publish("xa");
+        assertEquals(1, subscription.size(), "Filter not applied");
+    }
+
+    @Test
+    void checkSlowSubscriberDropped() {
+        EventBus.Subscription<String> slow = CuT.subscribe(2);
+        EventBus.Subscription<String> fast = CuT.subscribe(2);
+        AtomicInteger told = new AtomicInteger();
+        slow.setListener(told::incrementAndGet);
+
+        CuT.publish("a");
+        CuT.publish("b");
+        fast.drainTo(new ArrayList<>());
+        CuT.publish("c");
+
+        assertTrue(slow.isDropped(), "Full subscriber not dropped");
+        assertFalse(fast.isDropped(), "Subscriber keeping up was dropped");
+        assertEquals(3, told.get(), "Listener not told of the drop");
+        assertEquals(1, CuT.numSubscribers(), "Dropped subscriber still subscribed");
+        assertEquals(1, CuT.numDropped(), "Drop not counted");
+
+        CuT.publish("d");
+        assertEquals(2, slow.size(), "Dropped subscriber still receiving");
+        assertEquals(2, fast.size(), "Subscriber keeping up missed events");
+    }
+
+    @Test
+    void checkCancel() {
+        EventBus.Subscription<String> subscription = CuT.subscribe(4);
+        subscription.cancel();
+        CuT.publish("a");
+        assertEquals(0, subscription.size(), "Cancelled subscriber still receiving");
+        assertEquals(0, CuT.numSubscribers(), "Cancelled subscriber still subscribed");
+    }
+
+    @Test
+    void checkBadCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> CuT.subscribe(0), "Empty queue allowed");
+    }
+}
@@ -0,0 +1,108 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class IndexedSkipListTest {
+    private IndexedSkipList<Integer> CuT;
+
+    @BeforeEach
+    void setup() {
+        CuT = new IndexedSkipList<>(Comparator.naturalOrder(), new Random(42));
+    }
+
+    @Test
+    void checkAddKeepsOrder() {
+        CuT.add(5);
+        CuT.add(1);
+        CuT.add(3);
+        assertEquals(3, CuT.size(), "Size not updated");
+        assertEquals(Arrays.asList(1, 3, 5), CuT.subList(0, 10), "Elements not sorted");
+        assertFalse(CuT.add(3), "Duplicate element added");
+    }
+
+    @Test
+    void checkIndexOf() {
+        CuT.add(10);
+        CuT.add(20);
+        CuT.add(30);
+        assertEquals(0, CuT.indexOf(10), "Wrong rank of first element");
+        assertEquals(2, CuT.indexOf(30), "Wrong rank of last element");
+        assertEquals(-1, CuT.indexOf(25), "Missing element found");
+    }
+
+    @Test
+    void checkRemove() {
+        CuT.add(1);
+        CuT.add(2);
+        CuT.add(3);
+        assertTrue(CuT.remove(2), "Element not removed");
+        assertFalse(CuT.remove(2), "Element removed twice");
+        assertEquals(Arrays.asList(1, 3), CuT.subList(0, 10), "Wrong elements after remove");
+        assertEquals(1, CuT.indexOf(3), "Rank not updated after remove");
+    }
+
+    @Test
+    void checkSubListBounds() {
+        CuT.add(1);
+        assertTrue(CuT.subList(5, 3).isEmpty(), "Page past the end is not empty");
+        assertThrows(IndexOutOfBoundsException.class, () -> CuT.get(1), "Index past the end allowed");
+    }
+
+    @Test
+    void checkMatchesSortedList() {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove((Integer) value), CuT.remove(value), "Remove disagrees");
+            } else if (!expected.contains(value)) {
+                expected.add(value);
+                assertTrue(CuT.add(value), "Add disagrees");
+            }
+        }
+        Collections.sort(expected);
+        assertEquals(expected.size(), CuT.size(), "Sizes differ");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), CuT.get(i), "Element at index differs");
+            assertEquals(i, CuT.indexOf(expected.get(i)), "Rank of element differs");
+        }
+    }
+
+    @Test
+    void checkLoadSorted() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            values.add(i * 2);
+        CuT.add(7);
+        CuT.loadSorted(values);
+        assertEquals(500, CuT.size(), "Old elements not cleared");
+        assertEquals(250, CuT.indexOf(500), "Wrong rank after a bulk load");
+        assertEquals(Integer.valueOf(998), CuT.get(499), "Wrong last element");
+
+        // the list still works normally afterwards
+        CuT.add(501);
+        CuT.remove(0);
+        assertEquals(250, CuT.indexOf(501), "Wrong rank after adding to a bulk loaded list");
+        assertEquals(Arrays.asList(500, 501, 502), CuT.subList(249, 3), "Wrong run of elements");
+    }
+
+    @Test
+    void checkLoadSortedRejectsDisorder() {
+        assertThrows(IllegalArgumentException.class, () -> CuT.loadSorted(Arrays.asList(1, 3, 2)),
+                "Out of order elements loaded");
+        assertTrue(CuT.isEmpty(), "List left half loaded");
+    }
+}
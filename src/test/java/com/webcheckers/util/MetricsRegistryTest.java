@@ -0,0 +1,65 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class MetricsRegistryTest {
+    private MetricsRegistry CuT;
+
+    @BeforeEach
+    void setup() {
+        CuT = new MetricsRegistry();
+    }
+
+    @Test
+    void checkBuckets() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1000, 123456789, LatencyHistogram.MAX_MICROS}) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highest(index) >= value, "Bucket ends below " + value);
+            assertTrue(index == 0 || LatencyHistogram.highest(index - 1) < value, "Bucket starts above " + value);
+            assertTrue(LatencyHistogram.highest(index) - value <= value / LatencyHistogram.SUB_BUCKETS,
+                    "Bucket too wide at " + value);
+        }
+    }
+
+    @Test
+    void checkPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5), "Empty histogram answered");
+        for (int micros = 1; micros <= 1000; micros++)
+            histogram.record(micros);
+        assertEquals(1000, histogram.getCount(), "Wrong count");
+        assertEquals(500500, histogram.getSum(), "Wrong sum");
+        assertEquals(1000, histogram.getMax(), "Wrong max");
+        long[] answers = histogram.percentiles(0.5, 0.99, 1);
+        assertEquals(500, answers[0], 500 / LatencyHistogram.SUB_BUCKETS, "Median too far off");
+        assertEquals(990, answers[1], 990 / LatencyHistogram.SUB_BUCKETS, "99th percentile too far off");
+        assertEquals(1000, answers[2], "Top not the max");
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentiles(0.9, 0.5),
+                "Quantiles out of order read");
+    }
+
+    @Test
+    void checkScrape() {
+        LongAdder requests = CuT.counter("requests_total", "Requests.", "route", "/game");
+        requests.add(3);
+        assertSame(requests, CuT.counter("requests_total", "Requests.", "route", "/game"), "Counter not kept");
+        CuT.gauge("players", "Players.", () -> 7);
+        CuT.summary("latency_seconds", "Latency.", "route", "/").record(2000);
+
+        String text = CuT.scrape();
+        assertTrue(text.contains("# TYPE requests_total counter\n"), "Counter type missing");
+        assertTrue(text.contains("requests_total{route=\"/game\"} 3\n"), "Counter missing");
+        assertTrue(text.contains("players 7\n"), "Gauge missing");
+        assertTrue(text.contains("latency_seconds{route=\"/\",quantile=\"0.5\"} 0.00200"), "Quantile missing");
+        assertTrue(text.contains("latency_seconds_count{route=\"/\"} 1\n"), "Count missing");
+        assertThrows(IllegalArgumentException.class, () -> CuT.summary("players", "Players."),
+                "Gauge reused as a summary");
+    }
+}
@@ -0,0 +1,48 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class NameIndexTest {
+    private NameIndex<String> CuT;
+
+    @BeforeEach
+    void setup() {
+        CuT = new NameIndex<>();
+        for (String name : Arrays.asList("bob", "Alice", "alex", "ALAN", "Al", "albert", "Bea"))
+            CuT.put(name, name);
+    }
+
+    @Test
+    void checkStartingWith() {
+        assertEquals(Arrays.asList("Al", "ALAN", "albert", "alex", "Alice"), CuT.startingWith("al", 10),
+                "Prefix not matched ignoring case");
+        assertEquals(Arrays.asList("Al", "ALAN", "albert", "alex", "Alice"), CuT.startingWith("AL", 10),
+                "Upper case prefix not matched");
+        assertEquals(Arrays.asList("Al", "ALAN"), CuT.startingWith("al", 2), "Limit not kept");
+        assertEquals(Collections.singletonList("Bea"), CuT.startingWith("be", 10), "Wrong match");
+        assertTrue(CuT.startingWith("z", 10).isEmpty(), "Match for unknown prefix");
+        assertEquals(7, CuT.startingWith("", 10).size(), "Empty prefix does not match everyone");
+    }
+
+    @Test
+    void checkPutAndRemove() {
+        assertEquals(7, CuT.size(), "Wrong size");
+        assertEquals("bob", CuT.put("bob", "Bob"), "Old value not replaced");
+        assertFalse(CuT.putIfAbsent("bob", "bobby"), "Taken name added");
+        assertTrue(CuT.putIfAbsent("BOB", "BOB"), "Names that differ in case clash");
+        assertEquals(8, CuT.size(), "Wrong size after adding");
+
+        assertEquals("Bob", CuT.remove("bob"), "Wrong value removed");
+        assertNull(CuT.remove("bob"), "Removed twice");
+        assertNull(CuT.get("bob"), "Removed name still found");
+        assertEquals(7, CuT.size(), "Wrong size after removing");
+    }
+}
@@ -0,0 +1,64 @@
+package com.webcheckers.util;
+
+import com.webcheckers.model.Match;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class ProfilerTest {
+    private Profiler CuT;
+    private Path directory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("profiles");
+        CuT = new Profiler(directory);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        CuT.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    @Test
+    void checkRecording() throws IOException {
+        assertNull(CuT.stop(), "Stopped a recording never started");
+        Path file = CuT.start();
+        assertTrue(CuT.isRecording(), "Recording not started");
+        assertEquals(file, CuT.start(), "Second recording started");
+
+        Match match = new Match(new Player("One"), new Player("Two"));
+        match.validateMove(new Move(new Position(5, 0), new Position(4, 1)));
+        assertEquals(file, CuT.stop(), "Wrong file written");
+        assertFalse(CuT.isRecording(), "Recording not stopped");
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("webcheckers.Match"))
+                .collect(Collectors.toList());
+        assertEquals(1, events.size(), "Move not recorded");
+        assertEquals(ProfileEvents.MatchEvent.VALIDATE, events.get(0).getString("operation"), "Wrong operation");
+        assertEquals(match.getId(), events.get(0).getLong("matchId"), "Wrong match");
+        assertEquals("One", events.get(0).getString("player"), "Wrong player");
+    }
+}
@@ -0,0 +1,166 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+public class SegmentedLogTest {
+    private SegmentedLog CuT;
+    private Path directory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("events");
+        CuT = new SegmentedLog(directory, 64);
+        CuT.open();
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        CuT.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(file);
+        }
+    }
+
+    private static byte[] record(int i) {
+        return ("record " + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String> readAll(SegmentedLog log, long from) throws IOException {
+        List<String> records = new ArrayList<>();
+        log.read(from, (sequence, record) -> records.add(sequence + ":" + new String(record, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void checkAppendAndRead() throws IOException {
+        for (int i = 1; i <= 10; i++)
+            assertEquals(i, CuT.append(record(i)), "Sequence numbers not in order");
+        assertEquals(11, CuT.nextSequence(), "Next sequence number wrong");
+        List<String> records = readAll(CuT, 0);
+        assertEquals(10, records.size(), "Records lost");
+        assertEquals("1:record 1", records.get(0), "First record changed");
+        assertEquals("10:record 10", records.get(9), "Last record changed");
+        assertTrue(segments().size() > 1, "Full segment not rolled over");
+        assertEquals("7:record 7", readAll(CuT, 7).get(0), "Reading from a sequence number started elsewhere");
+    }
+
+    @Test
+    void checkDeleteBefore() throws IOException {
+        for (int i = 1; i <= 10; i++)
+            CuT.append(record(i));
+        assertTrue(CuT.deleteBefore(7) > 0, "No segment deleted");
+        assertEquals(0, CuT.deleteBefore(0), "Deleting before the start deleted segments");
+        List<String> records = readAll(CuT, 0);
+        assertTrue(records.contains("7:record 7"), "Record kept was deleted");
+        assertFalse(records.contains("1:record 1"), "Record before was kept");
+        CuT.deleteBefore(Long.MAX_VALUE);
+        assertEquals(1, segments().size(), "Newest segment deleted");
+    }
+
+    @Test
+    void checkReopenCutsTornRecord() throws IOException {
+        for (int i = 1; i <= 3; i++)
+            CuT.append(record(i));
+        CuT.close();
+        List<Path> segments = segments();
+        Path last = segments.get(segments.size() - 1);
+        long size = Files.size(last);
+        // a record the crash cut off half way
+        Files.write(last, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        CuT = new SegmentedLog(directory, 64);
+        CuT.open();
+        assertEquals(size, Files.size(last), "Torn record not cut off");
+        assertEquals(4, CuT.nextSequence(), "Sequence numbers not carried on");
+        assertEquals(4, CuT.append(record(4)), "Append after reopening misnumbered");
+        assertEquals(4, readAll(CuT, 0).size(), "Records lost on reopening");
+    }
+
+    @Test
+    void checkDamagedRecordStopsSegment() throws IOException {
+        CuT.close();
+        CuT = new SegmentedLog(directory, SegmentedLog.DEFAULT_SEGMENT_BYTES);
+        CuT.open();
+        for (int i = 1; i <= 3; i++)
+            CuT.append(record(i));
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        // the last byte of the second record
+        bytes[2 * (16 + record(1).length) - 1] ^= 1;
+        Files.write(segment, bytes);
+        assertEquals(Collections.singletonList("1:record 1"), readAll(CuT, 0), "Damaged record read");
+    }
+
+    @Test
+    void checkConcurrentAppends() throws InterruptedException {
+        Set<Long> sequences = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 25; i++)
+                    sequences.add(CuT.append(record(i)));
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(200, sequences.size(), "Sequence numbers given twice");
+        assertFalse(sequences.contains(-1L), "Append failed");
+        assertEquals(201, CuT.nextSequence(), "Sequence numbers skipped");
+    }
+
+    @Test
+    void checkFailedGroupTakenBack() throws IOException {
+        for (int i = 1; i <= 2; i++)
+            CuT.append(record(i));
+        Path first = segments().get(0);
+        long size = Files.size(first);
+        // the third record fills the segment, and the next one cannot be created
+        Path blocked = directory.resolve(String.format("%020d%s", 3, SegmentedLog.SEGMENT_SUFFIX));
+        Files.createDirectory(blocked);
+
+        assertEquals(-1, CuT.append(record(3)), "Record appended without a segment");
+        assertEquals(size, Files.size(first), "Failed group left in the segment");
+        assertEquals(3, CuT.nextSequence(), "Sequence number of a failed group used up");
+
+        Files.deleteIfExists(blocked);
+        assertEquals(3, CuT.append(record(3)), "Log not written after a failed group");
+        assertEquals(Arrays.asList("1:record 1", "2:record 2", "3:record 3"), readAll(CuT, 0),
+                "Records out of order after a failed group");
+    }
+
+    @Test
+    void checkClosedLogRefusesAppends() {
+        CuT.close();
+        assertEquals(-1, CuT.append(record(1)), "Closed log appended to");
+    }
+}